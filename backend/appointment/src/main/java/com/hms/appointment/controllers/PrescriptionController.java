@@ -8,6 +8,7 @@ import com.hms.appointment.dto.response.PrescriptionResponse;
 import com.hms.appointment.services.PrescriptionService;
 import com.hms.common.dto.response.PagedResponse;
 import com.hms.common.dto.response.ResponseWrapper;
+import com.hms.common.pdf.PdfDocument;
 import com.hms.common.security.SecurityUtils;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +20,7 @@ import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/prescriptions")
@@ -97,13 +99,13 @@ public class PrescriptionController implements PrescriptionControllerDocs {
 
   @GetMapping("/{id}/pdf")
   @PreAuthorize("hasAnyRole('DOCTOR', 'PATIENT', 'ADMIN')")
-  public ResponseEntity<byte[]> downloadPrescriptionPdf(@PathVariable Long id, Authentication authentication) {
+  public ResponseEntity<StreamingResponseBody> downloadPrescriptionPdf(@PathVariable Long id, Authentication authentication) {
     Long requesterId = SecurityUtils.getUserId(authentication);
-    byte[] pdfBytes = prescriptionService.generatePrescriptionPdf(id, requesterId);
+    PdfDocument pdf = prescriptionService.generatePrescriptionPdf(id, requesterId);
 
     return ResponseEntity.ok()
       .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_PDF_VALUE)
       .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("receita_" + id + ".pdf").build().toString())
-      .body(pdfBytes);
+      .body(pdf::writeTo);
   }
 }
\ No newline at end of file
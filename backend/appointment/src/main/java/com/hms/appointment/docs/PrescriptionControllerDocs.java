@@ -19,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Prescrições", description = "Endpoints para gerenciamento de prescrições médicas")
 @SecurityRequirement(name = "bearerAuth")
@@ -105,12 +106,13 @@ public interface PrescriptionControllerDocs {
     @Parameter(hidden = true) Authentication authentication
   );
 
-  @Operation(summary = "Download PDF da prescrição", description = "Gera e baixa o PDF de uma prescrição (Requer DOCTOR, PATIENT ou ADMIN).")
+  @Operation(summary = "Download PDF da prescrição", description = "Gera e baixa o PDF de uma prescrição, enviado conforme é renderizado (Requer DOCTOR, PATIENT ou ADMIN).")
   @ApiResponses({
     @ApiResponse(responseCode = "200", description = "PDF gerado com sucesso"),
-    @ApiResponse(responseCode = "404", description = "Prescrição não encontrada", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Prescrição não encontrada", content = @Content),
+    @ApiResponse(responseCode = "503", description = "Geração de PDF sobrecarregada, tente novamente", content = @Content)
   })
-  ResponseEntity<byte[]> downloadPrescriptionPdf(
+  ResponseEntity<StreamingResponseBody> downloadPrescriptionPdf(
     @Parameter(description = "ID da prescrição") @PathVariable Long id,
     @Parameter(hidden = true) Authentication authentication
   );
@@ -37,6 +37,10 @@ public class Prescription {
   @Column(nullable = false)
   private PrescriptionStatus status = PrescriptionStatus.ISSUED;
 
+  // incrementada a cada alteração; compõe a chave do PDF em cache
+  @Version
+  private Long version;
+
   // Método auxiliar para sincronizar a relação bidirecional
   public void setMedicines(List<Medicine> medicines) {
     this.medicines.clear();
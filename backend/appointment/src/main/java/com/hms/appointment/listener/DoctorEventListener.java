@@ -5,6 +5,7 @@ import com.hms.appointment.dto.event.DoctorEvent;
 import com.hms.appointment.entities.DoctorReadModel;
 import com.hms.appointment.repositories.DoctorReadModelRepository;
 import com.hms.common.dto.event.EventEnvelope;
+import com.hms.common.idempotency.IdempotentListener;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -18,6 +19,7 @@ public class DoctorEventListener {
   private final DoctorReadModelRepository repository;
 
   @RabbitListener(queues = RabbitMQConfig.DOCTOR_QUEUE)
+  @IdempotentListener
   public void handleDoctorEvent(EventEnvelope<DoctorEvent> envelope) {
     try {
       DoctorEvent event = envelope.getPayload();
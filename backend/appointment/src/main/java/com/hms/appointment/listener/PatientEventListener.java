@@ -6,6 +6,7 @@ import com.hms.appointment.dto.event.UserCreatedEvent;
 import com.hms.appointment.entities.PatientReadModel;
 import com.hms.appointment.repositories.PatientReadModelRepository;
 import com.hms.common.dto.event.EventEnvelope;
+import com.hms.common.idempotency.IdempotentListener;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -21,6 +22,7 @@ public class PatientEventListener {
   private final PatientReadModelRepository repository;
 
   @RabbitListener(queues = RabbitMQConfig.PATIENT_QUEUE)
+  @IdempotentListener
   public void handlePatientEvent(EventEnvelope<PatientEvent> envelope) {
     try {
       PatientEvent event = envelope.getPayload();
@@ -51,6 +53,7 @@ public class PatientEventListener {
   }
 
   @RabbitListener(queues = RabbitMQConfig.USER_SYNC_QUEUE)
+  @IdempotentListener
   public void handleUserCreated(EventEnvelope<UserCreatedEvent> envelope) {
     try {
       UserCreatedEvent event = envelope.getPayload();
@@ -4,6 +4,7 @@ import com.hms.appointment.config.RabbitMQConfig;
 import com.hms.appointment.dto.event.PrescriptionDispensedEvent;
 import com.hms.appointment.services.PrescriptionService;
 import com.hms.common.dto.event.EventEnvelope;
+import com.hms.common.idempotency.IdempotentListener;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -17,6 +18,7 @@ public class PrescriptionEventListener {
   private final PrescriptionService prescriptionService;
 
   @RabbitListener(queues = RabbitMQConfig.PRESCRIPTION_DISPENSED_QUEUE)
+  @IdempotentListener
   public void handlePrescriptionDispensed(EventEnvelope<PrescriptionDispensedEvent> envelope) {
     try {
       PrescriptionDispensedEvent event = envelope.getPayload();
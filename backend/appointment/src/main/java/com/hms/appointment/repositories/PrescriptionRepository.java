@@ -1,9 +1,11 @@
 package com.hms.appointment.repositories;
 
 import com.hms.appointment.entities.Prescription;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -17,4 +19,9 @@ public interface PrescriptionRepository extends JpaRepository<Prescription, Long
   Page<Prescription> findByAppointmentPatientId(@Param("patientId") Long patientId, Pageable pageable);
 
   Optional<Prescription> findFirstByAppointmentPatientIdOrderByCreatedAtDesc(Long patientId);
+
+  // força o incremento da versão: trocar só os medicamentos (lado inverso da relação) não altera a linha da prescrição
+  @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+  @Query("SELECT p FROM Prescription p WHERE p.id = :id")
+  Optional<Prescription> findByIdForUpdate(@Param("id") Long id);
 }
\ No newline at end of file
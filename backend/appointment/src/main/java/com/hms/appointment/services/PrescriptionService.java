@@ -4,6 +4,7 @@ import com.hms.appointment.dto.request.PrescriptionCreateRequest;
 import com.hms.appointment.dto.request.PrescriptionUpdateRequest;
 import com.hms.appointment.dto.response.PrescriptionForPharmacyResponse;
 import com.hms.appointment.dto.response.PrescriptionResponse;
+import com.hms.common.pdf.PdfDocument;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,5 +24,5 @@ public interface PrescriptionService {
 
   PrescriptionResponse getLatestPrescriptionByPatientId(Long patientId);
 
-  byte[] generatePrescriptionPdf(Long prescriptionId, Long requesterId);
+  PdfDocument generatePrescriptionPdf(Long prescriptionId, Long requesterId);
 }
\ No newline at end of file
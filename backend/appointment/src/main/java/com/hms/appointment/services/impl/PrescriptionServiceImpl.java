@@ -23,6 +23,9 @@ import com.hms.common.dto.response.ResponseWrapper;
 import com.hms.common.exceptions.AccessDeniedException;
 import com.hms.common.exceptions.InvalidOperationException;
 import com.hms.common.exceptions.ResourceNotFoundException;
+import com.hms.common.pdf.PdfCache;
+import com.hms.common.pdf.PdfDocument;
+import com.hms.common.pdf.PdfRenderer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -44,10 +47,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PrescriptionServiceImpl implements PrescriptionService {
 
+  private static final String PDF_CACHE = "prescriptions";
+
   private final PrescriptionRepository prescriptionRepository;
   private final AppointmentRepository appointmentRepository;
   private final ProfileFeignClient profileClient;
-  private final PdfGeneratorService pdfGeneratorService;
+  private final PdfRenderer pdfRenderer;
+  private final PdfCache pdfCache;
   private final RabbitTemplate rabbitTemplate;
   private final PatientReadModelRepository patientReadModelRepository;
   private final DoctorReadModelRepository doctorReadModelRepository;
@@ -126,7 +132,7 @@ public class PrescriptionServiceImpl implements PrescriptionService {
   public PrescriptionResponse updatePrescription(Long prescriptionId, PrescriptionUpdateRequest request, Long userDoctorId) {
     Long doctorProfileId = resolveDoctorId(userDoctorId);
 
-    Prescription prescription = prescriptionRepository.findById(prescriptionId)
+    Prescription prescription = prescriptionRepository.findByIdForUpdate(prescriptionId)
       .orElseThrow(() -> new ResourceNotFoundException("Prescription", prescriptionId));
 
     validateDoctorAuthority(prescription.getAppointment(), doctorProfileId);
@@ -135,6 +141,7 @@ public class PrescriptionServiceImpl implements PrescriptionService {
     prescription.setNotes(request.notes());
 
     Prescription savedPrescription = prescriptionRepository.save(prescription);
+    pdfCache.evict(PDF_CACHE, prescriptionId);
 
     publishPrescriptionEvent(savedPrescription);
 
@@ -189,6 +196,7 @@ public class PrescriptionServiceImpl implements PrescriptionService {
 
     prescription.setStatus(PrescriptionStatus.DISPENSED);
     prescriptionRepository.save(prescription);
+    pdfCache.evict(PDF_CACHE, prescriptionId);
     log.info("Prescrição ID {} marcada como aviada.", prescriptionId);
   }
 
@@ -202,7 +210,7 @@ public class PrescriptionServiceImpl implements PrescriptionService {
   }
 
   @Override
-  public byte[] generatePrescriptionPdf(Long prescriptionId, Long requesterUserId) {
+  public PdfDocument generatePrescriptionPdf(Long prescriptionId, Long requesterUserId) {
     Prescription prescription = prescriptionRepository.findById(prescriptionId)
       .orElseThrow(() -> new ResourceNotFoundException("Prescription", prescriptionId));
 
@@ -229,8 +237,18 @@ public class PrescriptionServiceImpl implements PrescriptionService {
       throw new AccessDeniedException("Acesso negado ao PDF da prescrição.");
     }
 
-    Map<String, Object> data = buildPdfContext(prescription);
-    return pdfGeneratorService.generatePdfFromHtml("prescription-template", data);
+    // permissão e dados do perfil resolvidos aqui; a conversão roda no pool do renderizador ao escrever a resposta.
+    // Mesma versão da prescrição = mesmo PDF: no hit não há chamadas ao profile-service nem renderização
+    return pdfCache.get(PDF_CACHE, prescription.getId(), prescription.getVersion(),
+      () -> renderPrescriptionPdf(prescription));
+  }
+
+  // com nomes de fallback ("Dr. Desconhecido") o PDF vai para o cliente mas não para o cache da versão
+  private PdfDocument renderPrescriptionPdf(Prescription prescription) {
+    Map<String, Object> data = new HashMap<>();
+    boolean complete = buildPdfContext(prescription, data);
+    PdfDocument document = pdfRenderer.document("prescription-template", data);
+    return complete ? document : PdfDocument.uncached(document);
   }
 
   private void validateDoctorAuthority(Appointment appointment, Long doctorProfileId) {
@@ -256,10 +274,12 @@ public class PrescriptionServiceImpl implements PrescriptionService {
     }).collect(Collectors.toList());
   }
 
-  private Map<String, Object> buildPdfContext(Prescription prescription) {
+  // preenche data e diz se médico e paciente vieram do profile-service
+  private boolean buildPdfContext(Prescription prescription, Map<String, Object> data) {
     String doctorName = "Dr. Desconhecido";
     String doctorCrm = "N/A";
     String patientName = "Paciente";
+    boolean complete = true;
 
     try {
       ResponseWrapper<DoctorProfile> response = profileClient.getDoctor(prescription.getAppointment().getDoctorId());
@@ -267,16 +287,20 @@ public class PrescriptionServiceImpl implements PrescriptionService {
       if (doctor != null) {
         doctorName = doctor.name();
         doctorCrm = doctor.crmNumber();
+      } else {
+        complete = false;
       }
       PatientProfile patient = profileClient.getPatient(prescription.getAppointment().getPatientId());
       if (patient != null) {
         patientName = patient.name();
+      } else {
+        complete = false;
       }
     } catch (Exception e) {
       log.warn("Falha ao obter dados de perfil para PDF: {}", e.getMessage());
+      complete = false;
     }
 
-    Map<String, Object> data = new HashMap<>();
     data.put("prescriptionId", prescription.getId());
     data.put("createdAt", prescription.getCreatedAt());
     data.put("patientName", patientName);
@@ -284,7 +308,7 @@ public class PrescriptionServiceImpl implements PrescriptionService {
     data.put("doctorCrm", doctorCrm);
     data.put("medicines", prescription.getMedicines());
     data.put("notes", prescription.getNotes() != null ? prescription.getNotes() : "");
-    return data;
+    return complete;
   }
 
   private void publishPrescriptionEvent(Prescription prescription) {
@@ -0,0 +1,6 @@
+-- ============================================================
+-- V4__prescription_version.sql
+-- Versão da prescrição (@Version): chave do cache de PDF e controle otimista de concorrência
+-- ============================================================
+
+ALTER TABLE tb_prescriptions ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -15,12 +15,21 @@ public class RabbitMQConfig {
   public static final String BILLING_PHARMACY_QUEUE = "billing.pharmacy.sale.queue";
   public static final String PHARMACY_SALE_ROUTING_KEY = "pharmacy.sale.created";
 
+  // read models de médico (taxa de consulta) e paciente (userId -> patientId)
+  public static final String DOCTOR_QUEUE = "billing.doctor.sync.queue";
+  public static final String DOCTOR_ROUTING_KEY = "doctor.*";
+  public static final String PATIENT_QUEUE = "billing.patient.sync.queue";
+  public static final String PATIENT_ROUTING_KEY = "patient.*";
+
   @Value("${application.rabbitmq.queues.appointment-billing}")
   private String billingQueue;
 
   @Value("${application.rabbitmq.exchanges.internal}")
   private String internalExchange;
 
+  @Value("${application.rabbitmq.exchanges.profile}")
+  private String profileExchange;
+
   @Value("${application.rabbitmq.routing-keys.appointment-completed}")
   private String appointmentCompletedRoutingKey;
 
@@ -60,9 +69,35 @@ public class RabbitMQConfig {
   }
 
   @Bean
-  public Binding pharmacySaleBinding(Queue billingPharmacyQueue, TopicExchange exchange) {
+  public Binding pharmacySaleBinding(Queue billingPharmacyQueue, TopicExchange internalExchange) {
     return BindingBuilder.bind(billingPharmacyQueue)
-      .to(exchange)
+      .to(internalExchange)
       .with(PHARMACY_SALE_ROUTING_KEY);
   }
+
+  // --- EVENTOS DO PROFILE SERVICE ---
+  @Bean
+  public TopicExchange profileExchange() {
+    return new TopicExchange(profileExchange);
+  }
+
+  @Bean
+  public Queue doctorQueue() {
+    return new Queue(DOCTOR_QUEUE, true);
+  }
+
+  @Bean
+  public Binding doctorBinding(Queue doctorQueue, TopicExchange profileExchange) {
+    return BindingBuilder.bind(doctorQueue).to(profileExchange).with(DOCTOR_ROUTING_KEY);
+  }
+
+  @Bean
+  public Queue patientQueue() {
+    return new Queue(PATIENT_QUEUE, true);
+  }
+
+  @Bean
+  public Binding patientBinding(Queue patientQueue, TopicExchange profileExchange) {
+    return BindingBuilder.bind(patientQueue).to(profileExchange).with(PATIENT_ROUTING_KEY);
+  }
 }
\ No newline at end of file
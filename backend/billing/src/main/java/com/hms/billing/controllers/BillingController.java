@@ -1,10 +1,12 @@
 package com.hms.billing.controllers;
 
 import com.hms.billing.docs.BillingControllerDocs;
+import com.hms.billing.dto.response.InvoicePageResponse;
 import com.hms.billing.entities.Invoice;
 import com.hms.billing.entities.PatientInsurance;
 import com.hms.billing.services.BillingService;
 import com.hms.common.dto.response.ResponseWrapper;
+import com.hms.common.pdf.PdfDocument;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -13,6 +15,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -29,8 +32,12 @@ public class BillingController implements BillingControllerDocs {
   }
 
   @GetMapping("/invoices/doctor/{doctorId}")
-  public ResponseEntity<ResponseWrapper<List<Invoice>>> getDoctorInvoices(@PathVariable String doctorId) {
-    return ResponseEntity.ok(ResponseWrapper.success(billingService.getInvoicesByDoctor(doctorId)));
+  public ResponseEntity<ResponseWrapper<InvoicePageResponse>> getDoctorInvoices(
+    @PathVariable String doctorId,
+    @RequestParam(required = false) String cursor,
+    @RequestParam(defaultValue = "50") int size
+  ) {
+    return ResponseEntity.ok(ResponseWrapper.success(billingService.getInvoicesByDoctor(doctorId, cursor, size)));
   }
 
   @PostMapping("/insurance")
@@ -53,19 +60,22 @@ public class BillingController implements BillingControllerDocs {
   }
 
   @GetMapping("/invoices/pending-insurance")
-  public ResponseEntity<ResponseWrapper<List<Invoice>>> getPendingInsuranceInvoices() {
-    return ResponseEntity.ok(ResponseWrapper.success(billingService.getPendingInsuranceInvoices()));
+  public ResponseEntity<ResponseWrapper<InvoicePageResponse>> getPendingInsuranceInvoices(
+    @RequestParam(required = false) String cursor,
+    @RequestParam(defaultValue = "50") int size
+  ) {
+    return ResponseEntity.ok(ResponseWrapper.success(billingService.getPendingInsuranceInvoices(cursor, size)));
   }
 
   @GetMapping("/invoices/{id}/pdf")
   @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN', 'DOCTOR')")
-  public ResponseEntity<byte[]> downloadInvoicePdf(@PathVariable Long id) {
-    byte[] pdfBytes = billingService.generateInvoicePdf(id);
+  public ResponseEntity<StreamingResponseBody> downloadInvoicePdf(@PathVariable Long id) {
+    PdfDocument pdf = billingService.generateInvoicePdf(id);
 
     return ResponseEntity.ok()
       .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_PDF_VALUE)
       .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"fatura_" + id + ".pdf\"")
-      .body(pdfBytes);
+      .body(pdf::writeTo);
   }
 
   public record InsuranceRequest(String patientId, Long providerId, String policyNumber) {
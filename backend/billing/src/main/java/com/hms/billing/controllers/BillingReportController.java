@@ -0,0 +1,45 @@
+package com.hms.billing.controllers;
+
+import com.hms.billing.docs.BillingReportControllerDocs;
+import com.hms.billing.dto.response.ArAgingResponse;
+import com.hms.billing.dto.response.RevenueReportResponse;
+import com.hms.billing.enums.LedgerDimension;
+import com.hms.billing.services.LedgerService;
+import com.hms.common.dto.response.ResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/billing/reports")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class BillingReportController implements BillingReportControllerDocs {
+
+  private final LedgerService ledgerService;
+
+  @GetMapping("/revenue")
+  public ResponseEntity<ResponseWrapper<RevenueReportResponse>> getRevenue(
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+    @RequestParam(defaultValue = "DAY") LedgerDimension groupBy
+  ) {
+    // padrão: mês corrente
+    LocalDate end = to != null ? to : LocalDate.now();
+    LocalDate start = from != null ? from : end.withDayOfMonth(1);
+    return ResponseEntity.ok(ResponseWrapper.success(ledgerService.getRevenue(start, end, groupBy)));
+  }
+
+  @GetMapping("/ar-aging")
+  public ResponseEntity<ResponseWrapper<ArAgingResponse>> getArAging(
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+    @RequestParam(required = false) Long providerId
+  ) {
+    return ResponseEntity.ok(ResponseWrapper.success(
+      ledgerService.getArAging(asOf != null ? asOf : LocalDate.now(), providerId)));
+  }
+}
@@ -0,0 +1,34 @@
+package com.hms.billing.controllers;
+
+import com.hms.billing.docs.InsuranceSettlementControllerDocs;
+import com.hms.billing.dto.response.SettlementReportResponse;
+import com.hms.billing.enums.RemittanceFormat;
+import com.hms.billing.services.InsuranceSettlementService;
+import com.hms.common.dto.response.ResponseWrapper;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/billing/insurance/settlements")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class InsuranceSettlementController implements InsuranceSettlementControllerDocs {
+
+  private final InsuranceSettlementService settlementService;
+
+  // o corpo é o próprio arquivo, lido em streaming (sem multipart, que guardaria o upload inteiro antes)
+  @PostMapping(consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<ResponseWrapper<SettlementReportResponse>> settle(HttpServletRequest request) throws IOException {
+    RemittanceFormat format = request.getContentType() != null && request.getContentType().contains("json")
+      ? RemittanceFormat.JSON
+      : RemittanceFormat.CSV;
+    SettlementReportResponse report = settlementService.settle(request.getInputStream(), format);
+    return ResponseEntity.ok(ResponseWrapper.success(report, "Repasse processado."));
+  }
+}
@@ -0,0 +1,51 @@
+package com.hms.billing.controllers;
+
+import com.hms.billing.docs.InvoiceExportControllerDocs;
+import com.hms.billing.dto.request.InvoiceExportRequest;
+import com.hms.billing.dto.response.InvoiceExportJobResponse;
+import com.hms.billing.services.InvoiceExportService;
+import com.hms.common.dto.response.ResponseWrapper;
+import com.hms.common.security.SecurityUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/billing/exports")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class InvoiceExportController implements InvoiceExportControllerDocs {
+
+  private final InvoiceExportService exportService;
+
+  @PostMapping
+  public ResponseEntity<ResponseWrapper<InvoiceExportJobResponse>> submitExport(@RequestBody InvoiceExportRequest request, Authentication authentication) {
+    Long userId = SecurityUtils.getUserId(authentication);
+    return ResponseEntity.status(HttpStatus.ACCEPTED)
+      .body(ResponseWrapper.success(exportService.submit(request, userId), "Exportação iniciada."));
+  }
+
+  @GetMapping("/{id}")
+  public ResponseEntity<ResponseWrapper<InvoiceExportJobResponse>> getExport(@PathVariable Long id) {
+    return ResponseEntity.ok(ResponseWrapper.success(exportService.getJob(id)));
+  }
+
+  @GetMapping("/{id}/download")
+  public ResponseEntity<Resource> downloadExport(@PathVariable Long id) {
+    Path archive = exportService.getArchive(id);
+    return ResponseEntity.ok()
+      .contentType(MediaType.parseMediaType("application/zip"))
+      .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(archive.getFileName().toString()).build().toString())
+      .body(new FileSystemResource(archive));
+  }
+}
@@ -1,6 +1,7 @@
 package com.hms.billing.docs;
 
 import com.hms.billing.controllers.BillingController.InsuranceRequest;
+import com.hms.billing.dto.response.InvoicePageResponse;
 import com.hms.billing.entities.Invoice;
 import com.hms.billing.entities.PatientInsurance;
 import com.hms.common.dto.response.ResponseWrapper;
@@ -14,6 +15,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -34,12 +37,15 @@ public interface BillingControllerDocs {
     @Parameter(hidden = true) Authentication authentication
   );
 
-  @Operation(summary = "Listar Faturas do Médico", description = "Retorna todas as faturas geradas pelos serviços de um médico específico.")
+  @Operation(summary = "Listar Faturas do Médico", description = "Retorna as faturas geradas pelos serviços de um médico, mais recentes primeiro, paginadas por cursor. Para a próxima página, envie o nextCursor da resposta anterior.")
   @ApiResponses(value = {
-    @ApiResponse(responseCode = "200", description = "Faturas recuperadas com sucesso")
+    @ApiResponse(responseCode = "200", description = "Faturas recuperadas com sucesso"),
+    @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content)
   })
-  ResponseEntity<ResponseWrapper<List<Invoice>>> getDoctorInvoices(
-    @Parameter(description = "ID do médico", required = true) @PathVariable String doctorId
+  ResponseEntity<ResponseWrapper<InvoicePageResponse>> getDoctorInvoices(
+    @Parameter(description = "ID do médico", required = true) @PathVariable String doctorId,
+    @Parameter(description = "Cursor da página (nextCursor da resposta anterior)") @RequestParam(required = false) String cursor,
+    @Parameter(description = "Quantidade de itens por página") @RequestParam(defaultValue = "50") int size
   );
 
   @Operation(summary = "Registrar Plano de Saúde", description = "Adiciona ou atualiza as informações de seguro/plano de saúde de um paciente.")
@@ -69,18 +75,23 @@ public interface BillingControllerDocs {
     @Parameter(description = "ID da fatura", required = true) @PathVariable Long invoiceId
   );
 
-  @Operation(summary = "Listar Faturas Pendentes do Seguro", description = "Retorna faturas que estão aguardando o pagamento e aprovação das operadoras de seguro.")
+  @Operation(summary = "Listar Faturas Pendentes do Seguro", description = "Retorna faturas que estão aguardando o pagamento e aprovação das operadoras de seguro, mais antigas primeiro, paginadas por cursor.")
   @ApiResponses(value = {
-    @ApiResponse(responseCode = "200", description = "Faturas recuperadas com sucesso")
+    @ApiResponse(responseCode = "200", description = "Faturas recuperadas com sucesso"),
+    @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content)
   })
-  ResponseEntity<ResponseWrapper<List<Invoice>>> getPendingInsuranceInvoices();
+  ResponseEntity<ResponseWrapper<InvoicePageResponse>> getPendingInsuranceInvoices(
+    @Parameter(description = "Cursor da página (nextCursor da resposta anterior)") @RequestParam(required = false) String cursor,
+    @Parameter(description = "Quantidade de itens por página") @RequestParam(defaultValue = "50") int size
+  );
 
-  @Operation(summary = "Download Fatura (PDF)", description = "Gera e retorna o arquivo PDF referente a uma fatura específica.")
+  @Operation(summary = "Download Fatura (PDF)", description = "Gera o PDF de uma fatura específica, enviado à resposta conforme é renderizado.")
   @ApiResponses(value = {
     @ApiResponse(responseCode = "200", description = "PDF gerado com sucesso"),
-    @ApiResponse(responseCode = "404", description = "Fatura não encontrada", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Fatura não encontrada", content = @Content),
+    @ApiResponse(responseCode = "503", description = "Geração de PDF sobrecarregada, tente novamente", content = @Content)
   })
-  ResponseEntity<byte[]> downloadInvoicePdf(
+  ResponseEntity<StreamingResponseBody> downloadInvoicePdf(
     @Parameter(description = "ID da fatura", required = true) @PathVariable Long id
   );
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.hms.billing.docs;
+
+import com.hms.billing.dto.response.ArAgingResponse;
+import com.hms.billing.dto.response.RevenueReportResponse;
+import com.hms.billing.enums.LedgerDimension;
+import com.hms.common.dto.response.ResponseWrapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDate;
+
+@Tag(name = "Relatórios Financeiros", description = "Receita e contas a receber calculadas a partir do ledger diário de faturas")
+@ApiResponses({
+  @ApiResponse(responseCode = "401", description = "Não autorizado", content = @Content),
+  @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content),
+  @ApiResponse(responseCode = "500", description = "Erro interno no servidor", content = @Content)
+})
+public interface BillingReportControllerDocs {
+
+  @Operation(summary = "Relatório de Receita", description = "Totais faturados, recebidos e em aberto das faturas emitidas no período, agrupados por dia, médico, convênio, origem ou status. Faturas canceladas não entram. Padrão: mês corrente. (Requer ADMIN)")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Relatório gerado com sucesso"),
+    @ApiResponse(responseCode = "400", description = "Período ou agrupamento inválido", content = @Content)
+  })
+  ResponseEntity<ResponseWrapper<RevenueReportResponse>> getRevenue(
+    @Parameter(description = "Data inicial de emissão (yyyy-MM-dd)") @RequestParam(required = false) LocalDate from,
+    @Parameter(description = "Data final de emissão (yyyy-MM-dd)") @RequestParam(required = false) LocalDate to,
+    @Parameter(description = "Agrupamento: DAY, DOCTOR, PROVIDER, SOURCE ou STATUS") @RequestParam(defaultValue = "DAY") LedgerDimension groupBy
+  );
+
+  @Operation(summary = "Aging de Contas a Receber", description = "Saldo em aberto (parte do paciente e do convênio) por faixa de dias desde a emissão: 0-30, 31-60, 61-90 e 90+. (Requer ADMIN)")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Aging calculado com sucesso")
+  })
+  ResponseEntity<ResponseWrapper<ArAgingResponse>> getArAging(
+    @Parameter(description = "Data de referência (padrão: hoje)") @RequestParam(required = false) LocalDate asOf,
+    @Parameter(description = "Filtrar por convênio (0 = particular)") @RequestParam(required = false) Long providerId
+  );
+}
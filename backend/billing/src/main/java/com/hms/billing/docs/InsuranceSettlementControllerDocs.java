@@ -0,0 +1,31 @@
+package com.hms.billing.docs;
+
+import com.hms.billing.dto.response.SettlementReportResponse;
+import com.hms.common.dto.response.ResponseWrapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+
+@Tag(name = "Repasses de Convênio", description = "Liquidação em lote das faturas pagas pelos convênios a partir do arquivo de repasse")
+@ApiResponses({
+  @ApiResponse(responseCode = "401", description = "Não autorizado", content = @Content),
+  @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content),
+  @ApiResponse(responseCode = "500", description = "Erro interno no servidor", content = @Content)
+})
+public interface InsuranceSettlementControllerDocs {
+
+  @Operation(summary = "Processar arquivo de repasse", description = "Recebe o arquivo no corpo da requisição: CSV (text/csv, cabeçalho com invoiceId e/ou policyNumber, amount e paidOn opcional; separador , ou ;) ou JSON (array de objetos com os mesmos campos). Cada linha liquida a parte do convênio de uma fatura, pelo id ou pela fatura pendente mais antiga da apólice com o mesmo valor. Retorna a conciliação: totais por resultado e as linhas rejeitadas. (Requer ADMIN)")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Arquivo processado; linhas rejeitadas e erros de leitura vêm no relatório"),
+    @ApiResponse(responseCode = "400", description = "Arquivo sem cabeçalho válido ou que não é um array JSON", content = @Content),
+    @ApiResponse(responseCode = "415", description = "Formato não suportado", content = @Content)
+  })
+  ResponseEntity<ResponseWrapper<SettlementReportResponse>> settle(@Parameter(hidden = true) HttpServletRequest request) throws IOException;
+}
@@ -0,0 +1,55 @@
+package com.hms.billing.docs;
+
+import com.hms.billing.dto.request.InvoiceExportRequest;
+import com.hms.billing.dto.response.InvoiceExportJobResponse;
+import com.hms.common.dto.response.ResponseWrapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+
+@Tag(name = "Exportação de Faturas", description = "Exportação assíncrona de faturas em PDF, agrupadas em um arquivo ZIP")
+@ApiResponses({
+  @ApiResponse(responseCode = "401", description = "Não autorizado", content = @Content),
+  @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content),
+  @ApiResponse(responseCode = "500", description = "Erro interno no servidor", content = @Content)
+})
+public interface InvoiceExportControllerDocs {
+
+  @Operation(summary = "Solicitar exportação", description = "Cria um job que gera os PDFs das faturas do filtro (status, convênio, período de emissão) em segundo plano. Retorna o ID para acompanhar o progresso. (Requer ADMIN)")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "202", description = "Exportação enfileirada"),
+    @ApiResponse(responseCode = "400", description = "Período inválido", content = @Content),
+    @ApiResponse(responseCode = "503", description = "Fila de exportações cheia, tente mais tarde", content = @Content)
+  })
+  ResponseEntity<ResponseWrapper<InvoiceExportJobResponse>> submitExport(
+    @RequestBody InvoiceExportRequest request,
+    @Parameter(hidden = true) Authentication authentication
+  );
+
+  @Operation(summary = "Consultar exportação", description = "Retorna o status e o progresso (faturas processadas / total) de um job de exportação. (Requer ADMIN)")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Job encontrado"),
+    @ApiResponse(responseCode = "404", description = "Job não encontrado", content = @Content)
+  })
+  ResponseEntity<ResponseWrapper<InvoiceExportJobResponse>> getExport(
+    @Parameter(description = "ID do job de exportação", required = true) @PathVariable Long id
+  );
+
+  @Operation(summary = "Download da exportação", description = "Baixa o ZIP com os PDFs de um job concluído. (Requer ADMIN)")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Arquivo ZIP"),
+    @ApiResponse(responseCode = "400", description = "Exportação ainda não concluída", content = @Content),
+    @ApiResponse(responseCode = "404", description = "Job ou arquivo não encontrado", content = @Content)
+  })
+  ResponseEntity<Resource> downloadExport(
+    @Parameter(description = "ID do job de exportação", required = true) @PathVariable Long id
+  );
+}
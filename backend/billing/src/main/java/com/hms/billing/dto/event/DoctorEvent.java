@@ -0,0 +1,14 @@
+package com.hms.billing.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+
+import java.math.BigDecimal;
+
+public record DoctorEvent(
+  @JsonAlias("id") Long doctorId,
+  Long userId,
+  @JsonAlias("name") String fullName,
+  BigDecimal consultationFee,
+  String eventType // "CREATED" || "UPDATED"
+) {
+}
@@ -0,0 +1,12 @@
+package com.hms.billing.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+
+public record PatientEvent(
+  @JsonAlias("id") Long patientId,
+  Long userId,
+  @JsonAlias("name") String fullName,
+  String cpf,
+  String eventType // "CREATED" || "UPDATED"
+) {
+}
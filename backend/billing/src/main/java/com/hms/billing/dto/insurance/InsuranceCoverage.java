@@ -0,0 +1,19 @@
+package com.hms.billing.dto.insurance;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Convênio de um paciente como a faturação precisa dele: só os dados do provedor usados no cálculo
+public record InsuranceCoverage(
+  Long providerId,
+  String providerName,
+  BigDecimal coveragePercentage,
+  boolean active,
+  LocalDate validUntil
+) {
+
+  // mesma regra de antes: provedor ativo e carteirinha sem validade ou vencendo depois da data
+  public boolean coversOn(LocalDate date) {
+    return active && (validUntil == null || validUntil.isAfter(date));
+  }
+}
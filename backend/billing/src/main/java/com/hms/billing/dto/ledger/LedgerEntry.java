@@ -0,0 +1,76 @@
+package com.hms.billing.dto.ledger;
+
+import com.hms.billing.entities.Invoice;
+import com.hms.billing.enums.InvoiceSource;
+import com.hms.billing.enums.InvoiceStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Contribuição de uma fatura (ou soma de várias) para uma linha do ledger diário.
+// Uma alteração de fatura vira dois deltas: a posição anterior negada e a nova.
+public record LedgerEntry(
+  LocalDate date,
+  InvoiceSource source,
+  String doctorId,
+  Long providerId,
+  InvoiceStatus status,
+  long invoiceCount,
+  BigDecimal totalAmount,
+  BigDecimal insuranceCovered,
+  BigDecimal patientPayable,
+  BigDecimal patientOutstanding,
+  BigDecimal insuranceOutstanding
+) {
+
+  // chave da linha no ledger (PK da tabela)
+  public record Key(LocalDate date, InvoiceSource source, String doctorId, Long providerId, InvoiceStatus status) {
+  }
+
+  public static LedgerEntry of(Invoice invoice) {
+    boolean closed = invoice.getStatus() == InvoiceStatus.PAID || invoice.getStatus() == InvoiceStatus.CANCELLED;
+    BigDecimal covered = amount(invoice.getInsuranceCovered());
+    BigDecimal payable = amount(invoice.getPatientPayable());
+    return new LedgerEntry(
+      invoice.getIssuedAt() != null ? invoice.getIssuedAt().toLocalDate() : LocalDate.now(),
+      invoice.getPharmacySaleId() != null ? InvoiceSource.PHARMACY : InvoiceSource.APPOINTMENT,
+      Objects.requireNonNullElse(invoice.getDoctorId(), ""),
+      Objects.requireNonNullElse(invoice.getInsuranceProviderId(), 0L),
+      invoice.getStatus(),
+      1,
+      amount(invoice.getTotalAmount()),
+      covered,
+      payable,
+      closed || invoice.getPatientPaidAt() != null ? BigDecimal.ZERO : payable,
+      closed || invoice.getInsurancePaidAt() != null ? BigDecimal.ZERO : covered
+    );
+  }
+
+  public Key key() {
+    return new Key(date, source, doctorId, providerId, status);
+  }
+
+  public LedgerEntry negate() {
+    return new LedgerEntry(date, source, doctorId, providerId, status, -invoiceCount,
+      totalAmount.negate(), insuranceCovered.negate(), patientPayable.negate(),
+      patientOutstanding.negate(), insuranceOutstanding.negate());
+  }
+
+  // soma dois deltas da mesma chave
+  public LedgerEntry plus(LedgerEntry other) {
+    return new LedgerEntry(date, source, doctorId, providerId, status, invoiceCount + other.invoiceCount,
+      totalAmount.add(other.totalAmount), insuranceCovered.add(other.insuranceCovered),
+      patientPayable.add(other.patientPayable), patientOutstanding.add(other.patientOutstanding),
+      insuranceOutstanding.add(other.insuranceOutstanding));
+  }
+
+  public boolean isZero() {
+    return invoiceCount == 0 && totalAmount.signum() == 0 && insuranceCovered.signum() == 0
+      && patientPayable.signum() == 0 && patientOutstanding.signum() == 0 && insuranceOutstanding.signum() == 0;
+  }
+
+  private static BigDecimal amount(BigDecimal value) {
+    return value != null ? value : BigDecimal.ZERO;
+  }
+}
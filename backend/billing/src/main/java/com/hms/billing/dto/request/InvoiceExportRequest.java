@@ -0,0 +1,14 @@
+package com.hms.billing.dto.request;
+
+import com.hms.billing.enums.InvoiceStatus;
+
+import java.time.LocalDate;
+
+// filtros opcionais; período por data de emissão, com "to" inclusivo
+public record InvoiceExportRequest(
+  InvoiceStatus status,
+  Long providerId,
+  LocalDate from,
+  LocalDate to
+) {
+}
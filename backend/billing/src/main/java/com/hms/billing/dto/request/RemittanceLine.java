@@ -0,0 +1,20 @@
+package com.hms.billing.dto.request;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Linha do arquivo de repasse do convênio: identifica a fatura pelo id ou pela apólice do paciente.
+// error != null quando a linha não pôde ser lida (vai para o relatório como INVALID_LINE).
+public record RemittanceLine(
+  long lineNumber,
+  Long invoiceId,
+  String policyNumber,
+  BigDecimal amount,
+  LocalDate paidOn,
+  String error
+) {
+
+  public static RemittanceLine invalid(long lineNumber, String error) {
+    return new RemittanceLine(lineNumber, null, null, null, null, error);
+  }
+}
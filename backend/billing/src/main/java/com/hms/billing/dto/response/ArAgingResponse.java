@@ -0,0 +1,23 @@
+package com.hms.billing.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// Contas a receber em aberto por idade (dias desde a emissão até asOf)
+public record ArAgingResponse(
+  LocalDate asOf,
+  Long providerId,
+  List<Bucket> buckets,
+  BigDecimal totalOutstanding
+) {
+
+  public record Bucket(
+    String range,                  // "0-30", "31-60", "61-90", "90+"
+    long invoiceCount,
+    BigDecimal patientOutstanding,
+    BigDecimal insuranceOutstanding,
+    BigDecimal totalOutstanding
+  ) {
+  }
+}
@@ -0,0 +1,44 @@
+package com.hms.billing.dto.response;
+
+import com.hms.billing.entities.InvoiceExportJob;
+import com.hms.billing.enums.ExportJobStatus;
+import com.hms.billing.enums.InvoiceStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record InvoiceExportJobResponse(
+  Long id,
+  ExportJobStatus status,
+  InvoiceStatus invoiceStatus,
+  Long providerId,
+  LocalDate from,
+  LocalDate to,
+  int totalInvoices,
+  int processedInvoices,
+  int failedInvoices,
+  Long fileSize,
+  String downloadUrl,
+  String errorMessage,
+  LocalDateTime createdAt,
+  LocalDateTime finishedAt
+) {
+  public static InvoiceExportJobResponse fromEntity(InvoiceExportJob job) {
+    return new InvoiceExportJobResponse(
+      job.getId(),
+      job.getStatus(),
+      job.getInvoiceStatus(),
+      job.getProviderId(),
+      job.getFromDate(),
+      job.getToDate(),
+      job.getTotalInvoices(),
+      job.getProcessedInvoices(),
+      job.getFailedInvoices(),
+      job.getFileSize(),
+      job.getStatus() == ExportJobStatus.COMPLETED ? "/billing/exports/" + job.getId() + "/download" : null,
+      job.getErrorMessage(),
+      job.getCreatedAt(),
+      job.getFinishedAt()
+    );
+  }
+}
@@ -0,0 +1,12 @@
+package com.hms.billing.dto.response;
+
+import com.hms.billing.entities.Invoice;
+
+import java.util.List;
+
+public record InvoicePageResponse(
+  List<Invoice> content,
+  String nextCursor,
+  boolean hasMore
+) {
+}
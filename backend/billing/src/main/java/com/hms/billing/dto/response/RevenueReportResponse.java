@@ -0,0 +1,28 @@
+package com.hms.billing.dto.response;
+
+import com.hms.billing.enums.LedgerDimension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public record RevenueReportResponse(
+  LocalDate from,
+  LocalDate to,
+  LedgerDimension groupBy,
+  List<Line> lines,
+  Line total
+) {
+
+  public record Line(
+    String key,
+    String label,
+    long invoiceCount,
+    BigDecimal billedAmount,       // total faturado
+    BigDecimal insuranceCovered,   // parte dos convênios
+    BigDecimal patientPayable,     // parte dos pacientes
+    BigDecimal collectedAmount,    // já recebido
+    BigDecimal outstandingAmount   // ainda em aberto
+  ) {
+  }
+}
@@ -0,0 +1,31 @@
+package com.hms.billing.dto.response;
+
+import com.hms.billing.enums.SettlementOutcome;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// Conciliação de um arquivo de repasse: totais por resultado e as linhas não liquidadas (até o limite configurado)
+public record SettlementReportResponse(
+  long totalLines,
+  long settledCount,
+  BigDecimal settledAmount,
+  long rejectedCount,
+  Map<SettlementOutcome, Long> outcomes,
+  List<Issue> issues,
+  boolean issuesTruncated,
+  String error, // leitura interrompida (arquivo malformado); o que veio antes já foi aplicado
+  long elapsedMs
+) {
+
+  public record Issue(
+    long line,
+    Long invoiceId,
+    String policyNumber,
+    BigDecimal amount,
+    SettlementOutcome outcome,
+    String detail
+  ) {
+  }
+}
@@ -0,0 +1,30 @@
+package com.hms.billing.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+// Cópia local dos dados do médico usados no faturamento, alimentada pelos eventos do profile-service
+@Setter
+@Entity
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "doctor_read_model")
+public class DoctorReadModel {
+
+  @Id
+  private Long doctorId;
+  private Long userId;
+  private String fullName;
+
+  @Column(precision = 10, scale = 2)
+  private BigDecimal consultationFee;
+}
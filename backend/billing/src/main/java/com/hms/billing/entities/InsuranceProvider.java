@@ -1,5 +1,6 @@
 package com.hms.billing.entities;
 
+import com.hms.billing.listener.InsuranceProviderListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -12,6 +13,7 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "tb_insurance_providers")
+@EntityListeners(InsuranceProviderListener.class)
 public class InsuranceProvider {
 
   @Id
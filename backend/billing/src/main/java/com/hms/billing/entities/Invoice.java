@@ -44,6 +44,8 @@ public class Invoice {
   @Enumerated(EnumType.STRING)
   private InvoiceStatus status;
 
+  private Long insuranceProviderId;       // Convênio aplicado na emissão (null = particular)
+
   @CreationTimestamp
   private LocalDateTime issuedAt;
 
@@ -52,4 +54,8 @@ public class Invoice {
   private LocalDateTime patientPaidAt;
 
   private LocalDateTime insurancePaidAt;
+
+  // incrementada a cada alteração; compõe a chave do PDF em cache
+  @Version
+  private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.hms.billing.entities;
+
+import com.hms.billing.enums.ExportJobStatus;
+import com.hms.billing.enums.InvoiceStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "tb_invoice_export_jobs")
+public class InvoiceExportJob {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 20, nullable = false)
+  private ExportJobStatus status = ExportJobStatus.QUEUED;
+
+  // filtro
+  @Enumerated(EnumType.STRING)
+  @Column(length = 50)
+  private InvoiceStatus invoiceStatus;
+  private Long providerId;
+  private LocalDate fromDate;
+  private LocalDate toDate;
+
+  private Long requestedBy;
+
+  // progresso
+  private int totalInvoices;
+  private int processedInvoices;
+  private int failedInvoices;
+
+  @Column(length = 500)
+  private String filePath;
+  private Long fileSize;
+
+  @Column(length = 500)
+  private String errorMessage;
+
+  @CreationTimestamp
+  private LocalDateTime createdAt;
+
+  // atualizado a cada lote: job RUNNING parado há muito tempo é de uma instância que caiu
+  @UpdateTimestamp
+  private LocalDateTime updatedAt;
+
+  private LocalDateTime startedAt;
+  private LocalDateTime finishedAt;
+}
@@ -0,0 +1,25 @@
+package com.hms.billing.entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Mapeamento userId -> patientId (e nome) alimentado pelos eventos do profile-service
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "patient_read_model")
+public class PatientReadModel {
+  @Id
+  private Long patientId;
+
+  private Long userId;
+  private String fullName;
+  private String cpf;
+}
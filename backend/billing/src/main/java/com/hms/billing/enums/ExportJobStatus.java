@@ -0,0 +1,9 @@
+package com.hms.billing.enums;
+
+public enum ExportJobStatus {
+  QUEUED,     // Aguardando um worker livre
+  RUNNING,    // Gerando os PDFs
+  COMPLETED,  // ZIP pronto para download
+  FAILED,     // Erro ou interrompida (reinício do serviço)
+  EXPIRED     // ZIP removido após o período de retenção
+}
@@ -0,0 +1,6 @@
+package com.hms.billing.enums;
+
+public enum InvoiceSource {
+  APPOINTMENT,  // Fatura de consulta
+  PHARMACY      // Venda da farmácia
+}
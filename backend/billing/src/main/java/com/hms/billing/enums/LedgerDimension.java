@@ -0,0 +1,20 @@
+package com.hms.billing.enums;
+
+// Agrupamentos do relatório de receita sobre o ledger diário
+public enum LedgerDimension {
+  DAY("ledger_date"),
+  DOCTOR("doctor_id"),
+  PROVIDER("provider_id"),
+  SOURCE("source"),
+  STATUS("status");
+
+  private final String column;
+
+  LedgerDimension(String column) {
+    this.column = column;
+  }
+
+  public String column() {
+    return column;
+  }
+}
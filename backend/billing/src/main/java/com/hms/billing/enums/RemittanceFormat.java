@@ -0,0 +1,6 @@
+package com.hms.billing.enums;
+
+public enum RemittanceFormat {
+  CSV,   // cabeçalho + uma linha por pagamento (separador , ou ;)
+  JSON   // array de objetos
+}
@@ -0,0 +1,12 @@
+package com.hms.billing.enums;
+
+public enum SettlementOutcome {
+  SETTLED,          // Repasse aplicado
+  NOT_FOUND,        // Fatura inexistente
+  NO_MATCH,         // Nenhuma fatura pendente da apólice com o valor informado
+  ALREADY_SETTLED,  // Convênio já havia pago a fatura
+  NOT_ELIGIBLE,     // Fatura não está aguardando o convênio
+  AMOUNT_MISMATCH,  // Valor diferente da parte coberta pelo convênio
+  DUPLICATE,        // Fatura já liquidada por outra linha do mesmo arquivo
+  INVALID_LINE      // Linha ilegível ou sem os campos obrigatórios
+}
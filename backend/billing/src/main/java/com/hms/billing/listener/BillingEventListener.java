@@ -8,7 +8,9 @@ import com.hms.billing.entities.Invoice;
 import com.hms.billing.enums.InvoiceStatus;
 import com.hms.billing.repositories.InvoiceRepository;
 import com.hms.billing.services.BillingService;
+import com.hms.billing.services.LedgerService;
 import com.hms.common.dto.event.EventEnvelope;
+import com.hms.common.idempotency.IdempotentListener;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -26,9 +28,11 @@ public class BillingEventListener {
 
   private final BillingService billingService;
   private final InvoiceRepository invoiceRepository;
+  private final LedgerService ledgerService;
   private final ObjectMapper objectMapper;
 
   @RabbitListener(queues = "${application.rabbitmq.queues.appointment-billing}")
+  @IdempotentListener
   public void handleAppointmentStatusChange(@Payload EventEnvelope<?> envelope) {
     AppointmentStatusChangedEvent event = objectMapper.convertValue(envelope.getPayload(), AppointmentStatusChangedEvent.class);
 
@@ -47,6 +51,7 @@ public class BillingEventListener {
 
   @RabbitListener(queues = RabbitMQConfig.BILLING_PHARMACY_QUEUE)
   @Transactional
+  @IdempotentListener
   public void handlePharmacySale(@Payload EventEnvelope<?> envelope) {
     PharmacySaleCreatedEvent event = objectMapper.convertValue(envelope.getPayload(), PharmacySaleCreatedEvent.class);
 
@@ -69,6 +74,7 @@ public class BillingEventListener {
     invoice.setPatientPaidAt(event.saleDate());
     invoice.setPaidAt(LocalDateTime.now());
     invoiceRepository.save(invoice);
+    ledgerService.recordCreated(invoice);
     log.info("Fatura de Farmácia criada com sucesso: Invoice ID {}", invoice.getId());
   }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.hms.billing.listener;
+
+import com.hms.billing.entities.InsuranceProvider;
+import com.hms.billing.services.InsuranceCoverageCache;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// Alteração de provedor por qualquer caminho JPA invalida a cobertura em cache dos pacientes dele
+// (a instância vem do Spring via SpringBeanContainer do Hibernate)
+@Component
+@RequiredArgsConstructor
+public class InsuranceProviderListener {
+
+  private final InsuranceCoverageCache coverageCache;
+
+  @PostUpdate
+  @PostRemove
+  public void providerChanged(InsuranceProvider provider) {
+    coverageCache.evictProvider(provider.getId());
+  }
+}
@@ -0,0 +1,88 @@
+package com.hms.billing.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hms.billing.config.RabbitMQConfig;
+import com.hms.billing.dto.event.DoctorEvent;
+import com.hms.billing.dto.event.PatientEvent;
+import com.hms.billing.entities.DoctorReadModel;
+import com.hms.billing.entities.PatientReadModel;
+import com.hms.billing.repositories.DoctorReadModelRepository;
+import com.hms.billing.repositories.PatientReadModelRepository;
+import com.hms.common.dto.event.EventEnvelope;
+import com.hms.common.idempotency.IdempotentListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+// Mantém os read models de médico e paciente do billing; o profile-service só é consultado
+// (Feign) quando um id ainda não chegou por evento
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProfileEventListener {
+
+  private final DoctorReadModelRepository doctorRepository;
+  private final PatientReadModelRepository patientRepository;
+  private final ObjectMapper objectMapper;
+
+  @RabbitListener(queues = RabbitMQConfig.DOCTOR_QUEUE)
+  @IdempotentListener
+  public void handleDoctorEvent(@Payload EventEnvelope<?> envelope) {
+    try {
+      DoctorEvent event = objectMapper.convertValue(envelope.getPayload(), DoctorEvent.class);
+      if (event == null || event.doctorId() == null) {
+        log.warn("Evento médico ignorado: doctorId está NULO.");
+        return;
+      }
+
+      DoctorReadModel doctor = doctorRepository.findById(event.doctorId())
+        .orElseGet(() -> {
+          DoctorReadModel newDoctor = new DoctorReadModel();
+          newDoctor.setDoctorId(event.doctorId());
+          return newDoctor;
+        });
+
+      // atualiza apenas o que veio no evento
+      if (event.userId() != null) doctor.setUserId(event.userId());
+      if (event.fullName() != null) doctor.setFullName(event.fullName());
+      if (event.consultationFee() != null) doctor.setConsultationFee(event.consultationFee());
+
+      doctorRepository.save(doctor);
+      log.debug("DoctorReadModel {} atualizado ({})", doctor.getDoctorId(), event.eventType());
+
+    } catch (Exception e) {
+      log.error("Erro ao processar DoctorEvent. Descartando mensagem para evitar loop: {}", e.getMessage(), e);
+    }
+  }
+
+  @RabbitListener(queues = RabbitMQConfig.PATIENT_QUEUE)
+  @IdempotentListener
+  public void handlePatientEvent(@Payload EventEnvelope<?> envelope) {
+    try {
+      PatientEvent event = objectMapper.convertValue(envelope.getPayload(), PatientEvent.class);
+      if (event == null || event.patientId() == null) {
+        log.warn("Evento de paciente ignorado: patientId está NULO.");
+        return;
+      }
+
+      PatientReadModel patient = patientRepository.findById(event.patientId())
+        .orElseGet(() -> {
+          PatientReadModel p = new PatientReadModel();
+          p.setPatientId(event.patientId());
+          return p;
+        });
+
+      if (event.userId() != null) patient.setUserId(event.userId());
+      if (event.fullName() != null) patient.setFullName(event.fullName());
+      if (event.cpf() != null) patient.setCpf(event.cpf());
+
+      patientRepository.save(patient);
+      log.debug("PatientReadModel {} atualizado ({})", patient.getPatientId(), event.eventType());
+
+    } catch (Exception e) {
+      log.error("Erro ao processar PatientEvent. Descartando para evitar loop.", e);
+    }
+  }
+}
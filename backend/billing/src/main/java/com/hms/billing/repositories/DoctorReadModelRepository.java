@@ -0,0 +1,7 @@
+package com.hms.billing.repositories;
+
+import com.hms.billing.entities.DoctorReadModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DoctorReadModelRepository extends JpaRepository<DoctorReadModel, Long> {
+}
@@ -0,0 +1,116 @@
+package com.hms.billing.repositories;
+
+import com.hms.billing.entities.Invoice;
+import com.hms.billing.enums.InvoiceStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Acesso em conjunto às faturas na liquidação de repasses: um SELECT ... FOR UPDATE e um UPDATE por lote,
+// em vez de um findById + save por linha do arquivo. As linhas viram Invoice soltas (fora do contexto JPA)
+// só para o cálculo dos deltas do ledger.
+@Repository
+@RequiredArgsConstructor
+public class InsuranceSettlementRepository {
+
+  private static final String COLUMNS =
+    "id, pharmacy_sale_id, appointment_id, patient_id, doctor_id, total_amount, insurance_covered, patient_payable, " +
+      "status, insurance_provider_id, issued_at, paid_at, patient_paid_at, insurance_paid_at, version";
+
+  private static final RowMapper<Invoice> INVOICE = (rs, i) -> Invoice.builder()
+    .id(rs.getLong("id"))
+    .pharmacySaleId(rs.getObject("pharmacy_sale_id", Long.class))
+    .appointmentId(rs.getObject("appointment_id", Long.class))
+    .patientId(rs.getString("patient_id"))
+    .doctorId(rs.getString("doctor_id"))
+    .totalAmount(rs.getBigDecimal("total_amount"))
+    .insuranceCovered(rs.getBigDecimal("insurance_covered"))
+    .patientPayable(rs.getBigDecimal("patient_payable"))
+    .status(InvoiceStatus.valueOf(rs.getString("status")))
+    .insuranceProviderId(rs.getObject("insurance_provider_id", Long.class))
+    .issuedAt(rs.getObject("issued_at", LocalDateTime.class))
+    .paidAt(rs.getObject("paid_at", LocalDateTime.class))
+    .patientPaidAt(rs.getObject("patient_paid_at", LocalDateTime.class))
+    .insurancePaidAt(rs.getObject("insurance_paid_at", LocalDateTime.class))
+    .version(rs.getObject("version", Long.class))
+    .build();
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public record Policy(String patientId, Long providerId) {
+  }
+
+  // trava as faturas citadas por id (em ordem de id, a mesma de lockPending)
+  public Map<Long, Invoice> lockByIds(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return Map.of();
+    }
+    String sql = "SELECT " + COLUMNS + " FROM tb_invoices WHERE id IN (" + placeholders(ids.size()) + ") ORDER BY id FOR UPDATE";
+    Map<Long, Invoice> invoices = new HashMap<>();
+    jdbcTemplate.query(sql, INVOICE, ids.toArray()).forEach(invoice -> invoices.put(invoice.getId(), invoice));
+    return invoices;
+  }
+
+  // apólices -> paciente e convênio; a mesma apólice pode existir em mais de um cadastro do paciente
+  public Map<String, List<Policy>> findPolicies(Collection<String> policyNumbers) {
+    if (policyNumbers.isEmpty()) {
+      return Map.of();
+    }
+    String sql = "SELECT policy_number, patient_id, provider_id FROM tb_patient_insurances " +
+      "WHERE policy_number IN (" + placeholders(policyNumbers.size()) + ")";
+    Map<String, List<Policy>> policies = new HashMap<>();
+    jdbcTemplate.query(sql, rs -> {
+      policies.computeIfAbsent(rs.getString(1), key -> new ArrayList<>())
+        .add(new Policy(rs.getString(2), rs.getLong(3)));
+    }, policyNumbers.toArray());
+    return policies;
+  }
+
+  // trava as faturas ainda aguardando o convênio dos pacientes informados, da mais antiga para a mais nova
+  public Map<String, List<Invoice>> lockPendingByPatients(Collection<String> patientIds) {
+    if (patientIds.isEmpty()) {
+      return Map.of();
+    }
+    String sql = "SELECT " + COLUMNS + " FROM tb_invoices WHERE patient_id IN (" + placeholders(patientIds.size()) + ") " +
+      "AND status = ? AND insurance_paid_at IS NULL ORDER BY id FOR UPDATE";
+    List<Object> params = new ArrayList<>(patientIds);
+    params.add(InvoiceStatus.INSURANCE_PENDING.name());
+    Map<String, List<Invoice>> invoices = new LinkedHashMap<>();
+    jdbcTemplate.query(sql, INVOICE, params.toArray())
+      .forEach(invoice -> invoices.computeIfAbsent(invoice.getPatientId(), key -> new ArrayList<>()).add(invoice));
+    return invoices;
+  }
+
+  // mesma regra de BillingServiceImpl.checkFinalize: quitada quando a parte do paciente já foi paga (ou é zero).
+  // version + 1 troca a chave do PDF em cache, como um save pelo JPA faria
+  public int markInsurancePaid(Collection<Long> ids, LocalDateTime paidAt) {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    String sql = "UPDATE tb_invoices SET insurance_paid_at = ?, " +
+      "paid_at = CASE WHEN patient_paid_at IS NOT NULL OR patient_payable = 0 THEN ? ELSE paid_at END, " +
+      "status = CASE WHEN patient_paid_at IS NOT NULL OR patient_payable = 0 THEN ? ELSE status END, " +
+      "version = COALESCE(version, 0) + 1 " +
+      "WHERE id IN (" + placeholders(ids.size()) + ") AND status = ? AND insurance_paid_at IS NULL";
+    Timestamp timestamp = Timestamp.valueOf(paidAt);
+    List<Object> params = new ArrayList<>(List.of(timestamp, timestamp, InvoiceStatus.PAID.name()));
+    params.addAll(ids);
+    params.add(InvoiceStatus.INSURANCE_PENDING.name());
+    return jdbcTemplate.update(sql, params.toArray());
+  }
+
+  private static String placeholders(int count) {
+    return String.join(",", Collections.nCopies(count, "?"));
+  }
+}
@@ -0,0 +1,13 @@
+package com.hms.billing.repositories;
+
+import com.hms.billing.entities.InvoiceExportJob;
+import com.hms.billing.enums.ExportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface InvoiceExportJobRepository extends JpaRepository<InvoiceExportJob, Long> {
+
+  List<InvoiceExportJob> findByStatusAndUpdatedAtBefore(ExportJobStatus status, LocalDateTime updatedAt);
+}
@@ -0,0 +1,100 @@
+package com.hms.billing.repositories;
+
+import com.hms.billing.dto.ledger.LedgerEntry;
+import com.hms.billing.enums.InvoiceStatus;
+import com.hms.billing.enums.LedgerDimension;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+// Ledger diário de faturas (tb_invoice_ledger_daily): upserts de deltas e leituras agregadas dos relatórios
+@Repository
+@RequiredArgsConstructor
+public class InvoiceLedgerRepository {
+
+  private static final String UPSERT =
+    "INSERT INTO tb_invoice_ledger_daily (ledger_date, source, doctor_id, provider_id, status, invoice_count, " +
+      "total_amount, insurance_covered, patient_payable, patient_outstanding, insurance_outstanding) " +
+      "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+      "ON DUPLICATE KEY UPDATE invoice_count = invoice_count + VALUES(invoice_count), " +
+      "total_amount = total_amount + VALUES(total_amount), " +
+      "insurance_covered = insurance_covered + VALUES(insurance_covered), " +
+      "patient_payable = patient_payable + VALUES(patient_payable), " +
+      "patient_outstanding = patient_outstanding + VALUES(patient_outstanding), " +
+      "insurance_outstanding = insurance_outstanding + VALUES(insurance_outstanding)";
+
+  private static final String SUMS =
+    "SUM(invoice_count), SUM(total_amount), SUM(insurance_covered), SUM(patient_payable), " +
+      "SUM(patient_outstanding), SUM(insurance_outstanding)";
+
+  // ordem fixa de travamento das linhas entre transações concorrentes
+  private static final Comparator<LedgerEntry> LOCK_ORDER = Comparator
+    .comparing(LedgerEntry::date)
+    .thenComparing(LedgerEntry::source)
+    .thenComparing(LedgerEntry::doctorId)
+    .thenComparing(LedgerEntry::providerId)
+    .thenComparing(LedgerEntry::status);
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public record Totals(
+    String key,
+    long invoiceCount,
+    BigDecimal totalAmount,
+    BigDecimal insuranceCovered,
+    BigDecimal patientPayable,
+    BigDecimal patientOutstanding,
+    BigDecimal insuranceOutstanding
+  ) {
+  }
+
+  // soma os deltas nas linhas do ledger; chamado na mesma transação que grava as faturas
+  public void apply(List<LedgerEntry> deltas) {
+    if (deltas.isEmpty()) {
+      return;
+    }
+
+    List<Object[]> args = deltas.stream()
+      .sorted(LOCK_ORDER)
+      .map(delta -> new Object[]{
+        Date.valueOf(delta.date()), delta.source().name(), delta.doctorId(), delta.providerId(), delta.status().name(),
+        delta.invoiceCount(), delta.totalAmount(), delta.insuranceCovered(), delta.patientPayable(),
+        delta.patientOutstanding(), delta.insuranceOutstanding()})
+      .toList();
+
+    if (args.size() == 1) {
+      jdbcTemplate.update(UPSERT, args.get(0));
+    } else {
+      jdbcTemplate.batchUpdate(UPSERT, args);
+    }
+  }
+
+  // totais do período (data de emissão) agrupados pela dimensão; faturas canceladas não entram na receita
+  public List<Totals> sumBy(LedgerDimension dimension, LocalDate from, LocalDate to) {
+    String column = dimension.column();
+    String sql = "SELECT " + column + ", " + SUMS + " FROM tb_invoice_ledger_daily " +
+      "WHERE ledger_date BETWEEN ? AND ? AND status <> ? GROUP BY " + column + " ORDER BY " + column;
+    return jdbcTemplate.query(sql, (rs, i) -> new Totals(
+      rs.getString(1), rs.getLong(2), rs.getBigDecimal(3), rs.getBigDecimal(4),
+      rs.getBigDecimal(5), rs.getBigDecimal(6), rs.getBigDecimal(7)), Date.valueOf(from), Date.valueOf(to), InvoiceStatus.CANCELLED.name());
+  }
+
+  // saldo em aberto por dia de emissão até asOf; providerId null = todos os convênios
+  public List<Totals> outstandingByDay(LocalDate asOf, Long providerId) {
+    String sql = "SELECT ledger_date, " + SUMS + " FROM tb_invoice_ledger_daily " +
+      "WHERE status IN (?, ?) AND ledger_date <= ?" + (providerId != null ? " AND provider_id = ?" : "") +
+      " GROUP BY ledger_date";
+    Object[] params = providerId != null
+      ? new Object[]{InvoiceStatus.PENDING.name(), InvoiceStatus.INSURANCE_PENDING.name(), Date.valueOf(asOf), providerId}
+      : new Object[]{InvoiceStatus.PENDING.name(), InvoiceStatus.INSURANCE_PENDING.name(), Date.valueOf(asOf)};
+    return jdbcTemplate.query(sql, (rs, i) -> new Totals(
+      rs.getString(1), rs.getLong(2), rs.getBigDecimal(3), rs.getBigDecimal(4),
+      rs.getBigDecimal(5), rs.getBigDecimal(6), rs.getBigDecimal(7)), params);
+  }
+}
@@ -2,19 +2,59 @@ package com.hms.billing.repositories;
 
 import com.hms.billing.entities.Invoice;
 import com.hms.billing.enums.InvoiceStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
   List<Invoice> findByPatientId(String patientId);
 
-  List<Invoice> findByDoctorId(String doctorId);
+  // paginação keyset (mais recentes primeiro): usa o índice (doctor_id, id) sem OFFSET
+  List<Invoice> findByDoctorIdAndIdLessThanOrderByIdDesc(String doctorId, Long id, Pageable pageable);
 
-  Optional<Invoice> findByAppointmentId(Long appointmentId);
+  // fila de trabalho (mais antigas primeiro): usa o índice (status, id)
+  List<Invoice> findByStatusAndIdGreaterThanOrderByIdAsc(InvoiceStatus status, Long id, Pageable pageable);
 
-  List<Invoice> findByStatus(InvoiceStatus status);
+  Optional<Invoice> findByAppointmentId(Long appointmentId);
 
   Optional<Invoice> findByPharmacySaleId(Long pharmacySaleId);
+
+  // Exportação em lote: ids em ordem crescente a partir do último lido (cursor), sem OFFSET.
+  // Filtros nulos são ignorados; o convênio é o que cobriu a fatura na emissão.
+  @Query("""
+    SELECT i.id FROM Invoice i
+    WHERE i.id > :afterId
+      AND (:status IS NULL OR i.status = :status)
+      AND (:from IS NULL OR i.issuedAt >= :from)
+      AND (:to IS NULL OR i.issuedAt < :to)
+      AND (:providerId IS NULL OR i.insuranceProviderId = :providerId)
+    ORDER BY i.id
+    """)
+  List<Long> findExportIds(
+    @Param("status") InvoiceStatus status,
+    @Param("providerId") Long providerId,
+    @Param("from") LocalDateTime from,
+    @Param("to") LocalDateTime to,
+    @Param("afterId") Long afterId,
+    Pageable pageable
+  );
+
+  @Query("""
+    SELECT COUNT(i) FROM Invoice i
+    WHERE (:status IS NULL OR i.status = :status)
+      AND (:from IS NULL OR i.issuedAt >= :from)
+      AND (:to IS NULL OR i.issuedAt < :to)
+      AND (:providerId IS NULL OR i.insuranceProviderId = :providerId)
+    """)
+  long countForExport(
+    @Param("status") InvoiceStatus status,
+    @Param("providerId") Long providerId,
+    @Param("from") LocalDateTime from,
+    @Param("to") LocalDateTime to
+  );
 }
\ No newline at end of file
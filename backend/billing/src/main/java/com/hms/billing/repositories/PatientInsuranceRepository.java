@@ -1,10 +1,21 @@
 package com.hms.billing.repositories;
 
+import com.hms.billing.dto.insurance.InsuranceCoverage;
 import com.hms.billing.entities.PatientInsurance;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.util.List;
 
 public interface PatientInsuranceRepository extends JpaRepository<PatientInsurance, Long> {
-  Optional<PatientInsurance> findByPatientId(String patientId);
-}
\ No newline at end of file
+
+  // convênios do paciente, do cadastro mais recente ao mais antigo, numa consulta só (sem carregar as entidades)
+  @Query("""
+    SELECT new com.hms.billing.dto.insurance.InsuranceCoverage(p.id, p.name, p.coveragePercentage, p.active, pi.validUntil)
+    FROM PatientInsurance pi JOIN pi.provider p
+    WHERE pi.patientId = :patientId
+    ORDER BY pi.id DESC
+    """)
+  List<InsuranceCoverage> findCoverageByPatientId(@Param("patientId") String patientId);
+}
@@ -0,0 +1,10 @@
+package com.hms.billing.repositories;
+
+import com.hms.billing.entities.PatientReadModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface PatientReadModelRepository extends JpaRepository<PatientReadModel, Long> {
+  Optional<PatientReadModel> findByUserId(Long userId);
+}
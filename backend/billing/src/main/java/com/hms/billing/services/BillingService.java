@@ -1,7 +1,9 @@
 package com.hms.billing.services;
 
+import com.hms.billing.dto.response.InvoicePageResponse;
 import com.hms.billing.entities.Invoice;
 import com.hms.billing.entities.PatientInsurance;
+import com.hms.common.pdf.PdfDocument;
 
 import java.util.List;
 
@@ -10,7 +12,7 @@ public interface BillingService {
 
   List<Invoice> getInvoicesByPatient(String patientId);
 
-  List<Invoice> getInvoicesByDoctor(String doctorId);
+  InvoicePageResponse getInvoicesByDoctor(String doctorId, String cursor, int size);
 
   PatientInsurance registerPatientInsurance(String patientId, Long providerId, String policyNumber);
 
@@ -18,7 +20,7 @@ public interface BillingService {
 
   void processInsurancePayment(Long invoiceId);
 
-  byte[] generateInvoicePdf(Long invoiceId);
+  PdfDocument generateInvoicePdf(Long invoiceId);
 
-  List<Invoice> getPendingInsuranceInvoices();
+  InvoicePageResponse getPendingInsuranceInvoices(String cursor, int size);
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.hms.billing.services;
+
+import com.hms.billing.dto.insurance.InsuranceCoverage;
+import com.hms.billing.repositories.PatientInsuranceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Convênios por paciente em memória (provedor, percentual, ativo, validade). A emissão de fatura resolve a
+// cobertura aqui em vez de buscar PatientInsurance + provedor a cada consulta; paciente sem convênio também
+// fica em cache (lista vazia). A validade é conferida na leitura, então vencer não exige invalidação.
+// Invalidado ao fim da transação que cadastra convênio (registerPatientInsurance) ou altera um provedor
+// (InsuranceProviderListener). Cada instância tem o seu cache: ttl-minutes limita quanto tempo as outras
+// (e alterações feitas direto no banco) ficam com o dado antigo.
+@Component
+public class InsuranceCoverageCache {
+
+  private final PatientInsuranceRepository patientInsuranceRepository;
+  private final long ttlNanos;
+  private final int maxEntries;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  // incrementada a cada invalidação: uma carga que começou antes dela não fica no cache
+  private final AtomicLong generation = new AtomicLong();
+
+  private final Counter hits;
+  private final Counter misses;
+
+  public InsuranceCoverageCache(
+    PatientInsuranceRepository patientInsuranceRepository,
+    MeterRegistry meterRegistry,
+    @Value("${application.billing.coverage-cache.ttl-minutes:10}") long ttlMinutes,
+    @Value("${application.billing.coverage-cache.max-entries:50000}") int maxEntries
+  ) {
+    this.patientInsuranceRepository = patientInsuranceRepository;
+    this.ttlNanos = Duration.ofMinutes(ttlMinutes).toNanos();
+    this.maxEntries = maxEntries;
+
+    this.hits = cacheCounter(meterRegistry, "hit");
+    this.misses = cacheCounter(meterRegistry, "miss");
+    Gauge.builder("billing.coverage.cache.size", entries, Map::size)
+      .description("Pacientes com convênio em cache")
+      .register(meterRegistry);
+    Gauge.builder("billing.coverage.cache.hit.ratio", this, InsuranceCoverageCache::hitRatio)
+      .description("Fração das consultas de cobertura atendidas pelo cache desde o início")
+      .register(meterRegistry);
+  }
+
+  // convênios do paciente, do cadastro mais recente ao mais antigo
+  public List<InsuranceCoverage> coverages(String patientId) {
+    long now = System.nanoTime();
+    Entry cached = entries.get(patientId);
+    if (cached != null && now - cached.loadedAt() < ttlNanos) {
+      hits.increment();
+      return cached.coverages();
+    }
+
+    misses.increment();
+    long loadedGeneration = generation.get();
+    Entry loaded = new Entry(List.copyOf(patientInsuranceRepository.findCoverageByPatientId(patientId)), now);
+    store(patientId, loaded, loadedGeneration, now);
+    return loaded.coverages();
+  }
+
+  // convênio que cobre a data: o cadastro mais recente com provedor ativo e dentro da validade
+  public Optional<InsuranceCoverage> activeCoverage(String patientId, LocalDate date) {
+    return coverages(patientId).stream().filter(coverage -> coverage.coversOn(date)).findFirst();
+  }
+
+  public void evictPatient(String patientId) {
+    afterTransaction(() -> entries.remove(patientId));
+  }
+
+  // percentual, nome ou status do provedor mudou: sai todo paciente que o tem
+  public void evictProvider(Long providerId) {
+    afterTransaction(() -> entries.values().removeIf(entry ->
+      entry.coverages().stream().anyMatch(coverage -> Objects.equals(coverage.providerId(), providerId))));
+  }
+
+  double hitRatio() {
+    double total = hits.count() + misses.count();
+    return total == 0 ? 0 : hits.count() / total;
+  }
+
+  private void store(String patientId, Entry loaded, long loadedGeneration, long now) {
+    if (entries.size() >= maxEntries) {
+      entries.values().removeIf(entry -> now - entry.loadedAt() >= ttlNanos);
+    }
+    if (entries.size() >= maxEntries) {
+      return;
+    }
+    entries.put(patientId, loaded);
+    // invalidação durante a carga: o que foi lido pode ser anterior a ela
+    if (generation.get() != loadedGeneration) {
+      entries.remove(patientId, loaded);
+    }
+  }
+
+  // só depois do commit a nova versão está visível para quem recarregar; antes disso uma leitura
+  // concorrente ainda veria (e guardaria) o dado antigo
+  private void afterTransaction(Runnable eviction) {
+    Runnable invalidate = () -> {
+      generation.incrementAndGet();
+      eviction.run();
+    };
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      invalidate.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        invalidate.run();
+      }
+    });
+  }
+
+  private static Counter cacheCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("billing.coverage.cache")
+      .description("Consultas de cobertura de convênio por resultado (hit/miss no cache)")
+      .tags("result", result)
+      .register(meterRegistry);
+  }
+
+  private record Entry(List<InsuranceCoverage> coverages, long loadedAt) {
+  }
+}
@@ -0,0 +1,10 @@
+package com.hms.billing.services;
+
+import com.hms.billing.dto.response.SettlementReportResponse;
+import com.hms.billing.enums.RemittanceFormat;
+
+import java.io.InputStream;
+
+public interface InsuranceSettlementService {
+  SettlementReportResponse settle(InputStream remittance, RemittanceFormat format);
+}
@@ -0,0 +1,14 @@
+package com.hms.billing.services;
+
+import com.hms.billing.dto.request.InvoiceExportRequest;
+import com.hms.billing.dto.response.InvoiceExportJobResponse;
+
+import java.nio.file.Path;
+
+public interface InvoiceExportService {
+  InvoiceExportJobResponse submit(InvoiceExportRequest request, Long requesterId);
+
+  InvoiceExportJobResponse getJob(Long jobId);
+
+  Path getArchive(Long jobId);
+}
@@ -0,0 +1,23 @@
+package com.hms.billing.services;
+
+import com.hms.billing.dto.ledger.LedgerEntry;
+import com.hms.billing.dto.response.ArAgingResponse;
+import com.hms.billing.dto.response.RevenueReportResponse;
+import com.hms.billing.entities.Invoice;
+import com.hms.billing.enums.LedgerDimension;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface LedgerService {
+  void recordCreated(Invoice invoice);
+
+  // before = LedgerEntry.of(invoice) capturado antes de alterar a fatura
+  void recordChange(LedgerEntry before, Invoice after);
+
+  void apply(Collection<LedgerEntry> deltas);
+
+  RevenueReportResponse getRevenue(LocalDate from, LocalDate to, LedgerDimension groupBy);
+
+  ArAgingResponse getArAging(LocalDate asOf, Long providerId);
+}
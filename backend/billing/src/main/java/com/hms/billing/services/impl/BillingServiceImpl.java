@@ -3,24 +3,39 @@ package com.hms.billing.services.impl;
 import com.hms.billing.clients.ProfileFeignClient;
 import com.hms.billing.dto.external.DoctorDTO;
 import com.hms.billing.dto.external.PatientDTO;
+import com.hms.billing.dto.ledger.LedgerEntry;
+import com.hms.billing.dto.response.InvoicePageResponse;
+import com.hms.billing.entities.DoctorReadModel;
 import com.hms.billing.entities.InsuranceProvider;
 import com.hms.billing.entities.Invoice;
 import com.hms.billing.entities.PatientInsurance;
+import com.hms.billing.entities.PatientReadModel;
 import com.hms.billing.enums.InvoiceStatus;
+import com.hms.billing.repositories.DoctorReadModelRepository;
 import com.hms.billing.repositories.InsuranceProviderRepository;
 import com.hms.billing.repositories.InvoiceRepository;
 import com.hms.billing.repositories.PatientInsuranceRepository;
+import com.hms.billing.repositories.PatientReadModelRepository;
 import com.hms.billing.services.BillingService;
+import com.hms.billing.services.InsuranceCoverageCache;
+import com.hms.billing.services.LedgerService;
+import com.hms.billing.util.InvoiceCursor;
 import com.hms.common.dto.response.ResponseWrapper;
 import com.hms.common.exceptions.InvalidOperationException;
 import com.hms.common.exceptions.ResourceNotFoundException;
+import com.hms.common.pdf.PdfCache;
+import com.hms.common.pdf.PdfDocument;
+import com.hms.common.pdf.PdfRenderer;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -29,6 +44,7 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -37,21 +53,36 @@ public class BillingServiceImpl implements BillingService {
 
   private final InvoiceRepository invoiceRepository;
   private final PatientInsuranceRepository patientInsuranceRepository;
-  private final PdfGeneratorService pdfGeneratorService;
+  private final PdfRenderer pdfRenderer;
+  private final PdfCache pdfCache;
   private final InsuranceProviderRepository providerRepository;
   private final ProfileFeignClient profileClient;
+  private final DoctorReadModelRepository doctorReadModelRepository;
+  private final PatientReadModelRepository patientReadModelRepository;
+  private final LedgerService ledgerService;
+  private final InsuranceCoverageCache coverageCache;
+
+  @Value("${application.billing.page.max-size:100}")
+  private int maxPageSize;
 
   @Autowired
   @Lazy
   private BillingServiceImpl self;
 
   private static final BigDecimal BASE_FEE = new BigDecimal("200.00");
+  private static final String PDF_CACHE = "invoices";
 
+  // read model (eventos patient.*) primeiro; Feign só para usuário que ainda não chegou por evento
   private String resolvePatientId(String userIdInput) {
     try {
       Long userId = Long.valueOf(userIdInput);
+      Optional<PatientReadModel> cached = patientReadModelRepository.findByUserId(userId);
+      if (cached.isPresent()) {
+        return String.valueOf(cached.get().getPatientId());
+      }
       ResponseWrapper<PatientDTO> response = self.fetchPatientByUserIdSafely(userId);
       if (response != null && response.data() != null) {
+        remember(() -> self.rememberPatient(userId, response.data()));
         return String.valueOf(response.data().id());
       }
     } catch (NumberFormatException e) {
@@ -82,6 +113,7 @@ public class BillingServiceImpl implements BillingService {
     applyInsuranceIfAvailable(invoice, patientId, consultationFee);
 
     invoiceRepository.save(invoice);
+    ledgerService.recordCreated(invoice);
     log.info("Fatura gerada com status {} para a consulta ID {}", invoice.getStatus(), appointmentId);
   }
 
@@ -92,13 +124,26 @@ public class BillingServiceImpl implements BillingService {
   }
 
   @Override
-  public List<Invoice> getInvoicesByDoctor(String doctorId) {
-    return invoiceRepository.findByDoctorId(doctorId);
+  public InvoicePageResponse getInvoicesByDoctor(String doctorId, String cursor, int size) {
+    int pageSize = Math.clamp(size, 1, maxPageSize);
+    long beforeId = cursor == null || cursor.isBlank() ? Long.MAX_VALUE : InvoiceCursor.decode(cursor).id();
+    // busca um item a mais só para saber se existe próxima página
+    return page(invoiceRepository.findByDoctorIdAndIdLessThanOrderByIdDesc(doctorId, beforeId, PageRequest.of(0, pageSize + 1)), pageSize);
   }
 
   @Override
-  public List<Invoice> getPendingInsuranceInvoices() {
-    return invoiceRepository.findByStatus(InvoiceStatus.INSURANCE_PENDING);
+  public InvoicePageResponse getPendingInsuranceInvoices(String cursor, int size) {
+    int pageSize = Math.clamp(size, 1, maxPageSize);
+    long afterId = cursor == null || cursor.isBlank() ? 0L : InvoiceCursor.decode(cursor).id();
+    return page(invoiceRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+      InvoiceStatus.INSURANCE_PENDING, afterId, PageRequest.of(0, pageSize + 1)), pageSize);
+  }
+
+  private static InvoicePageResponse page(List<Invoice> rows, int pageSize) {
+    boolean hasMore = rows.size() > pageSize;
+    List<Invoice> page = hasMore ? rows.subList(0, pageSize) : rows;
+    String nextCursor = hasMore ? new InvoiceCursor(page.get(page.size() - 1).getId()).encode() : null;
+    return new InvoicePageResponse(page, nextCursor, hasMore);
   }
 
   @Override
@@ -109,11 +154,13 @@ public class BillingServiceImpl implements BillingService {
     InsuranceProvider provider = providerRepository.findById(providerId)
       .orElseThrow(() -> new ResourceNotFoundException("Insurance Provider", providerId));
 
-    return patientInsuranceRepository.save(PatientInsurance.builder()
+    PatientInsurance insurance = patientInsuranceRepository.save(PatientInsurance.builder()
       .patientId(patientId)
       .provider(provider)
       .policyNumber(policyNumber)
       .validUntil(LocalDate.now().plusYears(1)).build());
+    coverageCache.evictPatient(patientId);
+    return insurance;
   }
 
   @Override
@@ -124,9 +171,13 @@ public class BillingServiceImpl implements BillingService {
       throw new InvalidOperationException("Esta fatura já foi paga pelo paciente.");
     }
 
+    LedgerEntry before = LedgerEntry.of(invoice);
     invoice.setPatientPaidAt(LocalDateTime.now());
     checkFinalize(invoice);
-    return invoiceRepository.save(invoice);
+    Invoice saved = invoiceRepository.save(invoice);
+    ledgerService.recordChange(before, saved);
+    pdfCache.evict(PDF_CACHE, invoiceId);
+    return saved;
   }
 
   @Override
@@ -135,17 +186,30 @@ public class BillingServiceImpl implements BillingService {
     Invoice invoice = findInvoice(invoiceId);
     if (invoice.getInsuranceCovered().compareTo(BigDecimal.ZERO) == 0) return;
 
+    LedgerEntry before = LedgerEntry.of(invoice);
     invoice.setInsurancePaidAt(LocalDateTime.now());
     checkFinalize(invoice);
     invoiceRepository.save(invoice);
+    ledgerService.recordChange(before, invoice);
+    pdfCache.evict(PDF_CACHE, invoiceId);
   }
 
   @Override
   @Transactional(readOnly = true)
-  public byte[] generateInvoicePdf(Long invoiceId) {
+  public PdfDocument generateInvoicePdf(Long invoiceId) {
+    // busca e dados do perfil aqui (404 e falhas antes da resposta começar); a conversão roda no pool do renderizador.
+    // Mesma versão da fatura = mesmo PDF: no hit não há chamadas ao profile-service nem renderização
     Invoice invoice = findInvoice(invoiceId);
-    Map<String, Object> data = buildPdfData(invoice);
-    return pdfGeneratorService.generatePdfFromHtml("invoice", data);
+    return pdfCache.get(PDF_CACHE, invoice.getId(), invoice.getVersion(),
+      () -> renderInvoicePdf(invoice));
+  }
+
+  // com nomes de fallback ("Paciente 12") o PDF vai para o cliente mas não para o cache da versão
+  private PdfDocument renderInvoicePdf(Invoice invoice) {
+    Map<String, Object> data = new HashMap<>();
+    boolean complete = buildPdfData(invoice, data);
+    PdfDocument document = pdfRenderer.document("invoice-template", data);
+    return complete ? document : PdfDocument.uncached(document);
   }
 
   private Invoice findInvoice(Long id) {
@@ -157,8 +221,14 @@ public class BillingServiceImpl implements BillingService {
     try {
       if (doctorId == null) return BASE_FEE;
       Long id = Long.valueOf(doctorId);
+      // taxa mantida pelos eventos doctor.*; sem taxa no read model (médico ainda não sincronizado) vai ao profile
+      Optional<BigDecimal> cachedFee = doctorReadModelRepository.findById(id).map(DoctorReadModel::getConsultationFee);
+      if (cachedFee.isPresent()) {
+        return cachedFee.get();
+      }
       ResponseWrapper<DoctorDTO> response = self.fetchDoctorSafely(id);
       if (response != null && response.data() != null && response.data().consultationFee() != null) {
+        remember(() -> self.rememberDoctor(id, response.data()));
         return response.data().consultationFee();
       }
       return BASE_FEE;
@@ -169,12 +239,12 @@ public class BillingServiceImpl implements BillingService {
   }
 
   private void applyInsuranceIfAvailable(Invoice invoice, String patientId, BigDecimal fee) {
-    patientInsuranceRepository.findByPatientId(patientId)
-      .filter(i -> i.getProvider().isActive() && (i.getValidUntil() == null || i.getValidUntil().isAfter(LocalDate.now())))
-      .ifPresentOrElse(ins -> {
-        BigDecimal covered = fee.multiply(ins.getProvider().getCoveragePercentage());
+    coverageCache.activeCoverage(patientId, LocalDate.now())
+      .ifPresentOrElse(coverage -> {
+        BigDecimal covered = fee.multiply(coverage.coveragePercentage());
         invoice.setInsuranceCovered(covered);
         invoice.setPatientPayable(fee.subtract(covered));
+        invoice.setInsuranceProviderId(coverage.providerId());
         invoice.setStatus(InvoiceStatus.INSURANCE_PENDING);
       }, () -> {
         invoice.setInsuranceCovered(BigDecimal.ZERO);
@@ -192,40 +262,111 @@ public class BillingServiceImpl implements BillingService {
     }
   }
 
-  private Map<String, Object> buildPdfData(Invoice invoice) {
-    Map<String, Object> data = new HashMap<>();
+  // preenche data e diz se os nomes de paciente e médico foram encontrados
+  private boolean buildPdfData(Invoice invoice, Map<String, Object> data) {
     data.put("invoiceId", invoice.getId());
     data.put("issuedAt", invoice.getIssuedAt());
     data.put("totalAmount", invoice.getTotalAmount());
+    data.put("insuranceCovered", invoice.getInsuranceCovered());
+    data.put("patientPayable", invoice.getPatientPayable());
     data.put("status", invoice.getStatus());
+    data.put("isPaid", invoice.getStatus() == InvoiceStatus.PAID);
+    data.put("isPending", invoice.getStatus() == InvoiceStatus.PENDING || invoice.getStatus() == InvoiceStatus.INSURANCE_PENDING);
+    data.put("paidAt", invoice.getPaidAt());
+
+    // nome do convênio já aqui, dentro da transação: o template é processado fora dela
+    boolean hasInsurance = invoice.getInsuranceCovered() != null && invoice.getInsuranceCovered().signum() > 0;
+    data.put("hasInsurance", hasInsurance);
+    // convênio aplicado na emissão, não o atual do paciente (que pode ter trocado de plano depois)
+    if (hasInsurance && invoice.getInsuranceProviderId() != null) {
+      providerRepository.findById(invoice.getInsuranceProviderId())
+        .ifPresent(provider -> data.put("insuranceName", provider.getName()));
+    }
 
-    String pName = "Paciente " + invoice.getPatientId();
-    String dName = "Médico " + invoice.getDoctorId();
+    // nomes dos read models (alimentados pelos eventos do profile): valem também nas exportações em lote, que
+    // rodam sem requisição e por isso chamam o profile-service sem token; o Feign fica para ids ainda não sincronizados
+    String pName = null;
+    String dName = null;
 
     try {
       if (invoice.getPatientId() != null) {
         Long patientId = Long.valueOf(invoice.getPatientId());
-        ResponseWrapper<PatientDTO> pResponse = self.fetchPatientSafely(patientId);
-        PatientDTO p = (pResponse != null) ? pResponse.data() : null;
-        if (p != null) {
-          pName = p.name() + (p.cpf() != null ? " (CPF: " + p.cpf() + ")" : "");
+        pName = patientReadModelRepository.findById(patientId)
+          .filter(model -> model.getFullName() != null)
+          .map(model -> patientInfo(model.getFullName(), model.getCpf()))
+          .orElse(null);
+        if (pName == null) {
+          ResponseWrapper<PatientDTO> pResponse = self.fetchPatientSafely(patientId);
+          PatientDTO p = (pResponse != null) ? pResponse.data() : null;
+          if (p != null) {
+            pName = patientInfo(p.name(), p.cpf());
+          }
         }
       }
       if (invoice.getDoctorId() != null) {
         Long doctorId = Long.valueOf(invoice.getDoctorId());
-        ResponseWrapper<DoctorDTO> dResponse = self.fetchDoctorSafely(doctorId);
-        DoctorDTO d = (dResponse != null) ? dResponse.data() : null;
-        if (d != null) {
-          dName = "Dr. " + d.name();
+        dName = doctorReadModelRepository.findById(doctorId)
+          .map(DoctorReadModel::getFullName)
+          .orElse(null);
+        if (dName == null) {
+          ResponseWrapper<DoctorDTO> dResponse = self.fetchDoctorSafely(doctorId);
+          DoctorDTO d = (dResponse != null) ? dResponse.data() : null;
+          if (d != null) {
+            dName = d.name();
+          }
         }
       }
     } catch (Exception e) {
       log.warn("PDF parcial: {}", e.getMessage());
     }
 
-    data.put("patientName", pName);
-    data.put("doctorName", dName);
-    return data;
+    boolean complete = pName != null && dName != null;
+    if (pName == null) pName = "Paciente " + invoice.getPatientId();
+    dName = dName != null ? "Dr. " + dName : "Médico " + invoice.getDoctorId();
+
+    data.put("patientInfo", pName);
+    data.put("doctorInfo", dName);
+    return complete;
+  }
+
+  private static String patientInfo(String name, String cpf) {
+    return name + (cpf != null ? " (CPF: " + cpf + ")" : "");
+  }
+
+  private void remember(Runnable write) {
+    try {
+      write.run();
+    } catch (Exception e) {
+      log.debug("Read model não atualizado após consulta ao profile: {}", e.getMessage());
+    }
+  }
+
+  // Grava no read model o que veio do Feign num cold miss, em transação própria: uma corrida com o listener
+  // (mesma chave inserida pelos dois) só perde a gravação, sem afetar a fatura em andamento
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void rememberDoctor(Long doctorId, DoctorDTO doctor) {
+    DoctorReadModel model = doctorReadModelRepository.findById(doctorId).orElseGet(() -> {
+      DoctorReadModel newDoctor = new DoctorReadModel();
+      newDoctor.setDoctorId(doctorId);
+      return newDoctor;
+    });
+    if (model.getFullName() == null) model.setFullName(doctor.name());
+    model.setConsultationFee(doctor.consultationFee());
+    doctorReadModelRepository.save(model);
+  }
+
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void rememberPatient(Long userId, PatientDTO patient) {
+    Long patientId = Long.valueOf(patient.id());
+    PatientReadModel model = patientReadModelRepository.findById(patientId).orElseGet(() -> {
+      PatientReadModel p = new PatientReadModel();
+      p.setPatientId(patientId);
+      return p;
+    });
+    model.setUserId(userId);
+    if (model.getFullName() == null) model.setFullName(patient.name());
+    if (model.getCpf() == null) model.setCpf(patient.cpf());
+    patientReadModelRepository.save(model);
   }
 
   @CircuitBreaker(name = "profileService", fallbackMethod = "fetchPatientByUserIdFallback")
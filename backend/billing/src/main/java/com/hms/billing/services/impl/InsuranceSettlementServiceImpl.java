@@ -0,0 +1,298 @@
+package com.hms.billing.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hms.billing.dto.ledger.LedgerEntry;
+import com.hms.billing.dto.request.RemittanceLine;
+import com.hms.billing.dto.response.SettlementReportResponse;
+import com.hms.billing.entities.Invoice;
+import com.hms.billing.enums.InvoiceStatus;
+import com.hms.billing.enums.RemittanceFormat;
+import com.hms.billing.enums.SettlementOutcome;
+import com.hms.billing.repositories.InsuranceSettlementRepository;
+import com.hms.billing.repositories.InsuranceSettlementRepository.Policy;
+import com.hms.billing.services.InsuranceSettlementService;
+import com.hms.billing.services.LedgerService;
+import com.hms.billing.util.RemittanceReader;
+import com.hms.common.exceptions.InvalidOperationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Liquidação em lote dos repasses de convênio. O arquivo é lido em streaming e processado em lotes de
+// chunk-size linhas, cada lote na sua transação: um SELECT ... FOR UPDATE das faturas citadas (por id ou pela
+// apólice), a decisão linha a linha em memória, um UPDATE por data de pagamento e um upsert do ledger.
+// Lotes já confirmados continuam valendo se um lote seguinte falhar; reenviar o arquivo é seguro
+// (as faturas já pagas voltam como ALREADY_SETTLED).
+@Slf4j
+@Service
+public class InsuranceSettlementServiceImpl implements InsuranceSettlementService {
+
+  private final InsuranceSettlementRepository settlementRepository;
+  private final LedgerService ledgerService;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+  private final MeterRegistry meterRegistry;
+  private final int chunkSize;
+  private final int maxIssues;
+
+  public InsuranceSettlementServiceImpl(
+    InsuranceSettlementRepository settlementRepository,
+    LedgerService ledgerService,
+    TransactionTemplate transactionTemplate,
+    ObjectMapper objectMapper,
+    MeterRegistry meterRegistry,
+    @Value("${application.billing.settlement.chunk-size:1000}") int chunkSize,
+    @Value("${application.billing.settlement.max-report-issues:500}") int maxIssues
+  ) {
+    this.settlementRepository = settlementRepository;
+    this.ledgerService = ledgerService;
+    this.transactionTemplate = transactionTemplate;
+    this.objectMapper = objectMapper;
+    this.meterRegistry = meterRegistry;
+    this.chunkSize = Math.max(1, chunkSize);
+    this.maxIssues = Math.max(0, maxIssues);
+  }
+
+  @Override
+  public SettlementReportResponse settle(InputStream remittance, RemittanceFormat format) {
+    long start = System.nanoTime();
+    Report report = new Report(maxIssues);
+    // faturas liquidadas por lotes anteriores deste arquivo (para apontar DUPLICATE, não ALREADY_SETTLED)
+    Set<Long> settled = new HashSet<>();
+    List<RemittanceLine> chunk = new ArrayList<>(chunkSize);
+    boolean applied = true;
+
+    try (RemittanceReader reader = RemittanceReader.open(remittance, format, objectMapper)) {
+      RemittanceLine line;
+      while (applied && (line = reader.next()) != null) {
+        chunk.add(line);
+        if (chunk.size() == chunkSize) {
+          applied = apply(chunk, settled, report);
+          chunk.clear();
+        }
+      }
+    } catch (IOException e) {
+      if (report.totalLines == 0 && chunk.isEmpty()) {
+        throw new InvalidOperationException("Arquivo de repasse inválido: " + message(e));
+      }
+      report.error = "Leitura interrompida após a linha " + lastLine(chunk, report) + ": " + message(e);
+    }
+    // o que foi lido antes de um erro de leitura também é aplicado
+    if (applied && !chunk.isEmpty()) {
+      apply(chunk, settled, report);
+    }
+
+    SettlementReportResponse response = report.toResponse((System.nanoTime() - start) / 1_000_000);
+    log.info("Repasse processado: {} linhas, {} liquidadas ({}), {} rejeitadas em {} ms{}", response.totalLines(),
+      response.settledCount(), response.settledAmount(), response.rejectedCount(), response.elapsedMs(),
+      response.error() != null ? " - " + response.error() : "");
+    return response;
+  }
+
+  private boolean apply(List<RemittanceLine> lines, Set<Long> settled, Report report) {
+    ChunkResult result;
+    try {
+      result = transactionTemplate.execute(status -> settleChunk(lines, settled));
+    } catch (RuntimeException e) {
+      log.error("Falha ao liquidar as linhas {}-{} do repasse", lines.get(0).lineNumber(),
+        lines.get(lines.size() - 1).lineNumber(), e);
+      report.error = "Falha ao aplicar as linhas " + lines.get(0).lineNumber() + "-" +
+        lines.get(lines.size() - 1).lineNumber() + "; elas e as seguintes não foram processadas";
+      return false;
+    }
+
+    settled.addAll(result.settledIds());
+    Map<SettlementOutcome, Long> counts = new EnumMap<>(SettlementOutcome.class);
+    for (Decision decision : result.decisions()) {
+      report.add(decision);
+      counts.merge(decision.outcome(), 1L, Long::sum);
+    }
+    counts.forEach((outcome, count) ->
+      meterRegistry.counter("billing.settlement.lines", "outcome", outcome.name()).increment(count));
+    return true;
+  }
+
+  private ChunkResult settleChunk(List<RemittanceLine> lines, Set<Long> settledBefore) {
+    Set<Long> ids = new TreeSet<>();
+    Set<String> policyNumbers = new HashSet<>();
+    for (RemittanceLine line : lines) {
+      if (line.error() == null && line.invoiceId() != null) {
+        ids.add(line.invoiceId());
+      } else if (line.error() == null) {
+        policyNumbers.add(line.policyNumber());
+      }
+    }
+
+    Map<Long, Invoice> byId = settlementRepository.lockByIds(ids);
+    Map<String, List<Policy>> policies = settlementRepository.findPolicies(policyNumbers);
+    Set<String> patientIds = new TreeSet<>();
+    policies.values().forEach(holders -> holders.forEach(holder -> patientIds.add(holder.patientId())));
+    Map<String, List<Invoice>> pending = settlementRepository.lockPendingByPatients(patientIds);
+
+    Set<Long> settledHere = new HashSet<>();
+    List<Decision> decisions = new ArrayList<>(lines.size());
+    List<LedgerEntry> deltas = new ArrayList<>();
+    Map<LocalDateTime, List<Long>> updates = new TreeMap<>();
+    LocalDateTime now = LocalDateTime.now();
+
+    for (RemittanceLine line : lines) {
+      Decision decision;
+      if (line.error() != null) {
+        decision = new Decision(line, SettlementOutcome.INVALID_LINE, null, line.error());
+      } else if (line.invoiceId() != null) {
+        decision = matchById(line, byId.get(line.invoiceId()), settledBefore, settledHere);
+      } else {
+        decision = matchByPolicy(line, policies.get(line.policyNumber()), pending, settledBefore, settledHere);
+      }
+
+      if (decision.outcome() == SettlementOutcome.SETTLED) {
+        Invoice invoice = decision.invoice();
+        LocalDateTime paidAt = line.paidOn() != null ? line.paidOn().atStartOfDay() : now;
+        deltas.add(LedgerEntry.of(invoice).negate());
+        markPaid(invoice, paidAt);
+        deltas.add(LedgerEntry.of(invoice));
+        updates.computeIfAbsent(paidAt, key -> new ArrayList<>()).add(invoice.getId());
+        settledHere.add(invoice.getId());
+      }
+      decisions.add(decision);
+    }
+
+    updates.forEach((paidAt, invoiceIds) -> {
+      int updated = settlementRepository.markInsurancePaid(invoiceIds, paidAt);
+      // as linhas estão travadas desde o SELECT: diferença aqui é erro, desfaz o lote
+      if (updated != invoiceIds.size()) {
+        throw new IllegalStateException("Esperadas " + invoiceIds.size() + " faturas atualizadas, foram " + updated);
+      }
+    });
+    ledgerService.apply(deltas);
+    return new ChunkResult(decisions, settledHere);
+  }
+
+  private Decision matchById(RemittanceLine line, Invoice invoice, Set<Long> settledBefore, Set<Long> settledHere) {
+    if (invoice == null) {
+      return new Decision(line, SettlementOutcome.NOT_FOUND, null, "Fatura não encontrada");
+    }
+    if (settledBefore.contains(invoice.getId()) || settledHere.contains(invoice.getId())) {
+      return new Decision(line, SettlementOutcome.DUPLICATE, invoice, "Fatura já liquidada por outra linha do arquivo");
+    }
+    if (invoice.getInsurancePaidAt() != null) {
+      return new Decision(line, SettlementOutcome.ALREADY_SETTLED, invoice, "Convênio já pago em " + invoice.getInsurancePaidAt().toLocalDate());
+    }
+    if (invoice.getStatus() != InvoiceStatus.INSURANCE_PENDING || invoice.getInsuranceCovered().signum() == 0) {
+      return new Decision(line, SettlementOutcome.NOT_ELIGIBLE, invoice, "Fatura " + invoice.getStatus() + " sem parte do convênio a receber");
+    }
+    if (invoice.getInsuranceCovered().compareTo(line.amount()) != 0) {
+      return new Decision(line, SettlementOutcome.AMOUNT_MISMATCH, invoice, "Valor esperado: " + invoice.getInsuranceCovered());
+    }
+    return new Decision(line, SettlementOutcome.SETTLED, invoice, null);
+  }
+
+  // a fatura pendente mais antiga do convênio da apólice com exatamente o valor repassado
+  private Decision matchByPolicy(
+    RemittanceLine line,
+    List<Policy> holders,
+    Map<String, List<Invoice>> pending,
+    Set<Long> settledBefore,
+    Set<Long> settledHere
+  ) {
+    if (holders == null) {
+      return new Decision(line, SettlementOutcome.NOT_FOUND, null, "Apólice não cadastrada");
+    }
+    return holders.stream()
+      .flatMap(holder -> pending.getOrDefault(holder.patientId(), List.of()).stream()
+        .filter(invoice -> Objects.equals(invoice.getInsuranceProviderId(), holder.providerId())))
+      .filter(invoice -> !settledBefore.contains(invoice.getId()) && !settledHere.contains(invoice.getId()))
+      .filter(invoice -> invoice.getInsuranceCovered().compareTo(line.amount()) == 0)
+      .min(Comparator.comparing(Invoice::getId))
+      .map(invoice -> new Decision(line, SettlementOutcome.SETTLED, invoice, null))
+      .orElseGet(() -> new Decision(line, SettlementOutcome.NO_MATCH, null,
+        "Nenhuma fatura pendente da apólice com valor " + line.amount()));
+  }
+
+  // mesmo efeito do UPDATE em markInsurancePaid, para o delta do ledger
+  private static void markPaid(Invoice invoice, LocalDateTime paidAt) {
+    invoice.setInsurancePaidAt(paidAt);
+    if (invoice.getPatientPaidAt() != null || invoice.getPatientPayable().signum() == 0) {
+      invoice.setStatus(InvoiceStatus.PAID);
+      invoice.setPaidAt(paidAt);
+    }
+  }
+
+  // sem a posição/trecho do stream que o Jackson anexa à mensagem
+  private static String message(IOException e) {
+    return e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+  }
+
+  private static long lastLine(List<RemittanceLine> chunk, Report report) {
+    return chunk.isEmpty() ? report.lastLine : chunk.get(chunk.size() - 1).lineNumber();
+  }
+
+  private record Decision(RemittanceLine line, SettlementOutcome outcome, Invoice invoice, String detail) {
+  }
+
+  private record ChunkResult(List<Decision> decisions, Set<Long> settledIds) {
+  }
+
+  // acumula o relatório lote a lote; só as linhas rejeitadas são guardadas, até maxIssues
+  private static final class Report {
+
+    private final int maxIssues;
+    private final Map<SettlementOutcome, Long> outcomes = new EnumMap<>(SettlementOutcome.class);
+    private final List<SettlementReportResponse.Issue> issues = new ArrayList<>();
+    private long totalLines;
+    private long lastLine;
+    private long settledCount;
+    private BigDecimal settledAmount = BigDecimal.ZERO;
+    private boolean truncated;
+    private String error;
+
+    private Report(int maxIssues) {
+      this.maxIssues = maxIssues;
+    }
+
+    private void add(Decision decision) {
+      RemittanceLine line = decision.line();
+      totalLines++;
+      lastLine = line.lineNumber();
+      outcomes.merge(decision.outcome(), 1L, Long::sum);
+      if (decision.outcome() == SettlementOutcome.SETTLED) {
+        settledCount++;
+        settledAmount = settledAmount.add(line.amount());
+      } else if (issues.size() < maxIssues) {
+        issues.add(new SettlementReportResponse.Issue(
+          line.lineNumber(),
+          decision.invoice() != null ? decision.invoice().getId() : line.invoiceId(),
+          line.policyNumber(),
+          line.amount(),
+          decision.outcome(),
+          decision.detail()
+        ));
+      } else {
+        truncated = true;
+      }
+    }
+
+    private SettlementReportResponse toResponse(long elapsedMs) {
+      return new SettlementReportResponse(totalLines, settledCount, settledAmount, totalLines - settledCount,
+        outcomes, issues, truncated, error, elapsedMs);
+    }
+  }
+}
@@ -0,0 +1,310 @@
+package com.hms.billing.services.impl;
+
+import com.hms.billing.dto.request.InvoiceExportRequest;
+import com.hms.billing.dto.response.InvoiceExportJobResponse;
+import com.hms.billing.entities.InvoiceExportJob;
+import com.hms.billing.enums.ExportJobStatus;
+import com.hms.billing.repositories.InvoiceExportJobRepository;
+import com.hms.billing.repositories.InvoiceRepository;
+import com.hms.billing.services.BillingService;
+import com.hms.billing.services.InvoiceExportService;
+import com.hms.common.exceptions.InvalidOperationException;
+import com.hms.common.exceptions.ResourceNotFoundException;
+import com.hms.common.exceptions.ServiceUnavailableException;
+import com.hms.common.pdf.PdfDocument;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Exportação em lote de faturas em PDF. O pedido só grava o job e devolve o id; um worker percorre as
+// faturas do filtro por cursor (id crescente, lotes de batch-size), gera os PDFs de cada lote em paralelo
+// (parallelism documentos de cada vez, no pool do PdfRenderer e aproveitando o cache de PDF) e grava
+// na ordem num ZIP em disco, que só ganha o nome final quando completo.
+// O ZIP fica na instância que executou o job: com várias instâncias, dir deve ser um volume compartilhado.
+@Slf4j
+@Service
+public class InvoiceExportServiceImpl implements InvoiceExportService {
+
+  private static final String SERVICE_NAME = "invoice-export";
+  private static final int RENDER_ATTEMPTS = 5;
+
+  private final InvoiceExportJobRepository jobRepository;
+  private final InvoiceRepository invoiceRepository;
+  private final BillingService billingService;
+  private final Path directory;
+  private final int batchSize;
+  private final Duration retention;
+  private final Duration stalledAfter;
+  private final ThreadPoolExecutor jobs;
+  private final ExecutorService renders;
+
+  public InvoiceExportServiceImpl(
+    InvoiceExportJobRepository jobRepository,
+    InvoiceRepository invoiceRepository,
+    BillingService billingService,
+    MeterRegistry meterRegistry,
+    @Value("${application.billing.export.dir:${java.io.tmpdir}/hms-billing-exports}") Path directory,
+    @Value("${application.billing.export.batch-size:100}") int batchSize,
+    @Value("${application.billing.export.parallelism:3}") int parallelism,
+    @Value("${application.billing.export.max-concurrent-jobs:1}") int maxConcurrentJobs,
+    @Value("${application.billing.export.queue-capacity:20}") int queueCapacity,
+    @Value("${application.billing.export.retention-hours:72}") long retentionHours,
+    @Value("${application.billing.export.stalled-minutes:30}") long stalledMinutes
+  ) {
+    this.jobRepository = jobRepository;
+    this.invoiceRepository = invoiceRepository;
+    this.billingService = billingService;
+    this.directory = directory;
+    this.batchSize = batchSize;
+    this.retention = Duration.ofHours(retentionHours);
+    this.stalledAfter = Duration.ofMinutes(stalledMinutes);
+
+    AtomicInteger sequence = new AtomicInteger();
+    this.jobs = new ThreadPoolExecutor(
+      maxConcurrentJobs, maxConcurrentJobs, 0L, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity),
+      runnable -> new Thread(runnable, "invoice-export-" + sequence.incrementAndGet()),
+      new ThreadPoolExecutor.AbortPolicy()
+    );
+    AtomicInteger renderSequence = new AtomicInteger();
+    this.renders = Executors.newFixedThreadPool(parallelism, runnable -> {
+      Thread thread = new Thread(runnable, "invoice-export-render-" + renderSequence.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    Gauge.builder("billing.export.jobs.queued", jobs, e -> e.getQueue().size())
+      .description("Exportações de faturas aguardando um worker")
+      .register(meterRegistry);
+  }
+
+  @Override
+  public InvoiceExportJobResponse submit(InvoiceExportRequest request, Long requesterId) {
+    if (request.from() != null && request.to() != null && request.from().isAfter(request.to())) {
+      throw new InvalidOperationException("Período inválido: a data inicial é posterior à final.");
+    }
+    if (jobs.getQueue().remainingCapacity() == 0) {
+      throw new ServiceUnavailableException(SERVICE_NAME);
+    }
+
+    InvoiceExportJob job = new InvoiceExportJob();
+    job.setInvoiceStatus(request.status());
+    job.setProviderId(request.providerId());
+    job.setFromDate(request.from());
+    job.setToDate(request.to());
+    job.setRequestedBy(requesterId);
+    job = jobRepository.save(job);
+
+    Long jobId = job.getId();
+    try {
+      jobs.execute(() -> run(jobId));
+    } catch (RejectedExecutionException e) {
+      fail(job, "Fila de exportação cheia");
+      throw new ServiceUnavailableException(SERVICE_NAME, e);
+    }
+    log.info("Exportação de faturas {} enfileirada por {}", jobId, requesterId);
+    return InvoiceExportJobResponse.fromEntity(job);
+  }
+
+  @Override
+  public InvoiceExportJobResponse getJob(Long jobId) {
+    return InvoiceExportJobResponse.fromEntity(findJob(jobId));
+  }
+
+  @Override
+  public Path getArchive(Long jobId) {
+    InvoiceExportJob job = findJob(jobId);
+    if (job.getStatus() != ExportJobStatus.COMPLETED) {
+      throw new InvalidOperationException("Exportação " + jobId + " não está disponível para download (status " + job.getStatus() + ").");
+    }
+    Path archive = Path.of(job.getFilePath());
+    if (!Files.isRegularFile(archive)) {
+      throw new ResourceNotFoundException("Export archive", jobId);
+    }
+    return archive;
+  }
+
+  // Remove ZIPs além da retenção e encerra jobs parados (instância que caiu no meio da exportação)
+  @Scheduled(fixedDelayString = "${application.billing.export.cleanup-interval-ms:3600000}")
+  public void cleanup() {
+    LocalDateTime now = LocalDateTime.now();
+    for (InvoiceExportJob job : jobRepository.findByStatusAndUpdatedAtBefore(ExportJobStatus.COMPLETED, now.minus(retention))) {
+      deleteQuietly(job.getFilePath() != null ? Path.of(job.getFilePath()) : null);
+      job.setStatus(ExportJobStatus.EXPIRED);
+      job.setFilePath(null);
+      jobRepository.save(job);
+    }
+    // em execução o job grava progresso a cada lote; na fila pode esperar outro job terminar
+    List<InvoiceExportJob> stalled = new ArrayList<>(
+      jobRepository.findByStatusAndUpdatedAtBefore(ExportJobStatus.RUNNING, now.minus(stalledAfter)));
+    stalled.addAll(jobRepository.findByStatusAndUpdatedAtBefore(ExportJobStatus.QUEUED, now.minus(retention)));
+    for (InvoiceExportJob job : stalled) {
+      log.warn("Exportação {} parada desde {}: marcada como falha", job.getId(), job.getUpdatedAt());
+      fail(job, "Interrompida: sem progresso desde " + job.getUpdatedAt());
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    jobs.shutdownNow();
+    renders.shutdownNow();
+  }
+
+  void run(Long jobId) {
+    InvoiceExportJob job = jobRepository.findById(jobId).orElse(null);
+    if (job == null || job.getStatus() != ExportJobStatus.QUEUED) {
+      return;
+    }
+    LocalDateTime from = job.getFromDate() != null ? job.getFromDate().atStartOfDay() : null;
+    LocalDateTime to = job.getToDate() != null ? job.getToDate().plusDays(1).atStartOfDay() : null;
+
+    job.setStatus(ExportJobStatus.RUNNING);
+    job.setStartedAt(LocalDateTime.now());
+    job.setTotalInvoices((int) invoiceRepository.countForExport(job.getInvoiceStatus(), job.getProviderId(), from, to));
+    job = jobRepository.save(job);
+
+    Path archive = directory.resolve("faturas-" + jobId + ".zip");
+    Path partial = directory.resolve("faturas-" + jobId + ".zip.part");
+    List<String> failures = new ArrayList<>();
+    try {
+      Files.createDirectories(directory);
+      try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(partial), 64 * 1024))) {
+        long afterId = 0;
+        while (true) {
+          List<Long> ids = invoiceRepository.findExportIds(
+            job.getInvoiceStatus(), job.getProviderId(), from, to, afterId, PageRequest.of(0, batchSize));
+          if (ids.isEmpty()) {
+            break;
+          }
+
+          // o lote inteiro é gerado em paralelo e gravado na ordem dos ids
+          List<Future<byte[]>> pdfs = new ArrayList<>(ids.size());
+          for (Long id : ids) {
+            pdfs.add(renders.submit(() -> render(id)));
+          }
+          for (int i = 0; i < ids.size(); i++) {
+            try {
+              writeEntry(zip, "fatura_" + ids.get(i) + ".pdf", pdfs.get(i).get());
+            } catch (ExecutionException e) {
+              Throwable cause = e.getCause();
+              log.warn("Exportação {}: falha na fatura {}: {}", jobId, ids.get(i), cause.getMessage());
+              failures.add(ids.get(i) + ": " + cause.getMessage());
+            }
+          }
+
+          afterId = ids.get(ids.size() - 1);
+          job.setProcessedInvoices(job.getProcessedInvoices() + ids.size());
+          job.setFailedInvoices(failures.size());
+          job = jobRepository.save(job);
+        }
+        if (!failures.isEmpty()) {
+          writeEntry(zip, "erros.txt", String.join("\n", failures).getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      Files.move(partial, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+      job.setStatus(ExportJobStatus.COMPLETED);
+      job.setFilePath(archive.toString());
+      job.setFileSize(Files.size(archive));
+      job.setFinishedAt(LocalDateTime.now());
+      jobRepository.save(job);
+      log.info("Exportação {} concluída: {} faturas, {} falhas, {} bytes",
+        jobId, job.getProcessedInvoices(), failures.size(), job.getFileSize());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      deleteQuietly(partial);
+      fail(job, "Interrompida");
+    } catch (Exception e) {
+      log.error("Exportação {} falhou: {}", jobId, e.getMessage(), e);
+      deleteQuietly(partial);
+      fail(job, e.getMessage());
+    }
+  }
+
+  // renderizador cheio (downloads interativos têm prioridade) não derruba a exportação: espera e tenta de novo
+  private byte[] render(Long invoiceId) throws IOException, InterruptedException {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        PdfDocument document = billingService.generateInvoicePdf(invoiceId);
+        // nome de paciente/médico não encontrado: a fatura vai para erros.txt em vez de um PDF com "Paciente 12"
+        if (!document.cacheable()) {
+          throw new IllegalStateException("dados do paciente ou do médico indisponíveis");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        document.writeTo(out);
+        return out.toByteArray();
+      } catch (ServiceUnavailableException e) {
+        if (attempt >= RENDER_ATTEMPTS) {
+          throw e;
+        }
+        Thread.sleep(200L * attempt);
+      }
+    }
+  }
+
+  // PDF já é comprimido: entradas STORED evitam gastar CPU deflacionando de novo
+  private static void writeEntry(ZipOutputStream zip, String name, byte[] content) throws IOException {
+    CRC32 crc = new CRC32();
+    crc.update(content);
+    ZipEntry entry = new ZipEntry(name);
+    entry.setMethod(ZipEntry.STORED);
+    entry.setSize(content.length);
+    entry.setCompressedSize(content.length);
+    entry.setCrc(crc.getValue());
+    zip.putNextEntry(entry);
+    zip.write(content);
+    zip.closeEntry();
+  }
+
+  private void fail(InvoiceExportJob job, String message) {
+    job.setStatus(ExportJobStatus.FAILED);
+    job.setErrorMessage(message != null && message.length() > 500 ? message.substring(0, 500) : message);
+    job.setFinishedAt(LocalDateTime.now());
+    jobRepository.save(job);
+  }
+
+  private InvoiceExportJob findJob(Long jobId) {
+    return jobRepository.findById(jobId)
+      .orElseThrow(() -> new ResourceNotFoundException("Export job", jobId));
+  }
+
+  private static void deleteQuietly(Path file) {
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Falha ao remover {}: {}", file, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package com.hms.billing.services.impl;
+
+import com.hms.billing.dto.ledger.LedgerEntry;
+import com.hms.billing.dto.response.ArAgingResponse;
+import com.hms.billing.dto.response.RevenueReportResponse;
+import com.hms.billing.entities.DoctorReadModel;
+import com.hms.billing.entities.InsuranceProvider;
+import com.hms.billing.entities.Invoice;
+import com.hms.billing.enums.LedgerDimension;
+import com.hms.billing.repositories.DoctorReadModelRepository;
+import com.hms.billing.repositories.InsuranceProviderRepository;
+import com.hms.billing.repositories.InvoiceLedgerRepository;
+import com.hms.billing.repositories.InvoiceLedgerRepository.Totals;
+import com.hms.billing.services.LedgerService;
+import com.hms.common.exceptions.InvalidOperationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Ledger diário mantido de forma incremental: cada criação/alteração de fatura soma seus deltas nas linhas
+// (dia de emissão, origem, médico, convênio, status). Os relatórios leem só o ledger, nunca tb_invoices.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerServiceImpl implements LedgerService {
+
+  private static final String NO_PROVIDER = "0";
+  private static final int[] AGING_LIMITS = {30, 60, 90};
+  private static final String[] AGING_RANGES = {"0-30", "31-60", "61-90", "90+"};
+
+  private final InvoiceLedgerRepository ledgerRepository;
+  private final InsuranceProviderRepository providerRepository;
+  private final DoctorReadModelRepository doctorReadModelRepository;
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordCreated(Invoice invoice) {
+    apply(List.of(LedgerEntry.of(invoice)));
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordChange(LedgerEntry before, Invoice after) {
+    apply(List.of(before.negate(), LedgerEntry.of(after)));
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void apply(Collection<LedgerEntry> deltas) {
+    // deltas da mesma linha viram um só (ex.: paciente pagou, status continua INSURANCE_PENDING)
+    Map<LedgerEntry.Key, LedgerEntry> merged = new LinkedHashMap<>();
+    for (LedgerEntry delta : deltas) {
+      merged.merge(delta.key(), delta, LedgerEntry::plus);
+    }
+    ledgerRepository.apply(merged.values().stream().filter(delta -> !delta.isZero()).toList());
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public RevenueReportResponse getRevenue(LocalDate from, LocalDate to, LedgerDimension groupBy) {
+    if (from.isAfter(to)) {
+      throw new InvalidOperationException("Período inválido: a data inicial é posterior à final.");
+    }
+
+    List<Totals> rows = ledgerRepository.sumBy(groupBy, from, to);
+    Function<String, String> labels = labels(groupBy, rows);
+    List<RevenueReportResponse.Line> lines = rows.stream()
+      .map(row -> line(row.key(), labels.apply(row.key()), row))
+      .toList();
+
+    Totals sum = rows.stream().reduce(
+      new Totals(null, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO),
+      LedgerServiceImpl::add);
+    return new RevenueReportResponse(from, to, groupBy, lines, line(null, "Total", sum));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public ArAgingResponse getArAging(LocalDate asOf, Long providerId) {
+    long[] counts = new long[AGING_RANGES.length];
+    BigDecimal[] patient = new BigDecimal[AGING_RANGES.length];
+    BigDecimal[] insurance = new BigDecimal[AGING_RANGES.length];
+    Arrays.fill(patient, BigDecimal.ZERO);
+    Arrays.fill(insurance, BigDecimal.ZERO);
+
+    for (Totals day : ledgerRepository.outstandingByDay(asOf, providerId)) {
+      int bucket = bucket(ChronoUnit.DAYS.between(LocalDate.parse(day.key()), asOf));
+      counts[bucket] += day.invoiceCount();
+      patient[bucket] = patient[bucket].add(day.patientOutstanding());
+      insurance[bucket] = insurance[bucket].add(day.insuranceOutstanding());
+    }
+
+    List<ArAgingResponse.Bucket> buckets = new ArrayList<>(AGING_RANGES.length);
+    BigDecimal total = BigDecimal.ZERO;
+    for (int i = 0; i < AGING_RANGES.length; i++) {
+      BigDecimal outstanding = patient[i].add(insurance[i]);
+      buckets.add(new ArAgingResponse.Bucket(AGING_RANGES[i], counts[i], patient[i], insurance[i], outstanding));
+      total = total.add(outstanding);
+    }
+    return new ArAgingResponse(asOf, providerId, buckets, total);
+  }
+
+  private static int bucket(long ageInDays) {
+    for (int i = 0; i < AGING_LIMITS.length; i++) {
+      if (ageInDays <= AGING_LIMITS[i]) {
+        return i;
+      }
+    }
+    return AGING_LIMITS.length;
+  }
+
+  // nomes de convênio e médico para exibição; demais dimensões usam a própria chave
+  private Function<String, String> labels(LedgerDimension groupBy, List<Totals> rows) {
+    if (groupBy == LedgerDimension.PROVIDER) {
+      Map<String, String> names = providerRepository.findAll().stream()
+        .collect(Collectors.toMap(p -> String.valueOf(p.getId()), InsuranceProvider::getName));
+      return key -> NO_PROVIDER.equals(key) ? "Particular" : names.getOrDefault(key, key);
+    }
+    if (groupBy == LedgerDimension.DOCTOR) {
+      List<Long> ids = rows.stream().map(Totals::key).filter(key -> key.matches("\\d+")).map(Long::valueOf).toList();
+      Map<String, String> names = doctorReadModelRepository.findAllById(ids).stream()
+        .filter(doctor -> doctor.getFullName() != null)
+        .collect(Collectors.toMap(doctor -> String.valueOf(doctor.getDoctorId()), DoctorReadModel::getFullName));
+      return key -> names.getOrDefault(key, key);
+    }
+    return key -> key;
+  }
+
+  private static RevenueReportResponse.Line line(String key, String label, Totals totals) {
+    BigDecimal outstanding = totals.patientOutstanding().add(totals.insuranceOutstanding());
+    return new RevenueReportResponse.Line(
+      key,
+      label,
+      totals.invoiceCount(),
+      totals.totalAmount(),
+      totals.insuranceCovered(),
+      totals.patientPayable(),
+      totals.totalAmount().subtract(outstanding),
+      outstanding
+    );
+  }
+
+  private static Totals add(Totals a, Totals b) {
+    return new Totals(null, a.invoiceCount() + b.invoiceCount(), a.totalAmount().add(b.totalAmount()),
+      a.insuranceCovered().add(b.insuranceCovered()), a.patientPayable().add(b.patientPayable()),
+      a.patientOutstanding().add(b.patientOutstanding()), a.insuranceOutstanding().add(b.insuranceOutstanding()));
+  }
+}
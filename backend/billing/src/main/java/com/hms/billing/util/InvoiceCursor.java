@@ -0,0 +1,23 @@
+package com.hms.billing.util;
+
+import com.hms.common.exceptions.InvalidOperationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Cursor da paginação keyset das listagens de faturas: id do último item da página.
+// Vai para o cliente como string opaca.
+public record InvoiceCursor(Long id) {
+
+  public String encode() {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static InvoiceCursor decode(String cursor) {
+    try {
+      return new InvoiceCursor(Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)));
+    } catch (IllegalArgumentException e) {
+      throw new InvalidOperationException("Cursor de paginação inválido.");
+    }
+  }
+}
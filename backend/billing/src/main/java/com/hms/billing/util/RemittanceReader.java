@@ -0,0 +1,174 @@
+package com.hms.billing.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hms.billing.dto.request.RemittanceLine;
+import com.hms.billing.enums.RemittanceFormat;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Leitura em streaming do arquivo de repasse: uma linha por vez, sem carregar o arquivo inteiro.
+// next() devolve null no fim; linhas ruins voltam como RemittanceLine.invalid e a leitura continua.
+// IOException só quando não dá para seguir (cabeçalho ausente, JSON malformado).
+public abstract class RemittanceReader implements Closeable {
+
+  public abstract RemittanceLine next() throws IOException;
+
+  public static RemittanceReader open(InputStream input, RemittanceFormat format, ObjectMapper objectMapper) throws IOException {
+    return format == RemittanceFormat.JSON ? new Json(input, objectMapper) : new Csv(input);
+  }
+
+  static RemittanceLine line(long lineNumber, String invoiceId, String policyNumber, String amount, String paidOn) {
+    try {
+      Long id = isBlank(invoiceId) ? null : Long.valueOf(invoiceId.trim());
+      String policy = isBlank(policyNumber) ? null : policyNumber.trim();
+      if (id == null && policy == null) {
+        return RemittanceLine.invalid(lineNumber, "Informe invoiceId ou policyNumber");
+      }
+      if (isBlank(amount)) {
+        return RemittanceLine.invalid(lineNumber, "Valor ausente");
+      }
+      BigDecimal value = new BigDecimal(amount.trim());
+      if (value.signum() <= 0) {
+        return RemittanceLine.invalid(lineNumber, "Valor deve ser positivo");
+      }
+      LocalDate date = isBlank(paidOn) ? null : LocalDate.parse(paidOn.trim());
+      return new RemittanceLine(lineNumber, id, policy, value, date, null);
+    } catch (NumberFormatException | DateTimeParseException e) {
+      return RemittanceLine.invalid(lineNumber, "Campo inválido: " + e.getMessage());
+    }
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+
+  // invoice_id, Invoice ID, invoiceId... -> invoiceid
+  private static String normalize(String name) {
+    return name.replaceAll("[^A-Za-z]", "").toLowerCase(Locale.ROOT);
+  }
+
+  private static final class Csv extends RemittanceReader {
+
+    private final BufferedReader reader;
+    private final char delimiter;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long lineNumber = 1;
+
+    private Csv(InputStream input) throws IOException {
+      this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+      String header = reader.readLine();
+      if (header == null) {
+        throw new IOException("Arquivo vazio");
+      }
+      header = header.replace("\uFEFF", "");
+      // planilhas pt-BR exportam com ; e vírgula decimal
+      this.delimiter = header.indexOf(';') >= 0 ? ';' : ',';
+      String[] names = split(header);
+      for (int i = 0; i < names.length; i++) {
+        columns.put(normalize(names[i]), i);
+      }
+      if (!columns.containsKey("amount") || !(columns.containsKey("invoiceid") || columns.containsKey("policynumber"))) {
+        throw new IOException("Cabeçalho deve ter amount e invoiceId e/ou policyNumber");
+      }
+    }
+
+    @Override
+    public RemittanceLine next() throws IOException {
+      String raw;
+      do {
+        raw = reader.readLine();
+        lineNumber++;
+        if (raw == null) {
+          return null;
+        }
+      } while (raw.isBlank());
+
+      String[] fields = split(raw);
+      String amount = field(fields, "amount");
+      if (amount != null && delimiter == ';') {
+        amount = amount.replace(".", "").replace(',', '.');
+      }
+      String paidOn = field(fields, "paidon");
+      return line(lineNumber, field(fields, "invoiceid"), field(fields, "policynumber"), amount,
+        paidOn != null ? paidOn : field(fields, "paidat"));
+    }
+
+    private String field(String[] fields, String column) {
+      Integer index = columns.get(column);
+      return index != null && index < fields.length ? fields[index] : null;
+    }
+
+    private String[] split(String raw) {
+      String[] fields = raw.split(String.valueOf(delimiter), -1);
+      for (int i = 0; i < fields.length; i++) {
+        String field = fields[i].trim();
+        if (field.length() >= 2 && field.startsWith("\"") && field.endsWith("\"")) {
+          field = field.substring(1, field.length() - 1);
+        }
+        fields[i] = field;
+      }
+      return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+      reader.close();
+    }
+  }
+
+  private static final class Json extends RemittanceReader {
+
+    private final JsonParser parser;
+    private final ObjectMapper objectMapper;
+    private long index;
+
+    private Json(InputStream input, ObjectMapper objectMapper) throws IOException {
+      this.objectMapper = objectMapper;
+      this.parser = objectMapper.getFactory().createParser(input);
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new IOException("O JSON deve ser um array de pagamentos");
+      }
+    }
+
+    @Override
+    public RemittanceLine next() throws IOException {
+      JsonToken token = parser.nextToken();
+      if (token == null || token == JsonToken.END_ARRAY) {
+        return null;
+      }
+      index++;
+      if (token != JsonToken.START_OBJECT) {
+        parser.skipChildren();
+        return RemittanceLine.invalid(index, "Item não é um objeto");
+      }
+      // só o objeto atual fica em memória
+      JsonNode node = objectMapper.readTree(parser);
+      return line(index, text(node, "invoiceId"), text(node, "policyNumber"), text(node, "amount"),
+        node.hasNonNull("paidOn") ? text(node, "paidOn") : text(node, "paidAt"));
+    }
+
+    private static String text(JsonNode node, String field) {
+      JsonNode value = node.get(field);
+      return value == null || value.isNull() ? null : value.asText();
+    }
+
+    @Override
+    public void close() throws IOException {
+      parser.close();
+    }
+  }
+}
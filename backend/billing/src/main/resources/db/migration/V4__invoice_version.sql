@@ -0,0 +1,6 @@
+-- ============================================================
+-- V4__invoice_version.sql
+-- Versão da fatura (@Version): chave do cache de PDF e controle otimista de concorrência
+-- ============================================================
+
+ALTER TABLE tb_invoices ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,28 @@
+-- ============================================================
+-- V5__invoice_export_jobs.sql
+-- Jobs de exportação em lote de faturas (ZIP de PDFs gerado em disco)
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS tb_invoice_export_jobs (
+    id                  BIGINT          NOT NULL AUTO_INCREMENT,
+    status              VARCHAR(20)     NOT NULL,
+    invoice_status      VARCHAR(50)     NULL,
+    provider_id         BIGINT          NULL,
+    from_date           DATE            NULL,
+    to_date             DATE            NULL,
+    requested_by        BIGINT          NULL,
+    total_invoices      INT             NOT NULL DEFAULT 0,
+    processed_invoices  INT             NOT NULL DEFAULT 0,
+    failed_invoices     INT             NOT NULL DEFAULT 0,
+    file_path           VARCHAR(500)    NULL,
+    file_size           BIGINT          NULL,
+    error_message       VARCHAR(500)    NULL,
+    created_at          DATETIME(6)     NULL,
+    updated_at          DATETIME(6)     NULL,
+    started_at          DATETIME(6)     NULL,
+    finished_at         DATETIME(6)     NULL,
+    CONSTRAINT pk_tb_invoice_export_jobs PRIMARY KEY (id)
+);
+
+-- limpeza de jobs expirados / interrompidos
+CREATE INDEX idx_invoice_export_jobs_status ON tb_invoice_export_jobs (status, updated_at);
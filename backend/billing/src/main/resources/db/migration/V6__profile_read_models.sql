@@ -0,0 +1,22 @@
+-- ============================================================
+-- V6__profile_read_models.sql
+-- Read models de médicos e pacientes (eventos doctor.* / patient.* do profile-service)
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS doctor_read_model (
+    doctor_id           BIGINT          NOT NULL,
+    user_id             BIGINT          NULL,
+    full_name           VARCHAR(255)    NULL,
+    consultation_fee    DECIMAL(10,2)   NULL,
+    CONSTRAINT pk_doctor_read_model PRIMARY KEY (doctor_id)
+);
+
+CREATE TABLE IF NOT EXISTS patient_read_model (
+    patient_id          BIGINT          NOT NULL,
+    user_id             BIGINT          NULL,
+    full_name           VARCHAR(255)    NULL,
+    CONSTRAINT pk_patient_read_model PRIMARY KEY (patient_id)
+);
+
+-- resolução userId -> patientId nas consultas de faturas do paciente
+CREATE INDEX idx_patient_read_model_user ON patient_read_model (user_id);
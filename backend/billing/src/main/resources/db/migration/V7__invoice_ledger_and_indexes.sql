@@ -0,0 +1,62 @@
+-- ============================================================
+-- V7__invoice_ledger_and_indexes.sql
+-- Índices das listagens de faturas e razão diário (ledger) agregado para relatórios
+-- ============================================================
+
+-- convênio que cobriu a fatura, gravado na emissão (dimensão do ledger)
+ALTER TABLE tb_invoices ADD COLUMN insurance_provider_id BIGINT NULL;
+
+UPDATE tb_invoices i
+    JOIN tb_patient_insurances pi ON pi.patient_id = i.patient_id
+SET i.insurance_provider_id = pi.provider_id
+WHERE i.insurance_covered > 0;
+
+-- listagens paginadas por id (keyset) e buscas por paciente / venda
+CREATE INDEX idx_invoices_patient ON tb_invoices (patient_id, id);
+CREATE INDEX idx_invoices_doctor ON tb_invoices (doctor_id, id);
+CREATE INDEX idx_invoices_status ON tb_invoices (status, id);
+CREATE INDEX idx_invoices_issued_at ON tb_invoices (issued_at);
+CREATE INDEX idx_invoices_pharmacy_sale ON tb_invoices (pharmacy_sale_id);
+CREATE INDEX idx_patient_insurances_patient ON tb_patient_insurances (patient_id);
+
+-- Uma linha por dia de emissão x origem x médico x convênio x status, atualizada na mesma transação
+-- que cria ou paga a fatura. Sem médico = '' e sem convênio = 0 (colunas da PK não aceitam NULL).
+CREATE TABLE IF NOT EXISTS tb_invoice_ledger_daily (
+    ledger_date             DATE            NOT NULL,
+    source                  VARCHAR(20)     NOT NULL,
+    doctor_id               VARCHAR(255)    NOT NULL,
+    provider_id             BIGINT          NOT NULL,
+    status                  VARCHAR(50)     NOT NULL,
+    invoice_count           BIGINT          NOT NULL DEFAULT 0,
+    total_amount            DECIMAL(14,2)   NOT NULL DEFAULT 0.00,
+    insurance_covered       DECIMAL(14,2)   NOT NULL DEFAULT 0.00,
+    patient_payable         DECIMAL(14,2)   NOT NULL DEFAULT 0.00,
+    patient_outstanding     DECIMAL(14,2)   NOT NULL DEFAULT 0.00,
+    insurance_outstanding   DECIMAL(14,2)   NOT NULL DEFAULT 0.00,
+    CONSTRAINT pk_tb_invoice_ledger_daily PRIMARY KEY (ledger_date, source, doctor_id, provider_id, status)
+);
+
+-- carga inicial a partir das faturas existentes (mesmas regras de LedgerEntry.of)
+INSERT INTO tb_invoice_ledger_daily (ledger_date, source, doctor_id, provider_id, status, invoice_count,
+                                     total_amount, insurance_covered, patient_payable,
+                                     patient_outstanding, insurance_outstanding)
+SELECT DATE(COALESCE(issued_at, NOW())),
+       CASE WHEN pharmacy_sale_id IS NULL THEN 'APPOINTMENT' ELSE 'PHARMACY' END,
+       COALESCE(doctor_id, ''),
+       COALESCE(insurance_provider_id, 0),
+       status,
+       COUNT(*),
+       SUM(total_amount),
+       SUM(insurance_covered),
+       SUM(patient_payable),
+       SUM(CASE WHEN status IN ('PAID', 'CANCELLED') OR patient_paid_at IS NOT NULL THEN 0 ELSE patient_payable END),
+       SUM(CASE WHEN status IN ('PAID', 'CANCELLED') OR insurance_paid_at IS NOT NULL THEN 0 ELSE insurance_covered END)
+FROM tb_invoices
+GROUP BY DATE(COALESCE(issued_at, NOW())),
+         CASE WHEN pharmacy_sale_id IS NULL THEN 'APPOINTMENT' ELSE 'PHARMACY' END,
+         COALESCE(doctor_id, ''),
+         COALESCE(insurance_provider_id, 0),
+         status;
+
+-- relatórios por período e aging (pendentes por data de emissão)
+CREATE INDEX idx_invoice_ledger_status_date ON tb_invoice_ledger_daily (status, ledger_date);
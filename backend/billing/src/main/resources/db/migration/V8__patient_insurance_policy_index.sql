@@ -0,0 +1,6 @@
+-- ============================================================
+-- V8__patient_insurance_policy_index.sql
+-- Busca de apólices na liquidação de repasses (policy_number IN (...) por lote)
+-- ============================================================
+
+CREATE INDEX idx_patient_insurances_policy ON tb_patient_insurances (policy_number);
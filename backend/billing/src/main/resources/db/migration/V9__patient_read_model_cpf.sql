@@ -0,0 +1,6 @@
+-- ============================================================
+-- V9__patient_read_model_cpf.sql
+-- CPF no read model de pacientes: o PDF da fatura não depende do profile-service (exportações em lote)
+-- ============================================================
+
+ALTER TABLE patient_read_model ADD COLUMN cpf VARCHAR(14) NULL;
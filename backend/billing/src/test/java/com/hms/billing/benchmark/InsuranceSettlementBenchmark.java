@@ -0,0 +1,153 @@
+package com.hms.billing.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hms.billing.dto.ledger.LedgerEntry;
+import com.hms.billing.dto.response.SettlementReportResponse;
+import com.hms.billing.entities.Invoice;
+import com.hms.billing.enums.RemittanceFormat;
+import com.hms.billing.repositories.DoctorReadModelRepository;
+import com.hms.billing.repositories.InsuranceProviderRepository;
+import com.hms.billing.repositories.InsuranceSettlementRepository;
+import com.hms.billing.repositories.InvoiceLedgerRepository;
+import com.hms.billing.services.impl.InsuranceSettlementServiceImpl;
+import com.hms.billing.services.impl.LedgerServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Arquivo de repasse com 100 mil linhas (90% por id, 10% pela apólice) sobre 100 mil faturas aguardando o convênio:
+// uma transação por linha (SELECT da fatura, UPDATE e upsert do ledger, como processInsurancePayment linha a linha)
+// x liquidação em lote (um SELECT ... FOR UPDATE, um UPDATE em conjunto e um upsert do ledger por lote de 1000).
+// H2 em memória: mede o número de idas ao banco e o trabalho por linha, não a latência de rede do MySQL,
+// que só aumenta a diferença.
+//
+//   mvn -pl billing test-compile exec:java -Dexec.classpathScope=test \
+//     -Dexec.mainClass=com.hms.billing.benchmark.InsuranceSettlementBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InsuranceSettlementBenchmark {
+
+  private static final int LINES = 100_000;
+  private static final int PATIENTS = 20_000;
+
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate transactionTemplate;
+  private InsuranceSettlementRepository settlementRepository;
+  private LedgerServiceImpl ledgerService;
+  private InsuranceSettlementServiceImpl settlementService;
+  private byte[] remittance;
+  private List<Long> invoiceIds;
+
+  @Setup
+  public void setUp() {
+    // sem o log DEBUG de cada comando SQL (logback sem configuração, fora do Spring Boot)
+    ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.INFO);
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(
+      "jdbc:h2:mem:settlement_" + UUID.randomUUID() + ";MODE=MYSQL;DB_CLOSE_DELAY=-1");
+    new ResourceDatabasePopulator(new ClassPathResource("settlement-schema.sql")).execute(dataSource);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    settlementRepository = new InsuranceSettlementRepository(jdbcTemplate);
+    ledgerService = new LedgerServiceImpl(new InvoiceLedgerRepository(jdbcTemplate),
+      Mockito.mock(InsuranceProviderRepository.class), Mockito.mock(DoctorReadModelRepository.class));
+    settlementService = new InsuranceSettlementServiceImpl(settlementRepository, ledgerService, transactionTemplate,
+      new ObjectMapper(), new SimpleMeterRegistry(), 1000, 500);
+
+    List<Object[]> invoices = new ArrayList<>(LINES);
+    LocalDateTime start = LocalDateTime.of(2026, 1, 1, 8, 0);
+    for (int i = 1; i <= LINES; i++) {
+      invoices.add(new Object[]{i, "p" + (i % PATIENTS), String.valueOf(i % 50), new BigDecimal(200), covered(i),
+        new BigDecimal(200).subtract(covered(i)), Timestamp.valueOf(start.plusMinutes(i))});
+    }
+    jdbcTemplate.batchUpdate("INSERT INTO tb_invoices (id, patient_id, doctor_id, total_amount, insurance_covered, patient_payable, " +
+      "status, insurance_provider_id, issued_at) VALUES (?, ?, ?, ?, ?, ?, 'INSURANCE_PENDING', 1, ?)", invoices);
+    List<Object[]> policies = new ArrayList<>(PATIENTS);
+    for (int p = 0; p < PATIENTS; p++) {
+      policies.add(new Object[]{"p" + p, "POL-" + p});
+    }
+    jdbcTemplate.batchUpdate("INSERT INTO tb_patient_insurances (patient_id, provider_id, policy_number) VALUES (?, 1, ?)", policies);
+
+    StringBuilder csv = new StringBuilder("invoiceId,policyNumber,amount,paidOn\n");
+    invoiceIds = new ArrayList<>(LINES);
+    for (int i = 1; i <= LINES; i++) {
+      invoiceIds.add((long) i);
+      if (i % 10 == 0) {
+        csv.append(',').append("POL-").append(i % PATIENTS);
+      } else {
+        csv.append(i).append(',');
+      }
+      csv.append(',').append(covered(i)).append(",2026-03-05\n");
+    }
+    remittance = csv.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  // cada medição começa com todas as faturas em aberto (o ledger só acumula; não entra na comparação)
+  @Setup(Level.Iteration)
+  public void reset() {
+    jdbcTemplate.update("UPDATE tb_invoices SET insurance_paid_at = NULL, paid_at = NULL, status = 'INSURANCE_PENDING', version = 0");
+  }
+
+  @Benchmark
+  public int perLineTransactions() {
+    LocalDateTime paidAt = LocalDateTime.of(2026, 3, 5, 0, 0);
+    int settled = 0;
+    for (Long id : invoiceIds) {
+      Integer updated = transactionTemplate.execute(status -> {
+        Invoice invoice = settlementRepository.lockByIds(List.of(id)).get(id);
+        LedgerEntry before = LedgerEntry.of(invoice);
+        invoice.setInsurancePaidAt(paidAt);
+        int rows = settlementRepository.markInsurancePaid(List.of(id), paidAt);
+        ledgerService.apply(List.of(before.negate(), LedgerEntry.of(invoice)));
+        return rows;
+      });
+      settled += updated != null ? updated : 0;
+    }
+    return settled;
+  }
+
+  @Benchmark
+  public SettlementReportResponse chunkedSettlement() {
+    return settlementService.settle(new ByteArrayInputStream(remittance), RemittanceFormat.CSV);
+  }
+
+  private static BigDecimal covered(int i) {
+    return new BigDecimal(100 + i % 50).setScale(2);
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(InsuranceSettlementBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -0,0 +1,102 @@
+package com.hms.billing.benchmark;
+
+import com.hms.billing.enums.InvoiceStatus;
+import com.hms.common.pdf.PdfRenderer;
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.HtmlConverter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.support.GenericApplicationContext;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// PDFs de fatura por segundo: conversão no thread da requisição com ConverterProperties/fontes novas a cada
+// chamada (caminho antigo) x PdfRenderer com fontes pré-carregadas, pool de 4 threads e escrita direta no destino.
+//
+//   mvn -pl billing test-compile exec:java -Dexec.classpathScope=test \
+//     -Dexec.mainClass=com.hms.billing.benchmark.InvoicePdfRenderBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class InvoicePdfRenderBenchmark {
+
+  private static final Map<String, Object> INVOICE = Map.ofEntries(
+    Map.entry("invoiceId", 48213L),
+    Map.entry("issuedAt", LocalDateTime.of(2026, 1, 28, 14, 30)),
+    Map.entry("paidAt", LocalDateTime.of(2026, 1, 29, 9, 5)),
+    Map.entry("status", InvoiceStatus.PAID),
+    Map.entry("isPaid", true),
+    Map.entry("isPending", false),
+    Map.entry("hasInsurance", true),
+    Map.entry("insuranceName", "Unimed"),
+    Map.entry("totalAmount", new BigDecimal("200.00")),
+    Map.entry("insuranceCovered", new BigDecimal("160.00")),
+    Map.entry("patientPayable", new BigDecimal("40.00")),
+    Map.entry("patientInfo", "Maria Fernanda Souza (CPF: 123.456.789-00)"),
+    Map.entry("doctorInfo", "Dr. João Almeida")
+  );
+
+  private SpringTemplateEngine templateEngine;
+  private PdfRenderer renderer;
+
+  @Setup
+  public void setUp() {
+    SpringResourceTemplateResolver resolver = new SpringResourceTemplateResolver();
+    resolver.setApplicationContext(new GenericApplicationContext());
+    resolver.setPrefix("classpath:/templates/");
+    resolver.setSuffix(".html");
+    resolver.setCharacterEncoding("UTF-8");
+    resolver.setCacheable(true);
+    templateEngine = new SpringTemplateEngine();
+    templateEngine.setTemplateResolver(resolver);
+
+    renderer = new PdfRenderer(templateEngine, new SimpleMeterRegistry(), 4, 32, 30_000, "classpath*:pdf/fonts/*.ttf");
+  }
+
+  @TearDown
+  public void tearDown() {
+    renderer.shutdown();
+  }
+
+  @Benchmark
+  public void perRequestConverter() {
+    Context context = new Context();
+    context.setVariables(INVOICE);
+    String html = templateEngine.process("invoice-template", context);
+    HtmlConverter.convertToPdf(html, OutputStream.nullOutputStream(), new ConverterProperties());
+  }
+
+  @Benchmark
+  public void sharedRenderer() throws IOException {
+    renderer.document("invoice-template", INVOICE).writeTo(OutputStream.nullOutputStream());
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(InvoicePdfRenderBenchmark.class.getSimpleName()).build()).run();
+  }
+}
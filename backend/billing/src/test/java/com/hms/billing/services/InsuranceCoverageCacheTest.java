@@ -0,0 +1,76 @@
+package com.hms.billing.services;
+
+import com.hms.billing.dto.insurance.InsuranceCoverage;
+import com.hms.billing.repositories.PatientInsuranceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InsuranceCoverageCacheTest {
+
+  private static final InsuranceCoverage UNIMED = new InsuranceCoverage(1L, "Unimed", new BigDecimal("0.80"), true, LocalDate.of(2026, 6, 30));
+  private static final InsuranceCoverage AMIL_INACTIVE = new InsuranceCoverage(2L, "Amil", new BigDecimal("0.50"), false, null);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final PatientInsuranceRepository repository = mock(PatientInsuranceRepository.class);
+  private InsuranceCoverageCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new InsuranceCoverageCache(repository, meterRegistry, 10, 100);
+    when(repository.findCoverageByPatientId("10")).thenReturn(List.of(AMIL_INACTIVE, UNIMED));
+    when(repository.findCoverageByPatientId("20")).thenReturn(List.of());
+  }
+
+  @Test
+  @DisplayName("Deve resolver do cache (inclusive paciente sem convênio), conferir ativo/validade na leitura e medir o hit rate")
+  void activeCoverage_ShouldServeFromCacheAndCheckValidityOnRead() {
+    assertEquals(UNIMED, cache.activeCoverage("10", LocalDate.of(2026, 3, 1)).orElseThrow());
+    assertEquals(UNIMED, cache.activeCoverage("10", LocalDate.of(2026, 3, 2)).orElseThrow());
+    // vencido: mesma entrada do cache, sem nova consulta
+    assertTrue(cache.activeCoverage("10", LocalDate.of(2026, 6, 30)).isEmpty());
+    assertTrue(cache.activeCoverage("20", LocalDate.of(2026, 3, 1)).isEmpty());
+    assertTrue(cache.activeCoverage("20", LocalDate.of(2026, 3, 1)).isEmpty());
+
+    verify(repository, times(1)).findCoverageByPatientId("10");
+    verify(repository, times(1)).findCoverageByPatientId("20");
+    assertEquals(3.0, meterRegistry.get("billing.coverage.cache").tag("result", "hit").counter().count());
+    assertEquals(0.6, meterRegistry.get("billing.coverage.cache.hit.ratio").gauge().value(), 1e-9);
+  }
+
+  @Test
+  @DisplayName("Deve invalidar por paciente e por provedor só depois do fim da transação")
+  void evict_ShouldInvalidateAfterTransactionCompletes() {
+    cache.coverages("10");
+    cache.coverages("20");
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      cache.evictPatient("20");
+      cache.coverages("20");
+      verify(repository, times(1)).findCoverageByPatientId("20");
+      TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    cache.coverages("20");
+    verify(repository, times(2)).findCoverageByPatientId("20");
+
+    // provedor 2 alterado: sai o paciente 10, que o tem entre os convênios; o 20 continua em cache
+    cache.evictProvider(2L);
+    cache.coverages("10");
+    cache.coverages("20");
+    verify(repository, times(2)).findCoverageByPatientId("10");
+    verify(repository, times(2)).findCoverageByPatientId("20");
+  }
+}
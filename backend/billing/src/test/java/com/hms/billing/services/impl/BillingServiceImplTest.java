@@ -1,12 +1,26 @@
 package com.hms.billing.services.impl;
 
 import com.hms.billing.clients.ProfileFeignClient;
+import com.hms.billing.dto.external.DoctorDTO;
+import com.hms.billing.dto.insurance.InsuranceCoverage;
+import com.hms.billing.dto.ledger.LedgerEntry;
+import com.hms.billing.dto.response.InvoicePageResponse;
+import com.hms.billing.entities.DoctorReadModel;
+import com.hms.billing.entities.InsuranceProvider;
 import com.hms.billing.entities.Invoice;
 import com.hms.billing.enums.InvoiceStatus;
+import com.hms.billing.repositories.DoctorReadModelRepository;
 import com.hms.billing.repositories.InsuranceProviderRepository;
 import com.hms.billing.repositories.InvoiceRepository;
 import com.hms.billing.repositories.PatientInsuranceRepository;
+import com.hms.billing.repositories.PatientReadModelRepository;
+import com.hms.billing.services.InsuranceCoverageCache;
+import com.hms.billing.services.LedgerService;
+import com.hms.common.dto.response.ResponseWrapper;
 import com.hms.common.exceptions.InvalidOperationException;
+import com.hms.common.pdf.PdfCache;
+import com.hms.common.pdf.PdfDocument;
+import com.hms.common.pdf.PdfRenderer;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,13 +29,19 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,7 +54,10 @@ class BillingServiceImplTest {
   private PatientInsuranceRepository patientInsuranceRepository;
 
   @Mock
-  private PdfGeneratorService pdfGeneratorService;
+  private PdfRenderer pdfRenderer;
+
+  @Mock
+  private PdfCache pdfCache;
 
   @Mock
   private InsuranceProviderRepository providerRepository;
@@ -42,6 +65,18 @@ class BillingServiceImplTest {
   @Mock
   private ProfileFeignClient profileClient;
 
+  @Mock
+  private DoctorReadModelRepository doctorReadModelRepository;
+
+  @Mock
+  private PatientReadModelRepository patientReadModelRepository;
+
+  @Mock
+  private LedgerService ledgerService;
+
+  @Mock
+  private InsuranceCoverageCache coverageCache;
+
   @InjectMocks
   private BillingServiceImpl billingService;
 
@@ -67,6 +102,76 @@ class BillingServiceImplTest {
     assertEquals(InvoiceStatus.PENDING, savedInvoice.getStatus());
   }
 
+  @Test
+  @DisplayName("Deve aplicar a cobertura do convênio resolvida pelo cache, sem consultar o cadastro de convênios")
+  void generateInvoiceForAppointment_ShouldApplyCachedCoverage() {
+    when(invoiceRepository.findByAppointmentId(100L)).thenReturn(Optional.empty());
+    when(coverageCache.activeCoverage(eq("10"), any()))
+      .thenReturn(Optional.of(new InsuranceCoverage(1L, "Unimed", new BigDecimal("0.80"), true, null)));
+
+    billingService.generateInvoiceForAppointment(100L, "10", "5");
+
+    verify(invoiceRepository).save(invoiceCaptor.capture());
+    Invoice savedInvoice = invoiceCaptor.getValue();
+    assertEquals(InvoiceStatus.INSURANCE_PENDING, savedInvoice.getStatus());
+    assertEquals(0, new BigDecimal("160.00").compareTo(savedInvoice.getInsuranceCovered()));
+    assertEquals(0, new BigDecimal("40.00").compareTo(savedInvoice.getPatientPayable()));
+    assertEquals(1L, savedInvoice.getInsuranceProviderId());
+    verifyNoInteractions(patientInsuranceRepository);
+  }
+
+  @Test
+  @DisplayName("Deve usar a taxa do read model sem chamar o profile e recorrer ao Feign só quando o médico não está sincronizado")
+  void generateInvoiceForAppointment_ShouldUseReadModelFee_AndFallbackToFeignOnMiss() {
+    ReflectionTestUtils.setField(billingService, "self", billingService);
+    when(invoiceRepository.findByAppointmentId(anyLong())).thenReturn(Optional.empty());
+    when(doctorReadModelRepository.findById(5L))
+      .thenReturn(Optional.of(new DoctorReadModel(5L, 50L, "Ana", new BigDecimal("350.00"))));
+    when(doctorReadModelRepository.findById(6L)).thenReturn(Optional.empty());
+    when(profileClient.getDoctor(6L)).thenReturn(ResponseWrapper.success(
+      new DoctorDTO("6", "Bruno", "CRM-6", "Cardiologia", new BigDecimal("420.00"))));
+
+    billingService.generateInvoiceForAppointment(100L, "10", "5");
+    billingService.generateInvoiceForAppointment(101L, "10", "6");
+
+    verify(invoiceRepository, times(2)).save(invoiceCaptor.capture());
+    assertEquals(new BigDecimal("350.00"), invoiceCaptor.getAllValues().get(0).getTotalAmount());
+    assertEquals(new BigDecimal("420.00"), invoiceCaptor.getAllValues().get(1).getTotalAmount());
+    verify(profileClient, never()).getDoctor(5L);
+
+    // o resultado do cold miss fica no read model para as próximas faturas
+    ArgumentCaptor<DoctorReadModel> cached = ArgumentCaptor.forClass(DoctorReadModel.class);
+    verify(doctorReadModelRepository).save(cached.capture());
+    assertEquals(6L, cached.getValue().getDoctorId());
+    assertEquals(new BigDecimal("420.00"), cached.getValue().getConsultationFee());
+  }
+
+  @Test
+  @DisplayName("O PDF deve mostrar o convênio aplicado na fatura, não o convênio atual do paciente")
+  @SuppressWarnings("unchecked")
+  void generateInvoicePdf_ShouldUseInvoiceInsuranceProvider() {
+    Invoice invoice = Invoice.builder()
+      .id(7L)
+      .totalAmount(new BigDecimal("200.00"))
+      .insuranceCovered(new BigDecimal("160.00"))
+      .patientPayable(new BigDecimal("40.00"))
+      .insuranceProviderId(1L)
+      .status(InvoiceStatus.INSURANCE_PENDING)
+      .build();
+    when(invoiceRepository.findById(7L)).thenReturn(Optional.of(invoice));
+    when(pdfCache.get(any(), any(), any(), any()))
+      .thenAnswer(call -> ((Supplier<PdfDocument>) call.getArgument(3)).get());
+    when(providerRepository.findById(1L))
+      .thenReturn(Optional.of(InsuranceProvider.builder().id(1L).name("Unimed").build()));
+
+    billingService.generateInvoicePdf(7L);
+
+    ArgumentCaptor<Map<String, Object>> data = ArgumentCaptor.forClass(Map.class);
+    verify(pdfRenderer).document(eq("invoice-template"), data.capture());
+    assertEquals("Unimed", data.getValue().get("insuranceName"));
+    verifyNoInteractions(coverageCache);
+  }
+
   @Test
   @DisplayName("Não deve gerar fatura duplicada para a mesma consulta (Idempotência)")
   void generateInvoiceForAppointment_ShouldNotCreate_WhenAlreadyExists() {
@@ -119,5 +224,42 @@ class BillingServiceImplTest {
     assertNotNull(result.getPaidAt());
 
     verify(invoiceRepository).save(existingInvoice);
+    // status mudou: o PDF em cache da fatura deixa de valer
+    verify(pdfCache).evict("invoices", invoiceId);
+
+    // ledger: sai da linha PENDING em aberto e entra na linha PAID
+    ArgumentCaptor<LedgerEntry> before = ArgumentCaptor.forClass(LedgerEntry.class);
+    verify(ledgerService).recordChange(before.capture(), eq(existingInvoice));
+    assertEquals(InvoiceStatus.PENDING, before.getValue().status());
+    assertEquals(new BigDecimal("150.00"), before.getValue().patientOutstanding());
+    assertEquals(BigDecimal.ZERO, LedgerEntry.of(result).patientOutstanding());
+  }
+
+  @Test
+  @DisplayName("Deve paginar as faturas do médico por cursor a partir do último id da página")
+  void getInvoicesByDoctor_ShouldReturnKeysetPage() {
+    ReflectionTestUtils.setField(billingService, "maxPageSize", 100);
+    when(invoiceRepository.findByDoctorIdAndIdLessThanOrderByIdDesc(eq("5"), eq(Long.MAX_VALUE), any()))
+      .thenReturn(List.of(invoice(30L), invoice(20L), invoice(10L)));
+
+    InvoicePageResponse first = billingService.getInvoicesByDoctor("5", null, 2);
+
+    assertEquals(List.of(30L, 20L), first.content().stream().map(Invoice::getId).toList());
+    assertTrue(first.hasMore());
+
+    when(invoiceRepository.findByDoctorIdAndIdLessThanOrderByIdDesc(eq("5"), eq(20L), any()))
+      .thenReturn(List.of(invoice(10L)));
+    InvoicePageResponse second = billingService.getInvoicesByDoctor("5", first.nextCursor(), 2);
+
+    assertEquals(List.of(10L), second.content().stream().map(Invoice::getId).toList());
+    assertFalse(second.hasMore());
+    assertNull(second.nextCursor());
+    assertThrows(InvalidOperationException.class, () -> billingService.getInvoicesByDoctor("5", "%%", 2));
+  }
+
+  private static Invoice invoice(Long id) {
+    Invoice invoice = new Invoice();
+    invoice.setId(id);
+    return invoice;
   }
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.hms.billing.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hms.billing.dto.ledger.LedgerEntry;
+import com.hms.billing.dto.response.SettlementReportResponse;
+import com.hms.billing.enums.RemittanceFormat;
+import com.hms.billing.enums.SettlementOutcome;
+import com.hms.billing.repositories.DoctorReadModelRepository;
+import com.hms.billing.repositories.InsuranceProviderRepository;
+import com.hms.billing.repositories.InsuranceSettlementRepository;
+import com.hms.billing.repositories.InvoiceLedgerRepository;
+import com.hms.common.exceptions.InvalidOperationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+// SQL real (H2 em modo MySQL): SELECT ... FOR UPDATE, UPDATE em conjunto e upsert do ledger
+class InsuranceSettlementServiceImplTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private JdbcTemplate jdbcTemplate;
+  private InsuranceSettlementRepository settlementRepository;
+  private InsuranceSettlementServiceImpl settlementService;
+
+  @BeforeEach
+  void setUp() {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(
+      "jdbc:h2:mem:settlement_" + UUID.randomUUID() + ";MODE=MYSQL;DB_CLOSE_DELAY=-1");
+    new ResourceDatabasePopulator(new ClassPathResource("settlement-schema.sql")).execute(dataSource);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    settlementRepository = new InsuranceSettlementRepository(jdbcTemplate);
+    InvoiceLedgerRepository ledgerRepository = new InvoiceLedgerRepository(jdbcTemplate);
+    LedgerServiceImpl ledgerService = new LedgerServiceImpl(ledgerRepository,
+      mock(InsuranceProviderRepository.class), mock(DoctorReadModelRepository.class));
+
+    // lotes de 2 linhas: a linha repetida cai num lote seguinte ao da original
+    settlementService = new InsuranceSettlementServiceImpl(settlementRepository, ledgerService,
+      new TransactionTemplate(new DataSourceTransactionManager(dataSource)), new ObjectMapper(), meterRegistry, 2, 500);
+
+    invoice(1, "p1", 1L, "200.00", "160.00", "40.00", true);
+    invoice(2, "p2", 2L, "150.00", "100.00", "50.00", false);
+    invoice(3, "p2", 2L, "120.00", "80.00", "40.00", false);
+    jdbcTemplate.update("INSERT INTO tb_invoices (id, patient_id, doctor_id, total_amount, insurance_covered, patient_payable, " +
+      "status, issued_at) VALUES (4, 'p3', '7', 90.00, 0.00, 90.00, 'PENDING', ?)", LocalDateTime.of(2026, 3, 2, 10, 0));
+    jdbcTemplate.update("INSERT INTO tb_patient_insurances (patient_id, provider_id, policy_number) VALUES ('p2', 2, 'POL-2')");
+    ledgerRepository.apply(settlementRepository.lockByIds(List.of(1L, 2L, 3L, 4L)).values().stream().map(LedgerEntry::of).toList());
+  }
+
+  @Test
+  @DisplayName("Deve liquidar por id e por apólice em lotes e reportar cada linha rejeitada com o motivo")
+  void settle_ShouldApplyMatchesInChunksAndReportRejections() {
+    String csv = """
+      invoice_id;policy_number;amount;paid_on
+      1;;160,00;2026-03-05
+      ;POL-2;100,00;
+      1;;160,00;2026-03-05
+      3;;90,00;
+      4;;10,00;
+      999;;10,00;
+      ;POL-X;10,00;
+      abc;;1,00;
+      """;
+
+    SettlementReportResponse report = settlementService.settle(stream(csv), RemittanceFormat.CSV);
+
+    assertEquals(8, report.totalLines());
+    assertEquals(2, report.settledCount());
+    assertEquals(0, new BigDecimal("260.00").compareTo(report.settledAmount()));
+    assertEquals(6, report.rejectedCount());
+    assertNull(report.error());
+    assertEquals(Map.of(
+      SettlementOutcome.SETTLED, 2L,
+      SettlementOutcome.DUPLICATE, 1L,
+      SettlementOutcome.AMOUNT_MISMATCH, 1L,
+      SettlementOutcome.NOT_ELIGIBLE, 1L,
+      SettlementOutcome.NOT_FOUND, 2L,
+      SettlementOutcome.INVALID_LINE, 1L), report.outcomes());
+    assertEquals(List.of(4L, 5L, 6L, 7L, 8L, 9L), report.issues().stream().map(SettlementReportResponse.Issue::line).toList());
+
+    // paciente já tinha pago: a fatura fecha na data do repasse e ganha nova versão (chave do PDF em cache)
+    Map<String, Object> first = jdbcTemplate.queryForMap("SELECT status, paid_at, version FROM tb_invoices WHERE id = 1");
+    assertEquals("PAID", first.get("status"));
+    assertEquals(LocalDateTime.of(2026, 3, 5, 0, 0), ((java.sql.Timestamp) first.get("paid_at")).toLocalDateTime());
+    assertEquals(1L, first.get("version"));
+    // pela apólice: a mais antiga com o mesmo valor; a parte do paciente continua em aberto
+    Map<String, Object> second = jdbcTemplate.queryForMap("SELECT status, insurance_paid_at FROM tb_invoices WHERE id = 2");
+    assertEquals("INSURANCE_PENDING", second.get("status"));
+    assertNotNull(second.get("insurance_paid_at"));
+    assertNull(jdbcTemplate.queryForObject("SELECT insurance_paid_at FROM tb_invoices WHERE id = 3", Object.class));
+
+    // ledger coerente com as faturas: só a fatura 3 ainda espera o convênio
+    assertEquals(0, new BigDecimal("80.00").compareTo(jdbcTemplate.queryForObject(
+      "SELECT SUM(insurance_outstanding) FROM tb_invoice_ledger_daily", BigDecimal.class)));
+    assertEquals(0, new BigDecimal("180.00").compareTo(jdbcTemplate.queryForObject(
+      "SELECT SUM(patient_outstanding) FROM tb_invoice_ledger_daily", BigDecimal.class)));
+    assertEquals(4L, jdbcTemplate.queryForObject("SELECT SUM(invoice_count) FROM tb_invoice_ledger_daily", Long.class));
+    assertEquals(2.0, meterRegistry.counter("billing.settlement.lines", "outcome", "SETTLED").count());
+
+    // reenviar o mesmo arquivo não paga de novo
+    SettlementReportResponse again = settlementService.settle(stream(csv), RemittanceFormat.CSV);
+    assertEquals(0, again.settledCount());
+    assertEquals(2L, again.outcomes().get(SettlementOutcome.ALREADY_SETTLED));
+    assertEquals(1L, again.outcomes().get(SettlementOutcome.NO_MATCH));
+  }
+
+  @Test
+  @DisplayName("Deve aplicar o que foi lido antes de um JSON malformado e recusar arquivo sem cabeçalho válido")
+  void settle_ShouldKeepAppliedLinesOnMalformedJsonAndRejectInvalidHeader() {
+    String json = "[{\"invoiceId\": 1, \"amount\": 160.00}, {\"policyNumber\": \"POL-2\", \"amount\": 80.00}, {\"invoiceId\": ";
+
+    SettlementReportResponse report = settlementService.settle(stream(json), RemittanceFormat.JSON);
+
+    assertEquals(2, report.settledCount());
+    assertNotNull(report.error());
+    assertEquals("PAID", jdbcTemplate.queryForObject("SELECT status FROM tb_invoices WHERE id = 1", String.class));
+    assertNotNull(jdbcTemplate.queryForObject("SELECT insurance_paid_at FROM tb_invoices WHERE id = 3", Object.class));
+
+    assertThrows(InvalidOperationException.class,
+      () -> settlementService.settle(stream("id,valor\n1,10.00\n"), RemittanceFormat.CSV));
+  }
+
+  private void invoice(long id, String patientId, Long providerId, String total, String covered, String payable, boolean patientPaid) {
+    jdbcTemplate.update("INSERT INTO tb_invoices (id, patient_id, doctor_id, total_amount, insurance_covered, patient_payable, " +
+        "status, insurance_provider_id, issued_at, patient_paid_at) VALUES (?, ?, '5', ?, ?, ?, 'INSURANCE_PENDING', ?, ?, ?)",
+      id, patientId, new BigDecimal(total), new BigDecimal(covered), new BigDecimal(payable), providerId,
+      LocalDateTime.of(2026, 3, 1, 9, 0), patientPaid ? LocalDateTime.of(2026, 3, 1, 9, 30) : null);
+  }
+
+  private static ByteArrayInputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,238 @@
+package com.hms.billing.services.impl;
+
+import com.hms.billing.clients.ProfileFeignClient;
+import com.hms.billing.entities.DoctorReadModel;
+import com.hms.billing.entities.Invoice;
+import com.hms.billing.entities.InvoiceExportJob;
+import com.hms.billing.entities.PatientReadModel;
+import com.hms.billing.enums.ExportJobStatus;
+import com.hms.billing.enums.InvoiceStatus;
+import com.hms.billing.repositories.DoctorReadModelRepository;
+import com.hms.billing.repositories.InvoiceExportJobRepository;
+import com.hms.billing.repositories.InvoiceRepository;
+import com.hms.billing.repositories.PatientReadModelRepository;
+import com.hms.billing.services.BillingService;
+import com.hms.common.exceptions.InvalidOperationException;
+import com.hms.common.pdf.PdfCache;
+import com.hms.common.pdf.PdfDocument;
+import com.hms.common.pdf.PdfRenderer;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceExportServiceImplTest {
+
+  @Mock
+  private InvoiceExportJobRepository jobRepository;
+
+  @Mock
+  private InvoiceRepository invoiceRepository;
+
+  @Mock
+  private BillingService billingService;
+
+  @Mock
+  private PatientReadModelRepository patientReadModelRepository;
+
+  @Mock
+  private DoctorReadModelRepository doctorReadModelRepository;
+
+  @Mock
+  private ProfileFeignClient profileClient;
+
+  @TempDir
+  Path dir;
+
+  private InvoiceExportServiceImpl exportService;
+
+  @BeforeEach
+  void setUp() {
+    exportService = new InvoiceExportServiceImpl(
+      jobRepository, invoiceRepository, billingService, new SimpleMeterRegistry(), dir, 2, 2, 1, 5, 72, 30);
+  }
+
+  @AfterEach
+  void tearDown() {
+    exportService.shutdown();
+  }
+
+  @Test
+  @DisplayName("Deve percorrer as faturas por cursor, gravar os PDFs no ZIP e listar as falhas em erros.txt")
+  void run_ShouldWriteZipInBatchesAndCollectFailures() throws IOException {
+    InvoiceExportJob job = new InvoiceExportJob();
+    job.setId(1L);
+    job.setInvoiceStatus(InvoiceStatus.PAID);
+    when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+    when(jobRepository.save(any(InvoiceExportJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    when(invoiceRepository.countForExport(InvoiceStatus.PAID, null, null, null)).thenReturn(3L);
+    when(invoiceRepository.findExportIds(eq(InvoiceStatus.PAID), isNull(), isNull(), isNull(), eq(0L), any()))
+      .thenReturn(List.of(10L, 11L));
+    when(invoiceRepository.findExportIds(eq(InvoiceStatus.PAID), isNull(), isNull(), isNull(), eq(11L), any()))
+      .thenReturn(List.of(12L));
+    when(invoiceRepository.findExportIds(eq(InvoiceStatus.PAID), isNull(), isNull(), isNull(), eq(12L), any()))
+      .thenReturn(List.of());
+    when(billingService.generateInvoicePdf(anyLong())).thenAnswer(invocation -> {
+      Long id = invocation.getArgument(0);
+      if (id == 11L) {
+        throw new IllegalStateException("template quebrado");
+      }
+      PdfDocument pdf = out -> out.write(("pdf " + id).getBytes(StandardCharsets.UTF_8));
+      return pdf;
+    });
+
+    exportService.run(1L);
+
+    assertEquals(ExportJobStatus.COMPLETED, job.getStatus());
+    assertEquals(3, job.getTotalInvoices());
+    assertEquals(3, job.getProcessedInvoices());
+    assertEquals(1, job.getFailedInvoices());
+    Path archive = Path.of(job.getFilePath());
+    assertEquals(dir.resolve("faturas-1.zip"), archive);
+    assertEquals(Files.size(archive), job.getFileSize());
+    assertFalse(Files.exists(dir.resolve("faturas-1.zip.part")));
+
+    List<String> names = new ArrayList<>();
+    String errors = null;
+    try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(archive))) {
+      for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+        names.add(entry.getName());
+        String content = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+        if (entry.getName().equals("fatura_12.pdf")) {
+          assertEquals("pdf 12", content);
+        }
+        if (entry.getName().equals("erros.txt")) {
+          errors = content;
+        }
+      }
+    }
+    assertEquals(List.of("fatura_10.pdf", "fatura_12.pdf", "erros.txt"), names);
+    assertEquals("11: template quebrado", errors);
+    assertEquals(archive, exportService.getArchive(1L));
+  }
+
+  @Test
+  @DisplayName("Sem token para o profile-service, o PDF deve usar os nomes dos read models e listar em erros.txt quem não tem nome")
+  void run_ShouldPrintReadModelNamesAndReportUnresolvedInvoices() throws IOException {
+    PdfRenderer renderer = pdfRenderer();
+    PdfCache cache = new PdfCache(new SimpleMeterRegistry(), false, dir.resolve("cache"), 30);
+    BillingServiceImpl billing = new BillingServiceImpl(invoiceRepository, null, renderer, cache, null, profileClient,
+      doctorReadModelRepository, patientReadModelRepository, null, null);
+    ReflectionTestUtils.setField(billing, "self", billing);
+    exportService.shutdown();
+    exportService = new InvoiceExportServiceImpl(
+      jobRepository, invoiceRepository, billing, new SimpleMeterRegistry(), dir, 2, 2, 1, 5, 72, 30);
+
+    InvoiceExportJob job = new InvoiceExportJob();
+    job.setId(3L);
+    job.setInvoiceStatus(InvoiceStatus.PAID);
+    when(jobRepository.findById(3L)).thenReturn(Optional.of(job));
+    when(jobRepository.save(any(InvoiceExportJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    when(invoiceRepository.countForExport(InvoiceStatus.PAID, null, null, null)).thenReturn(2L);
+    when(invoiceRepository.findExportIds(eq(InvoiceStatus.PAID), isNull(), isNull(), isNull(), eq(0L), any()))
+      .thenReturn(List.of(20L, 21L));
+    when(invoiceRepository.findExportIds(eq(InvoiceStatus.PAID), isNull(), isNull(), isNull(), eq(21L), any()))
+      .thenReturn(List.of());
+    when(invoiceRepository.findById(20L)).thenReturn(Optional.of(paidInvoice(20L, "10")));
+    when(invoiceRepository.findById(21L)).thenReturn(Optional.of(paidInvoice(21L, "11")));
+    when(patientReadModelRepository.findById(10L))
+      .thenReturn(Optional.of(new PatientReadModel(10L, 100L, "Maria Souza", "123.456.789-00")));
+    when(patientReadModelRepository.findById(11L)).thenReturn(Optional.empty());
+    when(doctorReadModelRepository.findById(5L))
+      .thenReturn(Optional.of(new DoctorReadModel(5L, 50L, "Ana Lima", new BigDecimal("200.00"))));
+
+    try {
+      exportService.run(3L);
+    } finally {
+      renderer.shutdown();
+    }
+
+    assertEquals(ExportJobStatus.COMPLETED, job.getStatus());
+    assertEquals(1, job.getFailedInvoices());
+    Map<String, byte[]> entries = new HashMap<>();
+    try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(Path.of(job.getFilePath())))) {
+      for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+        entries.put(entry.getName(), zip.readAllBytes());
+      }
+    }
+    assertEquals(2, entries.size());
+    String text;
+    try (var pdf = new com.itextpdf.kernel.pdf.PdfDocument(new PdfReader(new ByteArrayInputStream(entries.get("fatura_20.pdf"))))) {
+      text = PdfTextExtractor.getTextFromPage(pdf.getPage(1));
+    }
+    assertTrue(text.contains("Maria Souza (CPF: 123.456.789-00)"), text);
+    assertTrue(text.contains("Dr. Ana Lima"), text);
+    // paciente 11 não está no read model e o profile-service não respondeu: nada de PDF com "Paciente 11"
+    assertTrue(new String(entries.get("erros.txt"), StandardCharsets.UTF_8).startsWith("21: "));
+    verify(profileClient, never()).getPatient(10L);
+  }
+
+  private static Invoice paidInvoice(Long id, String patientId) {
+    return Invoice.builder()
+      .id(id)
+      .patientId(patientId)
+      .doctorId("5")
+      .totalAmount(new BigDecimal("200.00"))
+      .insuranceCovered(BigDecimal.ZERO)
+      .patientPayable(new BigDecimal("200.00"))
+      .status(InvoiceStatus.PAID)
+      .issuedAt(LocalDateTime.of(2026, 10, 1, 9, 0))
+      .paidAt(LocalDateTime.of(2026, 10, 2, 9, 0))
+      .version(0L)
+      .build();
+  }
+
+  private static PdfRenderer pdfRenderer() {
+    SpringResourceTemplateResolver resolver = new SpringResourceTemplateResolver();
+    resolver.setApplicationContext(new GenericApplicationContext());
+    resolver.setPrefix("classpath:/templates/");
+    resolver.setSuffix(".html");
+    resolver.setCharacterEncoding("UTF-8");
+    SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+    templateEngine.setTemplateResolver(resolver);
+    return new PdfRenderer(templateEngine, new SimpleMeterRegistry(), 2, 8, 30_000, "classpath*:pdf/fonts/*.ttf");
+  }
+
+  @Test
+  @DisplayName("Deve recusar o download de uma exportação ainda em andamento")
+  void getArchive_ShouldThrow_WhenNotCompleted() {
+    InvoiceExportJob job = new InvoiceExportJob();
+    job.setId(2L);
+    job.setStatus(ExportJobStatus.RUNNING);
+    when(jobRepository.findById(2L)).thenReturn(Optional.of(job));
+
+    assertThrows(InvalidOperationException.class, () -> exportService.getArchive(2L));
+  }
+}
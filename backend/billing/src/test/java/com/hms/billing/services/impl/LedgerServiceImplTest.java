@@ -0,0 +1,114 @@
+package com.hms.billing.services.impl;
+
+import com.hms.billing.dto.ledger.LedgerEntry;
+import com.hms.billing.dto.response.ArAgingResponse;
+import com.hms.billing.entities.Invoice;
+import com.hms.billing.enums.InvoiceSource;
+import com.hms.billing.enums.InvoiceStatus;
+import com.hms.billing.repositories.DoctorReadModelRepository;
+import com.hms.billing.repositories.InsuranceProviderRepository;
+import com.hms.billing.repositories.InvoiceLedgerRepository;
+import com.hms.billing.repositories.InvoiceLedgerRepository.Totals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceImplTest {
+
+  @Mock
+  private InvoiceLedgerRepository ledgerRepository;
+
+  @Mock
+  private InsuranceProviderRepository providerRepository;
+
+  @Mock
+  private DoctorReadModelRepository doctorReadModelRepository;
+
+  @InjectMocks
+  private LedgerServiceImpl ledgerService;
+
+  @Test
+  @DisplayName("Deve mover a fatura entre linhas do ledger e somar deltas da mesma linha num só")
+  @SuppressWarnings("unchecked")
+  void recordChange_ShouldMoveBetweenRowsAndMergeSameKey() {
+    Invoice invoice = new Invoice();
+    invoice.setDoctorId("5");
+    invoice.setInsuranceProviderId(1L);
+    invoice.setIssuedAt(LocalDateTime.of(2026, 3, 10, 9, 0));
+    invoice.setTotalAmount(new BigDecimal("200.00"));
+    invoice.setInsuranceCovered(new BigDecimal("160.00"));
+    invoice.setPatientPayable(new BigDecimal("40.00"));
+    invoice.setStatus(InvoiceStatus.INSURANCE_PENDING);
+
+    // paciente paga a sua parte: status continua INSURANCE_PENDING, só o saldo em aberto muda
+    LedgerEntry before = LedgerEntry.of(invoice);
+    invoice.setPatientPaidAt(LocalDateTime.now());
+    ledgerService.recordChange(before, invoice);
+
+    // convênio paga: sai de INSURANCE_PENDING e entra em PAID
+    LedgerEntry beforeInsurance = LedgerEntry.of(invoice);
+    invoice.setInsurancePaidAt(LocalDateTime.now());
+    invoice.setStatus(InvoiceStatus.PAID);
+    ledgerService.recordChange(beforeInsurance, invoice);
+
+    ArgumentCaptor<List<LedgerEntry>> deltas = ArgumentCaptor.forClass(List.class);
+    verify(ledgerRepository, times(2)).apply(deltas.capture());
+
+    List<LedgerEntry> patientPaid = deltas.getAllValues().get(0);
+    assertEquals(1, patientPaid.size());
+    assertEquals(0, patientPaid.get(0).invoiceCount());
+    assertEquals(new BigDecimal("-40.00"), patientPaid.get(0).patientOutstanding());
+    assertEquals(0, patientPaid.get(0).insuranceOutstanding().signum());
+
+    List<LedgerEntry> insurancePaid = deltas.getAllValues().get(1);
+    assertEquals(2, insurancePaid.size());
+    assertEquals(InvoiceStatus.INSURANCE_PENDING, insurancePaid.get(0).status());
+    assertEquals(-1, insurancePaid.get(0).invoiceCount());
+    assertEquals(new BigDecimal("-160.00"), insurancePaid.get(0).insuranceOutstanding());
+    assertEquals(InvoiceStatus.PAID, insurancePaid.get(1).status());
+    assertEquals(1, insurancePaid.get(1).invoiceCount());
+    assertEquals(LocalDate.of(2026, 3, 10), insurancePaid.get(1).date());
+    assertEquals(InvoiceSource.APPOINTMENT, insurancePaid.get(1).source());
+  }
+
+  @Test
+  @DisplayName("Deve distribuir o saldo em aberto nas faixas de aging pela idade da emissão")
+  void getArAging_ShouldBucketOutstandingByAge() {
+    LocalDate asOf = LocalDate.of(2026, 6, 30);
+    when(ledgerRepository.outstandingByDay(asOf, null)).thenReturn(List.of(
+      totals("2026-06-30", 2, "80.00", "0.00"),
+      totals("2026-05-31", 1, "0.00", "160.00"),
+      totals("2026-05-01", 1, "40.00", "0.00"),
+      totals("2025-12-01", 3, "10.00", "300.00")
+    ));
+
+    ArAgingResponse aging = ledgerService.getArAging(asOf, null);
+
+    assertEquals(List.of("0-30", "31-60", "61-90", "90+"), aging.buckets().stream().map(ArAgingResponse.Bucket::range).toList());
+    assertEquals(3, aging.buckets().get(0).invoiceCount());
+    assertEquals(new BigDecimal("240.00"), aging.buckets().get(0).totalOutstanding());
+    assertEquals(new BigDecimal("40.00"), aging.buckets().get(1).totalOutstanding());
+    assertEquals(0, aging.buckets().get(2).invoiceCount());
+    assertEquals(new BigDecimal("310.00"), aging.buckets().get(3).totalOutstanding());
+    assertEquals(new BigDecimal("590.00"), aging.totalOutstanding());
+  }
+
+  private static Totals totals(String day, long count, String patient, String insurance) {
+    BigDecimal p = new BigDecimal(patient);
+    BigDecimal i = new BigDecimal(insurance);
+    return new Totals(day, count, p.add(i), i, p, p, i);
+  }
+}
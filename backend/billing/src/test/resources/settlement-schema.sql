@@ -0,0 +1,47 @@
+-- tabelas usadas pela liquidação de repasses (mesmas colunas e índices das migrations V1, V4, V7 e V8), para H2 em modo MySQL
+CREATE TABLE tb_invoices (
+    id                      BIGINT          NOT NULL AUTO_INCREMENT,
+    pharmacy_sale_id        BIGINT          NULL,
+    appointment_id          BIGINT          NULL,
+    patient_id              VARCHAR(255)    NOT NULL,
+    doctor_id               VARCHAR(255)    NOT NULL,
+    total_amount            DECIMAL(10,2)   NOT NULL,
+    insurance_covered       DECIMAL(10,2)   NOT NULL DEFAULT 0.00,
+    patient_payable         DECIMAL(10,2)   NOT NULL,
+    status                  VARCHAR(50)     NOT NULL,
+    insurance_provider_id   BIGINT          NULL,
+    issued_at               DATETIME(6)     NULL,
+    paid_at                 DATETIME(6)     NULL,
+    patient_paid_at         DATETIME(6)     NULL,
+    insurance_paid_at       DATETIME(6)     NULL,
+    version                 BIGINT          NOT NULL DEFAULT 0,
+    CONSTRAINT pk_tb_invoices PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_invoices_patient_id ON tb_invoices (patient_id, id);
+
+CREATE TABLE tb_patient_insurances (
+    id                      BIGINT          NOT NULL AUTO_INCREMENT,
+    patient_id              VARCHAR(255)    NOT NULL,
+    provider_id             BIGINT          NOT NULL,
+    policy_number           VARCHAR(255)    NULL,
+    valid_until             DATE            NULL,
+    CONSTRAINT pk_tb_patient_insurance PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_patient_insurances_policy ON tb_patient_insurances (policy_number);
+
+CREATE TABLE tb_invoice_ledger_daily (
+    ledger_date             DATE            NOT NULL,
+    source                  VARCHAR(20)     NOT NULL,
+    doctor_id               VARCHAR(255)    NOT NULL,
+    provider_id             BIGINT          NOT NULL,
+    status                  VARCHAR(50)     NOT NULL,
+    invoice_count           BIGINT          NOT NULL DEFAULT 0,
+    total_amount            DECIMAL(14,2)   NOT NULL DEFAULT 0.00,
+    insurance_covered       DECIMAL(14,2)   NOT NULL DEFAULT 0.00,
+    patient_payable         DECIMAL(14,2)   NOT NULL DEFAULT 0.00,
+    patient_outstanding     DECIMAL(14,2)   NOT NULL DEFAULT 0.00,
+    insurance_outstanding   DECIMAL(14,2)   NOT NULL DEFAULT 0.00,
+    CONSTRAINT pk_tb_invoice_ledger_daily PRIMARY KEY (ledger_date, source, doctor_id, provider_id, status)
+);
@@ -0,0 +1,51 @@
+package com.hms.chat.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+  public static final String PRESENCE_EXCHANGE = "chat.presence.exchange";
+
+  @Bean
+  public MessageConverter jsonMessageConverter() {
+    return new Jackson2JsonMessageConverter();
+  }
+
+  @Bean
+  public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+    final RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+    rabbitTemplate.setMessageConverter(jsonMessageConverter());
+    return rabbitTemplate;
+  }
+
+  // presença compartilhada entre instâncias: cada uma tem sua fila temporária ligada ao fanout
+  @Bean
+  @ConditionalOnProperty(name = "application.chat.presence.cluster.enabled", havingValue = "true")
+  public FanoutExchange presenceExchange() {
+    return new FanoutExchange(PRESENCE_EXCHANGE);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "application.chat.presence.cluster.enabled", havingValue = "true")
+  public Queue presenceSyncQueue() {
+    return new AnonymousQueue();
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "application.chat.presence.cluster.enabled", havingValue = "true")
+  public Binding presenceSyncBinding(Queue presenceSyncQueue, FanoutExchange presenceExchange) {
+    return BindingBuilder.bind(presenceSyncQueue).to(presenceExchange);
+  }
+}
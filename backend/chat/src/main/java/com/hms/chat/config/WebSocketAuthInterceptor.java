@@ -0,0 +1,175 @@
+package com.hms.chat.config;
+
+import com.hms.common.security.BaseJwtService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Autenticação STOMP.
+// - CONNECT: o token é verificado uma única vez (assinatura + claims) e o resultado fica em cache até o "exp";
+//   reconexões com o mesmo token (SockJS após deploy) não repetem a verificação.
+// - demais frames (inclusive heartbeats do cliente): compara o "exp" guardado na sessão, sem reprocessar o token.
+@Slf4j
+@Component
+public class WebSocketAuthInterceptor implements ChannelInterceptor {
+
+  static final String EXPIRES_AT_ATTRIBUTE = "hms.ws.token-expires-at";
+
+  private final BaseJwtService baseJwtService;
+  private final int maxCachedTokens;
+  private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+  private final Counter cacheHits;
+  private final Counter cacheMisses;
+  private final Counter rejected;
+  private final Counter expiredSessions;
+
+  public WebSocketAuthInterceptor(
+    BaseJwtService baseJwtService,
+    MeterRegistry meterRegistry,
+    @Value("${application.chat.websocket.auth.max-cached-tokens:20000}") int maxCachedTokens
+  ) {
+    this.baseJwtService = baseJwtService;
+    this.maxCachedTokens = maxCachedTokens;
+
+    this.cacheHits = authCounter(meterRegistry, "hit");
+    this.cacheMisses = authCounter(meterRegistry, "miss");
+    this.rejected = authCounter(meterRegistry, "rejected");
+    this.expiredSessions = authCounter(meterRegistry, "expired");
+    Gauge.builder("chat.websocket.auth.cache.size", verifiedTokens, Map::size)
+      .description("Tokens verificados mantidos em cache")
+      .register(meterRegistry);
+  }
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+    if (accessor == null) {
+      return message;
+    }
+
+    if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+      authenticate(accessor);
+    } else if (accessor.getCommand() != StompCommand.DISCONNECT) {
+      checkExpiry(accessor);
+    }
+    return message;
+  }
+
+  private void authenticate(StompHeaderAccessor accessor) {
+    String authHeader = accessor.getFirstNativeHeader("Authorization");
+    if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+      return;
+    }
+
+    VerifiedToken verified = verify(authHeader.substring(7));
+    if (verified == null) {
+      return;
+    }
+
+    accessor.setUser(verified.authentication());
+    Map<String, Object> sessionAttributes = accessor.getSessionAttributes();
+    if (sessionAttributes != null) {
+      sessionAttributes.put(EXPIRES_AT_ATTRIBUTE, verified.expiresAt());
+    }
+    log.debug("WebSocket autenticado para {}", verified.authentication().getName());
+  }
+
+  private void checkExpiry(StompHeaderAccessor accessor) {
+    Map<String, Object> sessionAttributes = accessor.getSessionAttributes();
+    if (sessionAttributes == null || !(sessionAttributes.get(EXPIRES_AT_ATTRIBUTE) instanceof Long expiresAt)) {
+      return;
+    }
+
+    if (expiresAt <= System.currentTimeMillis()) {
+      expiredSessions.increment();
+      // StompSubProtocolHandler responde com um frame ERROR; o cliente precisa reconectar com um token novo
+      throw new MessageDeliveryException("Token expirado, reconecte com um novo token");
+    }
+  }
+
+  VerifiedToken verify(String token) {
+    long now = System.currentTimeMillis();
+
+    VerifiedToken cached = verifiedTokens.get(token);
+    if (cached != null) {
+      if (cached.expiresAt() > now) {
+        cacheHits.increment();
+        return cached;
+      }
+      verifiedTokens.remove(token, cached);
+    }
+
+    cacheMisses.increment();
+    Claims claims;
+    try {
+      // uma única verificação de assinatura; todos os claims saem do mesmo parse
+      claims = baseJwtService.extractClaim(token, Function.identity());
+    } catch (Exception e) {
+      rejected.increment();
+      log.warn("Token WebSocket inválido: {}", e.getMessage());
+      return null;
+    }
+
+    if (claims.getExpiration() == null || claims.getExpiration().getTime() <= now) {
+      rejected.increment();
+      return null;
+    }
+
+    Long userId = claims.get("userId", Long.class);
+    String role = claims.get("role", String.class);
+    String principalName = (userId != null) ? String.valueOf(userId) : claims.getSubject();
+
+    Authentication authentication = new UsernamePasswordAuthenticationToken(
+      principalName,
+      null,
+      Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
+    );
+
+    VerifiedToken verified = new VerifiedToken(authentication, claims.getExpiration().getTime());
+    if (verifiedTokens.size() >= maxCachedTokens) {
+      evictExpired(now);
+    }
+    if (verifiedTokens.size() < maxCachedTokens) {
+      verifiedTokens.put(token, verified);
+    }
+    return verified;
+  }
+
+  private void evictExpired(long now) {
+    verifiedTokens.values().removeIf(entry -> entry.expiresAt() <= now);
+  }
+
+  int cachedTokens() {
+    return verifiedTokens.size();
+  }
+
+  private static Counter authCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("chat.websocket.auth")
+      .description("Autenticações STOMP por resultado (hit/miss no cache de tokens, rejeitadas, sessões expiradas)")
+      .tags("result", result)
+      .register(meterRegistry);
+  }
+
+  record VerifiedToken(Authentication authentication, long expiresAt) {
+  }
+}
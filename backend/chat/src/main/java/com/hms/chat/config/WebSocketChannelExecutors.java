@@ -0,0 +1,151 @@
+package com.hms.chat.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Executores dos canais STOMP (clientInbound / clientOutbound) com limites configuráveis e métricas.
+// Modos:
+//  - platform: pool de threads com fila limitada; ao encher, aplica o overflow configurado
+//    (caller-runs = backpressure na thread que lê o socket | drop = descarta o frame e contabiliza)
+//  - virtual: uma virtual thread por mensagem, com limite de mensagens em processamento
+//    (ao atingir o limite, quem publica aguarda)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WebSocketChannelExecutors {
+
+  static final String INBOUND = "inbound";
+  static final String OUTBOUND = "outbound";
+
+  private final MeterRegistry meterRegistry;
+  private final Environment environment;
+
+  @Value("${application.chat.websocket.executor-mode:platform}")
+  private String executorMode;
+
+  public Executor inbound() {
+    return create(INBOUND);
+  }
+
+  public Executor outbound() {
+    return create(OUTBOUND);
+  }
+
+  public boolean isVirtual() {
+    return "virtual".equalsIgnoreCase(executorMode);
+  }
+
+  private Executor create(String channel) {
+    String prefix = "application.chat.websocket." + channel + ".";
+    TaskDecorator decorator = instrument(channel);
+
+    if (isVirtual()) {
+      SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("ws-" + channel + "-vt-");
+      executor.setVirtualThreads(true);
+      executor.setConcurrencyLimit(environment.getProperty(prefix + "max-in-flight", Integer.class, 2000));
+      executor.setTaskDecorator(decorator);
+      log.info("Canal STOMP {} usando virtual threads", channel);
+      return executor;
+    }
+
+    // não inicializado aqui: o Spring registra o executor como bean do canal e cuida do ciclo de vida
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setThreadNamePrefix("ws-" + channel + "-");
+    executor.setCorePoolSize(environment.getProperty(prefix + "core-pool-size", Integer.class, 8));
+    executor.setMaxPoolSize(environment.getProperty(prefix + "max-pool-size", Integer.class, 32));
+    executor.setQueueCapacity(environment.getProperty(prefix + "queue-capacity", Integer.class, 1000));
+    executor.setKeepAliveSeconds(60);
+    executor.setAllowCoreThreadTimeOut(true);
+    executor.setTaskDecorator(decorator);
+    executor.setRejectedExecutionHandler(overflowHandler(channel, environment.getProperty(prefix + "overflow", "caller-runs")));
+
+    Gauge.builder("chat.websocket.executor.queue.depth", executor, WebSocketChannelExecutors::queueDepth)
+      .description("Mensagens aguardando na fila do executor do canal STOMP")
+      .tags(Tags.of("channel", channel))
+      .register(meterRegistry);
+
+    return executor;
+  }
+
+  // mede o tempo desde a submissão até o fim do processamento (espera em fila + handler / envio ao socket)
+  private TaskDecorator instrument(String channel) {
+    Timer latency = Timer.builder("chat.websocket.dispatch.latency")
+      .description("Tempo entre a publicação no canal STOMP e o fim do processamento")
+      .tags("channel", channel)
+      .publishPercentiles(0.5, 0.95, 0.99)
+      .register(meterRegistry);
+
+    AtomicInteger inFlight = new AtomicInteger();
+    Gauge.builder("chat.websocket.executor.in.flight", inFlight, AtomicInteger::get)
+      .description("Mensagens em processamento no canal STOMP")
+      .tags(Tags.of("channel", channel))
+      .register(meterRegistry);
+
+    return task -> {
+      long submittedAt = System.nanoTime();
+      inFlight.incrementAndGet();
+      return () -> {
+        try {
+          task.run();
+        } finally {
+          inFlight.decrementAndGet();
+          latency.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+        }
+      };
+    };
+  }
+
+  private RejectedExecutionHandler overflowHandler(String channel, String overflow) {
+    Counter dropped = Counter.builder("chat.websocket.frames.dropped")
+      .description("Frames descartados por fila cheia no canal STOMP")
+      .tags("channel", channel)
+      .register(meterRegistry);
+    Counter callerRuns = Counter.builder("chat.websocket.frames.caller.runs")
+      .description("Frames processados na thread de origem por fila cheia (backpressure)")
+      .tags("channel", channel)
+      .register(meterRegistry);
+
+    if ("drop".equalsIgnoreCase(overflow)) {
+      return (task, pool) -> {
+        dropped.increment();
+        log.warn("Fila do canal STOMP {} cheia, frame descartado", channel);
+      };
+    }
+
+    ThreadPoolExecutor.CallerRunsPolicy callerRunsPolicy = new ThreadPoolExecutor.CallerRunsPolicy();
+    return (task, pool) -> {
+      if (pool.isShutdown()) {
+        dropped.increment();
+        return;
+      }
+      callerRuns.increment();
+      callerRunsPolicy.rejectedExecution(task, pool);
+    };
+  }
+
+  private static double queueDepth(ThreadPoolTaskExecutor executor) {
+    try {
+      return executor.getQueueSize();
+    } catch (IllegalStateException e) {
+      // executor ainda não inicializado
+      return 0;
+    }
+  }
+}
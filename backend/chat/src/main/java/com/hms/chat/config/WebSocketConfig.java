@@ -1,32 +1,28 @@
 package com.hms.chat.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hms.chat.presence.PresenceTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
-import org.springframework.messaging.Message;
-import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.converter.DefaultContentTypeResolver;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.messaging.simp.stomp.StompCommand;
-import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
-import org.springframework.messaging.support.ChannelInterceptor;
-import org.springframework.messaging.support.MessageHeaderAccessor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
-import com.hms.common.security.BaseJwtService;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
-import java.util.Collections;
 import java.util.List;
 
 @Configuration
@@ -36,13 +32,86 @@ import java.util.List;
 @Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
-  private final BaseJwtService baseJwtService;
+  private final WebSocketAuthInterceptor webSocketAuthInterceptor;
+  private final PresenceTracker presenceTracker;
+  private final WebSocketChannelExecutors channelExecutors;
+
+  // simple = broker em memória (instância única) | relay = RabbitMQ STOMP, permite várias instâncias
+  @Value("${application.chat.broker.mode:simple}")
+  private String brokerMode;
+
+  @Value("${application.chat.broker.relay.host:localhost}")
+  private String relayHost;
+
+  @Value("${application.chat.broker.relay.port:61613}")
+  private int relayPort;
+
+  @Value("${application.chat.broker.relay.login:guest}")
+  private String relayLogin;
+
+  @Value("${application.chat.broker.relay.passcode:guest}")
+  private String relayPasscode;
+
+  @Value("${application.chat.broker.relay.virtual-host:/}")
+  private String relayVirtualHost;
+
+  // heartbeat servidor/cliente do broker simples (ms); o relay negocia os heartbeats com o RabbitMQ
+  @Value("${application.chat.websocket.heartbeat-ms:10000}")
+  private long heartbeatMs;
+
+  private TaskScheduler messageBrokerTaskScheduler;
+
+  @Value("${application.chat.websocket.send-time-limit-ms:15000}")
+  private int sendTimeLimitMs;
+
+  @Value("${application.chat.websocket.send-buffer-size-limit:524288}")
+  private int sendBufferSizeLimit;
+
+  // lazy: o scheduler do broker é criado pela própria configuração de WebSocket
+  @Autowired
+  public void setMessageBrokerTaskScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
+    this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+  }
 
   @Override
   public void configureMessageBroker(MessageBrokerRegistry registry) {
-    registry.enableSimpleBroker("/user");
+    if ("relay".equalsIgnoreCase(brokerMode)) {
+      registry.enableStompBrokerRelay("/queue", "/topic")
+        .setRelayHost(relayHost)
+        .setRelayPort(relayPort)
+        .setClientLogin(relayLogin)
+        .setClientPasscode(relayPasscode)
+        .setSystemLogin(relayLogin)
+        .setSystemPasscode(relayPasscode)
+        .setVirtualHost(relayVirtualHost)
+        // registro de sessões compartilhado: cada instância publica seus usuários conectados
+        .setUserRegistryBroadcast("/topic/simp-user-registry")
+        // mensagens para usuários que não estão nesta instância são repassadas às demais
+        .setUserDestinationBroadcast("/topic/unresolved-user-destination");
+      log.info("WebSocket usando STOMP broker relay em {}:{}", relayHost, relayPort);
+    } else {
+      // sem heartbeat o broker simples responde 0,0 no CONNECT e o cliente ocioso não manda nenhum frame:
+      // a presença expiraria usuários conectados. Os heartbeats passam pelo canal de entrada e renovam o lastSeen
+      registry.enableSimpleBroker("/queue", "/topic")
+        .setHeartbeatValue(new long[] {heartbeatMs, heartbeatMs})
+        .setTaskScheduler(messageBrokerTaskScheduler);
+    }
     registry.setApplicationDestinationPrefixes("/app");
     registry.setUserDestinationPrefix("/user");
+    // com vários threads no canal de saída, garante a ordem das mensagens por sessão
+    registry.setPreservePublishOrder(true);
+  }
+
+  @Override
+  public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+    // limites por sessão para clientes lentos: excedidos, a sessão é encerrada em vez de acumular memória
+    registration.setSendTimeLimit(sendTimeLimitMs);
+    registration.setSendBufferSizeLimit(sendBufferSizeLimit);
+  }
+
+  @Override
+  public void configureClientOutboundChannel(ChannelRegistration registration) {
+    registration.executor(channelExecutors.outbound());
   }
 
   @Override
@@ -50,6 +119,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     registry.addEndpoint("/ws")
       .setAllowedOrigins("http://localhost:5173")
       .withSockJS();
+    // idem para o canal de entrada: mensagens da mesma sessão são processadas na ordem de chegada
+    registry.setPreserveReceiveOrder(true);
   }
 
   @Override
@@ -65,47 +136,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
   @Override
   public void configureClientInboundChannel(ChannelRegistration registration) {
-    registration.interceptors(new ChannelInterceptor() {
-      @Override
-      public Message<?> preSend(Message<?> message, MessageChannel channel) {
-        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
-
-        if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
-          String authHeader = accessor.getFirstNativeHeader("Authorization");
-
-          if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-
-            try {
-              if (baseJwtService.isTokenValid(token)) {
-
-                String username = baseJwtService.extractUsername(token);
-
-                Long userId = baseJwtService.extractClaim(token, claims -> claims.get("userId", Long.class));
-                String role = baseJwtService.extractClaim(token, claims -> claims.get("role", String.class));
-
-                String principalName = (userId != null) ? String.valueOf(userId) : username;
-
-                var authorities = Collections.singletonList(
-                  new SimpleGrantedAuthority("ROLE_" + role)
-                );
-
-                Authentication auth = new UsernamePasswordAuthenticationToken(
-                  principalName,
-                  null,
-                  authorities
-                );
-
-                accessor.setUser(auth);
-                log.info("✅ WebSocket autenticado para userId: {}", userId);
-              }
-            } catch (Exception e) {
-              log.error("❌ Erro na autenticação WS: {}", e.getMessage());
-            }
-          }
-        }
-        return message;
-      }
-    });
+    registration.executor(channelExecutors.inbound());
+    // autenticação primeiro: a presença depende do principal da sessão
+    registration.interceptors(webSocketAuthInterceptor, presenceTracker);
   }
 }
\ No newline at end of file
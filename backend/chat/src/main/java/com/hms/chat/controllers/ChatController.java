@@ -2,19 +2,28 @@ package com.hms.chat.controllers;
 
 import com.hms.chat.docs.ChatControllerDocs;
 import com.hms.chat.dto.request.ChatMessageRequest;
+import com.hms.chat.dto.request.ReadReceiptRequest;
 import com.hms.chat.dto.response.ChatMessageResponse;
+import com.hms.chat.dto.response.UnreadSummaryResponse;
 import com.hms.chat.services.ChatService;
+import com.hms.chat.services.ReadReceiptService;
 import com.hms.common.dto.response.ResponseWrapper;
+import com.hms.common.security.SecurityUtils;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import java.security.Principal;
 import java.util.List;
 
 @Controller
@@ -23,6 +32,7 @@ public class ChatController implements ChatControllerDocs {
 
   private final SimpMessagingTemplate messagingTemplate;
   private final ChatService chatService;
+  private final ReadReceiptService readReceiptService;
 
   @MessageMapping("/chat.sendMessage")
   public void processMessage(@Payload ChatMessageRequest request) {
@@ -48,4 +58,25 @@ public class ChatController implements ChatControllerDocs {
   public ResponseEntity<ResponseWrapper<List<ChatMessageResponse>>> findChatMessages(@PathVariable Long senderId, @PathVariable Long recipientId) {
     return ResponseEntity.ok(ResponseWrapper.success(chatService.findChatMessages(senderId, recipientId)));
   }
-}
\ No newline at end of file
+
+  @MessageMapping("/chat.read")
+  public void markAsRead(@Payload @Valid ReadReceiptRequest request, Principal principal) {
+    if (principal == null) {
+      return;
+    }
+    readReceiptService.markAsRead(Long.valueOf(principal.getName()), request);
+  }
+
+  @ResponseBody
+  @PatchMapping("/chat/read")
+  public ResponseEntity<ResponseWrapper<Void>> markAsRead(@RequestBody @Valid ReadReceiptRequest request, Authentication authentication) {
+    readReceiptService.markAsRead(SecurityUtils.getUserId(authentication), request);
+    return ResponseEntity.ok(ResponseWrapper.success(null));
+  }
+
+  @ResponseBody
+  @GetMapping("/chat/unread")
+  public ResponseEntity<ResponseWrapper<UnreadSummaryResponse>> getUnreadSummary(Authentication authentication) {
+    return ResponseEntity.ok(ResponseWrapper.success(readReceiptService.getUnreadSummary(SecurityUtils.getUserId(authentication))));
+  }
+}
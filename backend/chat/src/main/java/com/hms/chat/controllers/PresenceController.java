@@ -0,0 +1,40 @@
+package com.hms.chat.controllers;
+
+import com.hms.chat.docs.PresenceControllerDocs;
+import com.hms.chat.dto.request.TypingRequest;
+import com.hms.chat.dto.response.PresenceResponse;
+import com.hms.chat.services.PresenceService;
+import com.hms.common.dto.response.ResponseWrapper;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.security.Principal;
+import java.util.List;
+
+@Controller
+@RequiredArgsConstructor
+public class PresenceController implements PresenceControllerDocs {
+
+  private final PresenceService presenceService;
+
+  @ResponseBody
+  @GetMapping("/chat/presence")
+  public ResponseEntity<ResponseWrapper<List<PresenceResponse>>> getPresence(@RequestParam List<Long> userIds) {
+    return ResponseEntity.ok(ResponseWrapper.success(presenceService.getPresence(userIds)));
+  }
+
+  @MessageMapping("/chat.typing")
+  public void typing(@Payload @Valid TypingRequest request, Principal principal) {
+    if (principal == null) {
+      return;
+    }
+    presenceService.typing(Long.valueOf(principal.getName()), request);
+  }
+}
@@ -1,7 +1,9 @@
 package com.hms.chat.docs;
 
 import com.hms.chat.dto.request.ChatMessageRequest;
+import com.hms.chat.dto.request.ReadReceiptRequest;
 import com.hms.chat.dto.response.ChatMessageResponse;
+import com.hms.chat.dto.response.UnreadSummaryResponse;
 import com.hms.common.dto.response.ResponseWrapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,8 +13,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import java.security.Principal;
 import java.util.List;
 
 @Tag(name = "Chat", description = "Endpoints para histórico de conversas e processamento de mensagens WebSocket")
@@ -37,4 +42,35 @@ public interface ChatControllerDocs {
     @Parameter(description = "ID do usuário remetente", required = true) @PathVariable Long senderId,
     @Parameter(description = "ID do usuário destinatário", required = true) @PathVariable Long recipientId
   );
-}
\ No newline at end of file
+
+  @Operation(
+    summary = "Marcar Conversa como Lida (WebSocket)",
+    description = "Avança o cursor de leitura do usuário conectado. Rota do Broker: '/chat.read'. " +
+      "O outro participante recebe o recibo em '/user/queue/read-receipts'."
+  )
+  void markAsRead(
+    @Parameter(description = "Outro participante e última mensagem lida (opcional)", required = true) @Payload ReadReceiptRequest request,
+    @Parameter(hidden = true) Principal principal
+  );
+
+  @Operation(
+    summary = "Marcar Conversa como Lida",
+    description = "Avança o cursor de leitura do usuário autenticado até a mensagem informada (ou até a última, se omitida). " +
+      "Atualiza uma única linha, independentemente do tamanho da conversa."
+  )
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Cursor de leitura atualizado")
+  })
+  ResponseEntity<ResponseWrapper<Void>> markAsRead(
+    @Parameter(description = "Outro participante e última mensagem lida (opcional)", required = true) @RequestBody ReadReceiptRequest request,
+    @Parameter(hidden = true) Authentication authentication
+  );
+
+  @Operation(summary = "Mensagens Não Lidas", description = "Total de mensagens não lidas do usuário autenticado e o detalhamento por conversa.")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Contadores recuperados com sucesso")
+  })
+  ResponseEntity<ResponseWrapper<UnreadSummaryResponse>> getUnreadSummary(
+    @Parameter(hidden = true) Authentication authentication
+  );
+}
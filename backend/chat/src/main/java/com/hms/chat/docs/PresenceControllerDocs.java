@@ -0,0 +1,47 @@
+package com.hms.chat.docs;
+
+import com.hms.chat.dto.request.TypingRequest;
+import com.hms.chat.dto.response.PresenceResponse;
+import com.hms.common.dto.response.ResponseWrapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.security.Principal;
+import java.util.List;
+
+@Tag(name = "Presença", description = "Status online/offline e indicador de digitação do chat")
+@ApiResponses({
+  @ApiResponse(responseCode = "500", description = "Erro interno no servidor", content = @Content)
+})
+public interface PresenceControllerDocs {
+
+  @Operation(
+    summary = "Consultar Presença",
+    description = "Retorna o status (ONLINE/OFFLINE) e o último acesso dos usuários informados. " +
+      "Mudanças são enviadas em tempo real no tópico STOMP '/topic/presence.{userId}'."
+  )
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Presença recuperada com sucesso"),
+    @ApiResponse(responseCode = "400", description = "Quantidade de usuários acima do limite por consulta", content = @Content)
+  })
+  ResponseEntity<ResponseWrapper<List<PresenceResponse>>> getPresence(
+    @Parameter(description = "IDs dos usuários (ex.: 1,2,3)", required = true) @RequestParam List<Long> userIds
+  );
+
+  @Operation(
+    summary = "Indicador de Digitação (WebSocket)",
+    description = "Avisa o destinatário que o usuário está (ou parou de) digitar. Rota do Broker: '/chat.typing'. " +
+      "O destinatário recebe em '/user/queue/typing'; eventos repetidos são limitados por par remetente/destinatário."
+  )
+  void typing(
+    @Parameter(description = "Destinatário e estado de digitação", required = true) @Payload TypingRequest request,
+    @Parameter(hidden = true) Principal principal
+  );
+}
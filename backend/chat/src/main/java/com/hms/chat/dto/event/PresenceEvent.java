@@ -0,0 +1,13 @@
+package com.hms.chat.dto.event;
+
+import com.hms.chat.enums.PresenceStatus;
+
+import java.util.Date;
+
+// enviado em /topic/presence.{userId}
+public record PresenceEvent(
+  Long userId,
+  PresenceStatus status,
+  Date timestamp
+) {
+}
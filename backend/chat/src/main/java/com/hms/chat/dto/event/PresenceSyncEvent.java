@@ -0,0 +1,19 @@
+package com.hms.chat.dto.event;
+
+import java.util.List;
+
+// troca de presença entre instâncias do chat-service (fanout, não sai do chat)
+public record PresenceSyncEvent(
+  String nodeId,
+  Type type,
+  Long userId,       // ONLINE / OFFLINE
+  List<Long> users,  // SNAPSHOT
+  long timestamp
+) {
+  public enum Type {
+    ONLINE,
+    OFFLINE,
+    SNAPSHOT,
+    LEAVE
+  }
+}
@@ -0,0 +1,15 @@
+package com.hms.chat.dto.event;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import java.util.Date;
+
+// enviado ao outro participante em /user/queue/read-receipts: mensagens com id <= lastReadMessageId foram lidas
+public record ReadReceiptEvent(
+  String chatId,
+  Long readerId,
+  @JsonSerialize(using = ToStringSerializer.class) // ID Snowflake, acima de 2^53
+  Long lastReadMessageId,
+  Date timestamp
+) {
+}
@@ -0,0 +1,9 @@
+package com.hms.chat.dto.event;
+
+// enviado ao destinatário em /user/queue/typing
+public record TypingEvent(
+  Long senderId,
+  Long recipientId,
+  boolean typing
+) {
+}
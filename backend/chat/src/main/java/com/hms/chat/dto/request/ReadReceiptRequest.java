@@ -0,0 +1,12 @@
+package com.hms.chat.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+
+// o leitor vem da sessão autenticada; sem lastReadMessageId marca a conversa inteira como lida
+public record ReadReceiptRequest(
+  @NotNull(message = "O ID do outro participante é obrigatório.")
+  Long partnerId,
+
+  Long lastReadMessageId
+) {
+}
@@ -0,0 +1,12 @@
+package com.hms.chat.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+
+// o remetente vem da sessão autenticada, não do payload
+public record TypingRequest(
+  @NotNull(message = "O ID do destinatário é obrigatório.")
+  Long recipientId,
+
+  boolean typing
+) {
+}
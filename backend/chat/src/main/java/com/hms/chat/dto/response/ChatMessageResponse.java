@@ -1,11 +1,15 @@
 package com.hms.chat.dto.response;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import com.hms.chat.entities.ChatMessage;
 import com.hms.chat.enums.MessageStatus;
 
 import java.util.Date;
 
+// IDs Snowflake passam de 2^53: vão como string para o JavaScript não arredondar
 public record ChatMessageResponse(
+  @JsonSerialize(using = ToStringSerializer.class)
   Long id,
   String chatId,
   Long senderId,
@@ -0,0 +1,13 @@
+package com.hms.chat.dto.response;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+public record ChatUnreadResponse(
+  String chatId,
+  Long partnerId,
+  Integer unreadCount,
+  @JsonSerialize(using = ToStringSerializer.class) // ID Snowflake, acima de 2^53
+  Long lastReadMessageId
+) {
+}
@@ -0,0 +1,12 @@
+package com.hms.chat.dto.response;
+
+import com.hms.chat.enums.PresenceStatus;
+
+import java.util.Date;
+
+public record PresenceResponse(
+  Long userId,
+  PresenceStatus status,
+  Date lastSeen // null se o usuário não foi visto desde a subida do serviço
+) {
+}
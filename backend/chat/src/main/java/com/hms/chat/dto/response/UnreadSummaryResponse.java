@@ -0,0 +1,9 @@
+package com.hms.chat.dto.response;
+
+import java.util.List;
+
+public record UnreadSummaryResponse(
+  long total,
+  List<ChatUnreadResponse> chats
+) {
+}
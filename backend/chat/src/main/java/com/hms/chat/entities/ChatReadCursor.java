@@ -0,0 +1,35 @@
+package com.hms.chat.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+
+// Até onde o usuário leu a conversa e quantas mensagens recebidas ainda não leu.
+// unread_count é mantido incrementalmente (+1 por mensagem recebida, recalculado ao marcar como lida).
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@IdClass(ChatReadCursorId.class)
+@Table(name = "tb_chat_read_cursors")
+public class ChatReadCursor {
+
+  @Id
+  @Column(length = 100)
+  private String chatId;
+
+  @Id
+  private Long userId;
+
+  @Column(nullable = false)
+  private Long lastReadMessageId;
+
+  @Column(nullable = false)
+  private Integer unreadCount;
+
+  @Temporal(TemporalType.TIMESTAMP)
+  private Date updatedAt;
+}
@@ -0,0 +1,18 @@
+package com.hms.chat.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ChatReadCursorId implements Serializable {
+
+  private String chatId;
+  private Long userId;
+}
@@ -0,0 +1,6 @@
+package com.hms.chat.enums;
+
+public enum PresenceStatus {
+  ONLINE,   // ao menos uma sessão WebSocket ativa (em qualquer instância)
+  OFFLINE
+}
@@ -0,0 +1,108 @@
+package com.hms.chat.presence;
+
+import com.hms.chat.config.RabbitMQConfig;
+import com.hms.chat.dto.event.PresenceSyncEvent;
+import com.hms.chat.enums.PresenceStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+// Compartilha a presença entre instâncias via fanout no RabbitMQ.
+// - transições locais (ONLINE/OFFLINE) são publicadas na hora
+// - a cada sync-interval-ms cada instância publica um SNAPSHOT dos seus usuários; uma instância que fica
+//   3 intervalos sem snapshot é descartada (queda sem desligamento limpo)
+// - instância nova: ao receber o primeiro snapshot de alguém desconhecido, responde com o seu
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.chat.presence.cluster.enabled", havingValue = "true")
+public class PresenceClusterSync {
+
+  private final RabbitTemplate rabbitTemplate;
+  private final PresenceRegistry registry;
+  private final PresenceNotifier notifier;
+  private final long syncIntervalMs;
+  private final String nodeId = UUID.randomUUID().toString();
+
+  public PresenceClusterSync(
+    RabbitTemplate rabbitTemplate,
+    PresenceRegistry registry,
+    PresenceNotifier notifier,
+    @Value("${application.chat.presence.cluster.sync-interval-ms:10000}") long syncIntervalMs
+  ) {
+    this.rabbitTemplate = rabbitTemplate;
+    this.registry = registry;
+    this.notifier = notifier;
+    this.syncIntervalMs = syncIntervalMs;
+  }
+
+  public void publishOnline(Long userId) {
+    publish(new PresenceSyncEvent(nodeId, PresenceSyncEvent.Type.ONLINE, userId, null, System.currentTimeMillis()));
+  }
+
+  public void publishOffline(Long userId) {
+    publish(new PresenceSyncEvent(nodeId, PresenceSyncEvent.Type.OFFLINE, userId, null, System.currentTimeMillis()));
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void announce() {
+    publishSnapshot();
+  }
+
+  @Scheduled(fixedDelayString = "${application.chat.presence.cluster.sync-interval-ms:10000}")
+  public void sync() {
+    publishSnapshot();
+    registry.expireRemoteNodes(System.currentTimeMillis() - 3 * syncIntervalMs)
+      .forEach(userId -> notifier.statusChanged(userId, PresenceStatus.OFFLINE));
+  }
+
+  @PreDestroy
+  public void leave() {
+    publish(new PresenceSyncEvent(nodeId, PresenceSyncEvent.Type.LEAVE, null, null, System.currentTimeMillis()));
+  }
+
+  @RabbitListener(queues = "#{presenceSyncQueue.name}")
+  public void onSyncEvent(PresenceSyncEvent event) {
+    if (nodeId.equals(event.nodeId())) {
+      return;
+    }
+
+    long now = System.currentTimeMillis();
+    switch (event.type()) {
+      case ONLINE -> registry.remoteOnline(event.nodeId(), event.userId(), now);
+      case OFFLINE -> registry.remoteOffline(event.nodeId(), event.userId(), now);
+      case SNAPSHOT -> {
+        boolean newNode = !registry.knowsNode(event.nodeId());
+        registry.remoteSnapshot(event.nodeId(), event.users() != null ? event.users() : List.of(), now);
+        if (newNode) {
+          publishSnapshot();
+        }
+      }
+      case LEAVE -> registry.removeRemoteNode(event.nodeId())
+        .forEach(userId -> notifier.statusChanged(userId, PresenceStatus.OFFLINE));
+    }
+  }
+
+  private void publishSnapshot() {
+    publish(new PresenceSyncEvent(
+      nodeId, PresenceSyncEvent.Type.SNAPSHOT, null, List.copyOf(registry.localUsers()), System.currentTimeMillis()
+    ));
+  }
+
+  private void publish(PresenceSyncEvent event) {
+    try {
+      rabbitTemplate.convertAndSend(RabbitMQConfig.PRESENCE_EXCHANGE, "", event);
+    } catch (Exception e) {
+      log.warn("Falha ao publicar presença ({}) para as demais instâncias: {}", event.type(), e.getMessage());
+    }
+  }
+}
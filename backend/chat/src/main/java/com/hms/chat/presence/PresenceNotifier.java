@@ -0,0 +1,136 @@
+package com.hms.chat.presence;
+
+import com.hms.chat.dto.event.PresenceEvent;
+import com.hms.chat.dto.event.TypingEvent;
+import com.hms.chat.enums.PresenceStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Envio de presença e "digitando" via STOMP.
+// - presença: mudanças do mesmo usuário dentro da janela são agrupadas; só o estado final é enviado,
+//   e só se for diferente do estado no início da janela (conexões que caem e voltam na janela não geram eventos)
+// - digitando: no máximo um evento por par remetente/destinatário a cada typing-min-interval-ms,
+//   exceto quando o estado muda (parou de digitar é sempre entregue)
+@Slf4j
+@Component
+public class PresenceNotifier {
+
+  static final String PRESENCE_TOPIC_PREFIX = "/topic/presence.";
+  static final String TYPING_QUEUE = "/queue/typing";
+
+  private final SimpMessagingTemplate messagingTemplate;
+  private final long typingMinIntervalMs;
+
+  private final Map<Long, PendingPresence> pending = new ConcurrentHashMap<>();
+  private final Map<String, TypingState> typing = new ConcurrentHashMap<>();
+
+  private final Counter presencePushed;
+  private final Counter presenceCoalesced;
+  private final Counter typingPushed;
+  private final Counter typingThrottled;
+
+  // @Lazy: o template é criado pela configuração do broker, que depende do WebSocketConfig -> PresenceTracker -> este bean
+  public PresenceNotifier(
+    @Lazy SimpMessagingTemplate messagingTemplate,
+    MeterRegistry meterRegistry,
+    @Value("${application.chat.presence.typing-min-interval-ms:2000}") long typingMinIntervalMs
+  ) {
+    this.messagingTemplate = messagingTemplate;
+    this.typingMinIntervalMs = typingMinIntervalMs;
+
+    this.presencePushed = eventCounter(meterRegistry, "chat.presence.events.pushed", "presence");
+    this.presenceCoalesced = eventCounter(meterRegistry, "chat.presence.events.suppressed", "presence");
+    this.typingPushed = eventCounter(meterRegistry, "chat.presence.events.pushed", "typing");
+    this.typingThrottled = eventCounter(meterRegistry, "chat.presence.events.suppressed", "typing");
+  }
+
+  // chamado apenas em transições, então o estado anterior é sempre o oposto
+  public void statusChanged(Long userId, PresenceStatus status) {
+    pending.compute(userId, (id, current) -> {
+      if (current == null) {
+        PresenceStatus before = status == PresenceStatus.ONLINE ? PresenceStatus.OFFLINE : PresenceStatus.ONLINE;
+        return new PendingPresence(before, status);
+      }
+      presenceCoalesced.increment();
+      return new PendingPresence(current.before(), status);
+    });
+  }
+
+  @Scheduled(fixedDelayString = "${application.chat.presence.coalesce-ms:1000}")
+  public void flush() {
+    long now = System.currentTimeMillis();
+
+    for (Map.Entry<Long, PendingPresence> entry : pending.entrySet()) {
+      Long userId = entry.getKey();
+      PendingPresence change = entry.getValue();
+      // remove só se ninguém alterou enquanto isso; senão fica para o próximo ciclo
+      if (!pending.remove(userId, change)) {
+        continue;
+      }
+
+      PresenceStatus status = change.after();
+      if (status == change.before()) {
+        presenceCoalesced.increment();
+        continue;
+      }
+
+      try {
+        messagingTemplate.convertAndSend(PRESENCE_TOPIC_PREFIX + userId, new PresenceEvent(userId, status, new Date(now)));
+        presencePushed.increment();
+      } catch (Exception e) {
+        log.warn("Falha ao enviar presença do usuário {}: {}", userId, e.getMessage());
+      }
+    }
+
+    typing.values().removeIf(state -> now - state.sentAt() > 60_000);
+  }
+
+  public boolean typing(Long senderId, Long recipientId, boolean isTyping) {
+    long now = System.currentTimeMillis();
+    String key = senderId + ">" + recipientId;
+
+    boolean[] allowed = {false};
+    typing.compute(key, (k, previous) -> {
+      if (previous == null || previous.typing() != isTyping || now - previous.sentAt() >= typingMinIntervalMs) {
+        allowed[0] = true;
+        return new TypingState(isTyping, now);
+      }
+      return previous;
+    });
+
+    if (!allowed[0]) {
+      typingThrottled.increment();
+      return false;
+    }
+
+    messagingTemplate.convertAndSendToUser(
+      String.valueOf(recipientId),
+      TYPING_QUEUE,
+      new TypingEvent(senderId, recipientId, isTyping)
+    );
+    typingPushed.increment();
+    return true;
+  }
+
+  private static Counter eventCounter(MeterRegistry meterRegistry, String name, String type) {
+    return Counter.builder(name)
+      .tags("type", type)
+      .register(meterRegistry);
+  }
+
+  private record PendingPresence(PresenceStatus before, PresenceStatus after) {
+  }
+
+  private record TypingState(boolean typing, long sentAt) {
+  }
+}
@@ -0,0 +1,158 @@
+package com.hms.chat.presence;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Estado de presença mantido só em memória (nenhuma escrita no banco por evento).
+// - local: sessões WebSocket desta instância, por usuário
+// - remote: usuários online em outras instâncias, recebidos via PresenceClusterSync
+// Os métodos de mudança retornam true quando o usuário muda de estado NESTA instância.
+@Component
+public class PresenceRegistry {
+
+  private final Map<Long, LocalPresence> local = new ConcurrentHashMap<>();
+  private final Map<String, RemoteNode> remote = new ConcurrentHashMap<>();
+  private final Map<Long, Long> lastSeen = new ConcurrentHashMap<>();
+
+  public PresenceRegistry(MeterRegistry meterRegistry) {
+    Gauge.builder("chat.presence.online.users", local, Map::size)
+      .description("Usuários com sessão WebSocket ativa nesta instância")
+      .register(meterRegistry);
+  }
+
+  public boolean connected(Long userId, String sessionId, long now) {
+    boolean[] cameOnline = {false};
+    local.compute(userId, (id, presence) -> {
+      if (presence == null) {
+        presence = new LocalPresence();
+        cameOnline[0] = true;
+      }
+      presence.sessions.add(sessionId);
+      presence.lastSeen = now;
+      return presence;
+    });
+    lastSeen.put(userId, now);
+    return cameOnline[0];
+  }
+
+  public boolean disconnected(Long userId, String sessionId, long now) {
+    boolean[] wentOffline = {false};
+    local.computeIfPresent(userId, (id, presence) -> {
+      presence.sessions.remove(sessionId);
+      if (presence.sessions.isEmpty()) {
+        wentOffline[0] = true;
+        return null;
+      }
+      return presence;
+    });
+    lastSeen.put(userId, now);
+    return wentOffline[0];
+  }
+
+  // chamado a cada frame recebido (inclusive heartbeats): só atualiza um long
+  public void touch(Long userId, long now) {
+    LocalPresence presence = local.get(userId);
+    if (presence != null) {
+      presence.lastSeen = now;
+    }
+  }
+
+  // sessões sem nenhum frame desde staleBefore (conexão morta sem DISCONNECT) saem do mapa
+  public List<Long> expireStale(long staleBefore) {
+    List<Long> expired = new ArrayList<>();
+    local.forEach((userId, presence) -> {
+      if (presence.lastSeen < staleBefore && local.remove(userId, presence)) {
+        lastSeen.put(userId, presence.lastSeen);
+        expired.add(userId);
+      }
+    });
+    return expired;
+  }
+
+  public boolean isOnline(Long userId) {
+    if (local.containsKey(userId)) {
+      return true;
+    }
+    for (RemoteNode node : remote.values()) {
+      if (node.users.contains(userId)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public Long lastSeen(Long userId) {
+    return lastSeen.get(userId);
+  }
+
+  public Set<Long> localUsers() {
+    return Set.copyOf(local.keySet());
+  }
+
+  public void remoteOnline(String nodeId, Long userId, long now) {
+    RemoteNode node = remote.computeIfAbsent(nodeId, id -> new RemoteNode());
+    node.users.add(userId);
+    node.lastSync = now;
+    lastSeen.put(userId, now);
+  }
+
+  public void remoteOffline(String nodeId, Long userId, long now) {
+    RemoteNode node = remote.get(nodeId);
+    if (node != null) {
+      node.users.remove(userId);
+      node.lastSync = now;
+    }
+    lastSeen.put(userId, now);
+  }
+
+  // snapshot periódico de outra instância: substitui o que se sabia dela
+  public void remoteSnapshot(String nodeId, Collection<Long> users, long now) {
+    RemoteNode node = new RemoteNode();
+    node.users.addAll(users);
+    node.lastSync = now;
+    remote.put(nodeId, node);
+    users.forEach(userId -> lastSeen.put(userId, now));
+  }
+
+  public boolean knowsNode(String nodeId) {
+    return remote.containsKey(nodeId);
+  }
+
+  // instância desligada: retorna os usuários que ficaram offline
+  public List<Long> removeRemoteNode(String nodeId) {
+    RemoteNode node = remote.remove(nodeId);
+    if (node == null) {
+      return List.of();
+    }
+    return node.users.stream().filter(userId -> !isOnline(userId)).toList();
+  }
+
+  // instâncias que pararam de enviar snapshots (queda sem desligamento limpo); retorna os usuários que ficaram offline
+  public List<Long> expireRemoteNodes(long staleBefore) {
+    List<Long> wentOffline = new ArrayList<>();
+    remote.forEach((nodeId, node) -> {
+      if (node.lastSync < staleBefore && remote.remove(nodeId, node)) {
+        node.users.stream().filter(userId -> !isOnline(userId)).forEach(wentOffline::add);
+      }
+    });
+    return wentOffline;
+  }
+
+  private static final class LocalPresence {
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private volatile long lastSeen;
+  }
+
+  private static final class RemoteNode {
+    private final Set<Long> users = ConcurrentHashMap.newKeySet();
+    private volatile long lastSync;
+  }
+}
@@ -0,0 +1,101 @@
+package com.hms.chat.presence;
+
+import com.hms.chat.enums.PresenceStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.Optional;
+
+// Liga o ciclo de vida das sessões STOMP ao PresenceRegistry:
+// CONNECTED / DISCONNECT alteram o estado; qualquer frame recebido (inclusive heartbeat) renova o lastSeen.
+// Transições são publicadas para as outras instâncias (se habilitado) e enviadas aos clientes pelo PresenceNotifier,
+// sempre considerando o estado agregado (usuário conectado em outra instância continua online).
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PresenceTracker implements ChannelInterceptor {
+
+  private final PresenceRegistry registry;
+  private final PresenceNotifier notifier;
+  private final Optional<PresenceClusterSync> clusterSync;
+
+  @Value("${application.chat.presence.stale-after-ms:60000}")
+  private long staleAfterMs;
+
+  @EventListener
+  public void onConnected(SessionConnectedEvent event) {
+    Long userId = userId(event.getUser());
+    String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+    if (userId == null || sessionId == null) {
+      return;
+    }
+
+    boolean wasOnline = registry.isOnline(userId);
+    if (registry.connected(userId, sessionId, System.currentTimeMillis())) {
+      clusterSync.ifPresent(sync -> sync.publishOnline(userId));
+      if (!wasOnline) {
+        notifier.statusChanged(userId, PresenceStatus.ONLINE);
+      }
+    }
+  }
+
+  @EventListener
+  public void onDisconnect(SessionDisconnectEvent event) {
+    Long userId = userId(event.getUser());
+    if (userId == null) {
+      return;
+    }
+
+    if (registry.disconnected(userId, event.getSessionId(), System.currentTimeMillis())) {
+      wentOfflineLocally(userId);
+    }
+  }
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    Long userId = userId(SimpMessageHeaderAccessor.getUser(message.getHeaders()));
+    if (userId != null) {
+      registry.touch(userId, System.currentTimeMillis());
+    }
+    return message;
+  }
+
+  @Scheduled(fixedDelayString = "${application.chat.presence.sweep-interval-ms:15000}")
+  public void sweep() {
+    long now = System.currentTimeMillis();
+    for (Long userId : registry.expireStale(now - staleAfterMs)) {
+      log.debug("Presença do usuário {} expirou sem DISCONNECT", userId);
+      wentOfflineLocally(userId);
+    }
+  }
+
+  private void wentOfflineLocally(Long userId) {
+    clusterSync.ifPresent(sync -> sync.publishOffline(userId));
+    if (!registry.isOnline(userId)) {
+      notifier.statusChanged(userId, PresenceStatus.OFFLINE);
+    }
+  }
+
+  // o principal das sessões autenticadas é o userId (ver WebSocketAuthInterceptor)
+  private static Long userId(Principal principal) {
+    if (principal == null) {
+      return null;
+    }
+    try {
+      return Long.valueOf(principal.getName());
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
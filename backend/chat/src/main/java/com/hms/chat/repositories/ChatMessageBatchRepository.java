@@ -0,0 +1,72 @@
+package com.hms.chat.repositories;
+
+import com.hms.chat.entities.ChatMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Acesso JDBC direto para escrita em lote (INSERT multi-linha), usado pelo modo write-behind
+@Repository
+@RequiredArgsConstructor
+public class ChatMessageBatchRepository {
+
+  private static final String INSERT_PREFIX =
+    "INSERT INTO tb_chat_messages (id, chat_id, sender_id, recipient_id, content, status, timestamp) VALUES ";
+  private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?, ?)";
+  private static final int COLUMNS = 7;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  // insere as mensagens em blocos de até rowsPerStatement linhas por comando
+  public void insertAll(List<ChatMessage> messages, int rowsPerStatement) {
+    for (int start = 0; start < messages.size(); start += rowsPerStatement) {
+      List<ChatMessage> chunk = messages.subList(start, Math.min(start + rowsPerStatement, messages.size()));
+
+      StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + chunk.size() * (ROW_PLACEHOLDER.length() + 2));
+      sql.append(INSERT_PREFIX);
+      Object[] args = new Object[chunk.size() * COLUMNS];
+
+      int i = 0;
+      for (ChatMessage message : chunk) {
+        if (i > 0) {
+          sql.append(", ");
+        }
+        sql.append(ROW_PLACEHOLDER);
+        args[i++] = message.getId();
+        args[i++] = message.getChatId();
+        args[i++] = message.getSenderId();
+        args[i++] = message.getRecipientId();
+        args[i++] = message.getContent();
+        args[i++] = message.getStatus() != null ? message.getStatus().name() : null;
+        args[i++] = message.getTimestamp() != null ? new Timestamp(message.getTimestamp().getTime()) : null;
+      }
+
+      jdbcTemplate.update(sql.toString(), args);
+    }
+  }
+
+  // retorna quais dos IDs informados já existem na tabela (usado na recuperação do WAL)
+  public Set<Long> findExistingIds(Collection<Long> ids, int chunkSize) {
+    Set<Long> existing = new HashSet<>();
+    List<Long> all = new ArrayList<>(ids);
+
+    for (int start = 0; start < all.size(); start += chunkSize) {
+      List<Long> chunk = all.subList(start, Math.min(start + chunkSize, all.size()));
+      String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+      existing.addAll(jdbcTemplate.queryForList(
+        "SELECT id FROM tb_chat_messages WHERE id IN (" + placeholders + ")",
+        Long.class,
+        chunk.toArray()
+      ));
+    }
+    return existing;
+  }
+}
@@ -1,9 +1,7 @@
 package com.hms.chat.repositories;
 
 import com.hms.chat.entities.ChatMessage;
-import com.hms.chat.enums.MessageStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -13,10 +11,9 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
 
   List<ChatMessage> findByChatId(String chatId);
 
-  long countByRecipientIdAndStatus(Long recipientId, MessageStatus status);
+  // mensagens recebidas após o cursor de leitura (usa o índice chat_id, recipient_id, id)
+  long countByChatIdAndRecipientIdAndIdGreaterThan(String chatId, Long recipientId, Long id);
 
-  // Atualizar status para LIDO
-  @Modifying
-  @Query("UPDATE ChatMessage m SET m.status = :status WHERE m.chatId = :chatId")
-  void updateStatus(@Param("chatId") String chatId, @Param("status") MessageStatus status);
-}
\ No newline at end of file
+  @Query("SELECT MAX(m.id) FROM ChatMessage m WHERE m.chatId = :chatId")
+  Long findLastMessageId(@Param("chatId") String chatId);
+}
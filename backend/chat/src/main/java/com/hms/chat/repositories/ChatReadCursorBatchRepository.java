@@ -0,0 +1,59 @@
+package com.hms.chat.repositories;
+
+import com.hms.chat.entities.ChatMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.List;
+
+// Upserts dos contadores de não lidas: uma linha por (conversa, destinatário), sem varrer as mensagens
+@Repository
+@RequiredArgsConstructor
+public class ChatReadCursorBatchRepository {
+
+  // só conta mensagens posteriores ao cursor (a mensagem pode ter sido lida via WebSocket antes de chegar ao banco)
+  private static final String UPSERT_RECEIVED =
+    "INSERT INTO tb_chat_read_cursors (chat_id, user_id, last_read_message_id, unread_count, updated_at) " +
+      "VALUES (?, ?, 0, 1, ?) " +
+      "ON DUPLICATE KEY UPDATE unread_count = unread_count + CASE WHEN ? > last_read_message_id THEN 1 ELSE 0 END, " +
+      "updated_at = VALUES(updated_at)";
+
+  private static final String ENSURE_EXISTS =
+    "INSERT INTO tb_chat_read_cursors (chat_id, user_id, last_read_message_id, unread_count, updated_at) " +
+      "VALUES (?, ?, 0, 0, ?) " +
+      "ON DUPLICATE KEY UPDATE user_id = user_id";
+
+  // ordem fixa de travamento das linhas entre transações concorrentes
+  private static final Comparator<ChatMessage> LOCK_ORDER = Comparator
+    .comparing(ChatMessage::getChatId)
+    .thenComparing(ChatMessage::getRecipientId)
+    .thenComparing(ChatMessage::getId);
+
+  private final JdbcTemplate jdbcTemplate;
+
+  // +1 no contador do destinatário de cada mensagem; chamado na mesma transação que grava as mensagens
+  public void recordReceived(List<ChatMessage> messages) {
+    if (messages.isEmpty()) {
+      return;
+    }
+
+    Timestamp now = new Timestamp(System.currentTimeMillis());
+    List<Object[]> args = messages.stream()
+      .sorted(LOCK_ORDER)
+      .map(message -> new Object[]{message.getChatId(), message.getRecipientId(), now, message.getId()})
+      .toList();
+
+    if (args.size() == 1) {
+      jdbcTemplate.update(UPSERT_RECEIVED, args.get(0));
+    } else {
+      jdbcTemplate.batchUpdate(UPSERT_RECEIVED, args);
+    }
+  }
+
+  public void ensureExists(String chatId, Long userId) {
+    jdbcTemplate.update(ENSURE_EXISTS, chatId, userId, new Timestamp(System.currentTimeMillis()));
+  }
+}
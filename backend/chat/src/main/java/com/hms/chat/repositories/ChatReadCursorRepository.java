@@ -0,0 +1,24 @@
+package com.hms.chat.repositories;
+
+import com.hms.chat.entities.ChatReadCursor;
+import com.hms.chat.entities.ChatReadCursorId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ChatReadCursorRepository extends JpaRepository<ChatReadCursor, ChatReadCursorId> {
+
+  List<ChatReadCursor> findByUserIdAndUnreadCountGreaterThan(Long userId, Integer unreadCount);
+
+  List<ChatReadCursor> findByChatId(String chatId);
+
+  // serializa a marcação de leitura com os incrementos da mesma conversa
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT c FROM ChatReadCursor c WHERE c.chatId = :chatId AND c.userId = :userId")
+  Optional<ChatReadCursor> findForUpdate(@Param("chatId") String chatId, @Param("userId") Long userId);
+}
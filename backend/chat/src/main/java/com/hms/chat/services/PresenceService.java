@@ -0,0 +1,13 @@
+package com.hms.chat.services;
+
+import com.hms.chat.dto.request.TypingRequest;
+import com.hms.chat.dto.response.PresenceResponse;
+
+import java.util.List;
+
+public interface PresenceService {
+
+  List<PresenceResponse> getPresence(List<Long> userIds);
+
+  void typing(Long senderId, TypingRequest request);
+}
@@ -0,0 +1,17 @@
+package com.hms.chat.services;
+
+import com.hms.chat.dto.request.ReadReceiptRequest;
+import com.hms.chat.dto.response.ChatMessageResponse;
+import com.hms.chat.dto.response.UnreadSummaryResponse;
+
+import java.util.List;
+
+public interface ReadReceiptService {
+
+  void markAsRead(Long readerId, ReadReceiptRequest request);
+
+  UnreadSummaryResponse getUnreadSummary(Long userId);
+
+  // status READ derivado dos cursores, sem gravar por mensagem
+  List<ChatMessageResponse> applyReadStatus(String chatId, List<ChatMessageResponse> messages);
+}
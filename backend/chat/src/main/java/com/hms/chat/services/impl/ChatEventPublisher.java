@@ -0,0 +1,46 @@
+package com.hms.chat.services.impl;
+
+import com.hms.chat.dto.event.ChatMessageEvent;
+import com.hms.chat.entities.ChatMessage;
+import com.hms.common.dto.event.EventEnvelope;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatEventPublisher {
+
+  private final RabbitTemplate rabbitTemplate;
+
+  @Value("${application.rabbitmq.exchange:hms.exchange}")
+  private String exchange;
+
+  @Value("${application.rabbitmq.routing-keys.chat:notification.chat}")
+  private String chatRoutingKey;
+
+  public void publish(ChatMessage message, String senderName) {
+    try {
+      ChatMessageEvent event = new ChatMessageEvent(
+        message.getRecipientId(),
+        message.getSenderId(),
+        senderName != null ? senderName : "Usuário",
+        message.getContent(),
+        message.getTimestamp().toString()
+      );
+
+      EventEnvelope<ChatMessageEvent> envelope = EventEnvelope.create(
+        "CHAT_MESSAGE_SENT",
+        message.getChatId(),
+        event
+      );
+
+      rabbitTemplate.convertAndSend(exchange, chatRoutingKey, envelope);
+    } catch (Exception e) {
+      log.error("Falha ao enviar notificação de chat: {}", e.getMessage());
+    }
+  }
+}
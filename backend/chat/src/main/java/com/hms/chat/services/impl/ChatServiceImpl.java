@@ -1,17 +1,17 @@
 package com.hms.chat.services.impl;
 
-import com.hms.chat.dto.event.ChatMessageEvent;
 import com.hms.chat.dto.request.ChatMessageRequest;
 import com.hms.chat.dto.response.ChatMessageResponse;
 import com.hms.chat.entities.ChatMessage;
 import com.hms.chat.enums.MessageStatus;
 import com.hms.chat.repositories.ChatMessageRepository;
+import com.hms.chat.repositories.ChatReadCursorBatchRepository;
 import com.hms.chat.services.ChatService;
-import com.hms.common.dto.event.EventEnvelope;
+import com.hms.chat.services.ReadReceiptService;
+import com.hms.chat.util.ChatIdUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,22 +20,19 @@ import java.util.List;
 
 @Slf4j
 @Service
+@ConditionalOnProperty(name = "application.chat.persistence.mode", havingValue = "sync", matchIfMissing = true)
 @RequiredArgsConstructor
 public class ChatServiceImpl implements ChatService {
 
   private final ChatMessageRepository repository;
-  private final RabbitTemplate rabbitTemplate;
-
-  @Value("${application.rabbitmq.exchange:hms.exchange}")
-  private String exchange;
-
-  @Value("${application.rabbitmq.routing-keys.chat:notification.chat}")
-  private String chatRoutingKey;
+  private final ChatEventPublisher chatEventPublisher;
+  private final ChatReadCursorBatchRepository cursorBatchRepository;
+  private final ReadReceiptService readReceiptService;
 
   @Override
   @Transactional
   public ChatMessageResponse saveMessage(ChatMessageRequest request) {
-    String chatId = generateChatId(request.senderId(), request.recipientId());
+    String chatId = ChatIdUtils.generate(request.senderId(), request.recipientId());
 
     ChatMessage message = ChatMessage.builder()
       .chatId(chatId)
@@ -47,51 +44,25 @@ public class ChatServiceImpl implements ChatService {
       .build();
 
     ChatMessage savedMessage = repository.save(message);
+    cursorBatchRepository.recordReceived(List.of(savedMessage));
 
-    publishChatEvent(savedMessage, request.senderName());
+    chatEventPublisher.publish(savedMessage, request.senderName());
 
     return ChatMessageResponse.fromEntity(savedMessage);
   }
 
-  private void publishChatEvent(ChatMessage message, String senderName) {
-    try {
-      ChatMessageEvent event = new ChatMessageEvent(
-        message.getRecipientId(),
-        message.getSenderId(),
-        senderName != null ? senderName : "Usuário",
-        message.getContent(),
-        message.getTimestamp().toString()
-      );
-
-      EventEnvelope<ChatMessageEvent> envelope = EventEnvelope.create(
-        "CHAT_MESSAGE_SENT",
-        message.getChatId(),
-        event
-      );
-
-      rabbitTemplate.convertAndSend(exchange, chatRoutingKey, envelope);
-    } catch (Exception e) {
-      log.error("Falha ao enviar notificação de chat: {}", e.getMessage());
-    }
-  }
-
   @Override
   public List<ChatMessageResponse> findChatMessages(Long senderId, Long recipientId) {
-    String chatId = generateChatId(senderId, recipientId);
+    String chatId = ChatIdUtils.generate(senderId, recipientId);
     return findByChatId(chatId);
   }
 
   @Override
   public List<ChatMessageResponse> findByChatId(String chatId) {
-    return repository.findByChatId(chatId)
+    List<ChatMessageResponse> messages = repository.findByChatId(chatId)
       .stream()
       .map(ChatMessageResponse::fromEntity)
       .toList();
-  }
-
-  private String generateChatId(Long senderId, Long recipientId) {
-    var minId = Math.min(senderId, recipientId);
-    var maxId = Math.max(senderId, recipientId);
-    return String.format("%d_%d", minId, maxId);
+    return readReceiptService.applyReadStatus(chatId, messages);
   }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.hms.chat.services.impl;
+
+import com.hms.chat.dto.request.TypingRequest;
+import com.hms.chat.dto.response.PresenceResponse;
+import com.hms.chat.enums.PresenceStatus;
+import com.hms.chat.presence.PresenceNotifier;
+import com.hms.chat.presence.PresenceRegistry;
+import com.hms.chat.services.PresenceService;
+import com.hms.common.exceptions.InvalidOperationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class PresenceServiceImpl implements PresenceService {
+
+  private final PresenceRegistry presenceRegistry;
+  private final PresenceNotifier presenceNotifier;
+
+  @Value("${application.chat.presence.max-query-size:200}")
+  private int maxQuerySize;
+
+  @Override
+  public List<PresenceResponse> getPresence(List<Long> userIds) {
+    if (userIds.size() > maxQuerySize) {
+      throw new InvalidOperationException("Consulte no máximo " + maxQuerySize + " usuários por vez.");
+    }
+
+    return userIds.stream()
+      .distinct()
+      .map(userId -> {
+        Long lastSeen = presenceRegistry.lastSeen(userId);
+        return new PresenceResponse(
+          userId,
+          presenceRegistry.isOnline(userId) ? PresenceStatus.ONLINE : PresenceStatus.OFFLINE,
+          lastSeen != null ? new Date(lastSeen) : null
+        );
+      })
+      .toList();
+  }
+
+  @Override
+  public void typing(Long senderId, TypingRequest request) {
+    // ninguém para avisar: evita o frame
+    if (senderId.equals(request.recipientId()) || !presenceRegistry.isOnline(request.recipientId())) {
+      return;
+    }
+    presenceNotifier.typing(senderId, request.recipientId(), request.typing());
+  }
+}
@@ -0,0 +1,138 @@
+package com.hms.chat.services.impl;
+
+import com.hms.chat.dto.event.ReadReceiptEvent;
+import com.hms.chat.dto.request.ReadReceiptRequest;
+import com.hms.chat.dto.response.ChatMessageResponse;
+import com.hms.chat.dto.response.ChatUnreadResponse;
+import com.hms.chat.dto.response.UnreadSummaryResponse;
+import com.hms.chat.entities.ChatMessage;
+import com.hms.chat.entities.ChatReadCursor;
+import com.hms.chat.enums.MessageStatus;
+import com.hms.chat.repositories.ChatMessageRepository;
+import com.hms.chat.repositories.ChatReadCursorBatchRepository;
+import com.hms.chat.repositories.ChatReadCursorRepository;
+import com.hms.chat.services.ReadReceiptService;
+import com.hms.chat.util.ChatIdUtils;
+import com.hms.chat.writebehind.ChatWriteBehindBuffer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReadReceiptServiceImpl implements ReadReceiptService {
+
+  private final ChatReadCursorRepository cursorRepository;
+  private final ChatReadCursorBatchRepository cursorBatchRepository;
+  private final ChatMessageRepository messageRepository;
+  private final Optional<ChatWriteBehindBuffer> writeBehindBuffer;
+  private final SimpMessagingTemplate messagingTemplate;
+
+  @Override
+  @Transactional
+  public void markAsRead(Long readerId, ReadReceiptRequest request) {
+    String chatId = ChatIdUtils.generate(readerId, request.partnerId());
+
+    // trava só o cursor do leitor: incrementos concorrentes da conversa aguardam e são aplicados depois
+    cursorBatchRepository.ensureExists(chatId, readerId);
+    ChatReadCursor cursor = cursorRepository.findForUpdate(chatId, readerId).orElseThrow();
+
+    // limitado à última mensagem da conversa: um id futuro marcaria como lidas mensagens que ainda nem existem
+    long last = lastMessageId(chatId);
+    long upTo = request.lastReadMessageId() != null ? Math.min(request.lastReadMessageId(), last) : last;
+    if (upTo <= cursor.getLastReadMessageId()) {
+      return;
+    }
+
+    // conta apenas o que está no banco após o novo cursor; mensagens ainda no buffer write-behind
+    // entram no contador quando forem gravadas (e só se forem posteriores ao cursor)
+    long remaining = messageRepository.countByChatIdAndRecipientIdAndIdGreaterThan(chatId, readerId, upTo);
+
+    cursor.setLastReadMessageId(upTo);
+    cursor.setUnreadCount((int) remaining);
+    cursor.setUpdatedAt(new Date());
+
+    ReadReceiptEvent event = new ReadReceiptEvent(chatId, readerId, upTo, cursor.getUpdatedAt());
+    afterCommit(() -> messagingTemplate.convertAndSendToUser(
+      String.valueOf(request.partnerId()), "/queue/read-receipts", event
+    ));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public UnreadSummaryResponse getUnreadSummary(Long userId) {
+    List<ChatUnreadResponse> chats = cursorRepository.findByUserIdAndUnreadCountGreaterThan(userId, 0)
+      .stream()
+      .map(cursor -> new ChatUnreadResponse(
+        cursor.getChatId(),
+        ChatIdUtils.partnerOf(cursor.getChatId(), userId),
+        cursor.getUnreadCount(),
+        cursor.getLastReadMessageId()
+      ))
+      .toList();
+
+    long total = chats.stream().mapToLong(ChatUnreadResponse::unreadCount).sum();
+    return new UnreadSummaryResponse(total, chats);
+  }
+
+  @Override
+  public List<ChatMessageResponse> applyReadStatus(String chatId, List<ChatMessageResponse> messages) {
+    if (messages.isEmpty()) {
+      return messages;
+    }
+
+    Map<Long, Long> lastReadByUser = cursorRepository.findByChatId(chatId)
+      .stream()
+      .collect(Collectors.toMap(ChatReadCursor::getUserId, ChatReadCursor::getLastReadMessageId));
+    if (lastReadByUser.isEmpty()) {
+      return messages;
+    }
+
+    return messages.stream()
+      .map(message -> {
+        Long lastRead = lastReadByUser.get(message.recipientId());
+        if (lastRead == null || message.id() > lastRead || message.status() == MessageStatus.READ) {
+          return message;
+        }
+        return new ChatMessageResponse(
+          message.id(), message.chatId(), message.senderId(), message.recipientId(),
+          message.content(), message.timestamp(), MessageStatus.READ
+        );
+      })
+      .toList();
+  }
+
+  private long lastMessageId(String chatId) {
+    Long persisted = messageRepository.findLastMessageId(chatId);
+    long last = persisted != null ? persisted : 0L;
+
+    return writeBehindBuffer
+      .map(buffer -> buffer.pendingFor(chatId).stream().map(ChatMessage::getId).max(Long::compare).orElse(0L))
+      .map(pending -> Math.max(pending, last))
+      .orElse(last);
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+}
@@ -0,0 +1,65 @@
+package com.hms.chat.services.impl;
+
+import com.hms.chat.dto.request.ChatMessageRequest;
+import com.hms.chat.dto.response.ChatMessageResponse;
+import com.hms.chat.entities.ChatMessage;
+import com.hms.chat.enums.MessageStatus;
+import com.hms.chat.repositories.ChatMessageRepository;
+import com.hms.chat.services.ChatService;
+import com.hms.chat.services.ReadReceiptService;
+import com.hms.chat.util.ChatIdUtils;
+import com.hms.chat.writebehind.ChatWriteBehindBuffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Modo write-behind: a mensagem é entregue imediatamente e gravada no banco em lote pelo ChatWriteBehindBuffer
+@Service
+@ConditionalOnProperty(name = "application.chat.persistence.mode", havingValue = "write-behind")
+@RequiredArgsConstructor
+public class WriteBehindChatServiceImpl implements ChatService {
+
+  private final ChatMessageRepository repository;
+  private final ChatWriteBehindBuffer writeBehindBuffer;
+  private final ReadReceiptService readReceiptService;
+
+  @Override
+  public ChatMessageResponse saveMessage(ChatMessageRequest request) {
+    ChatMessage message = ChatMessage.builder()
+      .chatId(ChatIdUtils.generate(request.senderId(), request.recipientId()))
+      .senderId(request.senderId())
+      .recipientId(request.recipientId())
+      .content(request.content())
+      .timestamp(new Date())
+      .status(MessageStatus.SENT)
+      .build();
+
+    return ChatMessageResponse.fromEntity(writeBehindBuffer.accept(message, request.senderName()));
+  }
+
+  @Override
+  public List<ChatMessageResponse> findChatMessages(Long senderId, Long recipientId) {
+    return findByChatId(ChatIdUtils.generate(senderId, recipientId));
+  }
+
+  @Override
+  public List<ChatMessageResponse> findByChatId(String chatId) {
+    // lê o buffer antes do banco: uma mensagem que sai do buffer já foi confirmada e aparece na consulta
+    List<ChatMessage> pending = writeBehindBuffer.pendingFor(chatId);
+
+    Map<Long, ChatMessage> merged = new TreeMap<>();
+    repository.findByChatId(chatId).forEach(message -> merged.put(message.getId(), message));
+    pending.forEach(message -> merged.putIfAbsent(message.getId(), message));
+
+    List<ChatMessageResponse> messages = merged.values()
+      .stream()
+      .map(ChatMessageResponse::fromEntity)
+      .toList();
+    return readReceiptService.applyReadStatus(chatId, messages);
+  }
+}
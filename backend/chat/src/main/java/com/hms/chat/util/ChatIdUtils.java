@@ -0,0 +1,23 @@
+package com.hms.chat.util;
+
+public final class ChatIdUtils {
+
+  private ChatIdUtils() {
+    // previne instanciamento
+  }
+
+  // o ID da conversa independe de quem enviou: sempre "menorId_maiorId"
+  public static String generate(Long senderId, Long recipientId) {
+    var minId = Math.min(senderId, recipientId);
+    var maxId = Math.max(senderId, recipientId);
+    return String.format("%d_%d", minId, maxId);
+  }
+
+  // o outro participante da conversa "menorId_maiorId"
+  public static Long partnerOf(String chatId, Long userId) {
+    int separator = chatId.indexOf('_');
+    Long first = Long.valueOf(chatId.substring(0, separator));
+    Long second = Long.valueOf(chatId.substring(separator + 1));
+    return first.equals(userId) ? second : first;
+  }
+}
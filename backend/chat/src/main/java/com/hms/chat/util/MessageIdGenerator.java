@@ -0,0 +1,78 @@
+package com.hms.chat.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Gera IDs de 64 bits ordenados pelo tempo (layout estilo Snowflake):
+// 41 bits de timestamp (ms desde EPOCH) | 10 bits de nó | 12 bits de sequência
+@Component
+public class MessageIdGenerator {
+
+  // 2024-01-01T00:00:00Z
+  static final long EPOCH = 1704067200000L;
+
+  private static final int NODE_BITS = 10;
+  private static final int SEQUENCE_BITS = 12;
+  private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+  private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+  private final long nodeId;
+
+  private long lastTimestamp = -1L;
+  private long sequence = 0L;
+
+  @Autowired
+  public MessageIdGenerator(
+    @Value("${application.chat.node-id:}") String nodeId,
+    @Value("${application.chat.broker.mode:simple}") String brokerMode
+  ) {
+    this(resolveNodeId(nodeId, brokerMode));
+  }
+
+  public MessageIdGenerator(long nodeId) {
+    if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+      throw new IllegalArgumentException("application.chat.node-id deve estar entre 0 e " + MAX_NODE_ID);
+    }
+    this.nodeId = nodeId;
+  }
+
+  // com uma instância só o nó 0 basta; no modo relay (várias instâncias) um default compartilhado
+  // geraria IDs duplicados entre réplicas, então a subida falha se CHAT_NODE_ID não for informado
+  static long resolveNodeId(String nodeId, String brokerMode) {
+    if (nodeId != null && !nodeId.isBlank()) {
+      return Long.parseLong(nodeId.trim());
+    }
+    if ("relay".equalsIgnoreCase(brokerMode)) {
+      throw new IllegalStateException(
+        "application.chat.node-id (CHAT_NODE_ID) é obrigatório no modo relay: cada instância precisa de um id único entre 0 e " + MAX_NODE_ID
+      );
+    }
+    return 0L;
+  }
+
+  public synchronized long nextId() {
+    long timestamp = System.currentTimeMillis();
+
+    // relógio voltou no tempo: mantém o último timestamp para não quebrar a ordenação
+    if (timestamp < lastTimestamp) {
+      timestamp = lastTimestamp;
+    }
+
+    if (timestamp == lastTimestamp) {
+      sequence = (sequence + 1) & SEQUENCE_MASK;
+      if (sequence == 0) {
+        // sequência esgotada neste milissegundo, aguarda o próximo
+        while (timestamp <= lastTimestamp) {
+          Thread.onSpinWait();
+          timestamp = System.currentTimeMillis();
+        }
+      }
+    } else {
+      sequence = 0L;
+    }
+
+    lastTimestamp = timestamp;
+    return ((timestamp - EPOCH) << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+  }
+}
@@ -0,0 +1,204 @@
+package com.hms.chat.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Write-ahead log local (append-only) das mensagens ainda não gravadas no banco.
+// Cada registro é uma linha JSON. Segmentos são "selados" a cada flush e apagados
+// assim que todas as mensagens que contêm forem confirmadas no MySQL.
+// Não é thread-safe: o chamador serializa o acesso.
+@Slf4j
+class ChatMessageWal implements Closeable {
+
+  private static final String SEGMENT_PREFIX = "chat-wal-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final String DEAD_LETTER_FILE = "dead-letter/chat-dead-letter.log";
+
+  private final Path directory;
+  private final ObjectMapper objectMapper;
+  private final boolean fsyncEachWrite;
+
+  private final Deque<SealedSegment> sealedSegments = new ArrayDeque<>();
+
+  private FileChannel activeChannel;
+  private Path activePath;
+  private long activeMaxId = -1L;
+  private long nextSegmentNumber;
+
+  ChatMessageWal(Path directory, ObjectMapper objectMapper, boolean fsyncEachWrite) {
+    this.directory = directory;
+    this.objectMapper = objectMapper;
+    this.fsyncEachWrite = fsyncEachWrite;
+  }
+
+  // abre o diretório, devolve os registros de segmentos anteriores (crash/restart) e inicia um novo segmento
+  List<PendingChatMessage> open() {
+    try {
+      Files.createDirectories(directory);
+      List<PendingChatMessage> recovered = new ArrayList<>();
+
+      for (Path segment : listSegments()) {
+        List<PendingChatMessage> records = readSegment(segment);
+        long maxId = records.stream().mapToLong(PendingChatMessage::id).max().orElse(-1L);
+        sealedSegments.addLast(new SealedSegment(segment, maxId));
+        recovered.addAll(records);
+        nextSegmentNumber = Math.max(nextSegmentNumber, segmentNumber(segment) + 1);
+      }
+
+      openActiveSegment();
+      return recovered;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Falha ao abrir WAL do chat em " + directory, e);
+    }
+  }
+
+  void append(PendingChatMessage message) {
+    try {
+      byte[] line = (objectMapper.writeValueAsString(message) + "\n").getBytes(StandardCharsets.UTF_8);
+      ByteBuffer buffer = ByteBuffer.wrap(line);
+      while (buffer.hasRemaining()) {
+        activeChannel.write(buffer);
+      }
+      if (fsyncEachWrite) {
+        activeChannel.force(false);
+      }
+      activeMaxId = Math.max(activeMaxId, message.id());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Falha ao gravar mensagem no WAL do chat", e);
+    }
+  }
+
+  // fecha o segmento atual (com fsync) e abre outro; chamado no início de cada flush
+  void roll() {
+    if (activeMaxId < 0) {
+      return;
+    }
+    try {
+      activeChannel.force(false);
+      activeChannel.close();
+      sealedSegments.addLast(new SealedSegment(activePath, activeMaxId));
+      openActiveSegment();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Falha ao rotacionar WAL do chat", e);
+    }
+  }
+
+  // apaga os segmentos selados cujas mensagens já foram todas persistidas.
+  // lowestPendingId = menor ID ainda pendente em memória (ou Long.MAX_VALUE se não houver)
+  void release(long lowestPendingId) {
+    while (!sealedSegments.isEmpty() && sealedSegments.peekFirst().maxId() < lowestPendingId) {
+      SealedSegment segment = sealedSegments.removeFirst();
+      try {
+        Files.deleteIfExists(segment.path());
+      } catch (IOException e) {
+        log.warn("Não foi possível remover segmento do WAL {}: {}", segment.path(), e.getMessage());
+      }
+    }
+  }
+
+  // mensagens que o banco recusa de forma definitiva: saem do fluxo normal e ficam guardadas para análise
+  void deadLetter(List<PendingChatMessage> messages) {
+    Path file = directory.resolve(DEAD_LETTER_FILE);
+    try {
+      Files.createDirectories(file.getParent());
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+        for (PendingChatMessage message : messages) {
+          ByteBuffer buffer = ByteBuffer.wrap((objectMapper.writeValueAsString(message) + "\n").getBytes(StandardCharsets.UTF_8));
+          while (buffer.hasRemaining()) {
+            channel.write(buffer);
+          }
+        }
+        channel.force(false);
+      }
+    } catch (IOException e) {
+      // o conteúdo ainda vai para o log de erro do chamador; não pode travar o flush das demais
+      log.error("Falha ao gravar {} mensagens no dead-letter do WAL {}: {}", messages.size(), file, e.getMessage());
+    }
+  }
+
+  int sealedSegmentCount() {
+    return sealedSegments.size();
+  }
+
+  @Override
+  public void close() {
+    try {
+      if (activeChannel != null && activeChannel.isOpen()) {
+        activeChannel.force(false);
+        activeChannel.close();
+      }
+      // segmento ativo vazio não precisa ficar no disco
+      if (activePath != null && activeMaxId < 0) {
+        Files.deleteIfExists(activePath);
+      }
+    } catch (IOException e) {
+      log.warn("Falha ao fechar WAL do chat: {}", e.getMessage());
+    }
+  }
+
+  private void openActiveSegment() throws IOException {
+    activePath = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSegmentNumber++, SEGMENT_SUFFIX));
+    activeChannel = FileChannel.open(activePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    activeMaxId = -1L;
+  }
+
+  private List<Path> listSegments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+        .filter(p -> {
+          String name = p.getFileName().toString();
+          return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+        })
+        .sorted()
+        .toList();
+    }
+  }
+
+  private List<PendingChatMessage> readSegment(Path segment) throws IOException {
+    List<PendingChatMessage> records = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        try {
+          records.add(objectMapper.readValue(line, PendingChatMessage.class));
+        } catch (IOException e) {
+          // última linha truncada por queda do processo: o restante do segmento é descartado
+          log.warn("Registro corrompido no WAL {} ignorado: {}", segment.getFileName(), e.getMessage());
+          break;
+        }
+      }
+    }
+    return records;
+  }
+
+  private static long segmentNumber(Path segment) {
+    String name = segment.getFileName().toString();
+    try {
+      return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    } catch (NumberFormatException e) {
+      return 0L;
+    }
+  }
+
+  private record SealedSegment(Path path, long maxId) {
+  }
+}
@@ -0,0 +1,236 @@
+package com.hms.chat.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hms.chat.entities.ChatMessage;
+import com.hms.chat.repositories.ChatMessageBatchRepository;
+import com.hms.chat.repositories.ChatReadCursorBatchRepository;
+import com.hms.chat.services.impl.ChatEventPublisher;
+import com.hms.chat.util.MessageIdGenerator;
+import com.hms.common.exceptions.ServiceUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Buffer write-behind das mensagens de chat.
+// A mensagem recebe um ID ordenado pelo tempo, é gravada no WAL local e fica em memória
+// até o próximo flush, que a insere no MySQL em lotes multi-linha e publica as
+// notificações já agrupadas por conversa.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.chat.persistence.mode", havingValue = "write-behind")
+public class ChatWriteBehindBuffer {
+
+  private final MessageIdGenerator idGenerator;
+  private final ChatMessageBatchRepository batchRepository;
+  private final ChatReadCursorBatchRepository cursorBatchRepository;
+  private final ChatEventPublisher chatEventPublisher;
+  private final TransactionTemplate transactionTemplate;
+  private final ChatMessageWal wal;
+
+  // mensagens ainda não confirmadas no banco, ordenadas por ID (= ordem de chegada)
+  private final ConcurrentSkipListMap<Long, PendingChatMessage> pending = new ConcurrentSkipListMap<>();
+
+  // serializa geração de ID + escrita no WAL, garantindo IDs crescentes dentro de cada segmento
+  private final Object appendLock = new Object();
+  private final Object flushLock = new Object();
+
+  private final int batchSize;
+  private final int rowsPerStatement;
+  private final int maxPending;
+
+  public ChatWriteBehindBuffer(
+    MessageIdGenerator idGenerator,
+    ChatMessageBatchRepository batchRepository,
+    ChatReadCursorBatchRepository cursorBatchRepository,
+    ChatEventPublisher chatEventPublisher,
+    TransactionTemplate transactionTemplate,
+    ObjectMapper objectMapper,
+    @Value("${application.chat.persistence.wal-dir:./data/chat-wal}") String walDir,
+    @Value("${application.chat.persistence.wal-fsync-each-write:false}") boolean fsyncEachWrite,
+    @Value("${application.chat.persistence.batch-size:2000}") int batchSize,
+    @Value("${application.chat.persistence.rows-per-statement:250}") int rowsPerStatement,
+    @Value("${application.chat.persistence.max-pending:50000}") int maxPending
+  ) {
+    this.idGenerator = idGenerator;
+    this.batchRepository = batchRepository;
+    this.cursorBatchRepository = cursorBatchRepository;
+    this.chatEventPublisher = chatEventPublisher;
+    this.transactionTemplate = transactionTemplate;
+    this.wal = new ChatMessageWal(Path.of(walDir), objectMapper, fsyncEachWrite);
+    this.batchSize = batchSize;
+    this.rowsPerStatement = rowsPerStatement;
+    this.maxPending = maxPending;
+  }
+
+  @PostConstruct
+  void recover() {
+    List<PendingChatMessage> recovered = wal.open();
+    if (recovered.isEmpty()) {
+      return;
+    }
+
+    // o WAL pode conter mensagens que já chegaram ao banco antes da queda
+    Set<Long> alreadyPersisted = batchRepository.findExistingIds(
+      recovered.stream().map(PendingChatMessage::id).toList(), rowsPerStatement
+    );
+    recovered.stream()
+      .filter(message -> !alreadyPersisted.contains(message.id()))
+      .forEach(message -> pending.put(message.id(), message));
+
+    log.info("WAL do chat recuperado: {} mensagens pendentes ({} já persistidas)", pending.size(), alreadyPersisted.size());
+    wal.release(lowestPendingId());
+  }
+
+  // aceita a mensagem: atribui o ID, grava no WAL e mantém em memória até o flush
+  public ChatMessage accept(ChatMessage message, String senderName) {
+    if (pending.size() >= maxPending) {
+      throw new ServiceUnavailableException("chat-persistence");
+    }
+
+    synchronized (appendLock) {
+      message.setId(idGenerator.nextId());
+      PendingChatMessage entry = PendingChatMessage.from(message, senderName);
+      wal.append(entry);
+      pending.put(entry.id(), entry);
+    }
+    return message;
+  }
+
+  // mensagens da conversa que ainda não chegaram ao banco (leitura do próprio write)
+  public List<ChatMessage> pendingFor(String chatId) {
+    List<ChatMessage> result = new ArrayList<>();
+    for (PendingChatMessage message : pending.values()) {
+      if (message.chatId().equals(chatId)) {
+        result.add(message.toEntity());
+      }
+    }
+    return result;
+  }
+
+  public int pendingCount() {
+    return pending.size();
+  }
+
+  @Scheduled(fixedDelayString = "${application.chat.persistence.flush-interval-ms:200}")
+  public void flush() {
+    synchronized (flushLock) {
+      List<PendingChatMessage> batch;
+      synchronized (appendLock) {
+        if (pending.isEmpty()) {
+          return;
+        }
+        wal.roll();
+        batch = takeBatch();
+      }
+
+      List<PendingChatMessage> persisted = batch;
+      List<PendingChatMessage> rejected = List.of();
+      try {
+        persist(batch);
+      } catch (Exception e) {
+        log.warn("Falha ao persistir lote de {} mensagens de chat, tentando uma a uma: {}", batch.size(), e.getMessage());
+        persisted = new ArrayList<>();
+        rejected = new ArrayList<>();
+        persistOneByOne(batch, persisted, rejected);
+      }
+      if (persisted.isEmpty() && rejected.isEmpty()) {
+        return;
+      }
+
+      synchronized (appendLock) {
+        if (!rejected.isEmpty()) {
+          wal.deadLetter(rejected);
+        }
+        persisted.forEach(message -> pending.remove(message.id()));
+        rejected.forEach(message -> pending.remove(message.id()));
+        wal.release(lowestPendingId());
+      }
+
+      publishCoalesced(persisted);
+      log.debug("Lote de {} mensagens de chat persistido", persisted.size());
+    }
+  }
+
+  // mensagens e contadores de não lidas na mesma transação
+  private void persist(List<PendingChatMessage> messages) {
+    List<ChatMessage> entities = messages.stream().map(PendingChatMessage::toEntity).toList();
+    transactionTemplate.executeWithoutResult(status -> {
+      batchRepository.insertAll(entities, rowsPerStatement);
+      cursorBatchRepository.recordReceived(entities);
+    });
+  }
+
+  // Uma linha recusada pelo banco (constraint, payload inválido) não pode travar as demais: vai para o
+  // dead-letter do WAL. Qualquer outra falha (banco fora, timeout) interrompe; o restante fica pendente.
+  private void persistOneByOne(List<PendingChatMessage> batch, List<PendingChatMessage> persisted, List<PendingChatMessage> rejected) {
+    for (PendingChatMessage message : batch) {
+      try {
+        persist(List.of(message));
+        persisted.add(message);
+      } catch (DataIntegrityViolationException e) {
+        log.error("Mensagem de chat {} (conversa {}) recusada pelo banco, movida para o dead-letter: {}",
+          message.id(), message.chatId(), e.getMessage());
+        rejected.add(message);
+      } catch (Exception e) {
+        log.error("Falha ao persistir mensagem de chat {}; {} continuam pendentes: {}",
+          message.id(), batch.size() - persisted.size() - rejected.size(), e.getMessage());
+        return;
+      }
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    // tenta esvaziar o buffer antes de desligar; o que sobrar continua no WAL
+    int previous = -1;
+    while (!pending.isEmpty() && pending.size() != previous) {
+      previous = pending.size();
+      flush();
+    }
+    if (!pending.isEmpty()) {
+      log.warn("{} mensagens de chat não persistidas no desligamento; serão recuperadas do WAL", pending.size());
+    }
+    synchronized (appendLock) {
+      wal.close();
+    }
+  }
+
+  private List<PendingChatMessage> takeBatch() {
+    List<PendingChatMessage> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+    Iterator<PendingChatMessage> iterator = pending.values().iterator();
+    while (iterator.hasNext() && batch.size() < batchSize) {
+      batch.add(iterator.next());
+    }
+    return batch;
+  }
+
+  private long lowestPendingId() {
+    Map.Entry<Long, PendingChatMessage> first = pending.firstEntry();
+    return first != null ? first.getKey() : Long.MAX_VALUE;
+  }
+
+  // uma notificação por conversa (remetente -> destinatário) por lote, com a mensagem mais recente
+  private void publishCoalesced(List<PendingChatMessage> batch) {
+    Map<String, PendingChatMessage> latestByConversation = new LinkedHashMap<>();
+    for (PendingChatMessage message : batch) {
+      latestByConversation.put(message.senderId() + ">" + message.recipientId(), message);
+    }
+    latestByConversation.values()
+      .forEach(message -> chatEventPublisher.publish(message.toEntity(), message.senderName()));
+  }
+}
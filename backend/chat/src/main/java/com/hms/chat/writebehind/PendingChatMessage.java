@@ -0,0 +1,44 @@
+package com.hms.chat.writebehind;
+
+import com.hms.chat.entities.ChatMessage;
+import com.hms.chat.enums.MessageStatus;
+
+import java.util.Date;
+
+// Mensagem aceita em memória e registrada no WAL, ainda não persistida no MySQL
+public record PendingChatMessage(
+  Long id,
+  String chatId,
+  Long senderId,
+  Long recipientId,
+  String senderName,
+  String content,
+  long timestamp,
+  MessageStatus status
+) {
+
+  public static PendingChatMessage from(ChatMessage message, String senderName) {
+    return new PendingChatMessage(
+      message.getId(),
+      message.getChatId(),
+      message.getSenderId(),
+      message.getRecipientId(),
+      senderName,
+      message.getContent(),
+      message.getTimestamp().getTime(),
+      message.getStatus()
+    );
+  }
+
+  public ChatMessage toEntity() {
+    return ChatMessage.builder()
+      .id(id)
+      .chatId(chatId)
+      .senderId(senderId)
+      .recipientId(recipientId)
+      .content(content)
+      .timestamp(new Date(timestamp))
+      .status(status)
+      .build();
+  }
+}
@@ -0,0 +1,20 @@
+-- ============================================================
+-- V2__chat_read_cursors.sql
+-- Cursores de leitura por (conversa, usuário) com contador de não lidas
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS tb_chat_read_cursors (
+    chat_id                 VARCHAR(100)    NOT NULL,
+    user_id                 BIGINT          NOT NULL,
+    last_read_message_id    BIGINT          NOT NULL DEFAULT 0,
+    unread_count            INT             NOT NULL DEFAULT 0,
+    updated_at              DATETIME(6)     NULL,
+
+    CONSTRAINT pk_tb_chat_read_cursors PRIMARY KEY (chat_id, user_id)
+);
+
+-- badge de não lidas por usuário
+CREATE INDEX idx_chat_read_cursors_user ON tb_chat_read_cursors (user_id, unread_count);
+
+-- recontagem das não lidas após o cursor e histórico por conversa
+CREATE INDEX idx_chat_messages_chat_recipient_id ON tb_chat_messages (chat_id, recipient_id, id);
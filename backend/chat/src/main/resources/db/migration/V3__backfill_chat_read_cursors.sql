@@ -0,0 +1,13 @@
+-- ============================================================
+-- V3__backfill_chat_read_cursors.sql
+-- Cursores para as conversas anteriores à V2: sem isso todo o histórico aparecia como não lido.
+-- Antes dos cursores nenhuma mensagem era marcada como lida (status ficava SENT), então o histórico
+-- existente conta como lido: o cursor começa na última mensagem recebida em cada conversa.
+-- Cursores já criados desde a V2 não são alterados.
+-- ============================================================
+
+INSERT INTO tb_chat_read_cursors (chat_id, user_id, last_read_message_id, unread_count, updated_at)
+SELECT m.chat_id, m.recipient_id, MAX(m.id), 0, NOW(6)
+FROM tb_chat_messages m
+GROUP BY m.chat_id, m.recipient_id
+ON DUPLICATE KEY UPDATE user_id = user_id;
@@ -0,0 +1,221 @@
+package com.hms.chat;
+
+import com.hms.chat.dto.request.ChatMessageRequest;
+import com.hms.chat.dto.response.ChatMessageResponse;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.Socket;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sobe duas instâncias do chat-service apontando para o mesmo RabbitMQ (plugin STOMP)
+// e verifica que convertAndSendToUser alcança um usuário conectado na outra instância.
+@Slf4j
+@Testcontainers(disabledWithoutDocker = true)
+class ChatBrokerRelayIntegrationTest {
+
+  private static final String SECRET = "c29tZVN1cGVyU2VjcmV0S2V5Rm9yVGVzdHNPTkxZMTIzNDU2Nzg=";
+
+  private static final RabbitMQContainer rabbit =
+    new RabbitMQContainer(DockerImageName.parse("rabbitmq:3.12-management"))
+      .withExposedPorts(5672, 15672, 61613);
+
+  private static ConfigurableApplicationContext nodeA;
+  private static ConfigurableApplicationContext nodeB;
+
+  @BeforeAll
+  static void startCluster() throws Exception {
+    rabbit.start();
+    rabbit.execInContainer("rabbitmq-plugins", "enable", "rabbitmq_stomp");
+    waitForStompPort();
+
+    nodeA = startNode("a", 1);
+    nodeB = startNode("b", 2);
+  }
+
+  @AfterAll
+  static void stopCluster() {
+    if (nodeA != null) nodeA.close();
+    if (nodeB != null) nodeB.close();
+    rabbit.stop();
+  }
+
+  @Test
+  @DisplayName("Mensagem enviada na instância A deve chegar ao destinatário conectado na instância B")
+  void convertAndSendToUser_ShouldRouteAcrossNodes() throws Exception {
+    StompSession sender = connect(nodeA, 101L);
+    StompSession recipient = connect(nodeB, 202L);
+
+    BlockingQueue<ChatMessageResponse> received = new LinkedBlockingQueue<>();
+    recipient.subscribe("/user/queue/messages", handler(received));
+    waitForRegistrySync(nodeA, "202");
+
+    sender.send("/app/chat.sendMessage", new ChatMessageRequest(101L, "Ana", 202L, "Olá de outra instância"));
+
+    ChatMessageResponse message = received.poll(10, TimeUnit.SECONDS);
+    assertNotNull(message, "destinatário na instância B não recebeu a mensagem");
+    assertEquals("Olá de outra instância", message.content());
+    assertEquals(101L, message.senderId());
+
+    sender.disconnect();
+    recipient.disconnect();
+  }
+
+  @Test
+  @DisplayName("Carga: mensagens por segundo entre instâncias diferentes")
+  void crossNodeThroughput() throws Exception {
+    int pairs = 10;
+    int messagesPerPair = 200;
+    int total = pairs * messagesPerPair;
+
+    CountDownLatch latch = new CountDownLatch(total);
+    StompSession[] senders = new StompSession[pairs];
+
+    for (int i = 0; i < pairs; i++) {
+      long senderId = 1_000L + i;
+      long recipientId = 2_000L + i;
+      senders[i] = connect(nodeA, senderId);
+      StompSession recipient = connect(nodeB, recipientId);
+      recipient.subscribe("/user/queue/messages", new StompFrameHandler() {
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+          return ChatMessageResponse.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+          if (((ChatMessageResponse) payload).recipientId() == recipientId) {
+            latch.countDown();
+          }
+        }
+      });
+    }
+    waitForRegistrySync(nodeA, String.valueOf(2_000L + pairs - 1));
+
+    long start = System.nanoTime();
+    for (int m = 0; m < messagesPerPair; m++) {
+      for (int i = 0; i < pairs; i++) {
+        senders[i].send("/app/chat.sendMessage",
+          new ChatMessageRequest(1_000L + i, "Carga", 2_000L + i, "mensagem " + m));
+      }
+    }
+
+    assertTrue(latch.await(60, TimeUnit.SECONDS), "mensagens não entregues: " + latch.getCount());
+    double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+    log.info("Relay entre instâncias: {} mensagens em {} s ({} msg/s)",
+      total, String.format("%.2f", seconds), String.format("%.0f", total / seconds));
+  }
+
+  private static ConfigurableApplicationContext startNode(String name, int nodeId) {
+    return new SpringApplicationBuilder(ChatApplication.class)
+      .profiles("test")
+      .properties(
+        "server.port=0",
+        "spring.datasource.url=jdbc:h2:mem:chat_" + name + ";MODE=MYSQL;DB_CLOSE_DELAY=-1",
+        "spring.jmx.enabled=false",
+        "spring.rabbitmq.host=" + rabbit.getHost(),
+        "spring.rabbitmq.port=" + rabbit.getAmqpPort(),
+        "application.chat.node-id=" + nodeId,
+        "application.chat.broker.mode=relay",
+        "application.chat.broker.relay.host=" + rabbit.getHost(),
+        "application.chat.broker.relay.port=" + rabbit.getMappedPort(61613),
+        "application.chat.broker.relay.login=" + rabbit.getAdminUsername(),
+        "application.chat.broker.relay.passcode=" + rabbit.getAdminPassword()
+      )
+      .run();
+  }
+
+  private static StompSession connect(ConfigurableApplicationContext node, Long userId) throws Exception {
+    int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+
+    WebSocketStompClient client = new WebSocketStompClient(
+      new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient())))
+    );
+    client.setMessageConverter(new MappingJackson2MessageConverter());
+
+    StompHeaders connectHeaders = new StompHeaders();
+    connectHeaders.add("Authorization", "Bearer " + token(userId));
+
+    return client.connectAsync("http://localhost:" + port + "/ws", new WebSocketHttpHeaders(), connectHeaders,
+      new StompSessionHandlerAdapter() {
+      }).get(10, TimeUnit.SECONDS);
+  }
+
+  // o registro de usuários é difundido periodicamente pelo broker; aguarda a outra instância enxergar a sessão.
+  // Mesmo sem isso a entrega funciona (via unresolved-user-destination), mas com um salto a mais.
+  private static void waitForRegistrySync(ConfigurableApplicationContext node, String userName) throws InterruptedException {
+    SimpUserRegistry registry = node.getBean(SimpUserRegistry.class);
+    long deadline = System.currentTimeMillis() + 20_000;
+    while (registry.getUser(userName) == null && System.currentTimeMillis() < deadline) {
+      Thread.sleep(200);
+    }
+  }
+
+  private static String token(Long userId) {
+    return Jwts.builder()
+      .subject("user" + userId + "@hms.com")
+      .claim("userId", userId)
+      .claim("role", "PATIENT")
+      .issuedAt(new Date())
+      .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+      .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+      .compact();
+  }
+
+  private static void waitForStompPort() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 30_000;
+    while (System.currentTimeMillis() < deadline) {
+      try (var socket = new Socket(rabbit.getHost(), rabbit.getMappedPort(61613))) {
+        return;
+      } catch (IOException e) {
+        Thread.sleep(500);
+      }
+    }
+  }
+
+  private static StompFrameHandler handler(BlockingQueue<ChatMessageResponse> sink) {
+    return new StompFrameHandler() {
+      @Override
+      public Type getPayloadType(StompHeaders headers) {
+        return ChatMessageResponse.class;
+      }
+
+      @Override
+      public void handleFrame(StompHeaders headers, Object payload) {
+        sink.add((ChatMessageResponse) payload);
+      }
+    };
+  }
+}
@@ -0,0 +1,122 @@
+package com.hms.chat.config;
+
+import com.hms.common.security.BaseJwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class WebSocketAuthInterceptorTest {
+
+  private static final String SECRET = "c29tZVN1cGVyU2VjcmV0S2V5Rm9yVGVzdHNPTkxZMTIzNDU2Nzg=";
+
+  private BaseJwtService jwtService;
+  private SimpleMeterRegistry meterRegistry;
+  private WebSocketAuthInterceptor interceptor;
+
+  @BeforeEach
+  void setUp() {
+    jwtService = spy(new BaseJwtService());
+    ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+    meterRegistry = new SimpleMeterRegistry();
+    interceptor = new WebSocketAuthInterceptor(jwtService, meterRegistry, 100);
+  }
+
+  @Test
+  @DisplayName("CONNECT deve verificar o token uma única vez e anexar o principal à sessão")
+  void connect_ShouldParseTokenOnceAndAttachPrincipal() {
+    Map<String, Object> session = new HashMap<>();
+    Message<?> result = interceptor.preSend(connect(token(42L, 3_600_000), session), null);
+
+    StompHeaderAccessor accessor = StompHeaderAccessor.wrap(result);
+    assertNotNull(accessor.getUser());
+    assertEquals("42", accessor.getUser().getName());
+    assertTrue(session.get(WebSocketAuthInterceptor.EXPIRES_AT_ATTRIBUTE) instanceof Long);
+    verify(jwtService, times(1)).extractClaim(anyString(), any());
+  }
+
+  @Test
+  @DisplayName("Reconexões com o mesmo token devem reaproveitar a verificação em cache")
+  void reconnect_WithSameToken_ShouldHitCache() {
+    String token = token(42L, 3_600_000);
+
+    for (int i = 0; i < 5; i++) {
+      Message<?> result = interceptor.preSend(connect(token, new HashMap<>()), null);
+      assertEquals("42", StompHeaderAccessor.wrap(result).getUser().getName());
+    }
+
+    verify(jwtService, times(1)).extractClaim(anyString(), any());
+    assertEquals(4.0, meterRegistry.get("chat.websocket.auth").tag("result", "hit").counter().count());
+  }
+
+  @Test
+  @DisplayName("Token inválido não deve autenticar a sessão")
+  void connect_WithInvalidToken_ShouldNotAuthenticate() {
+    Message<?> result = interceptor.preSend(connect("invalido", new HashMap<>()), null);
+
+    assertNull(StompHeaderAccessor.wrap(result).getUser());
+    assertEquals(0, interceptor.cachedTokens());
+  }
+
+  @Test
+  @DisplayName("Frames após o exp devem ser recusados sem reprocessar o token")
+  void send_AfterExpiry_ShouldBeRejectedUsingCachedExp() {
+    Map<String, Object> session = new HashMap<>();
+    session.put(WebSocketAuthInterceptor.EXPIRES_AT_ATTRIBUTE, System.currentTimeMillis() - 1);
+
+    assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(frame(StompCommand.SEND, session), null));
+    verify(jwtService, never()).extractClaim(anyString(), any());
+  }
+
+  @Test
+  @DisplayName("Frames antes do exp devem passar")
+  void send_BeforeExpiry_ShouldPass() {
+    Map<String, Object> session = new HashMap<>();
+    session.put(WebSocketAuthInterceptor.EXPIRES_AT_ATTRIBUTE, System.currentTimeMillis() + 60_000);
+
+    assertNotNull(interceptor.preSend(frame(StompCommand.SEND, session), null));
+  }
+
+  private Message<byte[]> connect(String token, Map<String, Object> session) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+    accessor.addNativeHeader("Authorization", "Bearer " + token);
+    accessor.setSessionAttributes(session);
+    accessor.setLeaveMutable(true);
+    return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+  }
+
+  private Message<byte[]> frame(StompCommand command, Map<String, Object> session) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+    accessor.setSessionAttributes(session);
+    accessor.setLeaveMutable(true);
+    return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+  }
+
+  private String token(Long userId, long ttlMillis) {
+    return Jwts.builder()
+      .subject("user" + userId + "@hms.com")
+      .claim("userId", userId)
+      .claim("role", "PATIENT")
+      .issuedAt(new Date())
+      .expiration(new Date(System.currentTimeMillis() + ttlMillis))
+      .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+      .compact();
+  }
+}
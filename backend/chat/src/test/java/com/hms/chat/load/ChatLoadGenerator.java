@@ -0,0 +1,128 @@
+package com.hms.chat.load;
+
+import com.hms.chat.dto.request.ChatMessageRequest;
+import com.hms.chat.dto.response.ChatMessageResponse;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Gerador de carga STOMP para comparar os modos de executor (platform x virtual) e de persistência.
+// Não é um teste JUnit: roda contra uma instância já no ar.
+//
+//   mvn -pl chat test-compile exec:java -Dexec.classpathScope=test \
+//     -Dexec.mainClass=com.hms.chat.load.ChatLoadGenerator \
+//     -Dchat.url=http://localhost:8086/ws -Dload.pairs=50 -Dload.messages=200 -Djwt.secret=<JWT_SECRET>
+//
+// Cada par tem um remetente e um destinatário; a latência é medida do envio até a entrega ao destinatário.
+public class ChatLoadGenerator {
+
+  public static void main(String[] args) throws Exception {
+    String url = System.getProperty("chat.url", "http://localhost:8086/ws");
+    String secret = System.getProperty("jwt.secret", System.getenv("JWT_SECRET"));
+    int pairs = Integer.getInteger("load.pairs", 50);
+    int messagesPerPair = Integer.getInteger("load.messages", 200);
+    int total = pairs * messagesPerPair;
+
+    WebSocketStompClient client = new WebSocketStompClient(
+      new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient())))
+    );
+    client.setMessageConverter(new MappingJackson2MessageConverter());
+
+    CountDownLatch delivered = new CountDownLatch(total);
+    ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+    List<StompSession> senders = new ArrayList<>();
+    List<StompSession> all = new ArrayList<>();
+
+    for (int i = 0; i < pairs; i++) {
+      long senderId = 900_000L + i;
+      long recipientId = 950_000L + i;
+
+      StompSession sender = connect(client, url, token(secret, senderId));
+      StompSession recipient = connect(client, url, token(secret, recipientId));
+      recipient.subscribe("/user/queue/messages", new StompFrameHandler() {
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+          return ChatMessageResponse.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+          ChatMessageResponse message = (ChatMessageResponse) payload;
+          if (message.recipientId() == recipientId && message.content().startsWith("lt:")) {
+            latencies.add(System.nanoTime() - Long.parseLong(message.content().substring(3)));
+            delivered.countDown();
+          }
+        }
+      });
+      senders.add(sender);
+      all.add(sender);
+      all.add(recipient);
+    }
+    System.out.printf("Conectadas %d sessões%n", all.size());
+
+    long start = System.nanoTime();
+    for (int m = 0; m < messagesPerPair; m++) {
+      for (int i = 0; i < pairs; i++) {
+        senders.get(i).send("/app/chat.sendMessage",
+          new ChatMessageRequest(900_000L + i, "Carga", 950_000L + i, "lt:" + System.nanoTime()));
+      }
+    }
+
+    boolean completed = delivered.await(120, TimeUnit.SECONDS);
+    double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+    long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+
+    System.out.printf("Entregues %d/%d em %.2f s (%.0f msg/s)%s%n",
+      total - delivered.getCount(), total, seconds, (total - delivered.getCount()) / seconds,
+      completed ? "" : " [INCOMPLETO]");
+    System.out.printf("Latência ms p50=%.1f p95=%.1f p99=%.1f max=%.1f%n",
+      percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), percentile(sorted, 1.0));
+
+    all.forEach(StompSession::disconnect);
+    client.stop();
+  }
+
+  static StompSession connect(WebSocketStompClient client, String url, String token) throws Exception {
+    StompHeaders connectHeaders = new StompHeaders();
+    connectHeaders.add("Authorization", "Bearer " + token);
+    return client.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+    }).get(30, TimeUnit.SECONDS);
+  }
+
+  static String token(String secret, long userId) {
+    return Jwts.builder()
+      .subject("load" + userId + "@hms.com")
+      .claim("userId", userId)
+      .claim("role", "PATIENT")
+      .issuedAt(new Date())
+      .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+      .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+      .compact();
+  }
+
+  static double percentile(long[] sortedNanos, double p) {
+    if (sortedNanos.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(p * sortedNanos.length) - 1);
+    return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+  }
+}
@@ -0,0 +1,72 @@
+package com.hms.chat.load;
+
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Simula a tempestade de reconexões após um deploy: N clientes, cada um com seu token,
+// conectam e desconectam em sequência R vezes, todos ao mesmo tempo.
+// Compare a CPU do chat-service e a latência do CONNECT antes/depois do cache de tokens
+// (métrica chat.websocket.auth{result=hit|miss}).
+//
+//   mvn -pl chat test-compile exec:java -Dexec.classpathScope=test \
+//     -Dexec.mainClass=com.hms.chat.load.ReconnectStormGenerator \
+//     -Dchat.url=http://localhost:8086/ws -Dstorm.clients=500 -Dstorm.rounds=5 -Djwt.secret=<JWT_SECRET>
+public class ReconnectStormGenerator {
+
+  public static void main(String[] args) throws Exception {
+    String url = System.getProperty("chat.url", "http://localhost:8086/ws");
+    String secret = System.getProperty("jwt.secret", System.getenv("JWT_SECRET"));
+    int clients = Integer.getInteger("storm.clients", 500);
+    int rounds = Integer.getInteger("storm.rounds", 5);
+
+    WebSocketStompClient client = new WebSocketStompClient(
+      new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient())))
+    );
+    client.setMessageConverter(new MappingJackson2MessageConverter());
+
+    ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+    AtomicInteger failures = new AtomicInteger();
+
+    long start = System.nanoTime();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int c = 0; c < clients; c++) {
+        String token = ChatLoadGenerator.token(secret, 800_000L + c);
+        executor.submit(() -> {
+          for (int r = 0; r < rounds; r++) {
+            long connectStart = System.nanoTime();
+            try {
+              StompSession session = ChatLoadGenerator.connect(client, url, token);
+              latencies.add(System.nanoTime() - connectStart);
+              session.disconnect();
+            } catch (Exception e) {
+              failures.incrementAndGet();
+            }
+          }
+        });
+      }
+      executor.shutdown();
+      executor.awaitTermination(10, TimeUnit.MINUTES);
+    }
+    double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+    long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+
+    System.out.printf("%d CONNECTs em %.2f s (%.0f/s), %d falhas%n",
+      sorted.length, seconds, sorted.length / seconds, failures.get());
+    System.out.printf("Latência CONNECT ms p50=%.1f p95=%.1f p99=%.1f max=%.1f%n",
+      ChatLoadGenerator.percentile(sorted, 0.50), ChatLoadGenerator.percentile(sorted, 0.95),
+      ChatLoadGenerator.percentile(sorted, 0.99), ChatLoadGenerator.percentile(sorted, 1.0));
+
+    client.stop();
+  }
+}
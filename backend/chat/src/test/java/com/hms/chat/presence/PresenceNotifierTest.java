@@ -0,0 +1,68 @@
+package com.hms.chat.presence;
+
+import com.hms.chat.dto.event.PresenceEvent;
+import com.hms.chat.dto.event.TypingEvent;
+import com.hms.chat.enums.PresenceStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceNotifierTest {
+
+  @Mock
+  private SimpMessagingTemplate messagingTemplate;
+
+  private PresenceNotifier notifier;
+
+  @BeforeEach
+  void setUp() {
+    notifier = new PresenceNotifier(messagingTemplate, new SimpleMeterRegistry(), 2000);
+  }
+
+  @Test
+  @DisplayName("Deve enviar apenas o estado final das mudanças de presença dentro da janela")
+  void flush_ShouldPushOnlyFinalStatePerUser() {
+    notifier.statusChanged(1L, PresenceStatus.ONLINE);
+    notifier.statusChanged(1L, PresenceStatus.OFFLINE);
+    notifier.statusChanged(1L, PresenceStatus.ONLINE);
+
+    notifier.flush();
+
+    ArgumentCaptor<PresenceEvent> event = ArgumentCaptor.forClass(PresenceEvent.class);
+    verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/presence.1"), event.capture());
+    assertEquals(PresenceStatus.ONLINE, event.getValue().status());
+  }
+
+  @Test
+  @DisplayName("Reconexão dentro da janela não deve gerar evento")
+  void flush_WhenUserFlapsBackToOriginalState_ShouldPushNothing() {
+    notifier.statusChanged(1L, PresenceStatus.OFFLINE);
+    notifier.statusChanged(1L, PresenceStatus.ONLINE);
+
+    notifier.flush();
+
+    verifyNoInteractions(messagingTemplate);
+  }
+
+  @Test
+  @DisplayName("Deve limitar eventos de digitação repetidos e sempre entregar a mudança de estado")
+  void typing_ShouldThrottleRepeatedEventsButDeliverStateChanges() {
+    assertTrue(notifier.typing(1L, 2L, true));
+    assertFalse(notifier.typing(1L, 2L, true));
+    assertFalse(notifier.typing(1L, 2L, true));
+    assertTrue(notifier.typing(1L, 2L, false));
+
+    verify(messagingTemplate, times(2)).convertAndSendToUser(eq("2"), eq("/queue/typing"), any(TypingEvent.class));
+  }
+}
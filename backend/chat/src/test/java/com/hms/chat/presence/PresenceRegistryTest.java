@@ -0,0 +1,49 @@
+package com.hms.chat.presence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PresenceRegistryTest {
+
+  private final PresenceRegistry registry = new PresenceRegistry(new SimpleMeterRegistry());
+
+  @Test
+  @DisplayName("Usuário com duas sessões só fica offline ao fechar a última")
+  void disconnected_ShouldGoOfflineOnlyAfterLastSession() {
+    assertTrue(registry.connected(1L, "s1", 100));
+    assertFalse(registry.connected(1L, "s2", 110));
+
+    assertFalse(registry.disconnected(1L, "s1", 120));
+    assertTrue(registry.isOnline(1L));
+    assertTrue(registry.disconnected(1L, "s2", 130));
+    assertFalse(registry.isOnline(1L));
+    assertEquals(130L, registry.lastSeen(1L));
+  }
+
+  @Test
+  @DisplayName("Sessões sem heartbeat devem expirar")
+  void expireStale_ShouldRemoveSessionsWithoutRecentFrames() {
+    registry.connected(1L, "s1", 100);
+    registry.connected(2L, "s2", 100);
+    registry.touch(2L, 500);
+
+    assertEquals(List.of(1L), registry.expireStale(300));
+    assertFalse(registry.isOnline(1L));
+    assertTrue(registry.isOnline(2L));
+  }
+
+  @Test
+  @DisplayName("Usuário online em outra instância deve aparecer online e sair quando a instância some")
+  void remoteNodes_ShouldContributeToPresenceUntilExpired() {
+    registry.remoteSnapshot("node-b", List.of(7L), 1_000);
+    assertTrue(registry.isOnline(7L));
+
+    assertEquals(List.of(7L), registry.expireRemoteNodes(2_000));
+    assertFalse(registry.isOnline(7L));
+  }
+}
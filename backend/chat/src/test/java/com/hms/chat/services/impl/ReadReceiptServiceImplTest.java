@@ -0,0 +1,82 @@
+package com.hms.chat.services.impl;
+
+import com.hms.chat.dto.request.ChatMessageRequest;
+import com.hms.chat.dto.request.ReadReceiptRequest;
+import com.hms.chat.dto.response.ChatMessageResponse;
+import com.hms.chat.dto.response.UnreadSummaryResponse;
+import com.hms.chat.enums.MessageStatus;
+import com.hms.chat.services.ChatService;
+import com.hms.chat.services.ReadReceiptService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// valida os upserts dos contadores no banco (H2 em modo MySQL)
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadReceiptServiceImplTest {
+
+  @Autowired
+  private ChatService chatService;
+
+  @Autowired
+  private ReadReceiptService readReceiptService;
+
+  @Test
+  @DisplayName("Deve manter o contador de não lidas incrementalmente e recalcular ao mover o cursor")
+  void markAsRead_ShouldMoveCursorAndKeepCountersConsistent() {
+    ChatMessageResponse first = chatService.saveMessage(new ChatMessageRequest(501L, "Ana", 502L, "1"));
+    ChatMessageResponse second = chatService.saveMessage(new ChatMessageRequest(501L, "Ana", 502L, "2"));
+    chatService.saveMessage(new ChatMessageRequest(501L, "Ana", 502L, "3"));
+    chatService.saveMessage(new ChatMessageRequest(502L, "Bruno", 501L, "resposta"));
+
+    assertEquals(3, readReceiptService.getUnreadSummary(502L).total());
+    assertEquals(1, readReceiptService.getUnreadSummary(501L).total());
+
+    readReceiptService.markAsRead(502L, new ReadReceiptRequest(501L, second.id()));
+
+    UnreadSummaryResponse summary = readReceiptService.getUnreadSummary(502L);
+    assertEquals(1, summary.total());
+    assertEquals(501L, summary.chats().get(0).partnerId());
+
+    List<ChatMessageResponse> history = chatService.findChatMessages(501L, 502L);
+    assertEquals(MessageStatus.READ, history.stream().filter(m -> m.id().equals(first.id())).findFirst().orElseThrow().status());
+    assertEquals(MessageStatus.SENT, history.stream().filter(m -> m.content().equals("3")).findFirst().orElseThrow().status());
+
+    chatService.saveMessage(new ChatMessageRequest(501L, "Ana", 502L, "4"));
+    assertEquals(2, readReceiptService.getUnreadSummary(502L).total());
+  }
+
+  @Test
+  @DisplayName("Sem ID informado deve marcar a conversa inteira como lida; cursor nunca retrocede")
+  void markAsRead_WithoutMessageId_ShouldReadWholeChatAndNeverMoveBack() {
+    ChatMessageResponse first = chatService.saveMessage(new ChatMessageRequest(601L, "Ana", 602L, "1"));
+    chatService.saveMessage(new ChatMessageRequest(601L, "Ana", 602L, "2"));
+
+    readReceiptService.markAsRead(602L, new ReadReceiptRequest(601L, null));
+    assertEquals(0, readReceiptService.getUnreadSummary(602L).total());
+
+    readReceiptService.markAsRead(602L, new ReadReceiptRequest(601L, first.id()));
+    assertEquals(0, readReceiptService.getUnreadSummary(602L).total());
+  }
+
+  @Test
+  @DisplayName("ID de leitura além da última mensagem deve ser limitado: mensagens novas continuam não lidas")
+  void markAsRead_WithFutureMessageId_ShouldClampToLastMessage() {
+    ChatMessageResponse last = chatService.saveMessage(new ChatMessageRequest(701L, "Ana", 702L, "1"));
+
+    readReceiptService.markAsRead(702L, new ReadReceiptRequest(701L, Long.MAX_VALUE));
+    assertEquals(0, readReceiptService.getUnreadSummary(702L).total());
+
+    chatService.saveMessage(new ChatMessageRequest(701L, "Ana", 702L, "2"));
+    UnreadSummaryResponse summary = readReceiptService.getUnreadSummary(702L);
+    assertEquals(1, summary.total());
+    assertEquals(last.id(), summary.chats().get(0).lastReadMessageId());
+  }
+}
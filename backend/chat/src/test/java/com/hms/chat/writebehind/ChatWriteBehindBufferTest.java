@@ -0,0 +1,177 @@
+package com.hms.chat.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hms.chat.entities.ChatMessage;
+import com.hms.chat.enums.MessageStatus;
+import com.hms.chat.repositories.ChatMessageBatchRepository;
+import com.hms.chat.repositories.ChatReadCursorBatchRepository;
+import com.hms.chat.services.impl.ChatEventPublisher;
+import com.hms.chat.util.MessageIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChatWriteBehindBufferTest {
+
+  @TempDir
+  Path walDir;
+
+  @Mock
+  private ChatMessageBatchRepository batchRepository;
+
+  @Mock
+  private ChatReadCursorBatchRepository cursorBatchRepository;
+
+  @Mock
+  private ChatEventPublisher chatEventPublisher;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Captor
+  private ArgumentCaptor<List<ChatMessage>> insertedCaptor;
+
+  private ChatWriteBehindBuffer buffer;
+
+  @BeforeEach
+  void setUp() {
+    buffer = newBuffer();
+    buffer.recover();
+  }
+
+  @Test
+  @DisplayName("Deve atribuir IDs crescentes e manter a mensagem visível antes do flush")
+  void accept_ShouldAssignOrderedIdsAndKeepMessagePending() {
+    ChatMessage first = buffer.accept(message(1L, 2L, "Olá"), "Ana");
+    ChatMessage second = buffer.accept(message(2L, 1L, "Oi"), "Dr. Bruno");
+
+    assertNotNull(first.getId());
+    assertTrue(second.getId() > first.getId());
+    assertEquals(2, buffer.pendingFor("1_2").size());
+    verifyNoInteractions(batchRepository);
+  }
+
+  @Test
+  @DisplayName("Deve persistir o lote com INSERT multi-linha e publicar uma notificação por conversa")
+  void flush_ShouldInsertBatchAndPublishCoalescedEvents() {
+    buffer.accept(message(1L, 2L, "msg 1"), "Ana");
+    buffer.accept(message(1L, 2L, "msg 2"), "Ana");
+    buffer.accept(message(1L, 2L, "msg 3"), "Ana");
+
+    buffer.flush();
+
+    verify(batchRepository).insertAll(insertedCaptor.capture(), eq(250));
+    assertEquals(3, insertedCaptor.getValue().size());
+    verify(cursorBatchRepository).recordReceived(insertedCaptor.getValue());
+    assertEquals(0, buffer.pendingCount());
+
+    ArgumentCaptor<ChatMessage> published = ArgumentCaptor.forClass(ChatMessage.class);
+    verify(chatEventPublisher, times(1)).publish(published.capture(), eq("Ana"));
+    assertEquals("msg 3", published.getValue().getContent());
+  }
+
+  @Test
+  @DisplayName("Deve manter as mensagens pendentes quando a gravação no banco falhar")
+  void flush_WhenDatabaseFails_ShouldKeepMessagesPending() {
+    doThrow(new RuntimeException("db down")).when(batchRepository).insertAll(anyList(), anyInt());
+    buffer.accept(message(1L, 2L, "msg"), "Ana");
+
+    buffer.flush();
+
+    assertEquals(1, buffer.pendingCount());
+    verifyNoInteractions(chatEventPublisher);
+  }
+
+  @Test
+  @DisplayName("Deve isolar a mensagem recusada pelo banco no dead-letter e persistir as demais do lote")
+  void flush_WhenOneRowIsRejected_ShouldDeadLetterItAndPersistTheRest() throws Exception {
+    buffer.accept(message(1L, 2L, "msg 1"), "Ana");
+    ChatMessage poison = buffer.accept(message(1L, 2L, "inválida"), "Ana");
+    buffer.accept(message(1L, 2L, "msg 3"), "Ana");
+    doAnswer(invocation -> {
+      List<ChatMessage> rows = invocation.getArgument(0);
+      if (rows.stream().anyMatch(row -> row.getId().equals(poison.getId()))) {
+        throw new DataIntegrityViolationException("Data too long for column 'content'");
+      }
+      return null;
+    }).when(batchRepository).insertAll(anyList(), anyInt());
+
+    buffer.flush();
+
+    assertEquals(0, buffer.pendingCount());
+    // lote inteiro + uma tentativa por linha
+    verify(batchRepository, times(4)).insertAll(anyList(), anyInt());
+    List<String> deadLetters = Files.readAllLines(walDir.resolve("dead-letter/chat-dead-letter.log"));
+    assertEquals(1, deadLetters.size());
+    assertTrue(deadLetters.get(0).contains("inválida"));
+
+    // os flushes seguintes não ficam presos na linha recusada
+    buffer.accept(message(2L, 1L, "depois"), "Dr. Bruno");
+    buffer.flush();
+    assertEquals(0, buffer.pendingCount());
+    verify(chatEventPublisher).publish(argThat(published -> "depois".equals(published.getContent())), eq("Dr. Bruno"));
+  }
+
+  @Test
+  @DisplayName("Deve recuperar do WAL apenas as mensagens que não chegaram ao banco")
+  void recover_ShouldReplayOnlyUnpersistedMessages() {
+    ChatMessage persisted = buffer.accept(message(1L, 2L, "já gravada"), "Ana");
+    buffer.accept(message(1L, 2L, "perdida"), "Ana");
+    // simula queda do processo sem flush
+
+    when(batchRepository.findExistingIds(anyCollection(), anyInt())).thenReturn(Set.of(persisted.getId()));
+    ChatWriteBehindBuffer restarted = newBuffer();
+    restarted.recover();
+
+    List<ChatMessage> pending = restarted.pendingFor("1_2");
+    assertEquals(1, pending.size());
+    assertEquals("perdida", pending.get(0).getContent());
+  }
+
+  private ChatWriteBehindBuffer newBuffer() {
+    return new ChatWriteBehindBuffer(
+      new MessageIdGenerator(0),
+      batchRepository,
+      cursorBatchRepository,
+      chatEventPublisher,
+      new TransactionTemplate(transactionManager),
+      new ObjectMapper(),
+      walDir.toString(),
+      false,
+      2000,
+      250,
+      50000
+    );
+  }
+
+  private ChatMessage message(Long senderId, Long recipientId, String content) {
+    return ChatMessage.builder()
+      .chatId(Math.min(senderId, recipientId) + "_" + Math.max(senderId, recipientId))
+      .senderId(senderId)
+      .recipientId(recipientId)
+      .content(content)
+      .timestamp(new Date())
+      .status(MessageStatus.SENT)
+      .build();
+  }
+}
@@ -0,0 +1,106 @@
+package com.hms.common.aspect;
+
+import com.hms.common.dto.event.EventEnvelope;
+import com.hms.common.idempotency.IdempotencyGuard;
+import com.hms.common.idempotency.IdempotentListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Aplica @IdempotentListener. Roda por fora do @Transactional do listener: o claim é gravado antes da
+// transação do processamento e liberado se ela falhar.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotentListenerAspect {
+
+  private final IdempotencyGuard guard;
+
+  @Around("@annotation(idempotentListener)")
+  public Object skipDuplicates(ProceedingJoinPoint joinPoint, IdempotentListener idempotentListener) throws Throwable {
+    if (!guard.isActive()) {
+      return joinPoint.proceed();
+    }
+
+    String consumer = consumerName(joinPoint, idempotentListener);
+    Object[] args = joinPoint.getArgs();
+    for (int i = 0; i < args.length; i++) {
+      if (args[i] instanceof EventEnvelope<?> envelope) {
+        return proceedSingle(joinPoint, consumer, envelope);
+      }
+      if (args[i] instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof EventEnvelope<?>) {
+        return proceedBatch(joinPoint, consumer, args, i, list);
+      }
+    }
+    return joinPoint.proceed();
+  }
+
+  private Object proceedSingle(ProceedingJoinPoint joinPoint, String consumer, EventEnvelope<?> envelope) throws Throwable {
+    String eventId = envelope.getEventId();
+    if (eventId == null) {
+      return joinPoint.proceed();
+    }
+    if (!guard.claim(consumer, eventId)) {
+      return null;
+    }
+
+    Object result;
+    try {
+      result = joinPoint.proceed();
+    } catch (Throwable e) {
+      guard.release(consumer, List.of(eventId));
+      throw e;
+    }
+    guard.complete(consumer, List.of(eventId));
+    return result;
+  }
+
+  // listener em lote: segue só com os eventos novos (e os sem eventId)
+  private Object proceedBatch(ProceedingJoinPoint joinPoint, String consumer, Object[] args, int index, List<?> envelopes) throws Throwable {
+    List<Object> accepted = new ArrayList<>(envelopes.size());
+    List<String> claimed = new ArrayList<>(envelopes.size());
+    for (Object item : envelopes) {
+      String eventId = item instanceof EventEnvelope<?> envelope ? envelope.getEventId() : null;
+      if (eventId == null) {
+        accepted.add(item);
+      } else if (guard.claim(consumer, eventId)) {
+        accepted.add(item);
+        claimed.add(eventId);
+      }
+    }
+    if (accepted.isEmpty()) {
+      return null;
+    }
+
+    Object[] filteredArgs = args.clone();
+    filteredArgs[index] = accepted;
+    Object result;
+    try {
+      result = joinPoint.proceed(filteredArgs);
+    } catch (Throwable e) {
+      guard.release(consumer, claimed);
+      throw e;
+    }
+    guard.complete(consumer, claimed);
+    return result;
+  }
+
+  private static String consumerName(ProceedingJoinPoint joinPoint, IdempotentListener idempotentListener) {
+    if (!idempotentListener.value().isBlank()) {
+      return idempotentListener.value();
+    }
+    MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+    return signature.getDeclaringType().getSimpleName() + "." + signature.getName();
+  }
+}
@@ -0,0 +1,100 @@
+package com.hms.common.idempotency;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bloom filter de tamanho fixo para eventIds já processados nesta instância.
+// Duas gerações: quando a atual recebe a capacidade prevista, vira a anterior e a mais antiga é descartada,
+// então a memória é limitada e a taxa de falso positivo não degrada. Falso negativo não acontece dentro
+// das duas gerações; falso positivo é confirmado no ProcessedEventStore.
+public class EventBloomFilter {
+
+  private final int bits;
+  private final int hashes;
+  private final long capacity;
+
+  private volatile Generation current;
+  private volatile Generation previous;
+
+  public EventBloomFilter(long expectedInsertions, double falsePositiveRate) {
+    this.capacity = Math.max(1, expectedInsertions);
+    long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    this.bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBits));
+    this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+    this.current = new Generation(bits);
+    this.previous = new Generation(bits);
+  }
+
+  public boolean mightContain(String value) {
+    long[] hash = hash(value);
+    return current.mightContain(hash, hashes, bits) || previous.mightContain(hash, hashes, bits);
+  }
+
+  public void put(String value) {
+    long[] hash = hash(value);
+    Generation generation = current;
+    generation.put(hash, hashes, bits);
+    if (generation.insertions.incrementAndGet() >= capacity) {
+      rotate(generation);
+    }
+  }
+
+  private synchronized void rotate(Generation full) {
+    if (current == full) {
+      previous = full;
+      current = new Generation(bits);
+    }
+  }
+
+  // dois hashes de 64 bits (FNV-1a e mistura do murmur3) combinados por double hashing
+  private static long[] hash(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    long h1 = 0xcbf29ce484222325L;
+    for (byte b : bytes) {
+      h1 ^= b;
+      h1 *= 0x100000001b3L;
+    }
+    long h2 = h1 ^ (h1 >>> 33);
+    h2 *= 0xff51afd7ed558ccdL;
+    h2 ^= h2 >>> 33;
+    h2 *= 0xc4ceb9fe1a85ec53L;
+    h2 ^= h2 >>> 33;
+    return new long[]{h1, h2 | 1};
+  }
+
+  private static final class Generation {
+    private final AtomicLongArray words;
+    private final AtomicLong insertions = new AtomicLong();
+
+    private Generation(int bits) {
+      this.words = new AtomicLongArray((bits + 63) / 64);
+    }
+
+    private boolean mightContain(long[] hash, int hashes, int bits) {
+      for (int i = 0; i < hashes; i++) {
+        int bit = index(hash, i, bits);
+        if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void put(long[] hash, int hashes, int bits) {
+      for (int i = 0; i < hashes; i++) {
+        int bit = index(hash, i, bits);
+        long mask = 1L << bit;
+        int word = bit >>> 6;
+        long value;
+        do {
+          value = words.get(word);
+        } while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask));
+      }
+    }
+
+    private static int index(long[] hash, int i, int bits) {
+      return (int) Math.floorMod(hash[0] + i * hash[1], (long) bits);
+    }
+  }
+}
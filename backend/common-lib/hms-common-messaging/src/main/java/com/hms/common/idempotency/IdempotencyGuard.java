@@ -0,0 +1,162 @@
+package com.hms.common.idempotency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Decide se um evento deve ser processado.
+// Caminho comum (evento novo): o bloom filter local responde "nunca visto" sem consulta e o claim é um
+// INSERT na chave primária (consumer, event_id), que também barra a duplicata entregue a outra instância.
+// Reentrega para a mesma instância: o bloom acusa, uma consulta confirma e o evento é descartado sem escrita.
+// Registros mais antigos que o TTL são apagados periodicamente em lotes.
+@Slf4j
+@Component
+public class IdempotencyGuard {
+
+  private final ProcessedEventStore store;
+  private final MeterRegistry meterRegistry;
+  private final boolean enabled;
+  private final Duration lease;
+  private final Duration ttl;
+  private final long bloomExpectedInsertions;
+  private final double bloomFalsePositiveRate;
+  private final long purgeIntervalMinutes;
+  private final int purgeBatchSize;
+
+  private final Map<String, EventBloomFilter> filters = new ConcurrentHashMap<>();
+  private ScheduledExecutorService purger;
+
+  public IdempotencyGuard(
+    ProcessedEventStore store,
+    MeterRegistry meterRegistry,
+    @Value("${application.messaging.idempotency.enabled:true}") boolean enabled,
+    @Value("${application.messaging.idempotency.lease-seconds:300}") long leaseSeconds,
+    @Value("${application.messaging.idempotency.ttl-hours:168}") long ttlHours,
+    @Value("${application.messaging.idempotency.bloom.expected-insertions:100000}") long bloomExpectedInsertions,
+    @Value("${application.messaging.idempotency.bloom.false-positive-rate:0.01}") double bloomFalsePositiveRate,
+    @Value("${application.messaging.idempotency.purge-interval-minutes:60}") long purgeIntervalMinutes,
+    @Value("${application.messaging.idempotency.purge-batch-size:5000}") int purgeBatchSize
+  ) {
+    this.store = store;
+    this.meterRegistry = meterRegistry;
+    this.enabled = enabled;
+    this.lease = Duration.ofSeconds(leaseSeconds);
+    this.ttl = Duration.ofHours(ttlHours);
+    this.bloomExpectedInsertions = bloomExpectedInsertions;
+    this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+    this.purgeIntervalMinutes = purgeIntervalMinutes;
+    this.purgeBatchSize = purgeBatchSize;
+  }
+
+  @PostConstruct
+  void startPurger() {
+    if (!enabled || purgeIntervalMinutes <= 0) {
+      return;
+    }
+    purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "idempotency-purge");
+      thread.setDaemon(true);
+      return thread;
+    });
+    purger.scheduleWithFixedDelay(this::purgeExpired, purgeIntervalMinutes, purgeIntervalMinutes, TimeUnit.MINUTES);
+  }
+
+  @PreDestroy
+  void stopPurger() {
+    if (purger != null) {
+      purger.shutdownNow();
+    }
+  }
+
+  public boolean isActive() {
+    return enabled && store.isAvailable();
+  }
+
+  /**
+   * Reserva o evento para este consumidor. false significa duplicata: já processado, ou em processamento
+   * por outra entrega dentro do lease.
+   */
+  public boolean claim(String consumer, String eventId) {
+    EventBloomFilter filter = filter(consumer);
+    if (filter.mightContain(eventId) && store.isCompleted(consumer, eventId)) {
+      duplicate(consumer, "bloom");
+      return false;
+    }
+    if (!store.tryClaim(consumer, eventId, lease)) {
+      // visto por outra instância: daqui em diante a reentrega é barrada pelo bloom local
+      filter.put(eventId);
+      duplicate(consumer, "store");
+      return false;
+    }
+    return true;
+  }
+
+  public void complete(String consumer, Collection<String> eventIds) {
+    if (eventIds.isEmpty()) {
+      return;
+    }
+    try {
+      store.complete(consumer, eventIds);
+    } catch (Exception e) {
+      // o processamento já aconteceu: não devolve a mensagem; o claim segura reentregas até o lease expirar
+      log.error("Falha ao marcar {} eventos como processados no consumidor {}: {}", eventIds.size(), consumer, e.getMessage());
+      return;
+    }
+    EventBloomFilter filter = filter(consumer);
+    eventIds.forEach(filter::put);
+  }
+
+  public void release(String consumer, Collection<String> eventIds) {
+    if (eventIds.isEmpty()) {
+      return;
+    }
+    try {
+      store.release(consumer, eventIds);
+    } catch (Exception e) {
+      // o claim expira sozinho após o lease
+      log.error("Falha ao liberar {} eventos do consumidor {}: {}", eventIds.size(), consumer, e.getMessage());
+    }
+  }
+
+  public int purgeExpired() {
+    if (!isActive()) {
+      return 0;
+    }
+    LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+    int total = 0;
+    int deleted;
+    try {
+      do {
+        deleted = store.purgeBefore(cutoff, purgeBatchSize);
+        total += deleted;
+      } while (deleted == purgeBatchSize);
+    } catch (Exception e) {
+      log.error("Falha ao expurgar eventos processados: {}", e.getMessage());
+    }
+    if (total > 0) {
+      log.info("Idempotência: {} registros de eventos processados anteriores a {} removidos.", total, cutoff);
+    }
+    return total;
+  }
+
+  private EventBloomFilter filter(String consumer) {
+    return filters.computeIfAbsent(consumer, key -> new EventBloomFilter(bloomExpectedInsertions, bloomFalsePositiveRate));
+  }
+
+  private void duplicate(String consumer, String source) {
+    log.info("Evento duplicado descartado pelo consumidor {} (detectado por: {})", consumer, source);
+    meterRegistry.counter("hms.messaging.duplicates", "consumer", consumer, "source", source).increment();
+  }
+}
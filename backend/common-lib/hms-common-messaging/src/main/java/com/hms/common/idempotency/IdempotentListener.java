@@ -0,0 +1,19 @@
+package com.hms.common.idempotency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Descarta reentregas de eventos já processados, pelo {@code EventEnvelope.eventId}.
+ * Vale para listeners que recebem um {@code EventEnvelope} ou uma lista deles (listener em lote: só os
+ * eventos novos seguem para o método). Se o método lançar exceção, os eventos ficam livres para nova tentativa.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface IdempotentListener {
+
+  // nome do consumidor na tabela de eventos processados; padrão: Classe.metodo
+  String value() default "";
+}
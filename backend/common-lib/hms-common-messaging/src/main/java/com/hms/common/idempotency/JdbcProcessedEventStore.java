@@ -0,0 +1,143 @@
+package com.hms.common.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Tabela processed_event (criada pela migração de cada serviço). Sem JdbcTemplate ou sem a tabela
+// (ex.: testes com H2 create-drop) fica indisponível e os listeners seguem sem deduplicação.
+// Só o sucesso da verificação fica em cache: uma falha (banco fora na subida, migração ainda não aplicada)
+// é verificada de novo a cada REPROBE_INTERVAL, para a deduplicação voltar sem reiniciar o serviço.
+@Slf4j
+@Component
+public class JdbcProcessedEventStore implements ProcessedEventStore {
+
+  private static final String TABLE_PROBE = "SELECT COUNT(*) FROM processed_event WHERE 1 = 0";
+  private static final String INSERT_CLAIM =
+    "INSERT INTO processed_event (consumer, event_id, completed, claimed_at) VALUES (?, ?, FALSE, ?)";
+  // assume um claim cujo lease expirou (instância que caiu no meio do processamento)
+  private static final String TAKE_OVER_CLAIM =
+    "UPDATE processed_event SET claimed_at = ? WHERE consumer = ? AND event_id = ? AND completed = FALSE AND claimed_at < ?";
+  private static final String SELECT_COMPLETED =
+    "SELECT COUNT(*) FROM processed_event WHERE consumer = ? AND event_id = ? AND completed = TRUE";
+  private static final String COMPLETE =
+    "UPDATE processed_event SET completed = TRUE, completed_at = ? WHERE consumer = ? AND event_id = ?";
+  private static final String RELEASE =
+    "DELETE FROM processed_event WHERE consumer = ? AND event_id = ? AND completed = FALSE";
+  private static final String PURGE = "DELETE FROM processed_event WHERE claimed_at < ? LIMIT ?";
+
+  private static final Duration REPROBE_INTERVAL = Duration.ofSeconds(30);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final long reprobeIntervalNanos;
+  private volatile boolean available;
+  private volatile boolean probed;
+  private volatile long lastProbeNanos;
+
+  @Autowired
+  public JdbcProcessedEventStore(ObjectProvider<JdbcTemplate> jdbcTemplate) {
+    this(jdbcTemplate.getIfAvailable(), REPROBE_INTERVAL);
+  }
+
+  JdbcProcessedEventStore(JdbcTemplate jdbcTemplate, Duration reprobeInterval) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.reprobeIntervalNanos = reprobeInterval.toNanos();
+  }
+
+  @Override
+  public boolean isAvailable() {
+    if (available) {
+      return true;
+    }
+    long now = System.nanoTime();
+    if (probed && (jdbcTemplate == null || now - lastProbeNanos < reprobeIntervalNanos)) {
+      return false;
+    }
+    // duas threads podem verificar ao mesmo tempo; a consulta é barata e o resultado é o mesmo
+    lastProbeNanos = now;
+    boolean result = probe(!probed);
+    probed = true;
+    available = result;
+    return result;
+  }
+
+  @Override
+  public boolean isCompleted(String consumer, String eventId) {
+    Integer count = jdbcTemplate.queryForObject(SELECT_COMPLETED, Integer.class, consumer, eventId);
+    return count != null && count > 0;
+  }
+
+  @Override
+  public boolean tryClaim(String consumer, String eventId, Duration lease) {
+    LocalDateTime now = LocalDateTime.now();
+    try {
+      jdbcTemplate.update(INSERT_CLAIM, consumer, eventId, Timestamp.valueOf(now));
+      return true;
+    } catch (DuplicateKeyException e) {
+      return jdbcTemplate.update(TAKE_OVER_CLAIM,
+        Timestamp.valueOf(now), consumer, eventId, Timestamp.valueOf(now.minus(lease))) == 1;
+    }
+  }
+
+  @Override
+  public void complete(String consumer, Collection<String> eventIds) {
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    jdbcTemplate.batchUpdate(COMPLETE, args(eventIds, id -> new Object[]{now, consumer, id}));
+  }
+
+  @Override
+  public void release(String consumer, Collection<String> eventIds) {
+    jdbcTemplate.batchUpdate(RELEASE, args(eventIds, id -> new Object[]{consumer, id}));
+  }
+
+  @Override
+  public int purgeBefore(LocalDateTime cutoff, int limit) {
+    return jdbcTemplate.update(PURGE, Timestamp.valueOf(cutoff), limit);
+  }
+
+  private boolean probe(boolean first) {
+    if (jdbcTemplate == null) {
+      log.warn("Idempotência de eventos desativada: nenhum JdbcTemplate disponível.");
+      return false;
+    }
+    try {
+      jdbcTemplate.queryForObject(TABLE_PROBE, Integer.class);
+      if (!first) {
+        log.info("Idempotência de eventos reativada: tabela processed_event disponível.");
+      }
+      return true;
+    } catch (DataAccessException e) {
+      if (first) {
+        log.warn("Idempotência de eventos desativada: tabela processed_event indisponível ({}). Nova verificação a cada {} s.",
+          e.getMessage(), TimeUnit.NANOSECONDS.toSeconds(reprobeIntervalNanos));
+      } else {
+        log.debug("Tabela processed_event ainda indisponível: {}", e.getMessage());
+      }
+      return false;
+    }
+  }
+
+  private static List<Object[]> args(Collection<String> eventIds, java.util.function.Function<String, Object[]> mapper) {
+    if (eventIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<Object[]> args = new ArrayList<>(eventIds.size());
+    for (String eventId : eventIds) {
+      args.add(mapper.apply(eventId));
+    }
+    return args;
+  }
+}
@@ -0,0 +1,23 @@
+package com.hms.common.idempotency;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+// Registro persistente dos eventos processados por consumidor (fonte da verdade entre instâncias).
+public interface ProcessedEventStore {
+
+  boolean isAvailable();
+
+  boolean isCompleted(String consumer, String eventId);
+
+  // reserva o evento para processamento; false se já foi processado ou está em processamento dentro do lease
+  boolean tryClaim(String consumer, String eventId, Duration lease);
+
+  void complete(String consumer, Collection<String> eventIds);
+
+  // libera eventos cujo processamento falhou, para que a reentrega seja processada
+  void release(String consumer, Collection<String> eventIds);
+
+  int purgeBefore(LocalDateTime cutoff, int limit);
+}
@@ -0,0 +1,106 @@
+package com.hms.common.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyGuardTest {
+
+  private InMemoryStore store;
+  private SimpleMeterRegistry meterRegistry;
+  private IdempotencyGuard guard;
+
+  @BeforeEach
+  void setUp() {
+    store = new InMemoryStore();
+    meterRegistry = new SimpleMeterRegistry();
+    guard = new IdempotencyGuard(store, meterRegistry, true, 300, 168, 1000, 0.01, 0, 100);
+  }
+
+  @Test
+  @DisplayName("Deve descartar a reentrega de um evento já processado e liberar o evento cujo processamento falhou")
+  void claim_ShouldSkipCompletedAndAllowReleased() {
+    assertTrue(guard.claim("listener", "e1"));
+    guard.complete("listener", List.of("e1"));
+    assertFalse(guard.claim("listener", "e1"));
+    assertEquals(1.0, meterRegistry.counter("hms.messaging.duplicates", "consumer", "listener", "source", "bloom").count());
+
+    // outro consumidor processa o mesmo evento de forma independente
+    assertTrue(guard.claim("outro", "e1"));
+
+    assertTrue(guard.claim("listener", "e2"));
+    // em processamento por outra entrega
+    assertFalse(guard.claim("listener", "e2"));
+    guard.release("listener", List.of("e2"));
+    assertTrue(guard.claim("listener", "e2"));
+  }
+
+  @Test
+  @DisplayName("Bloom filter não deve ter falso negativo e deve manter falsos positivos perto da taxa configurada")
+  void bloomFilter_ShouldHaveNoFalseNegatives() {
+    EventBloomFilter filter = new EventBloomFilter(10_000, 0.01);
+    List<String> inserted = new java.util.ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      String id = UUID.randomUUID().toString();
+      inserted.add(id);
+      filter.put(id);
+    }
+    // a inserção que completa a capacidade gira a geração; as duas gerações continuam consultadas
+    inserted.forEach(id -> assertTrue(filter.mightContain(id)));
+
+    int falsePositives = 0;
+    for (int i = 0; i < 10_000; i++) {
+      if (filter.mightContain(UUID.randomUUID().toString())) {
+        falsePositives++;
+      }
+    }
+    assertTrue(falsePositives < 300, "falsos positivos: " + falsePositives);
+  }
+
+  private static final class InMemoryStore implements ProcessedEventStore {
+    private final Map<String, Boolean> rows = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean isAvailable() {
+      return true;
+    }
+
+    @Override
+    public boolean isCompleted(String consumer, String eventId) {
+      return Boolean.TRUE.equals(rows.get(consumer + "|" + eventId));
+    }
+
+    @Override
+    public boolean tryClaim(String consumer, String eventId, Duration lease) {
+      return rows.putIfAbsent(consumer + "|" + eventId, false) == null;
+    }
+
+    @Override
+    public void complete(String consumer, Collection<String> eventIds) {
+      eventIds.forEach(id -> rows.put(consumer + "|" + id, true));
+    }
+
+    @Override
+    public void release(String consumer, Collection<String> eventIds) {
+      eventIds.forEach(id -> rows.remove(consumer + "|" + id, false));
+    }
+
+    @Override
+    public int purgeBefore(LocalDateTime cutoff, int limit) {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.hms.common.idempotency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JdbcProcessedEventStoreTest {
+
+  @Test
+  @DisplayName("Deve verificar a tabela de novo após uma falha e guardar apenas o sucesso")
+  void isAvailable_ShouldReprobeAfterFailureAndCacheSuccess() {
+    ProbeTemplate template = new ProbeTemplate();
+    template.down = true;
+
+    JdbcProcessedEventStore slowRetry = new JdbcProcessedEventStore(template, Duration.ofHours(1));
+    assertFalse(slowRetry.isAvailable());
+    assertFalse(slowRetry.isAvailable());
+    // dentro do intervalo não consulta o banco de novo
+    assertEquals(1, template.probes);
+
+    JdbcProcessedEventStore store = new JdbcProcessedEventStore(template, Duration.ZERO);
+    assertFalse(store.isAvailable());
+    template.down = false;
+    assertTrue(store.isAvailable());
+
+    int probes = template.probes;
+    template.down = true;
+    assertTrue(store.isAvailable());
+    assertEquals(probes, template.probes);
+  }
+
+  // JdbcTemplate sem banco: só a consulta de verificação é usada pelo isAvailable
+  private static final class ProbeTemplate extends JdbcTemplate {
+    private boolean down;
+    private int probes;
+
+    @Override
+    public <T> T queryForObject(String sql, Class<T> requiredType) {
+      probes++;
+      if (down) {
+        throw new DataAccessResourceFailureException("banco fora");
+      }
+      return requiredType.cast(0);
+    }
+  }
+}
@@ -0,0 +1,255 @@
+package com.hms.common.pdf;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Cache em disco de PDFs já gerados, chaveado por namespace + id + versão da entidade (@Version).
+// Uma versão nunca muda de conteúdo: o hit é uma cópia do arquivo para o destino, sem montar os dados
+// (chamadas Feign), sem template e sem conversão. Qualquer alteração da entidade muda a versão e, com ela,
+// a chave; evict e a gravação de uma versão nova apagam as anteriores do mesmo id.
+// Layout: <dir>/<namespace>/<id>/<versão>.pdf. Arquivos sem acesso há mais de ttl-days são removidos.
+// O PDF é um retrato da versão: nomes vindos de outros serviços ficam como estavam na primeira geração
+// (documentos marcados com PdfDocument.uncached, montados com fallback, não são gravados).
+@Slf4j
+@Component
+public class PdfCache {
+
+  private static final Pattern SAFE_SEGMENT = Pattern.compile("[A-Za-z0-9_-]+");
+  private static final String SUFFIX = ".pdf";
+
+  private final Path root;
+  private final boolean enabled;
+  private final Duration ttl;
+  private final MeterRegistry meterRegistry;
+  private final ScheduledExecutorService purger;
+
+  public PdfCache(
+    MeterRegistry meterRegistry,
+    @Value("${application.pdf.cache.enabled:true}") boolean enabled,
+    @Value("${application.pdf.cache.dir:${java.io.tmpdir}/hms-pdf-cache}") Path root,
+    @Value("${application.pdf.cache.ttl-days:30}") long ttlDays
+  ) {
+    this.meterRegistry = meterRegistry;
+    this.enabled = enabled;
+    this.root = root;
+    this.ttl = Duration.ofDays(ttlDays);
+    this.purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "pdf-cache-purge");
+      thread.setDaemon(true);
+      return thread;
+    });
+    if (enabled) {
+      purger.scheduleWithFixedDelay(this::purgeExpired, 1, 60, TimeUnit.MINUTES);
+    }
+  }
+
+  /**
+   * PDF da versão informada: do disco quando já existe, senão gerado por render (chamado aqui, no thread
+   * da requisição) e gravado no cache enquanto é escrito no destino.
+   */
+  public PdfDocument get(String namespace, Object id, Long version, Supplier<PdfDocument> render) {
+    if (!enabled) {
+      return render.get();
+    }
+    Path file = entryDir(namespace, id).resolve(Objects.requireNonNullElse(version, 0L) + SUFFIX);
+    if (Files.isRegularFile(file)) {
+      count(namespace, "hit");
+      return out -> copy(file, out, render);
+    }
+    count(namespace, "miss");
+    PdfDocument rendered = render.get();
+    if (!rendered.cacheable()) {
+      // dados parciais não viram o retrato da versão
+      count(namespace, "uncached");
+      return rendered;
+    }
+    return out -> writeThrough(file, rendered, out);
+  }
+
+  // remove todas as versões do id
+  public void evict(String namespace, Object id) {
+    if (enabled) {
+      deleteVersions(entryDir(namespace, id), null);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    purger.shutdownNow();
+  }
+
+  void purgeExpired() {
+    if (!Files.isDirectory(root)) {
+      return;
+    }
+    FileTime limit = FileTime.from(Instant.now().minus(ttl));
+    int removed = 0;
+    try (Stream<Path> files = Files.walk(root)) {
+      for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+        try {
+          if (Files.getLastModifiedTime(file).compareTo(limit) < 0 && Files.deleteIfExists(file)) {
+            removed++;
+          }
+        } catch (IOException e) {
+          log.debug("Falha ao expirar {}: {}", file, e.getMessage());
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      log.warn("Falha na limpeza do cache de PDF em {}: {}", root, e.getMessage());
+    }
+    if (removed > 0) {
+      log.info("Cache de PDF: {} arquivos expirados removidos", removed);
+    }
+  }
+
+  private void copy(Path file, OutputStream out, Supplier<PdfDocument> render) throws IOException {
+    try {
+      Files.copy(file, out);
+    } catch (NoSuchFileException e) {
+      // removido entre a verificação e a leitura (evict concorrente): gera de novo, sem gravar
+      render.get().writeTo(out);
+      return;
+    }
+    try {
+      // mantém vivo para a expiração, que olha a data de modificação
+      Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+    } catch (IOException ignored) {
+    }
+  }
+
+  private void writeThrough(Path file, PdfDocument rendered, OutputStream out) throws IOException {
+    Path dir = file.getParent();
+    Path temp;
+    try {
+      Files.createDirectories(dir);
+      temp = Files.createTempFile(dir, "render-", ".tmp");
+    } catch (IOException e) {
+      log.warn("Cache de PDF indisponível em {}: {}", dir, e.getMessage());
+      rendered.writeTo(out);
+      return;
+    }
+
+    Tee tee = new Tee(out, new BufferedOutputStream(Files.newOutputStream(temp)));
+    boolean complete = false;
+    try {
+      rendered.writeTo(tee);
+      complete = true;
+    } finally {
+      tee.closeCopy();
+      if (!complete || tee.copyFailed) {
+        Files.deleteIfExists(temp);
+      }
+    }
+    if (tee.copyFailed) {
+      return;
+    }
+
+    try {
+      Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      deleteVersions(dir, file);
+    } catch (IOException e) {
+      log.warn("Falha ao gravar {} no cache de PDF: {}", file, e.getMessage());
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private void deleteVersions(Path dir, Path keep) {
+    if (!Files.isDirectory(dir)) {
+      return;
+    }
+    try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+      for (Path entry : entries) {
+        if (!entry.equals(keep)) {
+          Files.deleteIfExists(entry);
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Falha ao invalidar PDFs em {}: {}", dir, e.getMessage());
+    }
+  }
+
+  private Path entryDir(String namespace, Object id) {
+    String key = String.valueOf(id);
+    if (!SAFE_SEGMENT.matcher(namespace).matches() || !SAFE_SEGMENT.matcher(key).matches()) {
+      throw new IllegalArgumentException("Chave inválida para o cache de PDF: " + namespace + "/" + key);
+    }
+    return root.resolve(namespace).resolve(key);
+  }
+
+  private void count(String namespace, String result) {
+    meterRegistry.counter("pdf.cache.requests", "namespace", namespace, "result", result).increment();
+  }
+
+  // Escreve no destino e numa cópia para o cache. Falha na cópia (disco cheio...) só desiste do cache;
+  // falha no destino interrompe a geração normalmente.
+  private static final class Tee extends OutputStream {
+
+    private final OutputStream out;
+    private final OutputStream copy;
+    private boolean copyFailed;
+
+    private Tee(OutputStream out, OutputStream copy) {
+      this.out = out;
+      this.copy = copy;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      if (!copyFailed) {
+        try {
+          copy.write(b);
+        } catch (IOException e) {
+          copyFailed = true;
+        }
+      }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      if (!copyFailed) {
+        try {
+          copy.write(b, off, len);
+        } catch (IOException e) {
+          copyFailed = true;
+        }
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      out.flush();
+    }
+
+    private void closeCopy() {
+      try {
+        copy.close();
+      } catch (IOException e) {
+        copyFailed = true;
+      }
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.hms.common.pdf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// PDF ainda não renderizado: a conversão só acontece em writeTo, direto no stream de destino
+// (resposta HTTP, entrada de ZIP...), sem passar por um byte[] intermediário
+@FunctionalInterface
+public interface PdfDocument {
+
+  void writeTo(OutputStream out) throws IOException;
+
+  // falso quando o documento foi montado com dados de fallback (ex.: profile-service fora):
+  // o PdfCache entrega sem gravar e a próxima requisição tenta de novo com os dados reais
+  default boolean cacheable() {
+    return true;
+  }
+
+  static PdfDocument uncached(PdfDocument document) {
+    return new PdfDocument() {
+      @Override
+      public void writeTo(OutputStream out) throws IOException {
+        document.writeTo(out);
+      }
+
+      @Override
+      public boolean cacheable() {
+        return false;
+      }
+    };
+  }
+}
@@ -0,0 +1,237 @@
+package com.hms.common.pdf;
+
+import com.hms.common.exceptions.ServiceUnavailableException;
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.HtmlConverter;
+import com.itextpdf.html2pdf.resolver.font.DefaultFontProvider;
+import com.itextpdf.layout.font.FontSet;
+import com.itextpdf.styledxmlparser.resolver.font.BasicFontProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Renderização HTML (Thymeleaf) -> PDF compartilhada pelos serviços.
+// As fontes são carregadas uma vez na subida (as padrão do PDF, as que acompanham o html2pdf e as de
+// pdf/fonts/*.ttf do classpath); antes cada conversão montava um DefaultFontProvider e relia tudo.
+// A conversão roda num pool limitado: PDF é CPU pesada e não pode ocupar todos os threads do Tomcat;
+// com o pool e a fila cheios a requisição recebe 503 em vez de enfileirar sem limite.
+@Slf4j
+@Component
+public class PdfRenderer {
+
+  private static final String SERVICE_NAME = "pdf-renderer";
+
+  private final ITemplateEngine templateEngine;
+  private final MeterRegistry meterRegistry;
+  private final long timeoutMs;
+  private final FontSet fontSet;
+  private final String defaultFontFamily;
+  private final ThreadPoolExecutor executor;
+  private final Counter rejected;
+
+  public PdfRenderer(
+    ITemplateEngine templateEngine,
+    MeterRegistry meterRegistry,
+    @Value("${application.pdf.threads:4}") int threads,
+    @Value("${application.pdf.queue-capacity:32}") int queueCapacity,
+    @Value("${application.pdf.timeout-ms:30000}") long timeoutMs,
+    @Value("${application.pdf.fonts:classpath*:pdf/fonts/*.ttf}") String fontsLocation
+  ) {
+    this.templateEngine = templateEngine;
+    this.meterRegistry = meterRegistry;
+    this.timeoutMs = timeoutMs;
+
+    DefaultFontProvider fonts = new DefaultFontProvider(true, true, false);
+    int custom = loadFonts(fonts, fontsLocation);
+    this.fontSet = fonts.getFontSet();
+    this.defaultFontFamily = fonts.getDefaultFontFamily();
+    log.info("Renderizador de PDF: {} fontes carregadas ({} do classpath), {} threads", fontSet.size(), custom, threads);
+
+    AtomicInteger sequence = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(
+      threads, threads, 0L, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity),
+      runnable -> {
+        Thread thread = new Thread(runnable, "pdf-render-" + sequence.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      },
+      new ThreadPoolExecutor.AbortPolicy()
+    );
+
+    this.rejected = Counter.builder("pdf.render.rejected")
+      .description("Renderizações de PDF recusadas por pool e fila cheios")
+      .register(meterRegistry);
+    Gauge.builder("pdf.render.queue", executor, e -> e.getQueue().size())
+      .description("Renderizações de PDF aguardando um thread livre")
+      .register(meterRegistry);
+  }
+
+  /**
+   * Documento que renderiza o template quando for escrito.
+   * Pool e fila cheios são verificados já aqui, no thread da requisição, para o 503 sair antes de a
+   * resposta virar application/pdf; a vaga só é ocupada de fato em writeTo.
+   */
+  public PdfDocument document(String template, Map<String, Object> variables) {
+    if (executor.getQueue().remainingCapacity() == 0) {
+      rejected.increment();
+      throw new ServiceUnavailableException(SERVICE_NAME);
+    }
+    return out -> render(template, variables, out);
+  }
+
+  // escreve o PDF em out, que continua aberto ao final (é do chamador)
+  public void render(String template, Map<String, Object> variables, OutputStream out) throws IOException {
+    Destination destination = new Destination(out);
+    Future<?> task;
+    try {
+      task = executor.submit(() -> {
+        convert(template, variables, destination);
+        return null;
+      });
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new ServiceUnavailableException(SERVICE_NAME, e);
+    }
+
+    try {
+      task.get(timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      task.cancel(true);
+      log.error("Renderização do PDF {} excedeu {} ms", template, timeoutMs);
+      throw new ServiceUnavailableException(SERVICE_NAME, e);
+    } catch (InterruptedException e) {
+      task.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Renderização do PDF interrompida");
+    } catch (ExecutionException e) {
+      // falha de escrita no destino (cliente desconectou) não é erro de geração; o iText a embrulha
+      // em exceção própria, então vale a registrada pelo Destination
+      if (destination.failure != null) {
+        throw destination.failure;
+      }
+      Throwable cause = e.getCause();
+      log.error("Erro ao gerar PDF do template {}: {}", template, cause.getMessage(), cause);
+      throw new RuntimeException("Falha ao gerar PDF: " + cause.getMessage(), cause);
+    }
+  }
+
+  public byte[] renderToBytes(String template, Map<String, Object> variables) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+    try {
+      render(template, variables, out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private void convert(String template, Map<String, Object> variables, OutputStream out) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    Context context = new Context();
+    context.setVariables(variables);
+    String html = templateEngine.process(template, context);
+
+    // o FontProvider guarda os PdfFont do documento, então é um por conversão; o FontSet por trás é o compartilhado
+    ConverterProperties properties = new ConverterProperties()
+      .setFontProvider(new BasicFontProvider(fontSet, defaultFontFamily));
+    try {
+      HtmlConverter.convertToPdf(html, out, properties);
+    } finally {
+      sample.stop(meterRegistry.timer("pdf.render", "template", template));
+    }
+  }
+
+  private static int loadFonts(DefaultFontProvider fonts, String location) {
+    int loaded = 0;
+    try {
+      for (Resource resource : new PathMatchingResourcePatternResolver().getResources(location)) {
+        try (InputStream in = resource.getInputStream()) {
+          if (fonts.addFont(in.readAllBytes())) {
+            loaded++;
+          }
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Não foi possível carregar fontes de {}: {}", location, e.getMessage());
+    }
+    return loaded;
+  }
+
+  // Stream do chamador visto pelo PdfWriter: não é fechado ao fim do documento (o PdfWriter fecha o
+  // que recebe) e guarda o erro de escrita original
+  private static final class Destination extends FilterOutputStream {
+
+    private volatile IOException failure;
+
+    private Destination(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      try {
+        out.write(b);
+      } catch (IOException e) {
+        failure = e;
+        throw e;
+      }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      try {
+        out.write(b, off, len);
+      } catch (IOException e) {
+        failure = e;
+        throw e;
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      try {
+        out.flush();
+      } catch (IOException e) {
+        failure = e;
+        throw e;
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package com.hms.common.pdf;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PdfCacheTest {
+
+  @TempDir
+  Path dir;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final AtomicInteger renders = new AtomicInteger();
+  private PdfCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new PdfCache(meterRegistry, true, dir, 30);
+  }
+
+  @AfterEach
+  void tearDown() {
+    cache.shutdown();
+  }
+
+  @Test
+  @DisplayName("Deve servir a mesma versão do disco sem gerar de novo e trocar o arquivo quando a versão muda")
+  void get_ShouldServeSameVersionFromDiskAndReplaceOnNewVersion() throws IOException {
+    assertEquals("v0", read(cache.get("invoices", 7L, 0L, document("v0"))));
+    assertEquals("v0", read(cache.get("invoices", 7L, 0L, document("v0"))));
+    assertEquals("v0", read(cache.get("invoices", 7L, 0L, document("v0"))));
+    assertEquals(1, renders.get());
+    assertEquals(2.0, meterRegistry.counter("pdf.cache.requests", "namespace", "invoices", "result", "hit").count());
+
+    assertEquals("v1", read(cache.get("invoices", 7L, 1L, document("v1"))));
+    assertEquals(2, renders.get());
+    assertFalse(Files.exists(dir.resolve("invoices/7/0.pdf")));
+    assertTrue(Files.exists(dir.resolve("invoices/7/1.pdf")));
+
+    cache.evict("invoices", 7L);
+    assertFalse(Files.exists(dir.resolve("invoices/7/1.pdf")));
+    assertEquals("v1", read(cache.get("invoices", 7L, 1L, document("v1"))));
+    assertEquals(3, renders.get());
+  }
+
+  @Test
+  @DisplayName("Não deve guardar um PDF cuja geração falhou no meio e deve expirar arquivos antigos")
+  void get_ShouldDiscardFailedRenderAndPurgeExpired() throws IOException {
+    PdfDocument broken = out -> {
+      out.write("parcial".getBytes(StandardCharsets.UTF_8));
+      throw new IOException("falhou");
+    };
+    assertThrows(IOException.class, () -> cache.get("prescriptions", 3L, 0L, () -> broken).writeTo(new ByteArrayOutputStream()));
+    try (var files = Files.list(dir.resolve("prescriptions/3"))) {
+      assertEquals(0, files.count());
+    }
+
+    read(cache.get("prescriptions", 3L, 0L, document("ok")));
+    Path file = dir.resolve("prescriptions/3/0.pdf");
+    Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(31, ChronoUnit.DAYS)));
+    cache.purgeExpired();
+    assertFalse(Files.exists(file));
+
+    assertThrows(IllegalArgumentException.class, () -> cache.get("../x", 1L, 0L, document("x")));
+  }
+
+  @Test
+  @DisplayName("Não deve gravar um PDF montado com dados de fallback")
+  void get_WhenDocumentIsUncached_ShouldRenderAgainOnNextRequest() throws IOException {
+    Supplier<PdfDocument> partial = () -> {
+      renders.incrementAndGet();
+      return PdfDocument.uncached(out -> out.write("Paciente 12".getBytes(StandardCharsets.UTF_8)));
+    };
+
+    assertEquals("Paciente 12", read(cache.get("invoices", 12L, 0L, partial)));
+    assertFalse(Files.exists(dir.resolve("invoices/12/0.pdf")));
+
+    assertEquals("Maria", read(cache.get("invoices", 12L, 0L, document("Maria"))));
+    assertEquals("Maria", read(cache.get("invoices", 12L, 0L, document("Maria"))));
+    assertEquals(2, renders.get());
+  }
+
+  private Supplier<PdfDocument> document(String content) {
+    return () -> {
+      renders.incrementAndGet();
+      return out -> out.write(content.getBytes(StandardCharsets.UTF_8));
+    };
+  }
+
+  private static String read(PdfDocument document) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    document.writeTo(out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+}
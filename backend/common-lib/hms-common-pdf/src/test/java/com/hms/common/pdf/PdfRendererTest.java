@@ -0,0 +1,126 @@
+package com.hms.common.pdf;
+
+import com.hms.common.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PdfRendererTest {
+
+  // com o StringTemplateResolver o "nome" do template é o próprio HTML
+  private static final String TEMPLATE =
+    "<html><body><h1 style=\"font-family: Arial\" th:text=\"${title}\">título</h1><p>Fatura de teste</p></body></html>";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private PdfRenderer renderer;
+
+  @AfterEach
+  void tearDown() {
+    renderer.shutdown();
+  }
+
+  @Test
+  @DisplayName("Deve renderizar em paralelo no pool sem fechar o stream do chamador")
+  void render_ShouldWritePdfInParallelAndKeepStreamOpen() throws Exception {
+    renderer = renderer(4, 16);
+
+    List<CompletableFuture<byte[]>> results = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      String title = "Documento " + i;
+      results.add(CompletableFuture.supplyAsync(() -> renderer.renderToBytes(TEMPLATE, Map.of("title", title))));
+    }
+    for (CompletableFuture<byte[]> result : results) {
+      byte[] pdf = result.get(60, TimeUnit.SECONDS);
+      assertEquals("%PDF-", new String(pdf, 0, 5, StandardCharsets.US_ASCII));
+    }
+
+    TrackingStream out = new TrackingStream();
+    renderer.document(TEMPLATE, Map.of("title", "stream")).writeTo(out);
+    assertTrue(out.size() > 0);
+    assertFalse(out.closed);
+  }
+
+  @Test
+  @DisplayName("Deve recusar com 503 quando pool e fila estão cheios e devolver o erro de escrita do destino")
+  void document_ShouldRejectWhenSaturatedAndPropagateWriteFailure() throws Exception {
+    renderer = renderer(1, 1);
+
+    // o único thread fica preso escrevendo num destino bloqueado e a segunda renderização ocupa a fila
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    OutputStream blocked = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        writing.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        throw new IOException("cliente desconectou");
+      }
+    };
+    CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+      try {
+        renderer.render(TEMPLATE, Map.of("title", "1"), blocked);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    assertTrue(writing.await(30, TimeUnit.SECONDS));
+    CompletableFuture<byte[]> queued = CompletableFuture.supplyAsync(() -> renderer.renderToBytes(TEMPLATE, Map.of("title", "2")));
+    while (meterRegistry.get("pdf.render.queue").gauge().value() < 1) {
+      Thread.sleep(10);
+    }
+    assertThrows(ServiceUnavailableException.class, () -> renderer.document(TEMPLATE, Map.of("title", "3")));
+    assertEquals(1.0, meterRegistry.counter("pdf.render.rejected").count());
+
+    release.countDown();
+    Exception failure = assertThrows(Exception.class, () -> first.get(30, TimeUnit.SECONDS));
+    assertEquals("cliente desconectou", failure.getCause().getCause().getMessage());
+    assertEquals("%PDF-", new String(queued.get(30, TimeUnit.SECONDS), 0, 5, StandardCharsets.US_ASCII));
+  }
+
+  private PdfRenderer renderer(int threads, int queueCapacity) {
+    StringTemplateResolver resolver = new StringTemplateResolver();
+    resolver.setTemplateMode(TemplateMode.HTML);
+    TemplateEngine engine = new TemplateEngine();
+    engine.setTemplateResolver(resolver);
+    return new PdfRenderer(engine, meterRegistry, threads, queueCapacity, 30_000, "classpath*:pdf/fonts/*.ttf");
+  }
+
+  private static final class TrackingStream extends ByteArrayOutputStream {
+    private boolean closed;
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}
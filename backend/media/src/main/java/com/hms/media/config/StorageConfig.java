@@ -0,0 +1,58 @@
+package com.hms.media.config;
+
+import com.hms.media.storage.S3MediaStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.net.URI;
+
+// Backend S3 só é criado quando há bucket configurado; o disco local (LocalFileMediaStorage) existe sempre.
+@Configuration
+@ConditionalOnExpression("!'${application.storage.s3.bucket:}'.isBlank()")
+public class StorageConfig {
+
+  @Bean(destroyMethod = "close")
+  public S3Client s3Client(
+    @Value("${application.storage.s3.endpoint:}") String endpoint,
+    @Value("${application.storage.s3.region:us-east-1}") String region,
+    @Value("${application.storage.s3.access-key:}") String accessKey,
+    @Value("${application.storage.s3.secret-key:}") String secretKey,
+    @Value("${application.storage.s3.path-style:true}") boolean pathStyle
+  ) {
+    S3ClientBuilder builder = S3Client.builder()
+      .region(Region.of(region))
+      .forcePathStyle(pathStyle)
+      // MinIO e outros compatíveis nem sempre aceitam os checksums flexíveis que o SDK envia por padrão
+      .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+      .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED);
+
+    if (!endpoint.isBlank()) {
+      builder.endpointOverride(URI.create(endpoint));
+    }
+    if (!accessKey.isBlank()) {
+      builder.credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+    } else {
+      builder.credentialsProvider(DefaultCredentialsProvider.builder().build());
+    }
+    return builder.build();
+  }
+
+  @Bean
+  public S3MediaStorage s3MediaStorage(
+    S3Client s3Client,
+    @Value("${application.storage.s3.bucket}") String bucket,
+    @Value("${application.storage.s3.part-size-bytes:8388608}") int partSize
+  ) {
+    return new S3MediaStorage(s3Client, bucket, partSize);
+  }
+}
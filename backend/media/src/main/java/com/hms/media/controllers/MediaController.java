@@ -1,38 +1,209 @@
 package com.hms.media.controllers;
 
 import com.hms.common.dto.response.ResponseWrapper;
+import com.hms.common.exceptions.InvalidOperationException;
+import com.hms.common.security.SecurityUtils;
 import com.hms.media.docs.MediaControllerDocs;
 import com.hms.media.dto.MediaFileDto;
 import com.hms.media.entities.MediaFile;
 import com.hms.media.services.MediaService;
+import com.hms.media.storage.MediaObject;
+import com.hms.media.thumbnails.Thumbnail;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.List;
 
 @RestController
 @RequestMapping("/media")
 @RequiredArgsConstructor
 public class MediaController implements MediaControllerDocs {
 
+  // atributos do Tomcat para envio via sendfile (zero-copy do disco para o socket)
+  private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+  // abaixo disso o sendfile não compensa (mesmo limite do DefaultServlet do Tomcat)
+  private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+  // URL com ?v=<hash> nunca muda de conteúdo: cache de um ano sem revalidação.
+  // private: os arquivos podem ser documentos clínicos, então só o navegador guarda, não caches compartilhados
+  private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+  // URL sem versão: o navegador guarda, mas revalida sempre pelo ETag (304 sem corpo)
+  private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
   private final MediaService mediaService;
 
   @PostMapping("/upload")
-  public ResponseEntity<ResponseWrapper<MediaFileDto>> uploadFile(@RequestParam("file") MultipartFile file) {
+  public ResponseEntity<ResponseWrapper<MediaFileDto>> uploadFile(@RequestParam("file") MultipartFile file, Authentication authentication) {
+    Long userId = SecurityUtils.getUserId(authentication);
     return ResponseEntity.status(HttpStatus.CREATED)
-      .body(ResponseWrapper.success(mediaService.storeFile(file), "Upload realizado com sucesso."));
+      .body(ResponseWrapper.success(mediaService.storeFile(file, userId), "Upload realizado com sucesso."));
+  }
+
+  // Upload com o conteúdo bruto do arquivo no corpo (sem multipart), lido conforme chega: nada é
+  // armazenado em memória ou em temporário do servlet antes de chegar ao backend.
+  @PostMapping("/upload/stream")
+  public ResponseEntity<ResponseWrapper<MediaFileDto>> uploadStream(
+    @RequestParam("name") String name,
+    HttpServletRequest request,
+    Authentication authentication
+  ) throws IOException {
+    String contentType = request.getContentType();
+    if (contentType != null && contentType.toLowerCase().startsWith("multipart/")) {
+      throw new InvalidOperationException("Envie o conteúdo do arquivo diretamente no corpo; para multipart use /media/upload");
+    }
+    Long userId = SecurityUtils.getUserId(authentication);
+    MediaFileDto stored = mediaService.storeStream(
+      name,
+      contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE,
+      request.getContentLengthLong(),
+      request.getInputStream(),
+      userId
+    );
+    return ResponseEntity.status(HttpStatus.CREATED)
+      .body(ResponseWrapper.success(stored, "Upload realizado com sucesso."));
   }
 
   @GetMapping("/{id}")
-  public ResponseEntity<byte[]> getFile(@PathVariable Long id) {
+  public ResponseEntity<StreamingResponseBody> getFile(
+    @PathVariable Long id,
+    @RequestParam(name = "v", required = false) String version,
+    @RequestParam(name = "size", required = false) Integer size,
+    @RequestHeader(name = HttpHeaders.RANGE, required = false) String range,
+    ServletWebRequest webRequest
+  ) {
     MediaFile file = mediaService.getFileById(id);
+    long lastModified = file.getCreationDate() != null
+      ? file.getCreationDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+      : -1;
+    // miniatura ainda não gerada: vai o original, sem cache imutável, para a URL passar à miniatura depois
+    Thumbnail thumbnail = size != null && size > 0 ? mediaService.findThumbnail(file, size).orElse(null) : null;
+    boolean exact = size == null || thumbnail != null;
+    CacheControl cacheControl = exact && version != null && version.equals(file.getContentHash()) ? IMMUTABLE : REVALIDATE;
+
+    // antes de abrir o conteúdo: um 304 não lê o backend de armazenamento
+    if (webRequest.checkNotModified(etag(file, thumbnail), lastModified)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+    }
+
+    MediaObject content = thumbnail != null ? thumbnail.content() : mediaService.openContent(file);
+    long length = content.length();
+    // arquivos antigos recebem o hash ao serem abertos
+    String etag = etag(file, thumbnail);
+    MediaType contentType = thumbnail != null ? MediaType.parseMediaType(Thumbnail.CONTENT_TYPE)
+      : file.getType() != null ? MediaType.parseMediaType(file.getType()) : MediaType.APPLICATION_OCTET_STREAM;
+
+    long start = 0;
+    long count = length;
+    HttpRange requested = singleRange(range, webRequest.getRequest(), etag, lastModified);
+    if (requested != null) {
+      try {
+        start = requested.getRangeStart(length);
+        count = requested.getRangeEnd(length) - start + 1;
+      } catch (IllegalArgumentException e) {
+        count = 0;
+      }
+      if (count <= 0) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+          .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+          .build();
+      }
+    }
 
-    return ResponseEntity.ok()
-      .contentType(MediaType.parseMediaType(file.getType()))
+    ResponseEntity.BodyBuilder response = ResponseEntity.status(requested != null ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+      .contentType(contentType)
       .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"")
-      .body(file.getData());
+      .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+      .cacheControl(cacheControl)
+      .contentLength(count);
+    if (requested != null) {
+      response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + count - 1) + "/" + length);
+    }
+    if (etag != null) {
+      response.eTag(etag);
+    }
+    if (lastModified >= 0) {
+      response.lastModified(lastModified);
+    }
+
+    HttpServletRequest request = webRequest.getRequest();
+    Path localPath = content.localPath().orElse(null);
+    if (localPath != null && count >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+      request.setAttribute(SENDFILE_FILENAME, localPath.toString());
+      request.setAttribute(SENDFILE_START, start);
+      request.setAttribute(SENDFILE_END, start + count);
+      return response.build();
+    }
+    long offset = start;
+    long bytes = count;
+    return response.body(out -> content.transferTo(offset, bytes, out));
+  }
+
+  @DeleteMapping("/{id}")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<ResponseWrapper<Void>> deleteFile(@PathVariable Long id) {
+    mediaService.deleteFile(id);
+    return ResponseEntity.ok(ResponseWrapper.success(null, "Arquivo removido com sucesso."));
+  }
+
+  // cada miniatura é uma representação diferente do mesmo conteúdo
+  private static String etag(MediaFile file, Thumbnail thumbnail) {
+    if (file.getContentHash() == null) {
+      return null;
+    }
+    return "\"" + file.getContentHash() + (thumbnail != null ? "-" + thumbnail.size() : "") + "\"";
+  }
+
+  // Uma única faixa é atendida com 206. Várias faixas (multipart/byteranges) ou cabeçalho inválido recebem o
+  // arquivo inteiro, o que a RFC 9110 permite; o mesmo vale quando o If-Range não confere com a versão atual.
+  private static HttpRange singleRange(String range, HttpServletRequest request, String etag, long lastModified) {
+    if (range == null) {
+      return null;
+    }
+    List<HttpRange> ranges;
+    try {
+      ranges = HttpRange.parseRanges(range);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+    if (ranges.size() != 1 || !ifRangeMatches(request, etag, lastModified)) {
+      return null;
+    }
+    return ranges.getFirst();
+  }
+
+  private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (ifRange == null) {
+      return true;
+    }
+    if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+      // If-Range exige comparação forte
+      return ifRange.equals(etag);
+    }
+    try {
+      long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+      return lastModified >= 0 && date / 1000 == lastModified / 1000;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
   }
-}
\ No newline at end of file
+}
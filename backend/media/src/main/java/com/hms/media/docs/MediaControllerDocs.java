@@ -8,10 +8,18 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
 
 @Tag(name = "Mídia", description = "Endpoints para gerenciamento, upload e download de arquivos e documentos")
 @ApiResponses({
@@ -25,15 +33,51 @@ public interface MediaControllerDocs {
     @ApiResponse(responseCode = "400", description = "Arquivo inválido ou ausente", content = @Content)
   })
   ResponseEntity<ResponseWrapper<MediaFileDto>> uploadFile(
-    @Parameter(description = "Arquivo a ser enviado", required = true) @RequestParam("file") MultipartFile file
+    @Parameter(description = "Arquivo a ser enviado", required = true) @RequestParam("file") MultipartFile file,
+    @Parameter(hidden = true) Authentication authentication
   );
 
-  @Operation(summary = "Download/Visualização de Arquivo", description = "Recupera os bytes de um arquivo salvo através do seu ID.")
+  @Operation(summary = "Upload de Arquivo em Streaming", description = "Recebe o conteúdo bruto do arquivo no corpo da requisição (Content-Type do próprio arquivo), " +
+    "gravando-o no armazenamento conforme chega, sem bufferizar. Content-Length acima do limite por arquivo ou da cota do usuário é recusado antes da leitura; " +
+    "sem Content-Length, o upload é interrompido assim que o limite é ultrapassado.")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "201", description = "Upload realizado com sucesso"),
+    @ApiResponse(responseCode = "400", description = "Corpo multipart ou falha na leitura do corpo", content = @Content),
+    @ApiResponse(responseCode = "413", description = "Arquivo acima do limite ou cota do usuário excedida", content = @Content),
+    @ApiResponse(responseCode = "503", description = "Limite de uploads simultâneos atingido; tente novamente", content = @Content)
+  })
+  ResponseEntity<ResponseWrapper<MediaFileDto>> uploadStream(
+    @Parameter(description = "Nome do arquivo", required = true) @RequestParam("name") String name,
+    @Parameter(hidden = true) HttpServletRequest request,
+    @Parameter(hidden = true) Authentication authentication
+  ) throws IOException;
+
+  @Operation(summary = "Download/Visualização de Arquivo", description = "Transmite o conteúdo de um arquivo salvo através do seu ID, sem carregá-lo inteiro em memória. " +
+    "Responde com ETag forte (SHA-256 do conteúdo) e Last-Modified, devolve 304 para If-None-Match/If-Modified-Since e atende uma faixa de bytes (Range/If-Range) com 206. " +
+    "Com ?v=<hash> a resposta pode ficar em cache indefinidamente. Para imagens, ?size= devolve uma miniatura JPEG (64, 256 ou 1024 px); " +
+    "enquanto ela é gerada em segundo plano, o original é enviado.")
   @ApiResponses(value = {
     @ApiResponse(responseCode = "200", description = "Arquivo recuperado com sucesso"),
+    @ApiResponse(responseCode = "206", description = "Faixa de bytes solicitada"),
+    @ApiResponse(responseCode = "304", description = "Conteúdo não modificado desde a versão em cache", content = @Content),
+    @ApiResponse(responseCode = "404", description = "Arquivo não encontrado", content = @Content),
+    @ApiResponse(responseCode = "416", description = "Faixa de bytes fora do tamanho do arquivo", content = @Content)
+  })
+  ResponseEntity<StreamingResponseBody> getFile(
+    @Parameter(description = "ID do arquivo", required = true) @PathVariable Long id,
+    @Parameter(description = "Hash do conteúdo (URL versionada, cacheável indefinidamente)") @RequestParam(name = "v", required = false) String version,
+    @Parameter(description = "Lado máximo da miniatura em pixels (apenas imagens); usa o menor tamanho disponível que o atenda") @RequestParam(name = "size", required = false) Integer size,
+    @Parameter(description = "Faixa de bytes, ex: bytes=0-1023") @RequestHeader(name = HttpHeaders.RANGE, required = false) String range,
+    @Parameter(hidden = true) ServletWebRequest webRequest
+  );
+
+  @Operation(summary = "Remover Arquivo", description = "Remove o registro do arquivo. O conteúdo físico só é apagado quando nenhum outro arquivo com o mesmo conteúdo o referencia. Requer perfil ADMIN.")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Arquivo removido com sucesso"),
+    @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content),
     @ApiResponse(responseCode = "404", description = "Arquivo não encontrado", content = @Content)
   })
-  ResponseEntity<byte[]> getFile(
+  ResponseEntity<ResponseWrapper<Void>> deleteFile(
     @Parameter(description = "ID do arquivo", required = true) @PathVariable Long id
   );
-}
\ No newline at end of file
+}
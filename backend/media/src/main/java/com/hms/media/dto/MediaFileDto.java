@@ -11,6 +11,10 @@ public record MediaFileDto(
 ) {
   public static MediaFileDto fromEntity(MediaFile entity) {
     String url = "/media/" + entity.getId(); // Constrói a URL de download
+    if (entity.getContentHash() != null) {
+      // URL endereçada pelo conteúdo: pode ficar em cache indefinidamente
+      url += "?v=" + entity.getContentHash();
+    }
     return new MediaFileDto(
       entity.getId(),
       entity.getName(),
@@ -0,0 +1,54 @@
+package com.hms.media.entities;
+
+import com.hms.media.enums.Storage;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Conteúdo físico armazenado, endereçado pelo SHA-256. Vários MediaFile (nomes/uploads diferentes) apontam
+// para o mesmo blob; refCount conta essas referências e o objeto só sai do backend quando chega a zero.
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "tb_media_blobs")
+public class MediaBlob implements Persistable<String> {
+
+  @Id
+  @Column(length = 64)
+  private String contentHash;
+
+  @Enumerated(EnumType.STRING)
+  private Storage storage;
+
+  private String storageKey;
+
+  private Long size;
+
+  private Long refCount;
+
+  @CreationTimestamp
+  private LocalDateTime creationDate;
+
+  // ID atribuído (o hash): sempre INSERT na criação, para que uploads simultâneos colidam na PK em vez de
+  // o merge sobrescrever o blob do outro
+  @Transient
+  @Builder.Default
+  private boolean isNew = true;
+
+  @Override
+  public String getId() {
+    return contentHash;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.isNew = false;
+  }
+}
@@ -33,6 +33,16 @@ public class MediaFile {
   @Enumerated(EnumType.STRING)
   private Storage storage;
 
+  // chave do objeto no backend de armazenamento (nula no modo DB, onde os bytes ficam em data)
+  private String storageKey;
+
+  // SHA-256 (hex) do conteúdo; base do ETag e da URL versionada
+  @Column(length = 64)
+  private String contentHash;
+
+  // usuário que fez o upload (cota de armazenamento); nulo em arquivos antigos
+  private Long ownerId;
+
   @CreationTimestamp
   private LocalDateTime creationDate;
 }
\ No newline at end of file
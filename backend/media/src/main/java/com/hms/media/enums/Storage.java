@@ -2,6 +2,7 @@ package com.hms.media.enums;
 
 public enum Storage {
   DB,
+  LOCAL,
   S3,
   GC,
   AC
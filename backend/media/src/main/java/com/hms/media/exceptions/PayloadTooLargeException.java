@@ -0,0 +1,12 @@
+package com.hms.media.exceptions;
+
+import com.hms.common.exceptions.HmsBaseException;
+import org.springframework.http.HttpStatus;
+
+// 413 - Upload acima do limite por arquivo ou da cota do usuário
+public class PayloadTooLargeException extends HmsBaseException {
+
+  public PayloadTooLargeException(String message) {
+    super(message, HttpStatus.PAYLOAD_TOO_LARGE, "PAYLOAD_TOO_LARGE");
+  }
+}
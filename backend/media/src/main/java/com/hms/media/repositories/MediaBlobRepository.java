@@ -0,0 +1,23 @@
+package com.hms.media.repositories;
+
+import com.hms.media.entities.MediaBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface MediaBlobRepository extends JpaRepository<MediaBlob, String> {
+
+  // incremento atômico no banco: o lock da linha serializa upload e remoção do mesmo conteúdo
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE MediaBlob b SET b.refCount = b.refCount + 1 WHERE b.contentHash = :hash")
+  int incrementRefCount(@Param("hash") String hash);
+
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE MediaBlob b SET b.refCount = b.refCount - 1 WHERE b.contentHash = :hash AND b.refCount > 0")
+  int decrementRefCount(@Param("hash") String hash);
+
+  // bytes que deixaram de ser gravados: cada referência além da primeira é uma cópia evitada
+  @Query("SELECT COALESCE(SUM((b.refCount - 1) * b.size), 0) FROM MediaBlob b WHERE b.refCount > 1")
+  long sumSavedBytes();
+}
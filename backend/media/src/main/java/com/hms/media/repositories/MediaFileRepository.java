@@ -2,6 +2,12 @@ package com.hms.media.repositories;
 
 import com.hms.media.entities.MediaFile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface MediaFileRepository extends JpaRepository<MediaFile, Long> {
+
+  // tamanho lógico: arquivos deduplicados contam inteiros para cada usuário
+  @Query("SELECT COALESCE(SUM(m.size), 0) FROM MediaFile m WHERE m.ownerId = :ownerId")
+  long sumSizeByOwnerId(@Param("ownerId") Long ownerId);
 }
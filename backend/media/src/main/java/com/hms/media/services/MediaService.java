@@ -2,10 +2,23 @@ package com.hms.media.services;
 
 import com.hms.media.dto.MediaFileDto;
 import com.hms.media.entities.MediaFile;
+import com.hms.media.storage.MediaObject;
+import com.hms.media.thumbnails.Thumbnail;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.util.Optional;
+
 public interface MediaService {
-  MediaFileDto storeFile(MultipartFile file);
+  MediaFileDto storeFile(MultipartFile file, Long ownerId);
+
+  MediaFileDto storeStream(String name, String contentType, long declaredLength, InputStream body, Long ownerId);
 
   MediaFile getFileById(Long id);
-}
\ No newline at end of file
+
+  MediaObject openContent(MediaFile file);
+
+  Optional<Thumbnail> findThumbnail(MediaFile file, int size);
+
+  void deleteFile(Long id);
+}
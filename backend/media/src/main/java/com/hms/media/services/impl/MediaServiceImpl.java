@@ -2,44 +2,315 @@ package com.hms.media.services.impl;
 
 import com.hms.common.exceptions.InvalidOperationException;
 import com.hms.common.exceptions.ResourceNotFoundException;
+import com.hms.common.exceptions.ServiceUnavailableException;
 import com.hms.media.dto.MediaFileDto;
+import com.hms.media.entities.MediaBlob;
 import com.hms.media.entities.MediaFile;
 import com.hms.media.enums.Storage;
+import com.hms.media.repositories.MediaBlobRepository;
 import com.hms.media.repositories.MediaFileRepository;
 import com.hms.media.services.MediaService;
-import lombok.RequiredArgsConstructor;
+import com.hms.media.storage.InMemoryMediaObject;
+import com.hms.media.storage.MediaObject;
+import com.hms.media.storage.MediaStorage;
+import com.hms.media.thumbnails.Thumbnail;
+import com.hms.media.thumbnails.ThumbnailService;
+import com.hms.media.upload.UploadLimiter;
+import com.hms.media.upload.UploadLimiter.UploadPermit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class MediaServiceImpl implements MediaService {
 
+  private static final DateTimeFormatter KEY_PREFIX = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+
   private final MediaFileRepository mediaFileRepository;
+  private final MediaBlobRepository mediaBlobRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final ThumbnailService thumbnailService;
+  private final UploadLimiter uploadLimiter;
+  private final Map<Storage, MediaStorage> storages = new EnumMap<>(Storage.class);
+  private final Storage backend;
 
-  @Override
-  public MediaFileDto storeFile(MultipartFile file) {
+  private final Counter dedupHits;
+  private final Counter dedupMisses;
+  private final AtomicLong savedBytes = new AtomicLong();
+
+  public MediaServiceImpl(
+    MediaFileRepository mediaFileRepository,
+    MediaBlobRepository mediaBlobRepository,
+    TransactionTemplate transactionTemplate,
+    ThumbnailService thumbnailService,
+    UploadLimiter uploadLimiter,
+    MeterRegistry meterRegistry,
+    List<MediaStorage> storages,
+    @Value("${application.storage.backend:LOCAL}") Storage backend
+  ) {
+    this.mediaFileRepository = mediaFileRepository;
+    this.mediaBlobRepository = mediaBlobRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.thumbnailService = thumbnailService;
+    this.uploadLimiter = uploadLimiter;
+    storages.forEach(storage -> this.storages.put(storage.type(), storage));
+    if (backend != Storage.DB && !this.storages.containsKey(backend)) {
+      throw new IllegalStateException("Backend de armazenamento " + backend + " não está configurado");
+    }
+    this.backend = backend;
+
+    this.dedupHits = dedupCounter(meterRegistry, "hit");
+    this.dedupMisses = dedupCounter(meterRegistry, "miss");
+    Gauge.builder("media.dedup.saved.bytes", savedBytes, AtomicLong::get)
+      .description("Bytes que deixaram de ser armazenados por conteúdo repetido")
+      .baseUnit("bytes")
+      .register(meterRegistry);
+  }
+
+  @PostConstruct
+  void loadSavedBytes() {
     try {
-      MediaFile mediaFile = MediaFile.builder()
-        .name(file.getOriginalFilename())
-        .type(file.getContentType())
-        .size(file.getSize())
-        .data(file.getBytes()) // Armazena os bytes do arquivo
-        .storage(Storage.DB) // Define o local de armazenamento
-        .build();
-
-      MediaFile savedFile = mediaFileRepository.save(mediaFile);
-      return MediaFileDto.fromEntity(savedFile);
+      savedBytes.set(mediaBlobRepository.sumSavedBytes());
+    } catch (RuntimeException e) {
+      log.warn("Não foi possível calcular os bytes economizados pela deduplicação: {}", e.getMessage());
+    }
+  }
+
+  @Override
+  public MediaFileDto storeFile(MultipartFile file, Long ownerId) {
+    // o multipart já está em disco (temporário do servlet); aqui só é copiado em blocos para o backend
+    try (UploadPermit permit = uploadLimiter.acquire(ownerId, file.getSize());
+         InputStream content = permit.limit(file.getInputStream())) {
+      return store(file.getOriginalFilename(), file.getContentType(), content, ownerId);
     } catch (IOException e) {
       throw new InvalidOperationException("Falha ao processar o arquivo para upload: " + e.getMessage());
     }
   }
 
+  @Override
+  public MediaFileDto storeStream(String name, String contentType, long declaredLength, InputStream body, Long ownerId) {
+    // corpo lido conforme chega e gravado direto no backend: a memória fica em um bloco por upload e o
+    // cliente só envia no ritmo em que o backend grava (a leitura bloqueante segura o TCP)
+    try (UploadPermit permit = uploadLimiter.acquire(ownerId, declaredLength);
+         InputStream content = permit.limit(body)) {
+      return store(name, contentType, content, ownerId);
+    } catch (IOException e) {
+      throw new InvalidOperationException("Falha ao receber o arquivo: " + e.getMessage());
+    }
+  }
+
+  private MediaFileDto store(String name, String contentType, InputStream content, Long ownerId) throws IOException {
+    if (backend == Storage.DB) {
+      return storeInDatabase(name, contentType, content.readAllBytes(), ownerId);
+    }
+
+    MediaStorage storage = storages.get(backend);
+    String key = LocalDate.now().format(KEY_PREFIX) + "/" + UUID.randomUUID();
+
+    // hash e tamanho calculados na mesma passada da escrita
+    MessageDigest digest = sha256();
+    long size = storage.write(key, new DigestInputStream(content, digest));
+    String hash = HexFormat.of().formatHex(digest.digest());
+
+    MediaFile saved;
+    try {
+      saved = saveWithBlob(name, contentType, hash, size, key, ownerId);
+    } catch (RuntimeException e) {
+      deleteQuietly(storage, key);
+      throw e;
+    }
+
+    if (!key.equals(saved.getStorageKey())) {
+      // conteúdo já existia: o objeto recém-gravado é descartado e o arquivo aponta para o blob existente
+      deleteQuietly(storage, key);
+      dedupHits.increment();
+      savedBytes.addAndGet(size);
+    } else {
+      dedupMisses.increment();
+    }
+    // miniaturas geradas em segundo plano; conteúdo repetido já tem as suas e a tarefa só confere
+    thumbnailService.schedule(saved);
+    return MediaFileDto.fromEntity(saved);
+  }
+
+  @Override
+  public Optional<Thumbnail> findThumbnail(MediaFile file, int size) {
+    return thumbnailService.find(file, size);
+  }
+
+  @Override
+  public void deleteFile(Long id) {
+    MediaFile file = getFileById(id);
+    List<StoredObject> orphans = transactionTemplate.execute(status -> {
+      mediaFileRepository.delete(file);
+      if (file.getStorageKey() == null) {
+        return List.of();
+      }
+
+      MediaBlob blob = null;
+      if (file.getContentHash() != null && mediaBlobRepository.decrementRefCount(file.getContentHash()) == 1) {
+        blob = mediaBlobRepository.findById(file.getContentHash()).orElse(null);
+      }
+      List<StoredObject> unreferenced = new ArrayList<>();
+      if (blob == null || !file.getStorageKey().equals(blob.getStorageKey())) {
+        // objeto próprio do arquivo, fora do blob compartilhado
+        unreferenced.add(new StoredObject(file.getStorage(), file.getStorageKey(), null));
+      }
+      if (blob != null && blob.getRefCount() <= 0) {
+        mediaBlobRepository.delete(blob);
+        unreferenced.add(new StoredObject(blob.getStorage(), blob.getStorageKey(), blob.getContentHash()));
+      } else if (blob != null) {
+        savedBytes.addAndGet(-blob.getSize());
+      }
+      return unreferenced;
+    });
+
+    // objetos saem do backend só depois do commit: uma falha aqui deixa lixo, nunca referência quebrada
+    for (StoredObject orphan : orphans) {
+      MediaStorage storage = storages.get(orphan.storage());
+      if (storage != null) {
+        deleteQuietly(storage, orphan.key());
+      }
+      if (orphan.contentHash() != null) {
+        thumbnailService.deleteVariants(orphan.storage(), orphan.contentHash());
+      }
+    }
+  }
+
+  // Registra o MediaFile apontando para o blob do hash: reaproveita o existente (refCount + 1) ou cria um
+  // novo com a chave recém-gravada. Dois uploads simultâneos do mesmo conteúdo colidem na PK do blob; o
+  // perdedor repete e passa a reaproveitar o do vencedor.
+  private MediaFile saveWithBlob(String name, String contentType, String hash, long size, String key, Long ownerId) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return transactionTemplate.execute(status -> {
+          MediaBlob blob;
+          if (mediaBlobRepository.incrementRefCount(hash) == 1) {
+            blob = mediaBlobRepository.findById(hash).orElseThrow();
+          } else {
+            blob = mediaBlobRepository.saveAndFlush(MediaBlob.builder()
+              .contentHash(hash)
+              .storage(backend)
+              .storageKey(key)
+              .size(size)
+              .refCount(1L)
+              .build());
+          }
+          return mediaFileRepository.save(MediaFile.builder()
+            .name(name)
+            .type(contentType)
+            .size(blob.getSize())
+            .storage(blob.getStorage())
+            .storageKey(blob.getStorageKey())
+            .contentHash(hash)
+            .ownerId(ownerId)
+            .build());
+        });
+      } catch (DataIntegrityViolationException e) {
+        if (attempt >= 3) {
+          throw e;
+        }
+        log.debug("Blob {} criado em paralelo; nova tentativa de reaproveitamento", hash);
+      }
+    }
+  }
+
   @Override
   public MediaFile getFileById(Long id) {
     return mediaFileRepository.findById(id)
       .orElseThrow(() -> new ResourceNotFoundException("Media File", id));
   }
-}
\ No newline at end of file
+
+  @Override
+  public MediaObject openContent(MediaFile file) {
+    if (file.getStorage() == null || file.getStorage() == Storage.DB) {
+      byte[] data = file.getData() != null ? file.getData() : new byte[0];
+      if (file.getContentHash() == null) {
+        // arquivos antigos, anteriores ao hash no upload: calculado na primeira leitura e gravado
+        file.setContentHash(HexFormat.of().formatHex(sha256().digest(data)));
+        mediaFileRepository.save(file);
+      }
+      return new InMemoryMediaObject(data);
+    }
+
+    MediaStorage storage = storages.get(file.getStorage());
+    if (storage == null) {
+      throw new ServiceUnavailableException("storage-" + file.getStorage());
+    }
+    try {
+      return storage.read(file.getStorageKey());
+    } catch (NoSuchFileException e) {
+      log.error("Conteúdo do arquivo {} não encontrado no backend {} (chave {})", file.getId(), file.getStorage(), file.getStorageKey());
+      throw new ResourceNotFoundException("Media File", file.getId());
+    } catch (IOException e) {
+      throw new InvalidOperationException("Falha ao ler o arquivo: " + e.getMessage());
+    }
+  }
+
+  private MediaFileDto storeInDatabase(String name, String contentType, byte[] data, Long ownerId) {
+    MediaFile mediaFile = MediaFile.builder()
+      .name(name)
+      .type(contentType)
+      .size((long) data.length)
+      .data(data) // Armazena os bytes do arquivo
+      .contentHash(HexFormat.of().formatHex(sha256().digest(data)))
+      .storage(Storage.DB) // Define o local de armazenamento
+      .ownerId(ownerId)
+      .build();
+
+    MediaFile savedFile = mediaFileRepository.save(mediaFile);
+    return MediaFileDto.fromEntity(savedFile);
+  }
+
+  private static Counter dedupCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("media.dedup.uploads")
+      .description("Uploads por resultado da deduplicação por conteúdo")
+      .tag("result", result)
+      .register(meterRegistry);
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+    }
+  }
+
+  private void deleteQuietly(MediaStorage storage, String key) {
+    try {
+      storage.delete(key);
+    } catch (Exception e) {
+      log.warn("Não foi possível remover o objeto órfão {} do backend {}: {}", key, storage.type(), e.getMessage());
+    }
+  }
+
+  // contentHash preenchido quando o objeto é um blob: as variantes dele saem junto
+  private record StoredObject(Storage storage, String key, String contentHash) {
+  }
+}
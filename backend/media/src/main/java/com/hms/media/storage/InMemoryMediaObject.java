@@ -0,0 +1,18 @@
+package com.hms.media.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+// Conteúdo gravado no próprio banco (modo DB, compatibilidade com os arquivos antigos).
+public record InMemoryMediaObject(byte[] data) implements MediaObject {
+
+  @Override
+  public long length() {
+    return data.length;
+  }
+
+  @Override
+  public InputStream openStream(long offset, long length) {
+    return new ByteArrayInputStream(data, (int) offset, (int) length);
+  }
+}
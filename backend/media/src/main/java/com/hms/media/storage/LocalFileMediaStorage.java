@@ -0,0 +1,124 @@
+package com.hms.media.storage;
+
+import com.hms.media.enums.Storage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.UUID;
+
+// Arquivos no disco local (volume do container) sob application.storage.upload-dir.
+// Escrita em blocos num arquivo temporário no mesmo diretório e move atômico no fim: leitores nunca
+// veem um arquivo pela metade. Leitura via FileChannel.transferTo.
+@Slf4j
+@Component
+public class LocalFileMediaStorage implements MediaStorage {
+
+  private final Path root;
+  private final int chunkSize;
+
+  public LocalFileMediaStorage(
+    @Value("${application.storage.upload-dir:uploads}") String uploadDir,
+    @Value("${application.storage.chunk-size-bytes:65536}") int chunkSize
+  ) throws IOException {
+    this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+    this.chunkSize = chunkSize;
+    Files.createDirectories(root);
+  }
+
+  @Override
+  public Storage type() {
+    return Storage.LOCAL;
+  }
+
+  @Override
+  public long write(String key, InputStream content) throws IOException {
+    Path target = resolve(key);
+    Files.createDirectories(target.getParent());
+    Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".part");
+
+    long written = 0;
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      byte[] chunk = new byte[chunkSize];
+      ByteBuffer buffer = ByteBuffer.wrap(chunk);
+      int read;
+      while ((read = content.read(chunk)) != -1) {
+        buffer.clear().limit(read);
+        while (buffer.hasRemaining()) {
+          written += channel.write(buffer);
+        }
+      }
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+    return written;
+  }
+
+  @Override
+  public MediaObject read(String key) throws IOException {
+    Path path = resolve(key);
+    if (!Files.isRegularFile(path)) {
+      throw new NoSuchFileException(key);
+    }
+    return new LocalMediaObject(path, Files.size(path));
+  }
+
+  @Override
+  public void delete(String key) throws IOException {
+    Files.deleteIfExists(resolve(key));
+  }
+
+  private Path resolve(String key) {
+    Path path = root.resolve(key).normalize();
+    if (!path.startsWith(root)) {
+      throw new IllegalArgumentException("Chave de armazenamento inválida: " + key);
+    }
+    return path;
+  }
+
+  private record LocalMediaObject(Path path, long length) implements MediaObject {
+
+    @Override
+    public InputStream openStream(long offset, long length) throws IOException {
+      FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+      channel.position(offset);
+      return new BoundedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public Optional<Path> localPath() {
+      return Optional.of(path);
+    }
+
+    @Override
+    public void transferTo(long offset, long length, OutputStream out) throws IOException {
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        WritableByteChannel target = Channels.newChannel(out);
+        long position = offset;
+        long end = offset + length;
+        while (position < end) {
+          long sent = channel.transferTo(position, end - position, target);
+          if (sent <= 0) {
+            break;
+          }
+          position += sent;
+        }
+      }
+    }
+  }
+}
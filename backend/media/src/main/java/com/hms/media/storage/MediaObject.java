@@ -0,0 +1,26 @@
+package com.hms.media.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+// Conteúdo de um arquivo armazenado, lido sob demanda (nunca carregado inteiro em memória).
+public interface MediaObject {
+
+  long length();
+
+  InputStream openStream(long offset, long length) throws IOException;
+
+  // caminho no disco local, quando existe (permite sendfile / transferTo)
+  default Optional<Path> localPath() {
+    return Optional.empty();
+  }
+
+  default void transferTo(long offset, long length, OutputStream out) throws IOException {
+    try (InputStream in = openStream(offset, length)) {
+      in.transferTo(out);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.hms.media.storage;
+
+import com.hms.media.enums.Storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Backend de armazenamento dos arquivos de mídia, selecionado pelo enum Storage gravado em cada MediaFile.
+public interface MediaStorage {
+
+  Storage type();
+
+  // grava o conteúdo lendo o stream em blocos; retorna o tamanho gravado
+  long write(String key, InputStream content) throws IOException;
+
+  // lança java.nio.file.NoSuchFileException se o objeto não existir
+  MediaObject read(String key) throws IOException;
+
+  void delete(String key) throws IOException;
+}
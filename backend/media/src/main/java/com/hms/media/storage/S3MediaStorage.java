@@ -0,0 +1,134 @@
+package com.hms.media.storage;
+
+import com.hms.media.enums.Storage;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Objetos num bucket S3 ou compatível (MinIO). O upload é feito em partes de partSize bytes
+// (multipart upload), então a memória por upload fica limitada a uma parte, qualquer que seja o arquivo.
+// Arquivos menores que uma parte vão num único PUT.
+@Slf4j
+public class S3MediaStorage implements MediaStorage {
+
+  // mínimo do S3 para todas as partes exceto a última
+  static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+  private final S3Client s3;
+  private final String bucket;
+  private final int partSize;
+
+  public S3MediaStorage(S3Client s3, String bucket, int partSize) {
+    this.s3 = s3;
+    this.bucket = bucket;
+    this.partSize = Math.max(MIN_PART_SIZE, partSize);
+  }
+
+  @Override
+  public Storage type() {
+    return Storage.S3;
+  }
+
+  @Override
+  public long write(String key, InputStream content) throws IOException {
+    byte[] part = new byte[partSize];
+    int filled = content.readNBytes(part, 0, partSize);
+    if (filled < partSize) {
+      s3.putObject(request -> request.bucket(bucket).key(key), RequestBody.fromBytes(copy(part, filled)));
+      return filled;
+    }
+
+    String uploadId = s3.createMultipartUpload(request -> request.bucket(bucket).key(key)).uploadId();
+    List<CompletedPart> parts = new ArrayList<>();
+    long total = 0;
+    try {
+      int partNumber = 1;
+      while (filled > 0) {
+        int number = partNumber++;
+        String etag = s3.uploadPart(
+          request -> request.bucket(bucket).key(key).uploadId(uploadId).partNumber(number),
+          RequestBody.fromBytes(copy(part, filled))
+        ).eTag();
+        parts.add(CompletedPart.builder().partNumber(number).eTag(etag).build());
+        total += filled;
+        filled = content.readNBytes(part, 0, partSize);
+      }
+      s3.completeMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId)
+        .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build()));
+      return total;
+    } catch (IOException | RuntimeException e) {
+      try {
+        s3.abortMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId));
+      } catch (RuntimeException abortError) {
+        log.warn("Falha ao abortar upload multipart {} de {}: {}", uploadId, key, abortError.getMessage());
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public MediaObject read(String key) throws IOException {
+    HeadObjectResponse head;
+    try {
+      head = s3.headObject(request -> request.bucket(bucket).key(key));
+    } catch (NoSuchKeyException e) {
+      throw new NoSuchFileException(key);
+    } catch (S3Exception e) {
+      if (e.statusCode() == 404) {
+        throw new NoSuchFileException(key);
+      }
+      throw e;
+    }
+    return new S3MediaObject(key, head.contentLength());
+  }
+
+  @Override
+  public void delete(String key) {
+    s3.deleteObject(request -> request.bucket(bucket).key(key));
+  }
+
+  // RequestBody.fromBytes copia o array; sem a cópia o buffer da parte não poderia ser reaproveitado
+  private static byte[] copy(byte[] buffer, int length) {
+    byte[] bytes = new byte[length];
+    System.arraycopy(buffer, 0, bytes, 0, length);
+    return bytes;
+  }
+
+  private final class S3MediaObject implements MediaObject {
+    private final String key;
+    private final long length;
+
+    private S3MediaObject(String key, long length) {
+      this.key = key;
+      this.length = length;
+    }
+
+    @Override
+    public long length() {
+      return length;
+    }
+
+    @Override
+    public InputStream openStream(long offset, long count) {
+      if (count <= 0) {
+        return InputStream.nullInputStream();
+      }
+      String range = "bytes=" + offset + "-" + (offset + count - 1);
+      ResponseInputStream<GetObjectResponse> stream = s3.getObject(request -> request.bucket(bucket).key(key).range(range));
+      return new BoundedInputStream(stream, count);
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package com.hms.media.thumbnails;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+// Redimensionamento só com a JDK (ImageIO + Java2D), sem bibliotecas nativas.
+final class ImageResizer {
+
+  private ImageResizer() {
+  }
+
+  // Decodifica a imagem recusando dimensões acima de maxPixels antes de alocar qualquer pixel.
+  // Com subamostragem na leitura, uma foto de 4000px que só vai virar 1024px é decodificada já reduzida.
+  static BufferedImage decode(InputStream content, int largestTarget, long maxPixels) throws IOException {
+    try (ImageInputStream input = ImageIO.createImageInputStream(content)) {
+      Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+      if (readers == null || !readers.hasNext()) {
+        throw new IOException("Formato de imagem não suportado");
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        if ((long) width * height > maxPixels) {
+          throw new IOException("Imagem de " + width + "x" + height + " excede o limite de " + maxPixels + " pixels");
+        }
+        ImageReadParam param = reader.getDefaultReadParam();
+        int factor = Math.max(1, Math.max(width, height) / (largestTarget * 2));
+        param.setSourceSubsampling(factor, factor, 0, 0);
+        return reader.read(0, param);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  // Reduz para caber em maxSide x maxSide mantendo a proporção. Reduções sucessivas pela metade com
+  // interpolação bilinear evitam o serrilhado de uma redução direta grande. Nunca amplia.
+  static BufferedImage fit(BufferedImage source, int maxSide) {
+    int width = source.getWidth();
+    int height = source.getHeight();
+    double scale = Math.min(1.0, (double) maxSide / Math.max(width, height));
+    int targetWidth = Math.max(1, (int) Math.round(width * scale));
+    int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+    BufferedImage current = draw(source, width, height);
+    while (width != targetWidth || height != targetHeight) {
+      width = Math.max(width / 2, targetWidth);
+      height = Math.max(height / 2, targetHeight);
+      current = draw(current, width, height);
+    }
+    return current;
+  }
+
+  static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(quality);
+      writer.setOutput(output);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+    return out.toByteArray();
+  }
+
+  // RGB sem alfa (o JPEG não tem transparência): áreas transparentes viram fundo branco
+  private static BufferedImage draw(BufferedImage source, int width, int height) {
+    BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = target.createGraphics();
+    try {
+      graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+    } finally {
+      graphics.dispose();
+    }
+    return target;
+  }
+}
@@ -0,0 +1,9 @@
+package com.hms.media.thumbnails;
+
+import com.hms.media.storage.MediaObject;
+
+// Variante redimensionada de uma imagem, sempre JPEG
+public record Thumbnail(int size, MediaObject content) {
+
+  public static final String CONTENT_TYPE = "image/jpeg";
+}
@@ -0,0 +1,206 @@
+package com.hms.media.thumbnails;
+
+import com.hms.media.entities.MediaFile;
+import com.hms.media.enums.Storage;
+import com.hms.media.storage.MediaObject;
+import com.hms.media.storage.MediaStorage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Miniaturas das imagens (ex.: 64/256/1024 px), gravadas no mesmo backend do original em
+// variants/<hash>/<tamanho>.jpg. Como a chave é o hash do conteúdo, arquivos deduplicados compartilham as variantes.
+// A geração roda num pool próprio e limitado: threads de requisição nunca redimensionam. Enquanto a variante não
+// existe a requisição recebe o original e a geração é enfileirada; com a fila cheia o pedido é descartado e volta
+// a ser tentado na próxima requisição.
+@Slf4j
+@Service
+public class ThumbnailService {
+
+  private final Map<Storage, MediaStorage> storages = new EnumMap<>(Storage.class);
+  private final List<Integer> sizes;
+  private final long maxPixels;
+  private final float jpegQuality;
+
+  private final ThreadPoolExecutor executor;
+  private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+  private final Timer generation;
+  private final Counter rejected;
+  private final Counter failures;
+
+  public ThumbnailService(
+    List<MediaStorage> storages,
+    MeterRegistry meterRegistry,
+    @Value("${application.media.thumbnails.sizes:64,256,1024}") List<Integer> sizes,
+    @Value("${application.media.thumbnails.threads:2}") int threads,
+    @Value("${application.media.thumbnails.queue-capacity:200}") int queueCapacity,
+    @Value("${application.media.thumbnails.max-pixels:40000000}") long maxPixels,
+    @Value("${application.media.thumbnails.jpeg-quality:0.85}") float jpegQuality
+  ) {
+    storages.forEach(storage -> this.storages.put(storage.type(), storage));
+    this.sizes = sizes.stream().distinct().sorted().toList();
+    this.maxPixels = maxPixels;
+    this.jpegQuality = jpegQuality;
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity),
+      runnable -> {
+        Thread thread = new Thread(runnable, "media-thumbnail-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      },
+      new ThreadPoolExecutor.AbortPolicy());
+
+    this.generation = Timer.builder("media.thumbnail.generation")
+      .description("Tempo para gerar todas as variantes de uma imagem")
+      .register(meterRegistry);
+    this.rejected = Counter.builder("media.thumbnail.rejected")
+      .description("Gerações descartadas por fila cheia")
+      .register(meterRegistry);
+    this.failures = Counter.builder("media.thumbnail.failures")
+      .description("Imagens cujas variantes não puderam ser geradas")
+      .register(meterRegistry);
+    Gauge.builder("media.thumbnail.queue", executor, pool -> pool.getQueue().size())
+      .description("Gerações de miniatura aguardando na fila")
+      .register(meterRegistry);
+  }
+
+  // imagem decodificável pela JDK, guardada fora do banco e com hash (chave das variantes)
+  public boolean supports(MediaFile file) {
+    return file.getType() != null
+      && file.getType().startsWith("image/")
+      && file.getContentHash() != null
+      && file.getStorageKey() != null
+      && storages.containsKey(file.getStorage())
+      && ImageIO.getImageReadersByMIMEType(file.getType()).hasNext();
+  }
+
+  // menor tamanho configurado que atende ao pedido; acima do maior, o maior
+  public int resolveSize(int requested) {
+    for (int size : sizes) {
+      if (size >= requested) {
+        return size;
+      }
+    }
+    return sizes.getLast();
+  }
+
+  // Variante pronta, ou vazio (e geração enfileirada) quando ainda não existe
+  public Optional<Thumbnail> find(MediaFile file, int requested) {
+    if (!supports(file)) {
+      return Optional.empty();
+    }
+    int size = resolveSize(requested);
+    try {
+      MediaObject content = storages.get(file.getStorage()).read(variantKey(file.getContentHash(), size));
+      return Optional.of(new Thumbnail(size, content));
+    } catch (NoSuchFileException e) {
+      schedule(file);
+    } catch (IOException e) {
+      log.warn("Falha ao ler a miniatura {}px do arquivo {}: {}", size, file.getId(), e.getMessage());
+    }
+    return Optional.empty();
+  }
+
+  // Enfileira a geração das variantes que faltam; pedidos repetidos para o mesmo conteúdo são ignorados
+  public void schedule(MediaFile file) {
+    if (!supports(file) || !inFlight.add(file.getContentHash())) {
+      return;
+    }
+    MediaStorage storage = storages.get(file.getStorage());
+    String hash = file.getContentHash();
+    String key = file.getStorageKey();
+    try {
+      executor.execute(() -> {
+        try {
+          generation.record(() -> generate(storage, hash, key));
+        } finally {
+          inFlight.remove(hash);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      inFlight.remove(hash);
+      rejected.increment();
+      log.debug("Fila de miniaturas cheia; geração de {} adiada", hash);
+    }
+  }
+
+  public void deleteVariants(Storage storageType, String hash) {
+    MediaStorage storage = storages.get(storageType);
+    if (storage == null || hash == null) {
+      return;
+    }
+    for (int size : sizes) {
+      try {
+        storage.delete(variantKey(hash, size));
+      } catch (IOException e) {
+        log.warn("Não foi possível remover a miniatura {}px de {}: {}", size, hash, e.getMessage());
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private void generate(MediaStorage storage, String hash, String key) {
+    try {
+      List<Integer> missing = sizes.stream().filter(size -> !exists(storage, variantKey(hash, size))).toList();
+      if (missing.isEmpty()) {
+        return;
+      }
+      MediaObject original = storage.read(key);
+      BufferedImage image;
+      try (InputStream content = original.openStream(0, original.length())) {
+        image = ImageResizer.decode(content, missing.getLast(), maxPixels);
+      }
+      // do maior para o menor: cada variante parte da anterior, já reduzida
+      for (int size : missing.reversed()) {
+        image = ImageResizer.fit(image, size);
+        byte[] jpeg = ImageResizer.encodeJpeg(image, jpegQuality);
+        storage.write(variantKey(hash, size), new ByteArrayInputStream(jpeg));
+      }
+    } catch (Exception e) {
+      failures.increment();
+      log.warn("Falha ao gerar miniaturas de {}: {}", hash, e.getMessage());
+    }
+  }
+
+  private static boolean exists(MediaStorage storage, String key) {
+    try {
+      storage.read(key);
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private static String variantKey(String hash, int size) {
+    return "variants/" + hash + "/" + size + ".jpg";
+  }
+}
@@ -0,0 +1,155 @@
+package com.hms.media.upload;
+
+import com.hms.common.exceptions.ServiceUnavailableException;
+import com.hms.media.exceptions.PayloadTooLargeException;
+import com.hms.media.repositories.MediaFileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Limites de upload: tamanho por arquivo, cota total por usuário e quantidade de uploads simultâneos.
+// O Content-Length declarado é conferido antes de ler o corpo; sem ele (chunked) ou se o cliente mentir, a
+// contagem é feita durante a leitura e o upload é interrompido no byte que estoura o limite. A cota soma o que
+// o usuário já tem gravado com os uploads dele em andamento.
+@Component
+public class UploadLimiter {
+
+  private final MediaFileRepository mediaFileRepository;
+  private final long maxFileBytes;
+  private final long userQuotaBytes;
+  private final Semaphore slots;
+  // bytes em andamento por usuário; as entradas não são removidas (uma por usuário que já enviou algo)
+  private final Map<Long, AtomicLong> inFlight = new ConcurrentHashMap<>();
+
+  private final Counter rejectedSize;
+  private final Counter rejectedQuota;
+  private final Counter rejectedBusy;
+
+  public UploadLimiter(
+    MediaFileRepository mediaFileRepository,
+    MeterRegistry meterRegistry,
+    @Value("${application.media.upload.max-file-bytes:52428800}") long maxFileBytes,
+    @Value("${application.media.upload.user-quota-bytes:1073741824}") long userQuotaBytes,
+    @Value("${application.media.upload.max-concurrent:16}") int maxConcurrent
+  ) {
+    this.mediaFileRepository = mediaFileRepository;
+    this.maxFileBytes = maxFileBytes;
+    this.userQuotaBytes = userQuotaBytes;
+    this.slots = new Semaphore(maxConcurrent);
+    this.rejectedSize = rejectedCounter(meterRegistry, "file-size");
+    this.rejectedQuota = rejectedCounter(meterRegistry, "user-quota");
+    this.rejectedBusy = rejectedCounter(meterRegistry, "concurrency");
+  }
+
+  /**
+   * Reserva uma vaga de upload para o usuário.
+   * declaredLength é o Content-Length (negativo quando desconhecido); acima dos limites, recusa sem ler nada.
+   * Sem vaga livre responde 503 em vez de enfileirar: o cliente tenta de novo em vez de segurar uma conexão.
+   */
+  public UploadPermit acquire(Long ownerId, long declaredLength) {
+    if (declaredLength > maxFileBytes) {
+      rejectedSize.increment();
+      throw fileTooLarge();
+    }
+    if (!slots.tryAcquire()) {
+      rejectedBusy.increment();
+      throw new ServiceUnavailableException("media-upload");
+    }
+    try {
+      long stored = ownerId != null ? mediaFileRepository.sumSizeByOwnerId(ownerId) : 0;
+      AtomicLong userInFlight = ownerId != null ? inFlight.computeIfAbsent(ownerId, id -> new AtomicLong()) : new AtomicLong();
+      if (ownerId != null && stored + userInFlight.get() + Math.max(declaredLength, 0) > userQuotaBytes) {
+        rejectedQuota.increment();
+        throw quotaExceeded();
+      }
+      return new UploadPermit(ownerId, stored, userInFlight);
+    } catch (RuntimeException e) {
+      slots.release();
+      throw e;
+    }
+  }
+
+  private PayloadTooLargeException fileTooLarge() {
+    return new PayloadTooLargeException("Arquivo excede o limite de " + maxFileBytes + " bytes");
+  }
+
+  private PayloadTooLargeException quotaExceeded() {
+    return new PayloadTooLargeException("Cota de armazenamento do usuário (" + userQuotaBytes + " bytes) excedida");
+  }
+
+  private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+    return Counter.builder("media.upload.rejected")
+      .description("Uploads recusados pelos limites")
+      .tag("reason", reason)
+      .register(meterRegistry);
+  }
+
+  public final class UploadPermit implements AutoCloseable {
+    private final Long ownerId;
+    private final long stored;
+    private final AtomicLong userInFlight;
+    private long consumed;
+    private boolean closed;
+
+    private UploadPermit(Long ownerId, long stored, AtomicLong userInFlight) {
+      this.ownerId = ownerId;
+      this.stored = stored;
+      this.userInFlight = userInFlight;
+    }
+
+    // Conta os bytes conforme são lidos e interrompe a leitura ao estourar um limite. A exceção atravessa a
+    // escrita do backend, que descarta o objeto parcial.
+    public InputStream limit(InputStream content) {
+      return new FilterInputStream(content) {
+        @Override
+        public int read() throws IOException {
+          int value = super.read();
+          if (value >= 0) {
+            consume(1);
+          }
+          return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+          int read = super.read(buffer, offset, length);
+          if (read > 0) {
+            consume(read);
+          }
+          return read;
+        }
+      };
+    }
+
+    private void consume(long bytes) {
+      consumed += bytes;
+      long userTotal = userInFlight.addAndGet(bytes);
+      if (consumed > maxFileBytes) {
+        rejectedSize.increment();
+        throw fileTooLarge();
+      }
+      if (ownerId != null && stored + userTotal > userQuotaBytes) {
+        rejectedQuota.increment();
+        throw quotaExceeded();
+      }
+    }
+
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        userInFlight.addAndGet(-consumed);
+        slots.release();
+      }
+    }
+  }
+}
@@ -0,0 +1,6 @@
+-- ============================================================
+-- V2__media_storage_key.sql
+-- Arquivos fora do banco: chave do objeto no backend (disco local ou S3)
+-- ============================================================
+
+ALTER TABLE tb_media_files ADD COLUMN storage_key VARCHAR(512) NULL;
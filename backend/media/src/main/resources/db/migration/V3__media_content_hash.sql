@@ -0,0 +1,6 @@
+-- ============================================================
+-- V3__media_content_hash.sql
+-- SHA-256 do conteúdo, calculado no upload: ETag forte e URL versionada por conteúdo
+-- ============================================================
+
+ALTER TABLE tb_media_files ADD COLUMN content_hash VARCHAR(64) NULL;
@@ -0,0 +1,24 @@
+-- ============================================================
+-- V4__media_blobs.sql
+-- Deduplicação por conteúdo: um blob físico por SHA-256, com contagem de referências
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS tb_media_blobs (
+    content_hash    VARCHAR(64)     NOT NULL,
+    storage         VARCHAR(50)     NULL,
+    storage_key     VARCHAR(512)    NULL,
+    size            BIGINT          NULL,
+    ref_count       BIGINT          NULL,
+    creation_date   DATETIME(6)     NULL,
+
+    CONSTRAINT pk_tb_media_blobs PRIMARY KEY (content_hash)
+);
+
+CREATE INDEX idx_tb_media_files_content_hash ON tb_media_files (content_hash);
+
+-- arquivos já gravados fora do banco: um blob por hash, com as referências existentes
+INSERT INTO tb_media_blobs (content_hash, storage, storage_key, size, ref_count, creation_date)
+SELECT content_hash, MIN(storage), MIN(storage_key), MIN(size), COUNT(*), MIN(creation_date)
+FROM tb_media_files
+WHERE storage_key IS NOT NULL AND content_hash IS NOT NULL
+GROUP BY content_hash;
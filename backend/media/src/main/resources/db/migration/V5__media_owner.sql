@@ -0,0 +1,8 @@
+-- ============================================================
+-- V5__media_owner.sql
+-- Usuário que fez o upload: base da cota de armazenamento por usuário
+-- ============================================================
+
+ALTER TABLE tb_media_files ADD COLUMN owner_id BIGINT NULL;
+
+CREATE INDEX idx_tb_media_files_owner ON tb_media_files (owner_id);
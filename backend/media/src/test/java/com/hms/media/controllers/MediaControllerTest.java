@@ -0,0 +1,134 @@
+package com.hms.media.controllers;
+
+import com.hms.media.dto.MediaFileDto;
+import com.hms.media.services.MediaService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Download pelo Tomcat real: cobre o caminho de sendfile (arquivos grandes) e o de transferTo (pequenos)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class MediaControllerTest {
+
+  @Autowired
+  private MediaService mediaService;
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  @Test
+  @DisplayName("Deve responder 304 para ETag conhecido e cache imutável na URL versionada")
+  void getFile_ShouldHonorETagAndVersionedUrl() {
+    byte[] content = randomBytes(1_000);
+    MediaFileDto uploaded = upload(content);
+
+    ResponseEntity<byte[]> first = get("/media/" + uploaded.id(), new HttpHeaders());
+    assertEquals(HttpStatus.OK, first.getStatusCode());
+    assertArrayEquals(content, first.getBody());
+    String etag = first.getHeaders().getETag();
+    assertTrue(uploaded.url().endsWith("?v=" + etag.replace("\"", "")));
+    assertEquals("bytes", first.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES));
+    assertEquals("no-cache, private", first.getHeaders().getCacheControl());
+
+    HttpHeaders conditional = new HttpHeaders();
+    conditional.setIfNoneMatch(etag);
+    ResponseEntity<byte[]> notModified = get("/media/" + uploaded.id(), conditional);
+    assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+    assertNull(notModified.getBody());
+
+    ResponseEntity<byte[]> versioned = get(uploaded.url(), new HttpHeaders());
+    assertEquals("max-age=31536000, private, immutable", versioned.getHeaders().getCacheControl());
+  }
+
+  @Test
+  @DisplayName("Deve atender faixas de bytes com 206, ignorar If-Range divergente e recusar faixa fora do arquivo")
+  void getFile_ShouldServeByteRanges() {
+    for (int size : new int[]{10_000, 300_000}) {
+      byte[] content = randomBytes(size);
+      String url = "/media/" + upload(content).id();
+
+      HttpHeaders range = new HttpHeaders();
+      range.set(HttpHeaders.RANGE, "bytes=100-4195");
+      ResponseEntity<byte[]> partial = get(url, range);
+      assertEquals(HttpStatus.PARTIAL_CONTENT, partial.getStatusCode());
+      assertEquals("bytes 100-4195/" + size, partial.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+      assertArrayEquals(Arrays.copyOfRange(content, 100, 4196), partial.getBody());
+
+      HttpHeaders suffix = new HttpHeaders();
+      suffix.set(HttpHeaders.RANGE, "bytes=-500");
+      assertArrayEquals(Arrays.copyOfRange(content, size - 500, size), get(url, suffix).getBody());
+
+      range.set(HttpHeaders.IF_RANGE, "\"outra-versao\"");
+      ResponseEntity<byte[]> full = get(url, range);
+      assertEquals(HttpStatus.OK, full.getStatusCode());
+      assertArrayEquals(content, full.getBody());
+
+      HttpHeaders outside = new HttpHeaders();
+      outside.set(HttpHeaders.RANGE, "bytes=" + size + "-");
+      ResponseEntity<byte[]> unsatisfiable = get(url, outside);
+      assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, unsatisfiable.getStatusCode());
+      assertEquals("bytes */" + size, unsatisfiable.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+    }
+  }
+
+  @Test
+  @DisplayName("Deve servir a miniatura JPEG pedida em ?size= depois de gerada em segundo plano")
+  void getFile_WithSize_ShouldServeThumbnail() throws Exception {
+    BufferedImage image = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB);
+    ByteArrayOutputStream png = new ByteArrayOutputStream();
+    ImageIO.write(image, "png", png);
+    MediaFileDto uploaded = mediaService.storeFile(new MockMultipartFile("file", "foto.png", "image/png", png.toByteArray()), null);
+
+    ResponseEntity<byte[]> response = get(uploaded.url() + "&size=50", new HttpHeaders());
+    for (int attempt = 0; attempt < 50 && !MediaType.IMAGE_JPEG.equals(response.getHeaders().getContentType()); attempt++) {
+      // ainda não gerada: recebe o original sem cache imutável
+      assertEquals("no-cache, private", response.getHeaders().getCacheControl());
+      Thread.sleep(100);
+      response = get(uploaded.url() + "&size=50", new HttpHeaders());
+    }
+
+    assertEquals(MediaType.IMAGE_JPEG, response.getHeaders().getContentType());
+    assertTrue(response.getHeaders().getETag().endsWith("-64\""));
+    assertEquals("max-age=31536000, private, immutable", response.getHeaders().getCacheControl());
+    BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(response.getBody()));
+    assertEquals(64, thumbnail.getWidth());
+    assertEquals(32, thumbnail.getHeight());
+  }
+
+  private MediaFileDto upload(byte[] content) {
+    return mediaService.storeFile(new MockMultipartFile("file", "exame.pdf", "application/pdf", content), null);
+  }
+
+  private ResponseEntity<byte[]> get(String url, HttpHeaders headers) {
+    return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+  }
+
+  private static byte[] randomBytes(int size) {
+    byte[] bytes = new byte[size];
+    new Random(size).nextBytes(bytes);
+    return bytes;
+  }
+}
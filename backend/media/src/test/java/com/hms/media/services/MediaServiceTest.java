@@ -0,0 +1,109 @@
+package com.hms.media.services;
+
+import com.hms.media.dto.MediaFileDto;
+import com.hms.media.entities.MediaFile;
+import com.hms.media.exceptions.PayloadTooLargeException;
+import com.hms.media.repositories.MediaBlobRepository;
+import com.hms.media.repositories.MediaFileRepository;
+import com.hms.media.storage.LocalFileMediaStorage;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MediaServiceTest {
+
+  @Autowired
+  private MediaService mediaService;
+
+  @Autowired
+  private MediaBlobRepository mediaBlobRepository;
+
+  @Autowired
+  private MediaFileRepository mediaFileRepository;
+
+  @Autowired
+  private LocalFileMediaStorage localStorage;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Test
+  @DisplayName("Deve reaproveitar o blob de conteúdo repetido e apagá-lo só quando a última referência sai")
+  void storeFile_SameContent_ShouldShareBlobUntilLastReference() throws Exception {
+    byte[] content = "modelo de laudo padrão".getBytes(StandardCharsets.UTF_8);
+    double savedBefore = meterRegistry.get("media.dedup.saved.bytes").gauge().value();
+
+    MediaFileDto first = mediaService.storeFile(new MockMultipartFile("file", "laudo.pdf", "application/pdf", content), null);
+    MediaFileDto second = mediaService.storeFile(new MockMultipartFile("file", "copia.pdf", "application/pdf", content), null);
+
+    MediaFile firstFile = mediaService.getFileById(first.id());
+    MediaFile secondFile = mediaService.getFileById(second.id());
+    assertNotEquals(first.id(), second.id());
+    assertEquals(firstFile.getStorageKey(), secondFile.getStorageKey());
+    assertEquals(2L, mediaBlobRepository.findById(firstFile.getContentHash()).orElseThrow().getRefCount());
+    assertEquals(savedBefore + content.length, meterRegistry.get("media.dedup.saved.bytes").gauge().value());
+
+    mediaService.deleteFile(first.id());
+    assertEquals(content.length, localStorage.read(secondFile.getStorageKey()).length());
+    assertEquals(1L, mediaBlobRepository.findById(firstFile.getContentHash()).orElseThrow().getRefCount());
+
+    mediaService.deleteFile(second.id());
+    assertThrows(NoSuchFileException.class, () -> localStorage.read(secondFile.getStorageKey()));
+    assertFalse(mediaBlobRepository.existsById(firstFile.getContentHash()));
+    assertEquals(savedBefore, meterRegistry.get("media.dedup.saved.bytes").gauge().value());
+  }
+
+  @Test
+  @DisplayName("Deve recusar upload em streaming acima do limite antes de ler e no meio da leitura, respeitando a cota")
+  void storeStream_ShouldEnforceFileLimitAndUserQuota() {
+    Long owner = 42L;
+    InputStream unread = new InputStream() {
+      @Override
+      public int read() {
+        throw new AssertionError("corpo não deveria ser lido");
+      }
+    };
+    // Content-Length declarado acima do limite: recusa sem ler
+    assertThrows(PayloadTooLargeException.class,
+      () -> mediaService.storeStream("grande.bin", "application/octet-stream", 2_000_000, unread, owner));
+
+    // sem Content-Length: interrompido ao passar de 1MB, sem deixar registro
+    assertThrows(PayloadTooLargeException.class,
+      () -> mediaService.storeStream("chunked.bin", "application/octet-stream", -1, new ByteArrayInputStream(randomBytes(1_500_000, 1)), owner));
+    assertEquals(0, mediaFileRepository.sumSizeByOwnerId(owner));
+
+    mediaService.storeStream("a.bin", "application/octet-stream", 900_000, new ByteArrayInputStream(randomBytes(900_000, 2)), owner);
+    mediaService.storeStream("b.bin", "application/octet-stream", -1, new ByteArrayInputStream(randomBytes(900_000, 3)), owner);
+    assertEquals(1_800_000, mediaFileRepository.sumSizeByOwnerId(owner));
+
+    // terceiro arquivo estoura a cota de 2MB do usuário
+    assertThrows(PayloadTooLargeException.class,
+      () -> mediaService.storeStream("c.bin", "application/octet-stream", 900_000, unread, owner));
+    assertThrows(PayloadTooLargeException.class,
+      () -> mediaService.storeStream("c.bin", "application/octet-stream", -1, new ByteArrayInputStream(randomBytes(900_000, 4)), owner));
+    assertEquals(1_800_000, mediaFileRepository.sumSizeByOwnerId(owner));
+  }
+
+  private static byte[] randomBytes(int size, long seed) {
+    byte[] bytes = new byte[size];
+    new Random(seed).nextBytes(bytes);
+    return bytes;
+  }
+}
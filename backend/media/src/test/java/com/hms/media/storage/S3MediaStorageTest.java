@@ -0,0 +1,242 @@
+package com.hms.media.storage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// S3MediaStorage contra um S3 falso em processo (PUT, multipart, HEAD, GET com Range e DELETE),
+// no lugar de um MinIO.
+class S3MediaStorageTest {
+
+  private FakeS3 fakeS3;
+  private S3Client s3;
+  private S3MediaStorage storage;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    fakeS3 = new FakeS3();
+    s3 = S3Client.builder()
+      .endpointOverride(URI.create("http://localhost:" + fakeS3.port()))
+      .region(Region.US_EAST_1)
+      .forcePathStyle(true)
+      .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+      .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+      .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED)
+      .build();
+    storage = new S3MediaStorage(s3, "media", S3MediaStorage.MIN_PART_SIZE);
+  }
+
+  @AfterEach
+  void tearDown() {
+    s3.close();
+    fakeS3.stop();
+  }
+
+  @Test
+  @DisplayName("Deve gravar arquivo grande em partes e ler faixas sem baixar o objeto inteiro")
+  void write_LargeFile_ShouldUseMultipartAndSupportRanges() throws IOException {
+    byte[] content = new byte[S3MediaStorage.MIN_PART_SIZE * 2 + 1234];
+    new Random(42).nextBytes(content);
+
+    assertEquals(content.length, storage.write("2026/01/01/exame.pdf", new ByteArrayInputStream(content)));
+    assertEquals(3, fakeS3.partsUploaded);
+
+    MediaObject object = storage.read("2026/01/01/exame.pdf");
+    assertEquals(content.length, object.length());
+    try (InputStream range = object.openStream(100, 50)) {
+      assertArrayEquals(Arrays.copyOfRange(content, 100, 150), range.readAllBytes());
+    }
+    ByteArrayOutputStream all = new ByteArrayOutputStream();
+    object.transferTo(0, object.length(), all);
+    assertArrayEquals(content, all.toByteArray());
+  }
+
+  @Test
+  @DisplayName("Deve gravar arquivo pequeno em um único PUT e remover")
+  void write_SmallFile_ShouldUseSinglePut() throws IOException {
+    byte[] content = "conteudo pequeno".getBytes(StandardCharsets.UTF_8);
+
+    storage.write("a/b.txt", new ByteArrayInputStream(content));
+    assertEquals(0, fakeS3.partsUploaded);
+    try (InputStream in = storage.read("a/b.txt").openStream(0, content.length)) {
+      assertArrayEquals(content, in.readAllBytes());
+    }
+
+    storage.delete("a/b.txt");
+    assertThrows(NoSuchFileException.class, () -> storage.read("a/b.txt"));
+  }
+
+  private static final class FakeS3 {
+    private final HttpServer server;
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, TreeMap<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+    private volatile int partsUploaded;
+
+    private FakeS3() throws IOException {
+      server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+      server.createContext("/", this::handle);
+      server.start();
+    }
+
+    private int port() {
+      return server.getAddress().getPort();
+    }
+
+    private void stop() {
+      server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+      String key = exchange.getRequestURI().getPath();
+      Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+      String method = exchange.getRequestMethod();
+      byte[] body = body(exchange);
+
+      switch (method) {
+        case "PUT" -> {
+          String etag = "\"" + Integer.toHexString(Arrays.hashCode(body)) + "\"";
+          if (query.containsKey("uploadId")) {
+            uploads.get(query.get("uploadId")).put(Integer.parseInt(query.get("partNumber")), body);
+            partsUploaded++;
+          } else {
+            objects.put(key, body);
+          }
+          exchange.getResponseHeaders().add("ETag", etag);
+          send(exchange, 200, new byte[0]);
+        }
+        case "POST" -> {
+          if (query.containsKey("uploads")) {
+            String uploadId = "upload-" + uploads.size();
+            uploads.put(uploadId, new TreeMap<>());
+            send(exchange, 200, ("<InitiateMultipartUploadResult><Bucket>media</Bucket><Key>" + key
+              + "</Key><UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>").getBytes(StandardCharsets.UTF_8));
+          } else {
+            ByteArrayOutputStream joined = new ByteArrayOutputStream();
+            for (byte[] part : uploads.remove(query.get("uploadId")).values()) {
+              joined.write(part);
+            }
+            objects.put(key, joined.toByteArray());
+            send(exchange, 200, ("<CompleteMultipartUploadResult><Bucket>media</Bucket><Key>" + key
+              + "</Key><ETag>\"done\"</ETag></CompleteMultipartUploadResult>").getBytes(StandardCharsets.UTF_8));
+          }
+        }
+        case "HEAD" -> {
+          byte[] object = objects.get(key);
+          if (object == null) {
+            exchange.sendResponseHeaders(404, -1);
+          } else {
+            exchange.getResponseHeaders().add("Content-Length", String.valueOf(object.length));
+            exchange.sendResponseHeaders(200, -1);
+          }
+          exchange.close();
+        }
+        case "GET" -> {
+          byte[] object = objects.get(key);
+          if (object == null) {
+            send(exchange, 404, "<Error><Code>NoSuchKey</Code></Error>".getBytes(StandardCharsets.UTF_8));
+            return;
+          }
+          String range = exchange.getRequestHeaders().getFirst("Range");
+          if (range != null) {
+            String[] bounds = range.substring("bytes=".length()).split("-");
+            int start = Integer.parseInt(bounds[0]);
+            int end = Math.min(Integer.parseInt(bounds[1]), object.length - 1);
+            send(exchange, 206, Arrays.copyOfRange(object, start, end + 1));
+          } else {
+            send(exchange, 200, object);
+          }
+        }
+        case "DELETE" -> {
+          if (query.containsKey("uploadId")) {
+            uploads.remove(query.get("uploadId"));
+          } else {
+            objects.remove(key);
+          }
+          exchange.sendResponseHeaders(204, -1);
+          exchange.close();
+        }
+        default -> send(exchange, 405, new byte[0]);
+      }
+    }
+
+    // corpo com assinatura por bloco (aws-chunked), usado pelo SDK em HTTP sem TLS
+    private static byte[] body(HttpExchange exchange) throws IOException {
+      byte[] raw = exchange.getRequestBody().readAllBytes();
+      String contentSha = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+      if (contentSha == null || !contentSha.startsWith("STREAMING-")) {
+        return raw;
+      }
+      ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+      int position = 0;
+      while (position < raw.length) {
+        int lineEnd = indexOfCrlf(raw, position);
+        String header = new String(raw, position, lineEnd - position, StandardCharsets.US_ASCII);
+        int size = Integer.parseInt(header.split(";")[0], 16);
+        position = lineEnd + 2;
+        if (size == 0) {
+          break;
+        }
+        decoded.write(raw, position, size);
+        position += size + 2;
+      }
+      return decoded.toByteArray();
+    }
+
+    private static int indexOfCrlf(byte[] data, int from) {
+      for (int i = from; i < data.length - 1; i++) {
+        if (data[i] == '\r' && data[i + 1] == '\n') {
+          return i;
+        }
+      }
+      return data.length;
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+      Map<String, String> params = new HashMap<>();
+      if (rawQuery != null) {
+        for (String pair : rawQuery.split("&")) {
+          int eq = pair.indexOf('=');
+          params.put(eq < 0 ? pair : pair.substring(0, eq), eq < 0 ? "" : pair.substring(eq + 1));
+        }
+      }
+      return params;
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+      exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+      if (body.length > 0) {
+        exchange.getResponseBody().write(body);
+      }
+      exchange.close();
+    }
+  }
+}
@@ -4,9 +4,11 @@ import com.hms.common.config.CommonLibAutoConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @Import(CommonLibAutoConfiguration.class)
+@EnableScheduling
 public class NotificationApplication {
 
   public static void main(String[] args) {
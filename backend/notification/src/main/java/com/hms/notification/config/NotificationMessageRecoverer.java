@@ -0,0 +1,55 @@
+package com.hms.notification.config;
+
+import com.hms.common.exceptions.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.rabbit.retry.RepublishMessageRecoverer;
+
+import java.util.List;
+
+// Destino das mensagens que esgotaram as tentativas do listener (spring.rabbitmq.listener.simple.retry).
+// Sem ele o Spring rejeita sem requeue e, sem DLX nas filas, a mensagem é descartada.
+// - serviço temporariamente indisponível (fila de e-mail cheia, dependência fora): a mensagem está boa,
+//   volta para a fila do RabbitMQ
+// - qualquer outro erro: republicada em notification.dead-letter.queue com a exceção nos headers
+//   (x-exception-message, x-original-routing-key...) para análise e reenvio
+@Slf4j
+public class NotificationMessageRecoverer implements MessageBatchRecoverer {
+
+  private final MessageRecoverer deadLetter;
+
+  public NotificationMessageRecoverer(AmqpTemplate amqpTemplate, String deadLetterQueue) {
+    // exchange padrão: a routing key é o nome da fila
+    this.deadLetter = new RepublishMessageRecoverer(amqpTemplate, "", deadLetterQueue);
+  }
+
+  @Override
+  public void recover(Message message, Throwable cause) {
+    recover(List.of(message), cause);
+  }
+
+  @Override
+  public void recover(List<Message> messages, Throwable cause) {
+    if (isTemporary(cause)) {
+      log.warn("{} mensagem(ns) devolvida(s) à fila {}: {}", messages.size(),
+        messages.getFirst().getMessageProperties().getConsumerQueue(), cause.getMessage());
+      throw new ImmediateRequeueAmqpException("Serviço temporariamente indisponível, mensagem devolvida à fila", cause);
+    }
+    for (Message message : messages) {
+      deadLetter.recover(message, cause);
+    }
+  }
+
+  static boolean isTemporary(Throwable cause) {
+    for (Throwable current = cause; current != null; current = current.getCause()) {
+      if (current instanceof ServiceUnavailableException) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,102 @@
+package com.hms.notification.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+// Containers dos listeners do NotificationConsumer.
+// - rabbitListenerContainerFactory: uma mensagem por chamada (e-mails transacionais, alertas)
+// - batchListenerContainerFactory: o listener recebe até batch-size mensagens por chamada, para gravar as
+//   notificações in-app com um único INSERT
+// Concorrência, prefetch e tamanho do lote são configurados por listener (pelo id do @RabbitListener) em
+// application.rabbitmq.listeners.<id>.*; o que não for informado usa os valores de spring.rabbitmq.listener.simple.
+@Slf4j
+@Configuration
+public class RabbitListenerConfig {
+
+  public static final String BATCH_FACTORY = "batchListenerContainerFactory";
+
+  private static final String LISTENERS_PREFIX = "application.rabbitmq.listeners.";
+
+  private final Environment environment;
+  private final int defaultBatchSize;
+  private final long defaultBatchReceiveTimeoutMs;
+
+  public RabbitListenerConfig(
+    Environment environment,
+    @Value("${application.rabbitmq.batch.size:100}") int defaultBatchSize,
+    @Value("${application.rabbitmq.batch.receive-timeout-ms:200}") long defaultBatchReceiveTimeoutMs
+  ) {
+    this.environment = environment;
+    this.defaultBatchSize = defaultBatchSize;
+    this.defaultBatchReceiveTimeoutMs = defaultBatchReceiveTimeoutMs;
+  }
+
+  @Bean
+  public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+    SimpleRabbitListenerContainerFactoryConfigurer configurer,
+    ConnectionFactory connectionFactory
+  ) {
+    SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+    configurer.configure(factory, connectionFactory);
+    factory.setContainerCustomizer(container -> tune(container, false));
+    return factory;
+  }
+
+  @Bean(BATCH_FACTORY)
+  public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(
+    SimpleRabbitListenerContainerFactoryConfigurer configurer,
+    ConnectionFactory connectionFactory
+  ) {
+    SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+    configurer.configure(factory, connectionFactory);
+    factory.setBatchListener(true);
+    factory.setConsumerBatchEnabled(true);
+    factory.setBatchSize(defaultBatchSize);
+    // lote incompleto é entregue após esse tempo sem novas mensagens
+    factory.setReceiveTimeout(defaultBatchReceiveTimeoutMs);
+    factory.setContainerCustomizer(container -> tune(container, true));
+    return factory;
+  }
+
+  private void tune(SimpleMessageListenerContainer container, boolean batch) {
+    String id = container.getListenerId();
+    if (id == null) {
+      return;
+    }
+
+    String concurrency = environment.getProperty(LISTENERS_PREFIX + id + ".concurrency");
+    if (concurrency != null) {
+      applyConcurrency(container, concurrency);
+    }
+
+    Integer batchSize = environment.getProperty(LISTENERS_PREFIX + id + ".batch-size", Integer.class);
+    if (batch && batchSize != null) {
+      container.setBatchSize(batchSize);
+    }
+
+    Integer prefetch = environment.getProperty(LISTENERS_PREFIX + id + ".prefetch", Integer.class);
+    if (prefetch != null) {
+      // em lote, o prefetch precisa cobrir o lote inteiro, senão o consumer espera o receive-timeout a cada chamada
+      int effectiveBatch = batchSize != null ? batchSize : defaultBatchSize;
+      container.setPrefetchCount(batch ? Math.max(prefetch, effectiveBatch) : prefetch);
+    } else if (batch) {
+      container.setPrefetchCount(Math.max(250, batchSize != null ? batchSize : defaultBatchSize));
+    }
+  }
+
+  // "4" ou "2-8" (mínimo-máximo, escala conforme a carga)
+  private static void applyConcurrency(SimpleMessageListenerContainer container, String concurrency) {
+    String[] bounds = concurrency.trim().split("-");
+    int min = Integer.parseInt(bounds[0].trim());
+    int max = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : min;
+    container.setMaxConcurrentConsumers(max);
+    container.setConcurrentConsumers(min);
+  }
+}
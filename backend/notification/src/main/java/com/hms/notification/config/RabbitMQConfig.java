@@ -3,6 +3,7 @@ package com.hms.notification.config;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
@@ -30,6 +31,7 @@ public class RabbitMQConfig {
   public static final String NOTIFICATION_QUEUE = "notification.queue";
   public static final String DELAYED_EXCHANGE = "delayed.exchange";
   public static final String PASSWORD_RESET_QUEUE = "notification.password.reset.queue";
+  public static final String DEAD_LETTER_QUEUE = "notification.dead-letter.queue";
 
   @Value("${application.rabbitmq.routing-key}")
   private String routingKey;
@@ -159,6 +161,17 @@ public class RabbitMQConfig {
     return BindingBuilder.bind(passwordResetQueue()).to(exchange()).with("user.event.password-reset");
   }
 
+  @Bean
+  public Queue deadLetterQueue() {
+    return new Queue(DEAD_LETTER_QUEUE, true);
+  }
+
+  // usado pelo retry dos listeners (Spring Boot) ao esgotar as tentativas
+  @Bean
+  public MessageRecoverer notificationMessageRecoverer(RabbitTemplate rabbitTemplate) {
+    return new NotificationMessageRecoverer(rabbitTemplate, DEAD_LETTER_QUEUE);
+  }
+
   @Bean
   public MessageConverter jsonMessageConverter() {
     return new Jackson2JsonMessageConverter();
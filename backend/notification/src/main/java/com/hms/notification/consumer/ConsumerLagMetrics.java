@@ -0,0 +1,100 @@
+package com.hms.notification.consumer;
+
+import com.hms.common.dto.event.EventEnvelope;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Métricas de atraso por fila/listener:
+// - notification.consumer.lag{listener}: tempo entre o evento (occurredAt do envelope) e o processamento
+// - notification.consumer.queue.depth{listener,queue}: mensagens prontas na fila, lidas periodicamente do broker
+// - notification.consumer.batch.size{listener}: tamanho dos lotes entregues aos listeners em lote
+@Slf4j
+@Component
+public class ConsumerLagMetrics {
+
+  private final MeterRegistry meterRegistry;
+  private final AmqpAdmin amqpAdmin;
+  private final RabbitListenerEndpointRegistry listenerRegistry;
+
+  private final Map<String, Timer> lagTimers = new ConcurrentHashMap<>();
+  private final Map<String, DistributionSummary> batchSizes = new ConcurrentHashMap<>();
+  private final Map<String, AtomicLong> queueDepths = new ConcurrentHashMap<>();
+
+  public ConsumerLagMetrics(MeterRegistry meterRegistry, AmqpAdmin amqpAdmin, RabbitListenerEndpointRegistry listenerRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.amqpAdmin = amqpAdmin;
+    this.listenerRegistry = listenerRegistry;
+  }
+
+  public void record(String listener, EventEnvelope<?> envelope) {
+    if (envelope == null || envelope.getOccurredAt() == null) {
+      return;
+    }
+    // occurredAt é gerado no horário local de outro serviço: desvio de relógio negativo conta como zero
+    Duration lag = Duration.between(envelope.getOccurredAt(), LocalDateTime.now());
+    lagTimer(listener).record(lag.isNegative() ? Duration.ZERO : lag);
+  }
+
+  public void recordBatch(String listener, List<? extends EventEnvelope<?>> envelopes) {
+    batchSizes.computeIfAbsent(listener, id -> DistributionSummary.builder("notification.consumer.batch.size")
+      .tag("listener", id)
+      .register(meterRegistry)
+    ).record(envelopes.size());
+    envelopes.forEach(envelope -> record(listener, envelope));
+  }
+
+  @Scheduled(fixedDelayString = "${application.rabbitmq.metrics.queue-depth-interval-ms:15000}")
+  public void refreshQueueDepths() {
+    for (var container : listenerRegistry.getListenerContainers()) {
+      if (!(container instanceof AbstractMessageListenerContainer listenerContainer) || !listenerContainer.isRunning()) {
+        continue;
+      }
+      for (String queue : listenerContainer.getQueueNames()) {
+        try {
+          QueueInformation info = amqpAdmin.getQueueInfo(queue);
+          if (info != null) {
+            queueDepth(listenerContainer.getListenerId(), queue).set(info.getMessageCount());
+          }
+        } catch (Exception e) {
+          log.debug("Não foi possível ler a profundidade da fila {}: {}", queue, e.getMessage());
+        }
+      }
+    }
+  }
+
+  private Timer lagTimer(String listener) {
+    return lagTimers.computeIfAbsent(listener, id -> Timer.builder("notification.consumer.lag")
+      .description("Tempo entre a publicação do evento e o processamento pelo listener")
+      .tag("listener", id)
+      .publishPercentileHistogram()
+      .register(meterRegistry));
+  }
+
+  private AtomicLong queueDepth(String listener, String queue) {
+    return queueDepths.computeIfAbsent(queue, name -> {
+      AtomicLong depth = new AtomicLong();
+      Gauge.builder("notification.consumer.queue.depth", depth, AtomicLong::get)
+        .description("Mensagens aguardando na fila")
+        .tag("listener", listener != null ? listener : name)
+        .tag("queue", name)
+        .register(meterRegistry);
+      return depth;
+    });
+  }
+}
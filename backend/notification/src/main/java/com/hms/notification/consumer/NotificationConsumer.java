@@ -1,46 +1,233 @@
 package com.hms.notification.consumer;
 
 import com.hms.common.dto.event.EventEnvelope;
+import com.hms.common.exceptions.ServiceUnavailableException;
+import com.hms.common.idempotency.IdempotentListener;
+import com.hms.notification.config.RabbitListenerConfig;
 import com.hms.notification.config.RabbitMQConfig;
 import com.hms.notification.dto.event.*;
 import com.hms.notification.dto.request.EmailRequest;
 import com.hms.notification.entities.Notification;
 import com.hms.notification.enums.NotificationType;
+import com.hms.notification.services.EmailDigestService;
 import com.hms.notification.services.EmailService;
+import com.hms.notification.services.NotificationCoalescer;
 import com.hms.notification.services.NotificationService;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 
-import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+// Listeners de notificação.
+// As filas de maior volume (lembretes, status, receitas, chat, avaliações) usam listeners em lote: cada evento
+// é processado isoladamente (falha em um não derruba os demais) e as notificações in-app do lote inteiro são
+// gravadas com um único INSERT. A exceção é a fila de e-mail cheia (ServiceUnavailableException): o lote inteiro
+// falha e volta para a fila pelo NotificationMessageRecoverer, em vez de ser confirmado sem os e-mails. Concorrência/prefetch/lote por listener: ver RabbitListenerConfig.
+// Chat e avaliações passam pelo NotificationCoalescer (uma linha por remetente/janela). O e-mail de nova avaliação,
+// de baixa prioridade, vira item do EmailDigestService quando NEW_REVIEW está no resumo diário; resultados de
+// exame e receitas sempre saem na hora.
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class NotificationConsumer {
 
-  private final JavaMailSender mailSender;
   private final EmailService emailService;
-  private final SpringTemplateEngine templateEngine;
   private final NotificationService notificationService;
+  private final ConsumerLagMetrics lagMetrics;
+  private final NotificationCoalescer coalescer;
+  private final EmailDigestService digestService;
 
-  @RabbitListener(queues = "${application.rabbitmq.notification-queue}")
+  @RabbitListener(id = "generic-email", queues = "${application.rabbitmq.notification-queue}")
   public void consumeGenericEmail(EmailRequest request) {
     log.info("Email genérico para: {}", request.to());
     emailService.sendEmail(request.to(), request.subject(), request.body());
   }
 
-  @RabbitListener(queues = "${application.rabbitmq.queues.notification-reminder:notification.reminder.queue}")
-  public void handleAppointmentReminder(EventEnvelope<AppointmentEvent> envelope) {
+  @RabbitListener(
+    id = "reminder",
+    queues = "${application.rabbitmq.queues.notification-reminder:notification.reminder.queue}",
+    containerFactory = RabbitListenerConfig.BATCH_FACTORY
+  )
+  @IdempotentListener
+  public void handleAppointmentReminders(List<EventEnvelope<AppointmentEvent>> envelopes) {
+    processBatch("reminder", envelopes, this::appointmentReminder);
+  }
+
+  @RabbitListener(
+    id = "status",
+    queues = "${application.rabbitmq.queues.notification-status:notification.status.queue}",
+    containerFactory = RabbitListenerConfig.BATCH_FACTORY
+  )
+  @IdempotentListener
+  public void handleStatusChanges(List<EventEnvelope<AppointmentStatusChangedEvent>> envelopes) {
+    processBatch("status", envelopes, this::statusChange);
+  }
+
+  @RabbitListener(id = "waitlist", queues = RabbitMQConfig.WAITLIST_QUEUE)
+  @IdempotentListener
+  public void handleWaitlistNotification(EventEnvelope<WaitlistNotificationEvent> envelope) {
+    lagMetrics.record("waitlist", envelope);
+    WaitlistNotificationEvent event = envelope.getPayload();
+
+    // email
+    String content = "Surgiu uma vaga com Dr. " + event.doctorName() + " em " + event.availableDateTime();
+    emailService.sendEmail(event.email(), "Vaga Disponível!", content);
+
+    // in-App
+    saveInAppNotification(
+      event.userId(),
+      "Vaga na Lista de Espera!",
+      "Uma vaga surgiu para " + event.availableDateTime() + ". Acesse para agendar.",
+      NotificationType.WAITLIST_ALERT
+    );
+  }
+
+  @RabbitListener(
+    id = "prescription",
+    queues = "${application.rabbitmq.queues.notification-prescription:notification.prescription.queue}",
+    containerFactory = RabbitListenerConfig.BATCH_FACTORY
+  )
+  @IdempotentListener
+  public void handlePrescriptionsIssued(List<EventEnvelope<PrescriptionIssuedEvent>> envelopes) {
+    processBatch("prescription", envelopes, this::prescriptionIssued);
+  }
+
+  @RabbitListener(id = "lab", queues = "${application.rabbitmq.lab-queue-name:notification.lab.completed.queue}")
+  @IdempotentListener
+  public void handleLabResult(EventEnvelope<LabOrderCompletedEvent> envelope) {
+    lagMetrics.record("lab", envelope);
+    LabOrderCompletedEvent event = envelope.getPayload();
+    log.info("Resultado de exame pronto. Pedido: {}", event.labOrderNumber());
+
+    // notificar Médico
+    if (event.doctorEmail() != null) {
+      sendLabResultEmailToDoctor(event);
+
+      Long docRecipientId = event.doctorUserId() != null ? event.doctorUserId() : event.doctorId();
+
+      saveInAppNotification(docRecipientId,
+        "Exame Pronto",
+        "Resultado disponível do paciente: " + event.patientName(),
+        NotificationType.LAB_RESULT);
+    }
+
+    // notificar Paciente
+    if (event.patientId() != null) {
+      Long patRecipientId = event.patientUserId() != null ? event.patientUserId() : event.patientId();
+
+      saveInAppNotification(
+        patRecipientId,
+        "Exame Concluído",
+        "Os resultados do pedido " + event.labOrderNumber() + " estão disponíveis.",
+        NotificationType.LAB_RESULT
+      );
+    }
+  }
+
+  @RabbitListener(
+    id = "chat",
+    queues = "${application.rabbitmq.queues.chat-notification:notification.chat.queue}",
+    containerFactory = RabbitListenerConfig.BATCH_FACTORY
+  )
+  @IdempotentListener
+  public void handleNewChatMessages(List<EventEnvelope<ChatMessageEvent>> envelopes) {
+    processBatch("chat", envelopes, (envelope, notifications) -> {
+      ChatMessageEvent event = envelope.getPayload();
+      addCoalescedNotification(notifications,
+        event.recipientId(),
+        "Nova Mensagem de " + event.senderName(),
+        event.content(),
+        NotificationType.NEW_MESSAGE,
+        String.valueOf(event.senderId()),
+        count -> count + " novas mensagens de " + event.senderName()
+      );
+    });
+  }
+
+  @RabbitListener(id = "user-created", queues = "${application.rabbitmq.user-created-queue}")
+  @IdempotentListener
+  public void consumeUserCreated(EventEnvelope<UserCreatedEvent> envelope) {
+    lagMetrics.record("user-created", envelope);
+    UserCreatedEvent event = envelope.getPayload();
+    String subject = "Bem-vindo ao HMS";
+    String content = String.format("<h1>Código: %s</h1><p>Use este código para ativar sua conta.</p>", event.verificationCode());
+    emailService.sendEmail(event.email(), subject, content);
+  }
+
+  @RabbitListener(id = "stock-low", queues = RabbitMQConfig.STOCK_LOW_QUEUE)
+  @IdempotentListener
+  public void handleLowStockEvent(EventEnvelope<StockLowEvent> envelope) {
+    lagMetrics.record("stock-low", envelope);
+    StockLowEvent event = envelope.getPayload();
+    log.info("Recebido alerta de stock baixo para o medicamento: {}", event.medicineName());
+
+    Notification notification = new Notification();
+    notification.setRecipientId("ADMIN");
+    notification.setTitle("Alerta de Stock Baixo");
+    notification.setMessage(String.format("O medicamento %s atingiu níveis críticos. Restam apenas %d unidades (Limite: %d).",
+      event.medicineName(), event.currentQuantity(), event.threshold()));
+    notification.setType(NotificationType.LOW_STOCK);
+
+    notificationService.sendNotification(notification);
+  }
+
+  @RabbitListener(
+    id = "review",
+    bindings = @org.springframework.amqp.rabbit.annotation.QueueBinding(
+      value = @org.springframework.amqp.rabbit.annotation.Queue(value = "${application.rabbitmq.notification-review:notification.review.queue}", durable = "true"),
+      exchange = @org.springframework.amqp.rabbit.annotation.Exchange(value = "internal.exchange", type = "topic"),
+      key = "notification.review.alert"
+    ),
+    containerFactory = RabbitListenerConfig.BATCH_FACTORY
+  )
+  @IdempotentListener
+  public void handleNewReviews(List<EventEnvelope<ReviewNotificationEvent>> envelopes) {
+    processBatch("review", envelopes, this::newReview);
+  }
+
+  @RabbitListener(id = "password-reset", queues = "${application.rabbitmq.queues.password-reset:notification.password.reset.queue}")
+  @IdempotentListener
+  public void handlePasswordReset(EventEnvelope<PasswordResetEvent> envelope) {
+    lagMetrics.record("password-reset", envelope);
+    PasswordResetEvent event = envelope.getPayload();
+    log.info("Processando envio de e-mail de redefinição de senha para: {}", event.email());
+
+    emailService.sendTemplatedEmail(event.email(), "Redefinição de Senha - HMS", "password-reset-email", Map.of(
+      "userName", event.userName(),
+      "resetLink", event.resetLink(),
+      "expirationMinutes", event.expirationMinutes()
+    ));
+  }
+
+  private <T> void processBatch(
+    String listener,
+    List<EventEnvelope<T>> envelopes,
+    java.util.function.BiConsumer<EventEnvelope<T>, List<Notification>> handler
+  ) {
+    lagMetrics.recordBatch(listener, envelopes);
+
+    List<Notification> notifications = new ArrayList<>(envelopes.size() * 2);
+    for (EventEnvelope<T> envelope : envelopes) {
+      try {
+        handler.accept(envelope, notifications);
+      } catch (ServiceUnavailableException e) {
+        log.warn("Fila de e-mail cheia no evento {} do listener {}; lote será reentregue", envelope.getEventId(), listener);
+        throw e;
+      } catch (Exception e) {
+        log.error("Erro ao processar evento {} do listener {}: {}", envelope.getEventId(), listener, e.getMessage(), e);
+      }
+    }
+    notificationService.sendNotifications(notifications);
+  }
+
+  private void appointmentReminder(EventEnvelope<AppointmentEvent> envelope, List<Notification> notifications) {
     AppointmentEvent event = envelope.getPayload();
     log.info("Processando lembrete [Evento ID: {}] para consulta ID: {}", envelope.getEventId(), event.appointmentId());
 
@@ -54,14 +241,16 @@ public class NotificationConsumer {
     if (event.patientEmail() != null && !event.patientEmail().isBlank()) {
       try {
         emailService.sendEmail(event.patientEmail(), subject, body);
-      } catch (Exception e) {
+      } catch (ServiceUnavailableException e) {
+        throw e;
+      } catch (RuntimeException e) {
         log.error("Erro ao enviar email de lembrete para {}", event.patientEmail(), e);
       }
     } else {
       log.warn("E-mail não fornecido para o paciente {}. Pulando envio de e-mail de lembrete.", event.patientId());
     }
 
-    saveInAppNotification(
+    addInAppNotification(notifications,
       event.patientId(),
       "Consulta Amanhã",
       "Consulta com Dr(a). " + event.doctorName() + " às " + shortTime,
@@ -69,37 +258,18 @@ public class NotificationConsumer {
     );
   }
 
-  @RabbitListener(queues = "${application.rabbitmq.queues.notification-status:notification.status.queue}")
-  public void handleStatusChange(EventEnvelope<AppointmentStatusChangedEvent> envelope) {
+  private void statusChange(EventEnvelope<AppointmentStatusChangedEvent> envelope, List<Notification> notifications) {
     AppointmentStatusChangedEvent event = envelope.getPayload();
     String formattedDate = event.appointmentDateTime().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
 
-    processPatientStatusNotification(event, formattedDate);
+    processPatientStatusNotification(event, formattedDate, notifications::add);
 
     if (event.triggeredByPatient() && event.doctorId() != null) {
-      processDoctorStatusNotification(event, formattedDate);
+      processDoctorStatusNotification(event, formattedDate, notifications::add);
     }
   }
 
-  @RabbitListener(queues = RabbitMQConfig.WAITLIST_QUEUE)
-  public void handleWaitlistNotification(EventEnvelope<WaitlistNotificationEvent> envelope) {
-    WaitlistNotificationEvent event = envelope.getPayload();
-
-    // email
-    String content = "Surgiu uma vaga com Dr. " + event.doctorName() + " em " + event.availableDateTime();
-    emailService.sendEmail(event.email(), "Vaga Disponível!", content);
-
-    // in-App
-    saveInAppNotification(
-      event.userId(),
-      "Vaga na Lista de Espera!",
-      "Uma vaga surgiu para " + event.availableDateTime() + ". Acesse para agendar.",
-      NotificationType.WAITLIST_ALERT
-    );
-  }
-
-  @RabbitListener(queues = "${application.rabbitmq.queues.notification-prescription:notification.prescription.queue}")
-  public void handlePrescriptionIssued(EventEnvelope<PrescriptionIssuedEvent> envelope) {
+  private void prescriptionIssued(EventEnvelope<PrescriptionIssuedEvent> envelope, List<Notification> notifications) {
     PrescriptionIssuedEvent event = envelope.getPayload();
     log.info("Nova receita [Correlation: {}] para paciente ID: {} (UserID: {})",
       envelope.getCorrelationId(), event.patientId(), event.patientUserId());
@@ -110,7 +280,9 @@ public class NotificationConsumer {
         String body = String.format("<p>Olá %s, o Dr(a). %s emitiu uma nova receita digital.</p>",
           event.patientName(), event.doctorName());
         emailService.sendEmail(event.patientEmail(), subject, body);
-      } catch (Exception e) {
+      } catch (ServiceUnavailableException e) {
+        throw e;
+      } catch (RuntimeException e) {
         log.error("Erro ao enviar email de nova receita para o paciente {}", event.patientEmail(), e);
       }
     } else {
@@ -119,7 +291,7 @@ public class NotificationConsumer {
 
     Long recipientId = event.patientUserId() != null ? event.patientUserId() : event.patientId();
 
-    saveInAppNotification(
+    addInAppNotification(notifications,
       recipientId,
       "Nova Receita",
       "Dr(a). " + event.doctorName() + " emitiu uma receita. Acesse 'Meus Medicamentos'.",
@@ -127,37 +299,36 @@ public class NotificationConsumer {
     );
   }
 
-  @RabbitListener(queues = "${application.rabbitmq.lab-queue-name:notification.lab.completed.queue}")
-  public void handleLabResult(EventEnvelope<LabOrderCompletedEvent> envelope) {
-    LabOrderCompletedEvent event = envelope.getPayload();
-    log.info("Resultado de exame pronto. Pedido: {}", event.labOrderNumber());
-
-    // notificar Médico
-    if (event.doctorEmail() != null) {
-      sendLabResultEmailToDoctor(event);
-
-      Long docRecipientId = event.doctorUserId() != null ? event.doctorUserId() : event.doctorId();
+  private void newReview(EventEnvelope<ReviewNotificationEvent> envelope, List<Notification> notifications) {
+    ReviewNotificationEvent event = envelope.getPayload();
+    log.info("Nova avaliação recebida para médico ID: {}", event.doctorId());
 
-      saveInAppNotification(docRecipientId,
-        "Exame Pronto",
-        "Resultado disponível do paciente: " + event.patientName(),
-        NotificationType.LAB_RESULT);
+    String message = String.format("O paciente %s avaliou seu atendimento com %d estrela(s).", event.patientName(), event.rating());
+    if (event.comment() != null && !event.comment().isBlank()) {
+      message += " Comentário: \"" + event.comment() + "\"";
     }
 
-    // notificar Paciente
-    if (event.patientId() != null) {
-      Long patRecipientId = event.patientUserId() != null ? event.patientUserId() : event.patientId();
-
-      saveInAppNotification(
-        patRecipientId,
-        "Exame Concluído",
-        "Os resultados do pedido " + event.labOrderNumber() + " estão disponíveis.",
-        NotificationType.LAB_RESULT
-      );
+    if (event.doctorEmail() != null && !event.doctorEmail().isBlank()) {
+      if (digestService.isDigested(NotificationType.NEW_REVIEW)) {
+        digestService.add(event.doctorEmail(), event.doctorName(), NotificationType.NEW_REVIEW,
+          "Nova Avaliação Recebida", message, null);
+      } else {
+        emailService.sendEmail(event.doctorEmail(), "Nova Avaliação Recebida",
+          String.format("<p>Olá Dr(a). %s,</p><p>%s</p>", event.doctorName(), message));
+      }
     }
+
+    addCoalescedNotification(notifications,
+      event.doctorId(),
+      "Nova Avaliação Recebida",
+      message,
+      NotificationType.NEW_REVIEW,
+      null,
+      count -> count + " novas avaliações recebidas"
+    );
   }
 
-  private void processPatientStatusNotification(AppointmentStatusChangedEvent event, String formattedDate) {
+  private void processPatientStatusNotification(AppointmentStatusChangedEvent event, String formattedDate, Consumer<Notification> sink) {
     String title = "";
     String message = "";
 
@@ -182,11 +353,14 @@ public class NotificationConsumer {
 
     if (!title.isEmpty()) {
       Long recipientId = event.patientUserId() != null ? event.patientUserId() : event.patientId();
-      saveInAppNotification(recipientId, title, message, NotificationType.STATUS_CHANGE);
+      Notification notification = buildInAppNotification(recipientId, title, message, NotificationType.STATUS_CHANGE);
+      if (notification != null) {
+        sink.accept(notification);
+      }
     }
   }
 
-  private void processDoctorStatusNotification(AppointmentStatusChangedEvent event, String formattedDate) {
+  private void processDoctorStatusNotification(AppointmentStatusChangedEvent event, String formattedDate, Consumer<Notification> sink) {
     String title = "";
     String message = "";
 
@@ -203,135 +377,70 @@ public class NotificationConsumer {
 
     if (!title.isEmpty()) {
       Long recipientId = event.doctorUserId() != null ? event.doctorUserId() : event.doctorId();
-      saveInAppNotification(recipientId, title, message, NotificationType.SYSTEM_ALERT);
+      Notification notification = buildInAppNotification(recipientId, title, message, NotificationType.SYSTEM_ALERT);
+      if (notification != null) {
+        sink.accept(notification);
+      }
     }
   }
 
-  @RabbitListener(queues = "${application.rabbitmq.queues.chat-notification:notification.chat.queue}")
-  public void handleNewChatMessage(EventEnvelope<ChatMessageEvent> envelope) {
-    ChatMessageEvent event = envelope.getPayload();
-    saveInAppNotification(
-      event.recipientId(),
-      "Nova Mensagem de " + event.senderName(),
-      event.content(),
-      NotificationType.NEW_MESSAGE
-    );
-  }
-
-  @RabbitListener(queues = "${application.rabbitmq.user-created-queue}")
-  public void consumeUserCreated(EventEnvelope<UserCreatedEvent> envelope) {
-    UserCreatedEvent event = envelope.getPayload();
-    String subject = "Bem-vindo ao HMS";
-    String content = String.format("<h1>Código: %s</h1><p>Use este código para ativar sua conta.</p>", event.verificationCode());
-    emailService.sendEmail(event.email(), subject, content);
+  private void saveInAppNotification(String recipientId, String title, String message, NotificationType type) {
+    Notification notification = buildInAppNotification(recipientId, title, message, type);
+    if (notification == null) {
+      return;
+    }
+    try {
+      notificationService.sendNotification(notification);
+    } catch (Exception e) {
+      log.error("Erro ao salvar notificação para {}: {}", recipientId, e.getMessage());
+    }
   }
 
-  @RabbitListener(queues = RabbitMQConfig.STOCK_LOW_QUEUE)
-  public void handleLowStockEvent(EventEnvelope<StockLowEvent> envelope) {
-    StockLowEvent event = envelope.getPayload();
-    log.info("Recebido alerta de stock baixo para o medicamento: {}", event.medicineName());
-
-    Notification notification = new Notification();
-    notification.setRecipientId("ADMIN");
-    notification.setTitle("Alerta de Stock Baixo");
-    notification.setMessage(String.format("O medicamento %s atingiu níveis críticos. Restam apenas %d unidades (Limite: %d).",
-      event.medicineName(), event.currentQuantity(), event.threshold()));
-    notification.setType(NotificationType.LOW_STOCK);
-
-    notificationService.sendNotification(notification);
+  private void saveInAppNotification(Long userId, String title, String message, NotificationType type) {
+    saveInAppNotification(String.valueOf(userId), title, message, type);
   }
 
-  @RabbitListener(bindings = @org.springframework.amqp.rabbit.annotation.QueueBinding(
-    value = @org.springframework.amqp.rabbit.annotation.Queue(value = "${application.rabbitmq.notification-review:notification.review.queue}", durable = "true"),
-    exchange = @org.springframework.amqp.rabbit.annotation.Exchange(value = "internal.exchange", type = "topic"),
-    key = "notification.review.alert"
-  ))
-  public void handleNewReview(EventEnvelope<ReviewNotificationEvent> envelope) {
-    ReviewNotificationEvent event = envelope.getPayload();
-    log.info("Nova avaliação recebida para médico ID: {}", event.doctorId());
-
-    String message = String.format("O paciente %s avaliou seu atendimento com %d estrela(s).", event.patientName(), event.rating());
-    if (event.comment() != null && !event.comment().isBlank()) {
-      message += " Comentário: \"" + event.comment() + "\"";
+  private void addInAppNotification(List<Notification> notifications, Object recipientId, String title, String message, NotificationType type) {
+    Notification notification = buildInAppNotification(recipientId, title, message, type);
+    if (notification != null) {
+      notifications.add(notification);
     }
-
-    saveInAppNotification(
-      event.doctorId(),
-      "Nova Avaliação Recebida",
-      message,
-      NotificationType.NEW_REVIEW
-    );
   }
 
-  @RabbitListener(queues = "${application.rabbitmq.queues.password-reset:notification.password.reset.queue}")
-  public void handlePasswordReset(EventEnvelope<PasswordResetEvent> envelope) {
-    PasswordResetEvent event = envelope.getPayload();
-    log.info("Processando envio de e-mail de redefinição de senha para: {}", event.email());
-
-    try {
-      Context context = new Context();
-      context.setVariable("userName", event.userName());
-      context.setVariable("resetLink", event.resetLink());
-      context.setVariable("expirationMinutes", event.expirationMinutes());
-
-      String htmlBody = templateEngine.process("password-reset-email", context);
-
-      MimeMessage message = mailSender.createMimeMessage();
-      MimeMessageHelper helper = new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, StandardCharsets.UTF_8.name());
-      helper.setTo(event.email());
-      helper.setSubject("Redefinição de Senha - HMS");
-      helper.setText(htmlBody, true);
-      helper.setFrom("sistema@hms.com");
-
-      mailSender.send(message);
-      log.info("E-mail de redefinição enviado com sucesso para: {}", event.email());
-
-    } catch (MessagingException e) {
-      log.error("Erro ao enviar e-mail de redefinição de senha", e);
+  private void addCoalescedNotification(List<Notification> notifications, Object recipientId, String title, String message,
+                                        NotificationType type, String groupKey, IntFunction<String> summaryTitle) {
+    Notification notification = buildInAppNotification(recipientId, title, message, type);
+    if (notification != null && !coalescer.offer(notification, groupKey, summaryTitle)) {
+      notifications.add(notification);
     }
   }
 
-  private void saveInAppNotification(String recipientId, String title, String message, NotificationType type) {
+  private Notification buildInAppNotification(Object recipientId, String title, String message, NotificationType type) {
     if (recipientId == null) {
       log.warn("Tentativa de salvar notificação sem recipientId. Title: {}", title);
-      return;
-    }
-    try {
-      Notification notification = Notification.builder()
-        .recipientId(recipientId)
-        .title(title)
-        .message(message)
-        .type(type)
-        .build();
-      notificationService.sendNotification(notification);
-    } catch (Exception e) {
-      log.error("Erro ao salvar notificação para {}: {}", recipientId, e.getMessage());
+      return null;
     }
+    return Notification.builder()
+      .recipientId(String.valueOf(recipientId))
+      .title(title)
+      .message(message)
+      .type(type)
+      .build();
   }
 
   private void sendLabResultEmailToDoctor(LabOrderCompletedEvent event) {
     try {
-      Context context = new Context();
-      context.setVariables(Map.of(
+      emailService.sendTemplatedEmail(event.doctorEmail(), "Resultados: Pedido " + event.labOrderNumber(), "lab-result-email", Map.of(
         "doctorName", event.doctorName(),
         "patientName", event.patientName(),
         "orderNumber", event.labOrderNumber(),
         "actionUrl", event.resultUrl()
       ));
-      String htmlBody = templateEngine.process("lab-result-email", context);
-
-      MimeMessage message = mailSender.createMimeMessage();
-      MimeMessageHelper helper = new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, StandardCharsets.UTF_8.name());
-      helper.setTo(event.doctorEmail());
-      helper.setSubject("Resultados: Pedido " + event.labOrderNumber());
-      helper.setText(htmlBody, true);
-      mailSender.send(message);
-    } catch (MessagingException e) {
+    } catch (ServiceUnavailableException e) {
+      // fila de e-mail cheia: a mensagem volta para a fila (NotificationMessageRecoverer)
+      throw e;
+    } catch (RuntimeException e) {
       log.error("Erro email médico", e);
     }
   }
-
-  private void saveInAppNotification(Long userId, String title, String message, NotificationType type) {
-    saveInAppNotification(String.valueOf(userId), title, message, type);
-  }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package com.hms.notification.controllers;
+
+import com.hms.common.dto.response.PagedResponse;
+import com.hms.common.dto.response.ResponseWrapper;
+import com.hms.notification.docs.EmailDeadLetterControllerDocs;
+import com.hms.notification.dto.response.EmailDeadLetterResponse;
+import com.hms.notification.services.EmailDeadLetterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/notifications/admin/email-dead-letters")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class EmailDeadLetterController implements EmailDeadLetterControllerDocs {
+
+  private final EmailDeadLetterService deadLetterService;
+
+  @GetMapping
+  public ResponseEntity<ResponseWrapper<PagedResponse<EmailDeadLetterResponse>>> list(
+    @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable
+  ) {
+    return ResponseEntity.ok(ResponseWrapper.success(deadLetterService.list(pageable)));
+  }
+
+  @PostMapping("/{id}/retry")
+  public ResponseEntity<ResponseWrapper<Void>> retry(@PathVariable Long id) {
+    deadLetterService.retry(id);
+    return ResponseEntity.ok(ResponseWrapper.success(null, "E-mail reenfileirado para envio."));
+  }
+}
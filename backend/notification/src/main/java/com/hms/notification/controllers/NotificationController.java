@@ -1,13 +1,19 @@
 package com.hms.notification.controllers;
 
 import com.hms.common.dto.response.ResponseWrapper;
+import com.hms.common.security.SecurityUtils;
 import com.hms.notification.docs.NotificationControllerDocs;
-import com.hms.notification.dto.response.NotificationResponse;
+import com.hms.notification.dto.response.NotificationPageResponse;
 import com.hms.notification.services.NotificationService;
+import com.hms.notification.services.NotificationStreamService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -16,10 +22,35 @@ import java.util.List;
 public class NotificationController implements NotificationControllerDocs {
 
   private final NotificationService notificationService;
+  private final NotificationStreamService notificationStreamService;
+
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter stream(
+    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+    @RequestParam(required = false) Long lastEventId,
+    Authentication authentication
+  ) {
+    List<String> recipientIds = new ArrayList<>();
+    recipientIds.add(String.valueOf(SecurityUtils.getUserId(authentication)));
+    // alertas de estoque são endereçados ao papel ADMIN
+    if (authentication.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()))) {
+      recipientIds.add("ADMIN");
+    }
+    return notificationStreamService.subscribe(recipientIds, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+  }
 
   @GetMapping("/user/{userId}")
-  public ResponseEntity<ResponseWrapper<List<NotificationResponse>>> getUserNotifications(@PathVariable String userId) {
-    return ResponseEntity.ok(ResponseWrapper.success(notificationService.getUserNotifications(userId)));
+  public ResponseEntity<ResponseWrapper<NotificationPageResponse>> getUserNotifications(
+    @PathVariable String userId,
+    @RequestParam(required = false) String cursor,
+    @RequestParam(defaultValue = "20") int size
+  ) {
+    return ResponseEntity.ok(ResponseWrapper.success(notificationService.getUserNotifications(userId, cursor, size)));
+  }
+
+  @GetMapping("/user/{userId}/unread-count")
+  public ResponseEntity<ResponseWrapper<Long>> getUnreadCount(@PathVariable String userId) {
+    return ResponseEntity.ok(ResponseWrapper.success(notificationService.countUnread(userId)));
   }
 
   @PatchMapping("/{id}/read")
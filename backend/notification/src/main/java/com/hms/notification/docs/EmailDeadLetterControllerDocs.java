@@ -0,0 +1,36 @@
+package com.hms.notification.docs;
+
+import com.hms.common.dto.response.PagedResponse;
+import com.hms.common.dto.response.ResponseWrapper;
+import com.hms.notification.dto.response.EmailDeadLetterResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+
+@Tag(name = "E-mails Não Entregues", description = "Consulta e reenvio de e-mails que esgotaram as tentativas de envio (requer ADMIN)")
+@ApiResponses({
+  @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content),
+  @ApiResponse(responseCode = "500", description = "Erro interno no servidor", content = @Content)
+})
+public interface EmailDeadLetterControllerDocs {
+
+  @Operation(summary = "Listar E-mails Não Entregues", description = "Retorna uma lista paginada dos e-mails na dead letter, mais recentes primeiro.")
+  @ApiResponse(responseCode = "200", description = "Página recuperada com sucesso")
+  ResponseEntity<ResponseWrapper<PagedResponse<EmailDeadLetterResponse>>> list(@Parameter(hidden = true) Pageable pageable);
+
+  @Operation(summary = "Reenviar E-mail", description = "Remove o e-mail da dead letter e o coloca novamente na fila de envio.")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "E-mail reenfileirado"),
+    @ApiResponse(responseCode = "404", description = "Registro não encontrado", content = @Content),
+    @ApiResponse(responseCode = "503", description = "Fila de envio cheia", content = @Content)
+  })
+  ResponseEntity<ResponseWrapper<Void>> retry(
+    @Parameter(description = "ID do registro", required = true) @PathVariable Long id
+  );
+}
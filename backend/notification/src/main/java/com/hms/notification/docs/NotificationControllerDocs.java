@@ -1,7 +1,7 @@
 package com.hms.notification.docs;
 
 import com.hms.common.dto.response.ResponseWrapper;
-import com.hms.notification.dto.response.NotificationResponse;
+import com.hms.notification.dto.response.NotificationPageResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,9 +9,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
 
 @Tag(name = "Notificações", description = "Endpoints para gerenciamento e visualização de notificações")
 @ApiResponses({
@@ -19,11 +22,33 @@ import java.util.List;
 })
 public interface NotificationControllerDocs {
 
-  @Operation(summary = "Listar Notificações do Usuário", description = "Retorna uma lista contendo todas as notificações associadas a um ID de usuário específico.")
+  @Operation(summary = "Stream de Notificações (SSE)", description = "Abre um stream Server-Sent Events com as novas notificações do usuário autenticado. Ao reconectar, envie o cabeçalho Last-Event-ID (ou o parâmetro lastEventId) para receber as notificações perdidas.")
   @ApiResponses(value = {
-    @ApiResponse(responseCode = "200", description = "Notificações recuperadas com sucesso")
+    @ApiResponse(responseCode = "200", description = "Stream aberto"),
+    @ApiResponse(responseCode = "401", description = "Não autenticado", content = @Content)
   })
-  ResponseEntity<ResponseWrapper<List<NotificationResponse>>> getUserNotifications(
+  SseEmitter stream(
+    @Parameter(description = "ID do último evento recebido") @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+    @Parameter(description = "Alternativa ao cabeçalho Last-Event-ID") @RequestParam(required = false) Long lastEventId,
+    @Parameter(hidden = true) Authentication authentication
+  );
+
+  @Operation(summary = "Listar Notificações do Usuário", description = "Retorna as notificações de um usuário, mais recentes primeiro, paginadas por cursor. Para a próxima página, envie o nextCursor da resposta anterior.")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Notificações recuperadas com sucesso"),
+    @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content)
+  })
+  ResponseEntity<ResponseWrapper<NotificationPageResponse>> getUserNotifications(
+    @Parameter(description = "ID do usuário", required = true) @PathVariable String userId,
+    @Parameter(description = "Cursor da página (nextCursor da resposta anterior)") @RequestParam(required = false) String cursor,
+    @Parameter(description = "Quantidade de itens por página") @RequestParam(defaultValue = "20") int size
+  );
+
+  @Operation(summary = "Contar Notificações Não Lidas", description = "Retorna a quantidade de notificações ainda não lidas de um usuário.")
+  @ApiResponses(value = {
+    @ApiResponse(responseCode = "200", description = "Contagem recuperada com sucesso")
+  })
+  ResponseEntity<ResponseWrapper<Long>> getUnreadCount(
     @Parameter(description = "ID do usuário", required = true) @PathVariable String userId
   );
 
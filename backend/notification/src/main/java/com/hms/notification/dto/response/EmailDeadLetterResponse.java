@@ -0,0 +1,25 @@
+package com.hms.notification.dto.response;
+
+import com.hms.notification.entities.EmailDeadLetter;
+
+import java.time.LocalDateTime;
+
+public record EmailDeadLetterResponse(
+  Long id,
+  String recipient,
+  String subject,
+  int attempts,
+  String lastError,
+  LocalDateTime createdAt
+) {
+  public static EmailDeadLetterResponse fromEntity(EmailDeadLetter deadLetter) {
+    return new EmailDeadLetterResponse(
+      deadLetter.getId(),
+      deadLetter.getRecipient(),
+      deadLetter.getSubject(),
+      deadLetter.getAttempts(),
+      deadLetter.getLastError(),
+      deadLetter.getCreatedAt()
+    );
+  }
+}
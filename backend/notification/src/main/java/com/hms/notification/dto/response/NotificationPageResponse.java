@@ -0,0 +1,10 @@
+package com.hms.notification.dto.response;
+
+import java.util.List;
+
+public record NotificationPageResponse(
+  List<NotificationResponse> content,
+  String nextCursor,
+  boolean hasMore
+) {
+}
@@ -1,5 +1,6 @@
 package com.hms.notification.dto.response;
 
+import com.hms.notification.entities.Notification;
 import com.hms.notification.enums.NotificationType;
 
 import java.time.LocalDateTime;
@@ -12,4 +13,14 @@ public record NotificationResponse(
   boolean read,
   LocalDateTime createdAt
 ) {
-}
\ No newline at end of file
+  public static NotificationResponse fromEntity(Notification notification) {
+    return new NotificationResponse(
+      notification.getId(),
+      notification.getTitle(),
+      notification.getMessage(),
+      notification.getType(),
+      notification.isRead(),
+      notification.getCreatedAt()
+    );
+  }
+}
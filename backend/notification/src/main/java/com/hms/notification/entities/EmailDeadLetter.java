@@ -0,0 +1,43 @@
+package com.hms.notification.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// E-mail que esgotou as tentativas de envio (ou não pôde ser enfileirado).
+// Guarda o HTML já renderizado para permitir reenvio sem o evento original.
+@Entity
+@Table(name = "email_dead_letter")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailDeadLetter {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private String recipient;
+
+  private String subject;
+
+  @Lob
+  @Column(columnDefinition = "LONGTEXT")
+  private String htmlBody;
+
+  private int attempts;
+
+  @Column(length = 1000)
+  private String lastError;
+
+  private LocalDateTime createdAt;
+
+  @PrePersist
+  public void prePersist() {
+    this.createdAt = LocalDateTime.now();
+  }
+}
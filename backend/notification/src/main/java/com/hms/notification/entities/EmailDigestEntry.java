@@ -0,0 +1,47 @@
+package com.hms.notification.entities;
+
+import com.hms.notification.enums.NotificationType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Item pendente do resumo diário por e-mail: substitui o e-mail individual dos tipos configurados
+// em application.notification.digest.types.
+@Entity
+@Table(name = "email_digest_entry")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailDigestEntry {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private String recipientEmail;
+
+  private String recipientName;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 50)
+  private NotificationType type;
+
+  private String title;
+
+  @Column(length = 500)
+  private String message;
+
+  @Column(length = 1000)
+  private String actionUrl;
+
+  private LocalDateTime createdAt;
+
+  @PrePersist
+  public void prePersist() {
+    this.createdAt = LocalDateTime.now();
+  }
+}
@@ -0,0 +1,36 @@
+package com.hms.notification.mail;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+// Template de e-mail pré-compilado: trechos estáticos já renderizados (cabeçalho, CSS, rodapé...) intercalados
+// com as variáveis. Renderizar é só concatenar, escapando cada valor como o Thymeleaf escaparia naquela posição.
+// segments tem sempre slots.size() + 1 elementos.
+record CompiledEmailTemplate(String name, List<String> segments, List<Slot> slots) {
+
+  record Slot(String variable, UnaryOperator<String> escaper) {
+  }
+
+  void renderTo(StringBuilder out, Map<String, ?> variables) {
+    out.append(segments.getFirst());
+    for (int i = 0; i < slots.size(); i++) {
+      Slot slot = slots.get(i);
+      Object value = variables.get(slot.variable());
+      if (value != null) {
+        out.append(slot.escaper().apply(value.toString()));
+      }
+      out.append(segments.get(i + 1));
+    }
+  }
+
+  // só valores com toString estável; o resto (datas, objetos) passa pelo Thymeleaf e sua conversão
+  static boolean supports(Map<String, ?> variables) {
+    for (Object value : variables.values()) {
+      if (value != null && !(value instanceof CharSequence || value instanceof Integer || value instanceof Long || value instanceof Boolean)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
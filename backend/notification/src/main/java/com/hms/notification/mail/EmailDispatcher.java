@@ -0,0 +1,359 @@
+package com.hms.notification.mail;
+
+import com.hms.common.exceptions.ServiceUnavailableException;
+import com.hms.notification.entities.EmailDeadLetter;
+import com.hms.notification.repositories.EmailDeadLetterRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Envio assíncrono de e-mails.
+// Os listeners do RabbitMQ só renderizam e enfileiram; N workers consomem a fila em lotes, cada um com a sua
+// conexão SMTP reaproveitada (SmtpConnection). Falhas transitórias voltam para a fila com backoff exponencial;
+// ao esgotar as tentativas (ou em erro permanente, como endereço inválido) o e-mail vai para email_dead_letter.
+// Com a fila cheia, enqueue bloqueia até enqueue-timeout-ms: o consumer desacelera em vez de acumular memória.
+@Slf4j
+@Component
+public class EmailDispatcher {
+
+  private static final long POLL_INTERVAL_MS = 500;
+
+  private final JavaMailSenderImpl mailSender;
+  private final EmailDeadLetterRepository deadLetterRepository;
+
+  private final String from;
+  private final int workers;
+  private final int batchSize;
+  private final long enqueueTimeoutMs;
+  private final long idleCloseMs;
+  private final int maxAttempts;
+  private final long initialBackoffMs;
+  private final long maxBackoffMs;
+  private final long shutdownDrainMs;
+
+  private final BlockingQueue<OutgoingEmail> queue;
+  // e-mails aguardando o backoff; persistidos como dead letter se o serviço desligar antes
+  private final Set<OutgoingEmail> waitingRetry = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private final ExecutorService workerPool;
+  private final ScheduledExecutorService retryScheduler;
+  private volatile boolean running = true;
+
+  private final Counter sent;
+  private final Counter retried;
+  private final Counter rejected;
+  private final Counter connectionsOpened;
+  private final Counter deadLetteredExhausted;
+  private final Counter deadLetteredPermanent;
+  private final Counter deadLetteredShutdown;
+  private final Timer sendDuration;
+  private final Timer deliveryLatency;
+
+  public EmailDispatcher(
+    JavaMailSenderImpl mailSender,
+    EmailDeadLetterRepository deadLetterRepository,
+    MeterRegistry meterRegistry,
+    @Value("${application.notification.mail.from:sistema@hms.com}") String from,
+    @Value("${application.notification.mail.queue-capacity:2000}") int queueCapacity,
+    @Value("${application.notification.mail.workers:4}") int workers,
+    @Value("${application.notification.mail.batch-size:50}") int batchSize,
+    @Value("${application.notification.mail.enqueue-timeout-ms:2000}") long enqueueTimeoutMs,
+    @Value("${application.notification.mail.idle-close-ms:30000}") long idleCloseMs,
+    @Value("${application.notification.mail.max-attempts:4}") int maxAttempts,
+    @Value("${application.notification.mail.initial-backoff-ms:2000}") long initialBackoffMs,
+    @Value("${application.notification.mail.max-backoff-ms:60000}") long maxBackoffMs,
+    @Value("${application.notification.mail.shutdown-drain-ms:10000}") long shutdownDrainMs
+  ) {
+    this.mailSender = mailSender;
+    this.deadLetterRepository = deadLetterRepository;
+    this.from = from;
+    this.workers = workers;
+    this.batchSize = batchSize;
+    this.enqueueTimeoutMs = enqueueTimeoutMs;
+    this.idleCloseMs = idleCloseMs;
+    this.maxAttempts = maxAttempts;
+    this.initialBackoffMs = initialBackoffMs;
+    this.maxBackoffMs = maxBackoffMs;
+    this.shutdownDrainMs = shutdownDrainMs;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+    AtomicInteger workerIndex = new AtomicInteger();
+    this.workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+      Thread thread = new Thread(runnable, "email-dispatch-" + workerIndex.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "email-retry");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    Gauge.builder("notification.email.queue.depth", queue, BlockingQueue::size)
+      .description("E-mails aguardando envio")
+      .register(meterRegistry);
+    Gauge.builder("notification.email.retry.waiting", waitingRetry, Set::size)
+      .description("E-mails aguardando o backoff para nova tentativa")
+      .register(meterRegistry);
+    Gauge.builder("notification.email.in.flight", inFlight, AtomicInteger::get)
+      .register(meterRegistry);
+
+    this.sent = Counter.builder("notification.email.sent").register(meterRegistry);
+    this.retried = Counter.builder("notification.email.retried").register(meterRegistry);
+    this.rejected = Counter.builder("notification.email.rejected")
+      .description("E-mails recusados por fila cheia")
+      .register(meterRegistry);
+    this.connectionsOpened = Counter.builder("notification.email.smtp.connections").register(meterRegistry);
+    this.deadLetteredExhausted = deadLetterCounter(meterRegistry, "exhausted");
+    this.deadLetteredPermanent = deadLetterCounter(meterRegistry, "permanent");
+    this.deadLetteredShutdown = deadLetterCounter(meterRegistry, "shutdown");
+    this.sendDuration = Timer.builder("notification.email.send.duration")
+      .description("Tempo da transação SMTP de uma mensagem")
+      .publishPercentileHistogram()
+      .register(meterRegistry);
+    this.deliveryLatency = Timer.builder("notification.email.delivery.latency")
+      .description("Tempo entre enfileirar e o servidor SMTP aceitar a mensagem (inclui tentativas)")
+      .publishPercentileHistogram()
+      .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void start() {
+    for (int i = 0; i < workers; i++) {
+      workerPool.execute(this::workLoop);
+    }
+  }
+
+  public void enqueue(OutgoingEmail email) {
+    if (!running) {
+      throw new ServiceUnavailableException("email-dispatch");
+    }
+    try {
+      if (queue.offer(email, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    rejected.increment();
+    throw new ServiceUnavailableException("email-dispatch");
+  }
+
+  public int queueDepth() {
+    return queue.size();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    running = false;
+    retryScheduler.shutdownNow();
+    workerPool.shutdown();
+    try {
+      if (!workerPool.awaitTermination(shutdownDrainMs, TimeUnit.MILLISECONDS)) {
+        workerPool.shutdownNow();
+        workerPool.awaitTermination(2, TimeUnit.SECONDS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    // o que não saiu fica registrado para reenvio manual
+    List<OutgoingEmail> leftovers = new ArrayList<>(waitingRetry);
+    queue.drainTo(leftovers);
+    if (!leftovers.isEmpty()) {
+      log.warn("{} e-mails não enviados no desligamento; movidos para a dead letter", leftovers.size());
+      leftovers.forEach(email -> deadLetter(email, "Serviço desligado antes do envio", deadLetteredShutdown));
+    }
+  }
+
+  private void workLoop() {
+    List<OutgoingEmail> batch = new ArrayList<>(batchSize);
+    long lastActivity = System.currentTimeMillis();
+    try (SmtpConnection connection = new SmtpConnection(mailSender, connectionsOpened::increment)) {
+      while (running || !queue.isEmpty()) {
+        OutgoingEmail first;
+        try {
+          // espera curta para perceber o desligamento sem depender de interrupção
+          first = queue.poll(running ? POLL_INTERVAL_MS : 0, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        if (first == null) {
+          // ocioso: libera a sessão SMTP; a próxima mensagem reconecta
+          if (connection.isOpen() && System.currentTimeMillis() - lastActivity >= idleCloseMs) {
+            connection.close();
+          }
+          continue;
+        }
+
+        batch.clear();
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        inFlight.addAndGet(batch.size());
+        for (OutgoingEmail email : batch) {
+          try {
+            deliver(connection, email);
+          } finally {
+            inFlight.decrementAndGet();
+          }
+        }
+        lastActivity = System.currentTimeMillis();
+      }
+    }
+  }
+
+  private void deliver(SmtpConnection connection, OutgoingEmail email) {
+    try {
+      MimeMessage message = toMimeMessage(email);
+      long start = System.nanoTime();
+      connection.send(message);
+      sendDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      deliveryLatency.record(System.nanoTime() - email.queuedAtNanos(), TimeUnit.NANOSECONDS);
+      sent.increment();
+    } catch (AddressException e) {
+      deadLetter(email, e.getMessage(), deadLetteredPermanent);
+    } catch (SendFailedException e) {
+      connection.close();
+      if (isTransient(e)) {
+        // 4xx (caixa ocupada, limite temporário, greylisting): o servidor pede para tentar mais tarde
+        retryOrDeadLetter(email, e);
+      } else {
+        // destinatário recusado pelo servidor (5xx): repetir não adianta
+        deadLetter(email, e.getMessage(), deadLetteredPermanent);
+      }
+    } catch (MessagingException | RuntimeException e) {
+      // a sessão pode ter ficado inconsistente; a próxima mensagem abre outra
+      connection.close();
+      retryOrDeadLetter(email, e);
+    }
+  }
+
+  // códigos 4xx do SMTP são temporários (RFC 5321); a exceção de topo costuma trazer as dos destinatários
+  // encadeadas em getNextException. Sem código conhecido, trata como permanente
+  static boolean isTransient(MessagingException error) {
+    Exception current = error;
+    while (current != null) {
+      int code = smtpReturnCode(current);
+      if (code > 0) {
+        return code >= 400 && code < 500;
+      }
+      current = current instanceof MessagingException messaging ? messaging.getNextException() : null;
+    }
+    return false;
+  }
+
+  private static int smtpReturnCode(Exception error) {
+    if (error instanceof SMTPSendFailedException e) {
+      return e.getReturnCode();
+    }
+    if (error instanceof SMTPAddressFailedException e) {
+      return e.getReturnCode();
+    }
+    if (error instanceof SMTPSenderFailedException e) {
+      return e.getReturnCode();
+    }
+    return -1;
+  }
+
+  private MimeMessage toMimeMessage(OutgoingEmail email) throws MessagingException {
+    MimeMessage message = mailSender.createMimeMessage();
+    MimeMessageHelper helper = new MimeMessageHelper(
+      message,
+      MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
+      StandardCharsets.UTF_8.name()
+    );
+    helper.setTo(email.to());
+    helper.setSubject(email.subject());
+    helper.setFrom(from);
+    helper.setText(email.htmlBody(), true);
+    return message;
+  }
+
+  private void retryOrDeadLetter(OutgoingEmail email, Exception error) {
+    if (email.attempt() >= maxAttempts || !running) {
+      log.error("E-mail para {} falhou após {} tentativa(s): {}", email.to(), email.attempt(), error.getMessage());
+      deadLetter(email, error.getMessage(), deadLetteredExhausted);
+      return;
+    }
+
+    long backoff = Math.min(maxBackoffMs, initialBackoffMs << (email.attempt() - 1));
+    log.warn("Falha ao enviar e-mail para {} (tentativa {}), nova tentativa em {} ms: {}",
+      email.to(), email.attempt(), backoff, error.getMessage());
+    retried.increment();
+    scheduleRetry(email.nextAttempt(), backoff);
+  }
+
+  private void scheduleRetry(OutgoingEmail email, long delayMs) {
+    waitingRetry.add(email);
+    try {
+      retryScheduler.schedule(() -> {
+        waitingRetry.remove(email);
+        // fila cheia: espera mais um pouco sem gastar tentativa
+        if (!queue.offer(email)) {
+          scheduleRetry(email, initialBackoffMs);
+        }
+      }, delayMs, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // desligando: fica em waitingRetry e vira dead letter no shutdown
+    }
+  }
+
+  private void deadLetter(OutgoingEmail email, String error, Counter counter) {
+    counter.increment();
+    try {
+      deadLetterRepository.save(EmailDeadLetter.builder()
+        .recipient(email.to())
+        .subject(email.subject())
+        .htmlBody(email.htmlBody())
+        .attempts(email.attempt())
+        .lastError(truncate(error))
+        .build());
+    } catch (Exception e) {
+      log.error("Falha ao gravar e-mail para {} na dead letter: {}", email.to(), e.getMessage());
+    }
+  }
+
+  private static Counter deadLetterCounter(MeterRegistry meterRegistry, String reason) {
+    return Counter.builder("notification.email.dead.lettered")
+      .tag("reason", reason)
+      .register(meterRegistry);
+  }
+
+  private static String truncate(String error) {
+    if (error == null) {
+      return null;
+    }
+    return error.length() > 1000 ? error.substring(0, 1000) : error;
+  }
+}
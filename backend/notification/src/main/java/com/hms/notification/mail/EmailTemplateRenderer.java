@@ -0,0 +1,310 @@
+package com.hms.notification.mail;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.unbescape.html.HtmlEscape;
+import org.unbescape.html.HtmlEscapeLevel;
+import org.unbescape.html.HtmlEscapeType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Renderização dos e-mails.
+// Na subida, cada template simples (só th:text/th:utext/th:href com ${variavel} e fragmentos estáticos) é
+// pré-compilado: o Thymeleaf renderiza uma vez com marcadores no lugar das variáveis e a saída é cortada em
+// trechos estáticos imutáveis. Por mensagem sobra só concatenar e escapar os valores, num StringBuilder
+// reaproveitado por thread. O escape de cada posição é descoberto renderizando um valor de prova, e o resultado
+// é conferido contra o Thymeleaf; template com lógica (th:if, th:each...) ou que não confira segue pelo Thymeleaf.
+@Slf4j
+@Component
+public class EmailTemplateRenderer {
+
+  private static final Pattern TH_ATTRIBUTE = Pattern.compile("th:([\\w-]+)\\s*=\\s*\"([^\"]*)\"");
+  private static final Pattern SIMPLE_VARIABLE = Pattern.compile("\\$\\{\\s*(\\w+)\\s*}");
+  private static final Pattern FRAGMENT_REFERENCE = Pattern.compile("~\\{\\s*([\\w/.-]+)\\s*::");
+  private static final Set<String> VALUE_ATTRIBUTES = Set.of("text", "utext", "href", "src", "alt", "title", "value");
+  private static final Set<String> STATIC_ATTRIBUTES = Set.of("replace", "insert", "fragment");
+
+  // valor de prova: caracteres que cada modo de escape trata de forma diferente
+  private static final String PROBE = "<&>\"'é";
+  private static final List<UnaryOperator<String>> ESCAPERS = escapers();
+
+  private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+  private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+  private final SpringTemplateEngine templateEngine;
+  private final ResourceLoader resourceLoader;
+  private final List<String> templates;
+  private final String prefix;
+  private final String suffix;
+
+  private final Map<String, CompiledEmailTemplate> compiled = new ConcurrentHashMap<>();
+  private final Timer compiledRenders;
+  private final Timer thymeleafRenders;
+
+  public EmailTemplateRenderer(
+    SpringTemplateEngine templateEngine,
+    ResourceLoader resourceLoader,
+    MeterRegistry meterRegistry,
+    @Value("${application.notification.mail.templates:email-template,lab-result-email,password-reset-email}") List<String> templates,
+    @Value("${spring.thymeleaf.prefix:classpath:/templates/}") String prefix,
+    @Value("${spring.thymeleaf.suffix:.html}") String suffix
+  ) {
+    this.templateEngine = templateEngine;
+    this.resourceLoader = resourceLoader;
+    this.templates = templates;
+    this.prefix = prefix;
+    this.suffix = suffix;
+    this.compiledRenders = renderTimer(meterRegistry, "compiled");
+    this.thymeleafRenders = renderTimer(meterRegistry, "thymeleaf");
+  }
+
+  @PostConstruct
+  public void precompile() {
+    for (String template : templates) {
+      try {
+        CompiledEmailTemplate result = compile(template);
+        if (result != null) {
+          compiled.put(template, result);
+        }
+      } catch (Exception e) {
+        log.warn("Template de e-mail '{}' não pôde ser pré-compilado; será renderizado pelo Thymeleaf: {}", template, e.getMessage());
+      }
+    }
+    log.info("Templates de e-mail pré-compilados: {}", compiled.keySet());
+  }
+
+  public String render(String template, Map<String, ?> variables) {
+    StringBuilder buffer = buffer();
+    CompiledEmailTemplate compiledTemplate = compiled.get(template);
+
+    long start = System.nanoTime();
+    if (compiledTemplate != null && CompiledEmailTemplate.supports(variables)) {
+      compiledTemplate.renderTo(buffer, variables);
+      compiledRenders.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    } else {
+      Context context = new Context();
+      context.setVariables(new HashMap<>(variables));
+      templateEngine.process(template, context, new StringBuilderWriter(buffer));
+      thymeleafRenders.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+    return buffer.toString();
+  }
+
+  boolean isCompiled(String template) {
+    return compiled.containsKey(template);
+  }
+
+  private CompiledEmailTemplate compile(String template) throws IOException {
+    Set<String> variables = new LinkedHashSet<>();
+    if (!collectVariables(template, variables, new HashSet<>())) {
+      log.info("Template de e-mail '{}' usa lógica do Thymeleaf; sem pré-compilação", template);
+      return null;
+    }
+
+    String nonce = UUID.randomUUID().toString().replace("-", "");
+    List<String> names = List.copyOf(variables);
+    Pattern markerPattern = Pattern.compile("HMS" + nonce + "x(\\d+)x");
+
+    // 1ª passada: marcadores puros delimitam os trechos estáticos
+    Map<String, Object> markers = new HashMap<>();
+    for (int i = 0; i < names.size(); i++) {
+      markers.put(names.get(i), marker(nonce, i));
+    }
+    String markedOutput = thymeleaf(template, markers);
+
+    List<String> segments = new ArrayList<>();
+    List<Integer> slotVariables = new ArrayList<>();
+    Matcher matcher = markerPattern.matcher(markedOutput);
+    int last = 0;
+    while (matcher.find()) {
+      segments.add(markedOutput.substring(last, matcher.start()));
+      slotVariables.add(Integer.parseInt(matcher.group(1)));
+      last = matcher.end();
+    }
+    segments.add(markedOutput.substring(last));
+
+    // 2ª passada: marcador + valor de prova revela como cada posição escapa o valor
+    Map<String, Object> probes = new HashMap<>();
+    for (int i = 0; i < names.size(); i++) {
+      probes.put(names.get(i), marker(nonce, i) + PROBE);
+    }
+    String probedOutput = thymeleaf(template, probes);
+
+    List<CompiledEmailTemplate.Slot> slots = new ArrayList<>();
+    matcher = markerPattern.matcher(probedOutput);
+    List<int[]> positions = new ArrayList<>();
+    while (matcher.find()) {
+      positions.add(new int[]{matcher.start(), matcher.end()});
+    }
+    if (positions.size() != slotVariables.size()) {
+      return null;
+    }
+    for (int k = 0; k < positions.size(); k++) {
+      String nextSegment = segments.get(k + 1);
+      int nextStart = k + 1 < positions.size() ? positions.get(k + 1)[0] : probedOutput.length();
+      int escapedEnd = nextStart - nextSegment.length();
+      if (escapedEnd < positions.get(k)[1] || !probedOutput.startsWith(nextSegment, escapedEnd)) {
+        return null;
+      }
+      UnaryOperator<String> escaper = escaperFor(probedOutput.substring(positions.get(k)[1], escapedEnd));
+      if (escaper == null) {
+        return null;
+      }
+      slots.add(new CompiledEmailTemplate.Slot(names.get(slotVariables.get(k)), escaper));
+    }
+
+    CompiledEmailTemplate result = new CompiledEmailTemplate(template, List.copyOf(segments), List.copyOf(slots));
+
+    // conferência final com valores reais contra o Thymeleaf
+    Map<String, Object> sample = new HashMap<>();
+    names.forEach(name -> sample.put(name, "Valor <b>&\"" + name + "\"</b> ção"));
+    StringBuilder rendered = new StringBuilder();
+    result.renderTo(rendered, sample);
+    if (!rendered.toString().equals(thymeleaf(template, sample))) {
+      log.warn("Template de e-mail '{}' pré-compilado divergiu do Thymeleaf; sem pré-compilação", template);
+      return null;
+    }
+    return result;
+  }
+
+  // variáveis do template e dos fragmentos que ele inclui; false se houver qualquer coisa além de ${variavel}
+  private boolean collectVariables(String template, Set<String> variables, Set<String> visited) throws IOException {
+    if (!visited.add(template)) {
+      return true;
+    }
+    Resource resource = resourceLoader.getResource(prefix + template + suffix);
+    if (!resource.exists()) {
+      return false;
+    }
+    String source = resource.getContentAsString(StandardCharsets.UTF_8);
+    if (source.contains("[[") || source.contains("[(")) {
+      return false;
+    }
+
+    Matcher attributes = TH_ATTRIBUTE.matcher(source);
+    while (attributes.find()) {
+      String attribute = attributes.group(1);
+      String expression = attributes.group(2).trim();
+      if (VALUE_ATTRIBUTES.contains(attribute)) {
+        Matcher variable = SIMPLE_VARIABLE.matcher(expression);
+        if (!variable.matches()) {
+          return false;
+        }
+        variables.add(variable.group(1));
+      } else if (STATIC_ATTRIBUTES.contains(attribute)) {
+        if (expression.contains("${")) {
+          return false;
+        }
+        Matcher fragment = FRAGMENT_REFERENCE.matcher(expression);
+        if (fragment.find() && !collectVariables(fragment.group(1), variables, visited)) {
+          return false;
+        }
+      } else {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private String thymeleaf(String template, Map<String, Object> variables) {
+    Context context = new Context();
+    context.setVariables(variables);
+    return templateEngine.process(template, context);
+  }
+
+  private static UnaryOperator<String> escaperFor(String escapedProbe) {
+    for (UnaryOperator<String> escaper : ESCAPERS) {
+      if (escaper.apply(PROBE).equals(escapedProbe)) {
+        return escaper;
+      }
+    }
+    return null;
+  }
+
+  private static List<UnaryOperator<String>> escapers() {
+    List<UnaryOperator<String>> escapers = new ArrayList<>();
+    escapers.add(UnaryOperator.identity());
+    for (HtmlEscapeLevel level : HtmlEscapeLevel.values()) {
+      for (HtmlEscapeType type : HtmlEscapeType.values()) {
+        escapers.add(value -> HtmlEscape.escapeHtml(value, type, level));
+      }
+    }
+    return List.copyOf(escapers);
+  }
+
+  private static String marker(String nonce, int index) {
+    return "HMS" + nonce + "x" + index + "x";
+  }
+
+  private static StringBuilder buffer() {
+    StringBuilder buffer = BUFFER.get();
+    if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+      // não segura para sempre o buffer de um e-mail excepcionalmente grande
+      buffer = new StringBuilder(8 * 1024);
+      BUFFER.set(buffer);
+    }
+    buffer.setLength(0);
+    return buffer;
+  }
+
+  private static Timer renderTimer(MeterRegistry meterRegistry, String mode) {
+    return Timer.builder("notification.email.render")
+      .description("Tempo de renderização de um e-mail")
+      .tag("mode", mode)
+      .register(meterRegistry);
+  }
+
+  private static final class StringBuilderWriter extends Writer {
+    private final StringBuilder target;
+
+    private StringBuilderWriter(StringBuilder target) {
+      this.target = target;
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) {
+      target.append(chars, offset, length);
+    }
+
+    @Override
+    public void write(String value, int offset, int length) {
+      target.append(value, offset, offset + length);
+    }
+
+    @Override
+    public void write(int character) {
+      target.append((char) character);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
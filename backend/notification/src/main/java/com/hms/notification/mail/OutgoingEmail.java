@@ -0,0 +1,20 @@
+package com.hms.notification.mail;
+
+// E-mail já renderizado aguardando envio.
+// attempt começa em 1; a cada falha transitória o dispatcher reenfileira uma cópia com attempt + 1.
+public record OutgoingEmail(
+  String to,
+  String subject,
+  String htmlBody,
+  int attempt,
+  long queuedAtNanos
+) {
+
+  public static OutgoingEmail of(String to, String subject, String htmlBody) {
+    return new OutgoingEmail(to, subject, htmlBody, 1, System.nanoTime());
+  }
+
+  public OutgoingEmail nextAttempt() {
+    return new OutgoingEmail(to, subject, htmlBody, attempt + 1, queuedAtNanos);
+  }
+}
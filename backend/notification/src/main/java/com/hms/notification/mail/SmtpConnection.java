@@ -0,0 +1,56 @@
+package com.hms.notification.mail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+// Conexão SMTP mantida aberta por um worker do EmailDispatcher.
+// O JavaMailSender abre e fecha uma sessão SMTP (EHLO, STARTTLS, AUTH) a cada envio; aqui a sessão é
+// reaproveitada entre mensagens e só é refeita após erro ou ociosidade. Não é thread-safe: um por worker.
+class SmtpConnection implements AutoCloseable {
+
+  private final JavaMailSenderImpl mailSender;
+  private final Runnable onConnect;
+  private Transport transport;
+
+  SmtpConnection(JavaMailSenderImpl mailSender, Runnable onConnect) {
+    this.mailSender = mailSender;
+    this.onConnect = onConnect;
+  }
+
+  void send(MimeMessage message) throws MessagingException {
+    if (transport == null || !transport.isConnected()) {
+      connect();
+    }
+    message.saveChanges();
+    transport.sendMessage(message, message.getAllRecipients());
+  }
+
+  private void connect() throws MessagingException {
+    close();
+    String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+    Transport newTransport = mailSender.getSession().getTransport(protocol);
+    newTransport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+    transport = newTransport;
+    onConnect.run();
+  }
+
+  boolean isOpen() {
+    return transport != null;
+  }
+
+  @Override
+  public void close() {
+    if (transport == null) {
+      return;
+    }
+    try {
+      transport.close();
+    } catch (MessagingException ignored) {
+      // servidor já encerrou a sessão
+    } finally {
+      transport = null;
+    }
+  }
+}
@@ -0,0 +1,7 @@
+package com.hms.notification.repositories;
+
+import com.hms.notification.entities.EmailDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EmailDeadLetterRepository extends JpaRepository<EmailDeadLetter, Long> {
+}
@@ -0,0 +1,18 @@
+package com.hms.notification.repositories;
+
+import com.hms.notification.entities.EmailDigestEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailDigestEntryRepository extends JpaRepository<EmailDigestEntry, Long> {
+
+  @Query("SELECT DISTINCT e.recipientEmail FROM EmailDigestEntry e WHERE e.createdAt < :cutoff ORDER BY e.recipientEmail")
+  List<String> findRecipientsBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+  List<EmailDigestEntry> findByRecipientEmailAndCreatedAtBeforeOrderByCreatedAtAsc(String recipientEmail, LocalDateTime cutoff);
+}
@@ -0,0 +1,68 @@
+package com.hms.notification.repositories;
+
+import com.hms.notification.entities.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+// Acesso JDBC direto para escrita em lote (INSERT multi-linha) das notificações in-app.
+// Com IDENTITY o Hibernate não agrupa inserts; aqui cada bloco é um único comando e os IDs gerados
+// voltam para as entidades (usados no push SSE).
+@Repository
+@RequiredArgsConstructor
+public class NotificationBatchRepository {
+
+  private static final String INSERT_PREFIX =
+    "INSERT INTO notification (recipient_id, title, message, type, is_read, created_at) VALUES ";
+  private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  // insere as notificações em blocos de até rowsPerStatement linhas por comando, tudo ou nada
+  @Transactional
+  public void insertAll(List<Notification> notifications, int rowsPerStatement) {
+    for (int start = 0; start < notifications.size(); start += rowsPerStatement) {
+      List<Notification> chunk = notifications.subList(start, Math.min(start + rowsPerStatement, notifications.size()));
+
+      StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + chunk.size() * (ROW_PLACEHOLDER.length() + 2));
+      sql.append(INSERT_PREFIX);
+      for (int i = 0; i < chunk.size(); i++) {
+        if (i > 0) {
+          sql.append(", ");
+        }
+        sql.append(ROW_PLACEHOLDER);
+      }
+
+      KeyHolder keyHolder = new GeneratedKeyHolder();
+      jdbcTemplate.update(connection -> {
+        PreparedStatement statement = connection.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS);
+        int i = 1;
+        for (Notification notification : chunk) {
+          statement.setString(i++, notification.getRecipientId());
+          statement.setString(i++, notification.getTitle());
+          statement.setString(i++, notification.getMessage());
+          statement.setString(i++, notification.getType() != null ? notification.getType().name() : null);
+          statement.setBoolean(i++, notification.isRead());
+          statement.setTimestamp(i++, Timestamp.valueOf(notification.getCreatedAt()));
+        }
+        return statement;
+      }, keyHolder);
+
+      // os IDs gerados por um INSERT multi-linha voltam na ordem das linhas
+      List<Map<String, Object>> keys = keyHolder.getKeyList();
+      for (int i = 0; i < chunk.size() && i < keys.size(); i++) {
+        Object id = keys.get(i).values().iterator().next();
+        chunk.get(i).setId(((Number) id).longValue());
+      }
+    }
+  }
+}
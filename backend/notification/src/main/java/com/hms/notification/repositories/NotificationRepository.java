@@ -1,12 +1,49 @@
 package com.hms.notification.repositories;
 
 import com.hms.notification.entities.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-  List<Notification> findByRecipientIdOrderByCreatedAtDesc(String recipientId);
-
   List<Notification> findByRecipientIdOrRecipientIdOrderByCreatedAtDesc(String userId, String roleId);
-}
\ No newline at end of file
+
+  // paginação keyset: usa o índice (recipient_id, created_at, id) sem OFFSET
+  @Query("SELECT n FROM Notification n WHERE n.recipientId = :recipientId ORDER BY n.createdAt DESC, n.id DESC")
+  List<Notification> findLatest(@Param("recipientId") String recipientId, Pageable pageable);
+
+  @Query("""
+    SELECT n FROM Notification n
+    WHERE n.recipientId = :recipientId
+      AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id))
+    ORDER BY n.createdAt DESC, n.id DESC
+    """)
+  List<Notification> findBefore(
+    @Param("recipientId") String recipientId,
+    @Param("createdAt") LocalDateTime createdAt,
+    @Param("id") Long id,
+    Pageable pageable
+  );
+
+  // replay do stream SSE a partir do Last-Event-ID
+  List<Notification> findByRecipientIdInAndIdGreaterThanOrderByIdAsc(Collection<String> recipientIds, Long id, Pageable pageable);
+
+  long countByRecipientIdAndReadFalse(String recipientId);
+
+  @Modifying
+  @Query("UPDATE Notification n SET n.read = true WHERE n.recipientId = :recipientId AND n.read = false")
+  int markAllAsRead(@Param("recipientId") String recipientId);
+
+  // retenção: apaga em lotes (uma transação por lote) para não segurar locks longos na tabela
+  @Transactional
+  @Modifying
+  @Query(value = "DELETE FROM notification WHERE is_read = TRUE AND created_at < :cutoff LIMIT :batchSize", nativeQuery = true)
+  int deleteReadBefore(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,35 @@
+package com.hms.notification.services;
+
+import com.hms.common.dto.response.PagedResponse;
+import com.hms.common.exceptions.ResourceNotFoundException;
+import com.hms.notification.dto.response.EmailDeadLetterResponse;
+import com.hms.notification.entities.EmailDeadLetter;
+import com.hms.notification.mail.EmailDispatcher;
+import com.hms.notification.mail.OutgoingEmail;
+import com.hms.notification.repositories.EmailDeadLetterRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class EmailDeadLetterService {
+
+  private final EmailDeadLetterRepository deadLetterRepository;
+  private final EmailDispatcher emailDispatcher;
+
+  public PagedResponse<EmailDeadLetterResponse> list(Pageable pageable) {
+    return PagedResponse.of(deadLetterRepository.findAll(pageable).map(EmailDeadLetterResponse::fromEntity));
+  }
+
+  // reenfileira com as tentativas zeradas; se falhar de novo, volta para a dead letter
+  @Transactional
+  public void retry(Long id) {
+    EmailDeadLetter deadLetter = deadLetterRepository.findById(id)
+      .orElseThrow(() -> new ResourceNotFoundException("EmailDeadLetter", id));
+
+    emailDispatcher.enqueue(OutgoingEmail.of(deadLetter.getRecipient(), deadLetter.getSubject(), deadLetter.getHtmlBody()));
+    deadLetterRepository.delete(deadLetter);
+  }
+}
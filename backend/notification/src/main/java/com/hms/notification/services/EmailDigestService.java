@@ -0,0 +1,97 @@
+package com.hms.notification.services;
+
+import com.hms.notification.entities.EmailDigestEntry;
+import com.hms.notification.enums.NotificationType;
+import com.hms.notification.repositories.EmailDigestEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Resumo diário por e-mail: para os tipos configurados, o consumer acumula um item por evento em vez de
+// mandar um e-mail na hora, e uma vez por dia cada destinatário recebe um único e-mail com tudo.
+// A notificação in-app continua imediata.
+@Slf4j
+@Service
+public class EmailDigestService {
+
+  private final EmailDigestEntryRepository digestRepository;
+  private final EmailService emailService;
+  private final Set<NotificationType> types;
+  private final int recipientsPerPage;
+
+  public EmailDigestService(
+    EmailDigestEntryRepository digestRepository,
+    EmailService emailService,
+    @Value("${application.notification.digest.types:}") Set<NotificationType> types,
+    @Value("${application.notification.digest.recipients-per-page:500}") int recipientsPerPage
+  ) {
+    this.digestRepository = digestRepository;
+    this.emailService = emailService;
+    this.types = Set.copyOf(types);
+    this.recipientsPerPage = recipientsPerPage;
+  }
+
+  public boolean isDigested(NotificationType type) {
+    return types.contains(type);
+  }
+
+  public void add(String recipientEmail, String recipientName, NotificationType type, String title, String message, String actionUrl) {
+    digestRepository.save(EmailDigestEntry.builder()
+      .recipientEmail(recipientEmail)
+      .recipientName(recipientName)
+      .type(type)
+      .title(title)
+      .message(message)
+      .actionUrl(actionUrl)
+      .build());
+  }
+
+  /**
+   * Envia um e-mail por destinatário com todos os itens acumulados até agora e remove os enviados.
+   * Roda todos os dias às 7 da manhã; se a fila de envio estiver cheia, o restante fica para a próxima execução.
+   */
+  @Scheduled(cron = "${application.notification.digest.cron:0 0 7 * * ?}")
+  public int sendDailyDigests() {
+    LocalDateTime cutoff = LocalDateTime.now();
+
+    int sent = 0;
+    List<String> recipients;
+    do {
+      // os itens enviados são apagados, então a próxima página é sempre a primeira
+      recipients = digestRepository.findRecipientsBefore(cutoff, PageRequest.of(0, recipientsPerPage));
+      for (String recipient : recipients) {
+        List<EmailDigestEntry> entries = digestRepository.findByRecipientEmailAndCreatedAtBeforeOrderByCreatedAtAsc(recipient, cutoff);
+        try {
+          sendDigest(recipient, entries);
+        } catch (Exception e) {
+          log.warn("Resumo diário interrompido em {} ({} enviados); restante fica para a próxima execução: {}", recipient, sent, e.getMessage());
+          return sent;
+        }
+        digestRepository.deleteAllInBatch(entries);
+        sent++;
+      }
+    } while (recipients.size() == recipientsPerPage);
+
+    if (sent > 0) {
+      log.info("Resumo diário: {} e-mails enviados.", sent);
+    }
+    return sent;
+  }
+
+  private void sendDigest(String recipient, List<EmailDigestEntry> entries) {
+    Map<String, Object> variables = new HashMap<>();
+    variables.put("recipientName", entries.getLast().getRecipientName());
+    variables.put("entries", entries);
+
+    String subject = "Resumo diário HMS - " + entries.size() + (entries.size() == 1 ? " novidade" : " novidades");
+    emailService.sendTemplatedEmail(recipient, subject, "digest-email", variables);
+  }
+}
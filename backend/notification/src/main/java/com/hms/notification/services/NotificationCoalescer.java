@@ -0,0 +1,171 @@
+package com.hms.notification.services;
+
+import com.hms.notification.entities.Notification;
+import com.hms.notification.enums.NotificationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+// Agrupa notificações in-app repetitivas (chat, avaliações...) por destinatário + tipo + chave de grupo
+// dentro de uma janela. O primeiro evento sai na hora (borda de subida) e abre o grupo; os seguintes até
+// window-ms depois viram uma linha só ao fim da janela ("4 novas mensagens de X"). Quem não recebe rajada
+// não espera nada. Grupos abertos ficam em memória: no shutdown tudo é gravado, mas um crash perde os
+// resumos em aberto (as mensagens de origem continuam nos serviços de chat/avaliação).
+@Slf4j
+@Service
+public class NotificationCoalescer {
+
+  private final NotificationService notificationService;
+  private final boolean enabled;
+  private final Set<NotificationType> types;
+  private final long windowNanos;
+  private final int maxOpenGroups;
+
+  private final Map<GroupKey, Group> open = new ConcurrentHashMap<>();
+  private final Counter receivedEvents;
+  private final Counter writtenRows;
+
+  public NotificationCoalescer(
+    NotificationService notificationService,
+    MeterRegistry meterRegistry,
+    @Value("${application.notification.coalescing.enabled:true}") boolean enabled,
+    @Value("${application.notification.coalescing.types:NEW_MESSAGE,NEW_REVIEW}") Set<NotificationType> types,
+    @Value("${application.notification.coalescing.window-ms:120000}") long windowMs,
+    @Value("${application.notification.coalescing.max-open-groups:50000}") int maxOpenGroups
+  ) {
+    this.notificationService = notificationService;
+    this.enabled = enabled;
+    this.types = Set.copyOf(types);
+    this.windowNanos = Duration.ofMillis(windowMs).toNanos();
+    this.maxOpenGroups = maxOpenGroups;
+
+    this.receivedEvents = Counter.builder("notification.coalescing.events")
+      .description("Eventos recebidos pelo agrupador de notificações")
+      .register(meterRegistry);
+    this.writtenRows = Counter.builder("notification.coalescing.rows")
+      .description("Linhas de notificação gravadas após o agrupamento")
+      .register(meterRegistry);
+    Gauge.builder("notification.coalescing.open.groups", open, Map::size)
+      .description("Grupos de notificação aguardando o fim da janela")
+      .register(meterRegistry);
+  }
+
+  /**
+   * Oferece uma notificação para agrupamento.
+   * summaryTitle monta o título do resumo a partir da quantidade (usado só quando há mais de um evento retido).
+   * Retorna false quando a notificação deve ser gravada agora pelo chamador: tipo não agrupável ou primeiro
+   * evento do grupo, que abre a janela.
+   */
+  public boolean offer(Notification notification, String groupKey, IntFunction<String> summaryTitle) {
+    if (!enabled || !types.contains(notification.getType()) || open.size() >= maxOpenGroups) {
+      return false;
+    }
+    receivedEvents.increment();
+
+    GroupKey key = new GroupKey(notification.getRecipientId(), notification.getType(), Objects.requireNonNullElse(groupKey, ""));
+    long now = System.nanoTime();
+    boolean[] leading = {false};
+    open.compute(key, (k, group) -> {
+      if (group == null) {
+        leading[0] = true;
+        return new Group(summaryTitle, now);
+      }
+      group.add(notification);
+      return group;
+    });
+    if (leading[0]) {
+      writtenRows.increment();
+      return false;
+    }
+    return true;
+  }
+
+  @Scheduled(fixedDelayString = "${application.notification.coalescing.flush-interval-ms:1000}")
+  public void flushExpired() {
+    flush(false);
+  }
+
+  @PreDestroy
+  public void flushAll() {
+    flush(true);
+  }
+
+  private void flush(boolean all) {
+    if (open.isEmpty()) {
+      return;
+    }
+    long now = System.nanoTime();
+    List<Notification> closed = new ArrayList<>();
+    for (GroupKey key : open.keySet()) {
+      // remoção dentro do compute: um evento concorrente cai no grupo antes de fechar ou abre um novo
+      open.computeIfPresent(key, (k, group) -> {
+        if (all || now - group.openedAtNanos >= windowNanos) {
+          // grupo só com o evento de abertura (já gravado) fecha sem gerar linha
+          if (group.count > 0) {
+            closed.add(group.toNotification());
+          }
+          return null;
+        }
+        return group;
+      });
+    }
+    if (closed.isEmpty()) {
+      return;
+    }
+
+    writtenRows.increment(closed.size());
+    try {
+      notificationService.sendNotifications(closed);
+    } catch (Exception e) {
+      log.error("Erro ao gravar {} notificações agrupadas: {}", closed.size(), e.getMessage(), e);
+    }
+  }
+
+  private record GroupKey(String recipientId, NotificationType type, String groupKey) {
+  }
+
+  // eventos retidos depois do que abriu o grupo
+  private static final class Group {
+    private final IntFunction<String> summaryTitle;
+    private final long openedAtNanos;
+    private Notification latest;
+    private int count;
+
+    private Group(IntFunction<String> summaryTitle, long openedAtNanos) {
+      this.summaryTitle = summaryTitle;
+      this.openedAtNanos = openedAtNanos;
+    }
+
+    private void add(Notification notification) {
+      latest = notification;
+      count++;
+    }
+
+    private Notification toNotification() {
+      if (count == 1) {
+        return latest;
+      }
+      // título resume o grupo; a mensagem é a do evento mais recente
+      return Notification.builder()
+        .recipientId(latest.getRecipientId())
+        .type(latest.getType())
+        .title(summaryTitle.apply(count))
+        .message(latest.getMessage())
+        .build();
+    }
+  }
+}
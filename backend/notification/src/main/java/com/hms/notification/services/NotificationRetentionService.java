@@ -0,0 +1,45 @@
+package com.hms.notification.services;
+
+import com.hms.notification.repositories.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationRetentionService {
+
+  private final NotificationRepository notificationRepository;
+
+  @Value("${application.notification.retention.read-days:90}")
+  private int readRetentionDays;
+
+  @Value("${application.notification.retention.batch-size:5000}")
+  private int batchSize;
+
+  /**
+   * Remove notificações já lidas mais antigas que o período de retenção.
+   * Roda todos os dias às 3 da manhã; não lidas nunca são apagadas.
+   */
+  @Scheduled(cron = "${application.notification.retention.cron:0 0 3 * * ?}")
+  public int purgeOldReadNotifications() {
+    LocalDateTime cutoff = LocalDateTime.now().minusDays(readRetentionDays);
+
+    int total = 0;
+    int deleted;
+    do {
+      deleted = notificationRepository.deleteReadBefore(cutoff, batchSize);
+      total += deleted;
+    } while (deleted == batchSize);
+
+    if (total > 0) {
+      log.info("Retenção de notificações: {} notificações lidas anteriores a {} removidas.", total, cutoff);
+    }
+    return total;
+  }
+}
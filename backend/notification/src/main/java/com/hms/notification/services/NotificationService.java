@@ -1,31 +1,101 @@
 package com.hms.notification.services;
 
 import com.hms.common.exceptions.ResourceNotFoundException;
+import com.hms.notification.dto.response.NotificationPageResponse;
 import com.hms.notification.dto.response.NotificationResponse;
 import com.hms.notification.entities.Notification;
 import com.hms.notification.repositories.NotificationRepository;
+import com.hms.notification.util.NotificationCursor;
+import com.hms.notification.repositories.NotificationBatchRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
   private final NotificationRepository notificationRepository;
+  private final NotificationBatchRepository notificationBatchRepository;
+  private final NotificationStreamService notificationStreamService;
+
+  @Value("${application.notification.inbox.max-page-size:100}")
+  private int maxPageSize;
+
+  @Value("${application.notification.batch.rows-per-statement:200}")
+  private int rowsPerStatement;
 
   public void sendNotification(Notification notification) {
-    notificationRepository.save(notification);
+    notificationStreamService.publish(notificationRepository.save(notification));
+  }
+
+  // notificações de um lote do consumer: um INSERT multi-linha em vez de um save por linha
+  public void sendNotifications(List<Notification> notifications) {
+    if (notifications.isEmpty()) {
+      return;
+    }
+
+    LocalDateTime now = LocalDateTime.now();
+    notifications.forEach(notification -> {
+      // o insert via JDBC não passa pelo @PrePersist
+      notification.setCreatedAt(now);
+      notification.setRead(false);
+    });
+
+    try {
+      notificationBatchRepository.insertAll(notifications, rowsPerStatement);
+    } catch (Exception e) {
+      // uma linha inválida não derruba o lote inteiro: grava uma a uma
+      log.warn("Falha no insert em lote de {} notificações, gravando individualmente: {}", notifications.size(), e.getMessage());
+      notifications.forEach(this::saveIndividually);
+      return;
+    }
+    notifications.forEach(notificationStreamService::publish);
+  }
+
+  private void saveIndividually(Notification notification) {
+    try {
+      notification.setId(null);
+      sendNotification(notification);
+    } catch (Exception e) {
+      log.error("Erro ao salvar notificação para {}: {}", notification.getRecipientId(), e.getMessage());
+    }
   }
 
-  public List<NotificationResponse> getUserNotifications(String recipientId) {
-    return notificationRepository.findByRecipientIdOrderByCreatedAtDesc(recipientId)
-      .stream()
-      .map(this::mapToResponse)
-      .collect(Collectors.toList());
+  public NotificationPageResponse getUserNotifications(String recipientId, String cursor, int size) {
+    int pageSize = Math.clamp(size, 1, maxPageSize);
+    // busca um item a mais só para saber se existe próxima página
+    Pageable limit = PageRequest.of(0, pageSize + 1);
+
+    List<Notification> rows;
+    if (cursor == null || cursor.isBlank()) {
+      rows = notificationRepository.findLatest(recipientId, limit);
+    } else {
+      NotificationCursor after = NotificationCursor.decode(cursor);
+      rows = notificationRepository.findBefore(recipientId, after.createdAt(), after.id(), limit);
+    }
+
+    boolean hasMore = rows.size() > pageSize;
+    List<Notification> page = hasMore ? rows.subList(0, pageSize) : rows;
+    String nextCursor = hasMore ? NotificationCursor.of(page.getLast()).encode() : null;
+
+    return new NotificationPageResponse(
+      page.stream().map(NotificationResponse::fromEntity).toList(),
+      nextCursor,
+      hasMore
+    );
+  }
+
+  public long countUnread(String recipientId) {
+    return notificationRepository.countByRecipientIdAndReadFalse(recipientId);
   }
 
   @Transactional
@@ -37,21 +107,9 @@ public class NotificationService {
     notificationRepository.save(notification);
   }
 
+  // um único UPDATE, sem carregar as notificações
   @Transactional
-  public void markAllAsRead(String recipientId) {
-    List<Notification> list = notificationRepository.findByRecipientIdOrderByCreatedAtDesc(recipientId);
-    list.forEach(n -> n.setRead(true));
-    notificationRepository.saveAll(list);
-  }
-
-  private NotificationResponse mapToResponse(Notification notification) {
-    return new NotificationResponse(
-      notification.getId(),
-      notification.getTitle(),
-      notification.getMessage(),
-      notification.getType(),
-      notification.isRead(),
-      notification.getCreatedAt()
-    );
+  public int markAllAsRead(String recipientId) {
+    return notificationRepository.markAllAsRead(recipientId);
   }
-}
\ No newline at end of file
+}
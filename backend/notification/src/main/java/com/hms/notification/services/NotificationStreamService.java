@@ -0,0 +1,208 @@
+package com.hms.notification.services;
+
+import com.hms.notification.dto.response.NotificationResponse;
+import com.hms.notification.entities.Notification;
+import com.hms.notification.repositories.NotificationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Push das notificações in-app via SSE.
+// O id de cada evento é o id da notificação (crescente): ao reconectar, o cliente envia Last-Event-ID
+// e recebe o que perdeu antes dos eventos ao vivo, sem precisar buscar a lista inteira.
+@Slf4j
+@Service
+public class NotificationStreamService {
+
+  static final String EVENT_NAME = "notification";
+
+  private final NotificationRepository notificationRepository;
+  private final long timeoutMs;
+  private final int replayLimit;
+  private final int maxStreamsPerUser;
+
+  // recipientId -> conexões abertas (um usuário pode ter várias abas)
+  private final Map<String, Set<StreamClient>> clients = new ConcurrentHashMap<>();
+  private final AtomicInteger openStreams = new AtomicInteger();
+  // ordem de conexão: o Set concorrente não preserva a ordem de inserção
+  private final AtomicLong connections = new AtomicLong();
+
+  // envio fora da thread do consumer do RabbitMQ: cliente lento não segura a fila
+  private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+
+  public NotificationStreamService(
+    NotificationRepository notificationRepository,
+    MeterRegistry meterRegistry,
+    @Value("${application.notification.stream.timeout-ms:1800000}") long timeoutMs,
+    @Value("${application.notification.stream.replay-limit:200}") int replayLimit,
+    @Value("${application.notification.stream.max-streams-per-user:5}") int maxStreamsPerUser
+  ) {
+    this.notificationRepository = notificationRepository;
+    this.timeoutMs = timeoutMs;
+    this.replayLimit = replayLimit;
+    this.maxStreamsPerUser = maxStreamsPerUser;
+
+    Gauge.builder("notification.stream.connections", openStreams, AtomicInteger::get)
+      .description("Conexões SSE de notificações abertas")
+      .register(meterRegistry);
+  }
+
+  public SseEmitter subscribe(List<String> recipientIds, Long lastEventId) {
+    SseEmitter emitter = new SseEmitter(timeoutMs);
+    StreamClient client = new StreamClient(emitter, recipientIds, connections.incrementAndGet());
+
+    // registra antes do replay: o que chegar durante o replay espera o lock do cliente e é deduplicado pelo id
+    synchronized (client) {
+      for (String recipientId : recipientIds) {
+        Set<StreamClient> streams = clients.computeIfAbsent(recipientId, id -> ConcurrentHashMap.newKeySet());
+        if (streams.size() >= maxStreamsPerUser) {
+          // a conexão mais antiga provavelmente é uma aba esquecida
+          streams.stream().min(Comparator.comparingLong(stream -> stream.connectedSeq)).ifPresent(StreamClient::close);
+        }
+        streams.add(client);
+      }
+      openStreams.incrementAndGet();
+
+      emitter.onCompletion(() -> unregister(client));
+      emitter.onTimeout(() -> unregister(client));
+      emitter.onError(error -> unregister(client));
+
+      replay(client, lastEventId);
+    }
+    return emitter;
+  }
+
+  // chamado após a notificação ser gravada
+  public void publish(Notification notification) {
+    Set<StreamClient> streams = clients.get(notification.getRecipientId());
+    if (streams == null || streams.isEmpty()) {
+      return;
+    }
+
+    NotificationResponse payload = NotificationResponse.fromEntity(notification);
+    for (StreamClient client : streams) {
+      try {
+        dispatcher.execute(() -> send(client, notification.getId(), payload));
+      } catch (RejectedExecutionException e) {
+        // desligando
+        return;
+      }
+    }
+  }
+
+  // comentário periódico: mantém proxies com a conexão aberta e descobre clientes que já caíram
+  @Scheduled(fixedDelayString = "${application.notification.stream.heartbeat-ms:25000}")
+  public void heartbeat() {
+    clients.values().stream()
+      .flatMap(Set::stream)
+      .distinct()
+      .forEach(client -> dispatcher.execute(() -> {
+        synchronized (client) {
+          try {
+            client.emitter.send(SseEmitter.event().comment("ping"));
+          } catch (IOException | IllegalStateException e) {
+            client.close();
+          }
+        }
+      }));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    dispatcher.shutdownNow();
+    clients.values().stream().flatMap(Set::stream).distinct().forEach(StreamClient::close);
+  }
+
+  // conexão nova (sem Last-Event-ID) recebe só eventos ao vivo; o histórico continua vindo da listagem
+  private void replay(StreamClient client, Long lastEventId) {
+    if (lastEventId == null) {
+      return;
+    }
+
+    List<Notification> missed = notificationRepository.findByRecipientIdInAndIdGreaterThanOrderByIdAsc(
+      client.recipientIds, lastEventId, PageRequest.of(0, replayLimit)
+    );
+    client.lastSentId = lastEventId;
+    for (Notification notification : missed) {
+      send(client, notification.getId(), NotificationResponse.fromEntity(notification));
+    }
+  }
+
+  private void send(StreamClient client, Long id, NotificationResponse payload) {
+    synchronized (client) {
+      if (client.closed || id <= client.lastSentId) {
+        return;
+      }
+      try {
+        client.emitter.send(SseEmitter.event()
+          .id(String.valueOf(id))
+          .name(EVENT_NAME)
+          .data(payload, MediaType.APPLICATION_JSON));
+        client.lastSentId = id;
+      } catch (IOException | IllegalStateException e) {
+        log.debug("Conexão SSE encerrada pelo cliente: {}", e.getMessage());
+        client.close();
+      }
+    }
+  }
+
+  private void unregister(StreamClient client) {
+    boolean removed = false;
+    for (String recipientId : client.recipientIds) {
+      Set<StreamClient> streams = clients.get(recipientId);
+      if (streams != null) {
+        removed |= streams.remove(client);
+        clients.computeIfPresent(recipientId, (id, set) -> set.isEmpty() ? null : set);
+      }
+    }
+    if (removed) {
+      openStreams.decrementAndGet();
+    }
+  }
+
+  private final class StreamClient {
+    private final SseEmitter emitter;
+    private final List<String> recipientIds;
+    private final long connectedSeq;
+    private volatile long lastSentId;
+    private volatile boolean closed;
+
+    private StreamClient(SseEmitter emitter, List<String> recipientIds, long connectedSeq) {
+      this.emitter = emitter;
+      this.recipientIds = recipientIds;
+      this.connectedSeq = connectedSeq;
+    }
+
+    private void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      unregister(this);
+      try {
+        emitter.complete();
+      } catch (Exception ignored) {
+        // já encerrado
+      }
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.hms.notification.util;
+
+import com.hms.common.exceptions.InvalidOperationException;
+import com.hms.notification.entities.Notification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Cursor da paginação keyset da caixa de notificações: (createdAt, id) do último item da página.
+// Vai para o cliente como string opaca.
+public record NotificationCursor(LocalDateTime createdAt, Long id) {
+
+  public static NotificationCursor of(Notification notification) {
+    return new NotificationCursor(notification.getCreatedAt(), notification.getId());
+  }
+
+  public String encode() {
+    String raw = createdAt + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static NotificationCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = raw.lastIndexOf('|');
+      return new NotificationCursor(
+        LocalDateTime.parse(raw.substring(0, separator)),
+        Long.valueOf(raw.substring(separator + 1))
+      );
+    } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+      throw new InvalidOperationException("Cursor de paginação inválido.");
+    }
+  }
+}
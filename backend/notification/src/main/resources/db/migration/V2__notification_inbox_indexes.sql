@@ -0,0 +1,13 @@
+-- ============================================================
+-- V2__notification_inbox_indexes.sql
+-- Índices da caixa de notificações
+-- ============================================================
+
+-- listagem paginada (keyset) por destinatário, mais recentes primeiro
+CREATE INDEX idx_notification_recipient_created ON notification (recipient_id, created_at, id);
+
+-- contagem de não lidas e "marcar todas como lidas"
+CREATE INDEX idx_notification_recipient_read ON notification (recipient_id, is_read);
+
+-- job de retenção (lidas e antigas)
+CREATE INDEX idx_notification_read_created ON notification (is_read, created_at);
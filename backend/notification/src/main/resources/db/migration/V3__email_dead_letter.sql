@@ -0,0 +1,16 @@
+-- ============================================================
+-- V3__email_dead_letter.sql
+-- E-mails que esgotaram as tentativas de envio
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS email_dead_letter (
+    id              BIGINT          NOT NULL AUTO_INCREMENT,
+    recipient       VARCHAR(255)    NOT NULL,
+    subject         VARCHAR(255)    NULL,
+    html_body       LONGTEXT        NULL,
+    attempts        INT             NOT NULL DEFAULT 0,
+    last_error      VARCHAR(1000)   NULL,
+    created_at      DATETIME(6)     NULL,
+
+    CONSTRAINT pk_email_dead_letter PRIMARY KEY (id)
+);
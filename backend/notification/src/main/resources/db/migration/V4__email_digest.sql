@@ -0,0 +1,20 @@
+-- ============================================================
+-- V4__email_digest.sql
+-- Itens pendentes do resumo diário por e-mail
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS email_digest_entry (
+    id              BIGINT          NOT NULL AUTO_INCREMENT,
+    recipient_email VARCHAR(255)    NOT NULL,
+    recipient_name  VARCHAR(255)    NULL,
+    type            VARCHAR(50)     NULL,
+    title           VARCHAR(255)    NULL,
+    message         VARCHAR(500)    NULL,
+    action_url      VARCHAR(1000)   NULL,
+    created_at      DATETIME(6)     NULL,
+
+    CONSTRAINT pk_email_digest_entry PRIMARY KEY (id)
+);
+
+-- envio diário: destinatários distintos com itens anteriores ao corte
+CREATE INDEX idx_email_digest_recipient_created ON email_digest_entry (recipient_email, created_at);
@@ -0,0 +1,17 @@
+-- ============================================================
+-- V5__processed_event.sql
+-- Eventos já processados por consumidor (idempotência dos listeners RabbitMQ)
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS processed_event (
+    consumer        VARCHAR(150)    NOT NULL,
+    event_id        VARCHAR(100)    NOT NULL,
+    completed       BOOLEAN         NOT NULL DEFAULT FALSE,
+    claimed_at      DATETIME(6)     NOT NULL,
+    completed_at    DATETIME(6)     NULL,
+
+    CONSTRAINT pk_processed_event PRIMARY KEY (consumer, event_id)
+);
+
+-- expurgo por TTL
+CREATE INDEX idx_processed_event_claimed_at ON processed_event (claimed_at);
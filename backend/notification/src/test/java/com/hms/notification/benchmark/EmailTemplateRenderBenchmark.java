@@ -0,0 +1,81 @@
+package com.hms.notification.benchmark;
+
+import com.hms.notification.mail.EmailTemplateRenderer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Renderizações por segundo: Thymeleaf a cada mensagem (caminho antigo) x EmailTemplateRenderer pré-compilado.
+//
+//   mvn -pl notification test-compile exec:java -Dexec.classpathScope=test \
+//     -Dexec.mainClass=com.hms.notification.benchmark.EmailTemplateRenderBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EmailTemplateRenderBenchmark {
+
+  private static final Map<String, Object> PASSWORD_RESET = Map.of(
+    "userName", "Maria Fernanda",
+    "resetLink", "https://hms.com/reset-password?token=4f9c2d7e-81b3-4a55-9e0f-1c2d3e4f5a6b",
+    "expirationMinutes", 30
+  );
+
+  private SpringTemplateEngine templateEngine;
+  private EmailTemplateRenderer renderer;
+
+  @Setup
+  public void setUp() {
+    SpringResourceTemplateResolver resolver = new SpringResourceTemplateResolver();
+    resolver.setApplicationContext(new GenericApplicationContext());
+    resolver.setPrefix("classpath:/templates/");
+    resolver.setSuffix(".html");
+    resolver.setCharacterEncoding("UTF-8");
+    resolver.setCacheable(true);
+    templateEngine = new SpringTemplateEngine();
+    templateEngine.setTemplateResolver(resolver);
+
+    renderer = new EmailTemplateRenderer(templateEngine, new DefaultResourceLoader(), new SimpleMeterRegistry(),
+      List.of("password-reset-email"), "classpath:/templates/", ".html");
+    renderer.precompile();
+  }
+
+  @Benchmark
+  public String thymeleafPerMessage() {
+    Context context = new Context();
+    context.setVariables(PASSWORD_RESET);
+    return templateEngine.process("password-reset-email", context);
+  }
+
+  @Benchmark
+  public String precompiled() {
+    return renderer.render("password-reset-email", PASSWORD_RESET);
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(EmailTemplateRenderBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -1,11 +1,17 @@
 package com.hms.notification.consumer;
 
 import com.hms.common.dto.event.EventEnvelope;
+import com.hms.common.exceptions.ServiceUnavailableException;
+import com.hms.notification.config.NotificationMessageRecoverer;
+import com.hms.notification.dto.event.AppointmentEvent;
 import com.hms.notification.dto.event.AppointmentStatusChangedEvent;
+import com.hms.notification.dto.event.ReviewNotificationEvent;
 import com.hms.notification.dto.event.StockLowEvent;
 import com.hms.notification.entities.Notification;
 import com.hms.notification.enums.NotificationType;
+import com.hms.notification.services.EmailDigestService;
 import com.hms.notification.services.EmailService;
+import com.hms.notification.services.NotificationCoalescer;
 import com.hms.notification.services.NotificationService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,30 +21,45 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.Mockito.times;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class NotificationConsumerTest {
 
   @Mock
-  private JavaMailSender mailSender;
+  private EmailService emailService;
 
   @Mock
-  private EmailService emailService;
+  private NotificationService notificationService;
 
   @Mock
-  private SpringTemplateEngine templateEngine;
+  private ConsumerLagMetrics lagMetrics;
 
   @Mock
-  private NotificationService notificationService;
+  private NotificationCoalescer coalescer;
+
+  @Mock
+  private EmailDigestService digestService;
 
   @InjectMocks
   private NotificationConsumer consumer;
@@ -46,6 +67,9 @@ class NotificationConsumerTest {
   @Captor
   private ArgumentCaptor<Notification> notificationCaptor;
 
+  @Captor
+  private ArgumentCaptor<List<Notification>> batchCaptor;
+
   @Test
   @DisplayName("Deve disparar notificação In-App de estoque baixo para o ADMIN")
   void handleLowStockEvent_ShouldSendAdminNotification() {
@@ -70,12 +94,13 @@ class NotificationConsumerTest {
   void handleStatusChange_PatientCanceled_ShouldNotifyBoth() {
     EventEnvelope<AppointmentStatusChangedEvent> envelope = getAppointmentStatusChangedEventEventEnvelope();
 
-    consumer.handleStatusChange(envelope);
+    consumer.handleStatusChanges(List.of(envelope));
 
-    // como o paciente engatilhou e cancelou, espera que sendNotification seja chamado 2 vezes (1 p/ paciente, 1 p/ médico)
-    verify(notificationService, times(2)).sendNotification(notificationCaptor.capture());
+    // como o paciente engatilhou e cancelou, o lote gravado tem 2 notificações (1 p/ paciente, 1 p/ médico)
+    verify(notificationService).sendNotifications(batchCaptor.capture());
 
-    var notifications = notificationCaptor.getAllValues();
+    var notifications = batchCaptor.getValue();
+    assertEquals(2, notifications.size());
 
     // verifica a notificação que foi para o paciente
     Notification patientNotif = notifications.getFirst();
@@ -91,6 +116,46 @@ class NotificationConsumerTest {
     assertTrue(doctorNotif.getMessage().contains("Maria"));
   }
 
+  @Test
+  @DisplayName("Com a fila de e-mail cheia o lote deve falhar e voltar para a fila do RabbitMQ")
+  void handleAppointmentReminders_WhenEmailQueueFull_ShouldRequeueBatch() {
+    doThrow(new ServiceUnavailableException("email-dispatch"))
+      .when(emailService).sendEmail(anyString(), anyString(), anyString());
+
+    AppointmentEvent payload = new AppointmentEvent(10L, 200L, 2000L, "Maria", "maria@teste.com", "Dr. House",
+      LocalDateTime.of(2026, 12, 1, 14, 30), null);
+    EventEnvelope<AppointmentEvent> envelope = new EventEnvelope<>();
+    envelope.setPayload(payload);
+
+    ServiceUnavailableException error = assertThrows(ServiceUnavailableException.class,
+      () -> consumer.handleAppointmentReminders(List.of(envelope)));
+    // o lote não é confirmado pela metade
+    verify(notificationService, never()).sendNotifications(any());
+
+    // esgotadas as tentativas, o recoverer devolve a mensagem à fila em vez de mandá-la para a dead letter
+    AmqpTemplate amqpTemplate = mock(AmqpTemplate.class);
+    NotificationMessageRecoverer recoverer = new NotificationMessageRecoverer(amqpTemplate, "notification.dead-letter.queue");
+    Message message = new Message(new byte[0], new MessageProperties());
+    assertThrows(ImmediateRequeueAmqpException.class, () -> recoverer.recover(List.of(message), error));
+    verifyNoInteractions(amqpTemplate);
+  }
+
+  @Test
+  @DisplayName("E-mail de nova avaliação deve ir para o resumo diário em vez de sair na hora")
+  void handleNewReviews_WhenReviewIsDigested_ShouldAddToDigestInsteadOfEmail() {
+    when(digestService.isDigested(NotificationType.NEW_REVIEW)).thenReturn(true);
+
+    ReviewNotificationEvent payload = new ReviewNotificationEvent("3000", "Gregory House", "house@hms.com", "Maria", 5, "Ótimo");
+    EventEnvelope<ReviewNotificationEvent> envelope = new EventEnvelope<>();
+    envelope.setPayload(payload);
+
+    consumer.handleNewReviews(List.of(envelope));
+
+    verify(digestService).add(eq("house@hms.com"), eq("Gregory House"), eq(NotificationType.NEW_REVIEW),
+      eq("Nova Avaliação Recebida"), anyString(), isNull());
+    verifyNoInteractions(emailService);
+  }
+
   private static EventEnvelope<AppointmentStatusChangedEvent> getAppointmentStatusChangedEventEventEnvelope() {
     LocalDateTime appointmentDate = LocalDateTime.of(2026, 12, 1, 14, 30);
 
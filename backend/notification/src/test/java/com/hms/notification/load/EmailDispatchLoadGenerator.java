@@ -0,0 +1,92 @@
+package com.hms.notification.load;
+
+import com.hms.notification.mail.EmailDispatcher;
+import com.hms.notification.mail.OutgoingEmail;
+import com.hms.notification.repositories.EmailDeadLetterRepository;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.mockito.Mockito;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Gerador de carga do envio de e-mails contra um SMTP local (GreenMail).
+// Compara o envio síncrono antigo (JavaMailSender.send, uma sessão SMTP por e-mail) com o EmailDispatcher.
+//
+// Não é um teste JUnit: sobe o próprio GreenMail.
+//
+//   mvn -pl notification test-compile exec:java -Dexec.classpathScope=test \
+//     -Dexec.mainClass=com.hms.notification.load.EmailDispatchLoadGenerator -Dexec.args="5000 4 50"
+//
+// Argumentos: total de e-mails, workers, tamanho do lote.
+public class EmailDispatchLoadGenerator {
+
+  public static void main(String[] args) throws Exception {
+    int total = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+    int workers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+    int batchSize = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+    String body = "<p>" + "Lembrete de consulta. ".repeat(40) + "</p>";
+
+    GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+    greenMail.start();
+    try {
+      JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+      mailSender.setHost("localhost");
+      mailSender.setPort(greenMail.getSmtp().getPort());
+
+      // baseline: como o EmailService fazia, na thread do chamador
+      long start = System.nanoTime();
+      for (int i = 0; i < total; i++) {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, StandardCharsets.UTF_8.name());
+        helper.setTo("sync" + i + "@hms.com");
+        helper.setSubject("Lembrete");
+        helper.setFrom("sistema@hms.com");
+        helper.setText(body, true);
+        mailSender.send(message);
+      }
+      report("síncrono", total, System.nanoTime() - start, 0);
+      greenMail.purgeEmailFromAllMailboxes();
+
+      SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+      EmailDispatcher dispatcher = new EmailDispatcher(
+        mailSender, Mockito.mock(EmailDeadLetterRepository.class), meterRegistry,
+        "sistema@hms.com", total, workers, batchSize, 5000, 30_000, 3, 500, 5000, 30_000
+      );
+      dispatcher.start();
+
+      start = System.nanoTime();
+      for (int i = 0; i < total; i++) {
+        dispatcher.enqueue(OutgoingEmail.of("async" + i + "@hms.com", "Lembrete", body));
+      }
+      long enqueueNanos = System.nanoTime() - start;
+      if (!greenMail.waitForIncomingEmail(120_000, total)) {
+        System.out.println("timeout aguardando entregas");
+      }
+      report("dispatcher", total, System.nanoTime() - start, enqueueNanos);
+
+      Timer latency = meterRegistry.get("notification.email.delivery.latency").timer();
+      System.out.printf("  latência de entrega: média %.1f ms, máx %.1f ms%n",
+        latency.mean(TimeUnit.MILLISECONDS), latency.max(TimeUnit.MILLISECONDS));
+      System.out.printf("  conexões SMTP abertas: %.0f%n", meterRegistry.get("notification.email.smtp.connections").counter().count());
+
+      dispatcher.shutdown();
+    } finally {
+      greenMail.stop();
+    }
+  }
+
+  private static void report(String label, int total, long nanos, long enqueueNanos) {
+    double seconds = nanos / 1_000_000_000.0;
+    System.out.printf("%s: %d e-mails em %.2f s (%.0f e-mails/s)", label, total, seconds, total / seconds);
+    if (enqueueNanos > 0) {
+      System.out.printf(", tempo na thread do chamador %.2f ms", enqueueNanos / 1_000_000.0);
+    }
+    System.out.println();
+  }
+}
@@ -0,0 +1,111 @@
+package com.hms.notification.mail;
+
+import com.hms.notification.entities.EmailDeadLetter;
+import com.hms.notification.repositories.EmailDeadLetterRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.net.ServerSocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EmailDispatcherTest {
+
+  @RegisterExtension
+  static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+  @Mock
+  private EmailDeadLetterRepository deadLetterRepository;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private EmailDispatcher dispatcher;
+
+  @AfterEach
+  void tearDown() {
+    if (dispatcher != null) {
+      dispatcher.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("Deve entregar todos os e-mails reaproveitando uma conexão SMTP por worker")
+  void enqueue_ShouldDeliverAllReusingConnections() throws Exception {
+    dispatcher = dispatcher(greenMail.getSmtp().getPort(), 2, 4);
+
+    for (int i = 0; i < 40; i++) {
+      dispatcher.enqueue(OutgoingEmail.of("paciente" + i + "@hms.com", "Assunto " + i, "<p>corpo " + i + "</p>"));
+    }
+
+    assertTrue(greenMail.waitForIncomingEmail(10_000, 40));
+    MimeMessage[] received = greenMail.getReceivedMessages();
+    assertEquals(40, received.length);
+    assertEquals("sistema@hms.com", received[0].getFrom()[0].toString());
+    assertTrue(meterRegistry.get("notification.email.smtp.connections").counter().count() <= 2);
+  }
+
+  @Test
+  @DisplayName("Deve tentar novamente com backoff e mover para a dead letter ao esgotar as tentativas")
+  void enqueue_WhenSmtpUnavailable_ShouldRetryThenDeadLetter() throws Exception {
+    int closedPort;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      closedPort = socket.getLocalPort();
+    }
+    dispatcher = dispatcher(closedPort, 1, 3);
+
+    dispatcher.enqueue(OutgoingEmail.of("medico@hms.com", "Resultado", "<p>pronto</p>"));
+
+    ArgumentCaptor<EmailDeadLetter> captor = ArgumentCaptor.forClass(EmailDeadLetter.class);
+    verify(deadLetterRepository, timeout(10_000)).save(captor.capture());
+    assertEquals("medico@hms.com", captor.getValue().getRecipient());
+    assertEquals(3, captor.getValue().getAttempts());
+    assertEquals(2, meterRegistry.get("notification.email.retried").counter().count());
+    assertEquals(1, meterRegistry.get("notification.email.dead.lettered").tag("reason", "exhausted").counter().count());
+  }
+
+  @Test
+  @DisplayName("Deve tratar recusa 4xx do SMTP como temporária e 5xx como permanente")
+  void isTransient_ShouldFollowSmtpReplyCode() throws Exception {
+    InternetAddress to = new InternetAddress("paciente@hms.com");
+    SendFailedException busy = new SendFailedException("Invalid Addresses",
+      new SMTPAddressFailedException(to, "RCPT TO", 450, "4.2.1 mailbox busy"));
+    SendFailedException unknown = new SendFailedException("Invalid Addresses",
+      new SMTPAddressFailedException(to, "RCPT TO", 550, "5.1.1 user unknown"));
+
+    assertTrue(EmailDispatcher.isTransient(busy));
+    assertFalse(EmailDispatcher.isTransient(unknown));
+    assertFalse(EmailDispatcher.isTransient(new SendFailedException("sem código")));
+  }
+
+  private EmailDispatcher dispatcher(int port, int workers, int maxAttempts) {
+    JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+    mailSender.setHost("localhost");
+    mailSender.setPort(port);
+    mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+
+    EmailDispatcher emailDispatcher = new EmailDispatcher(
+      mailSender, deadLetterRepository, meterRegistry,
+      "sistema@hms.com", 100, workers, 10, 1000, 30_000, maxAttempts, 50, 200, 5000
+    );
+    emailDispatcher.start();
+    return emailDispatcher;
+  }
+}
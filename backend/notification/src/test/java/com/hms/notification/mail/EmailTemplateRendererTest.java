@@ -0,0 +1,83 @@
+package com.hms.notification.mail;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailTemplateRendererTest {
+
+  private static final List<String> TEMPLATES = List.of("email-template", "lab-result-email", "password-reset-email");
+
+  private SpringTemplateEngine templateEngine;
+  private SimpleMeterRegistry meterRegistry;
+  private EmailTemplateRenderer renderer;
+
+  @BeforeEach
+  void setUp() {
+    SpringResourceTemplateResolver resolver = new SpringResourceTemplateResolver();
+    resolver.setApplicationContext(new GenericApplicationContext());
+    resolver.setPrefix("classpath:/templates/");
+    resolver.setSuffix(".html");
+    resolver.setCharacterEncoding("UTF-8");
+    templateEngine = new SpringTemplateEngine();
+    templateEngine.setTemplateResolver(resolver);
+
+    meterRegistry = new SimpleMeterRegistry();
+    renderer = new EmailTemplateRenderer(templateEngine, new DefaultResourceLoader(), meterRegistry,
+      TEMPLATES, "classpath:/templates/", ".html");
+    renderer.precompile();
+  }
+
+  @Test
+  @DisplayName("Deve pré-compilar os templates e gerar o mesmo HTML que o Thymeleaf")
+  void render_CompiledTemplates_ShouldMatchThymeleafOutput() {
+    TEMPLATES.forEach(template -> assertTrue(renderer.isCompiled(template), template));
+
+    Map<String, Object> passwordReset = Map.of(
+      "userName", "Ana <Souza> & Cia",
+      "resetLink", "https://hms.com/reset?token=a&b=\"c\"",
+      "expirationMinutes", 30
+    );
+    Map<String, Object> generic = Map.of("messageBody", "<h1>Código: 123</h1>", "subject", "Bem-vindo");
+    Map<String, Object> labResult = new HashMap<>();
+    labResult.put("doctorName", "Dr. José");
+    labResult.put("patientName", "João D'Ávila");
+    labResult.put("orderNumber", "LAB-1");
+    labResult.put("actionUrl", null);
+
+    assertEquals(thymeleaf("password-reset-email", passwordReset), renderer.render("password-reset-email", passwordReset));
+    assertEquals(thymeleaf("email-template", generic), renderer.render("email-template", generic));
+    assertEquals(thymeleaf("lab-result-email", labResult), renderer.render("lab-result-email", labResult));
+    assertTrue(renderer.render("email-template", generic).contains("Este é um e-mail automático"));
+    assertEquals(4, meterRegistry.get("notification.email.render").tag("mode", "compiled").timer().count());
+  }
+
+  @Test
+  @DisplayName("Deve usar o Thymeleaf quando o valor não tem representação simples")
+  void render_WithNonScalarValue_ShouldFallBackToThymeleaf() {
+    Map<String, Object> variables = Map.of("messageBody", LocalDate.of(2025, 1, 2), "subject", "Data");
+
+    assertEquals(thymeleaf("email-template", variables), renderer.render("email-template", variables));
+    assertEquals(1, meterRegistry.get("notification.email.render").tag("mode", "thymeleaf").timer().count());
+  }
+
+  private String thymeleaf(String template, Map<String, Object> variables) {
+    Context context = new Context();
+    context.setVariables(variables);
+    return templateEngine.process(template, context);
+  }
+}
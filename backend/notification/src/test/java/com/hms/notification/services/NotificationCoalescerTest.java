@@ -0,0 +1,104 @@
+package com.hms.notification.services;
+
+import com.hms.notification.entities.Notification;
+import com.hms.notification.enums.NotificationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationCoalescerTest {
+
+  @Mock
+  private NotificationService notificationService;
+
+  @Captor
+  private ArgumentCaptor<List<Notification>> batchCaptor;
+
+  private NotificationCoalescer coalescer;
+
+  @BeforeEach
+  void setUp() {
+    coalescer = new NotificationCoalescer(notificationService, new SimpleMeterRegistry(), true,
+      Set.of(NotificationType.NEW_MESSAGE), 60_000, 100);
+  }
+
+  @Test
+  @DisplayName("Deve liberar o primeiro evento na hora e agrupar os seguintes em uma notificação com título resumido")
+  void offer_SameRecipientAndSender_ShouldWriteFirstAndCoalesceTheRest() {
+    // primeiro evento abre o grupo e volta para o chamador gravar imediatamente
+    assertFalse(coalescer.offer(chat("10", "msg 1"), "7", count -> count + " novas mensagens de Ana"));
+    for (int i = 2; i <= 5; i++) {
+      assertTrue(coalescer.offer(chat("10", "msg " + i), "7", count -> count + " novas mensagens de Ana"));
+    }
+    assertFalse(coalescer.offer(chat("10", "oi"), "8", count -> count + " novas mensagens de Bruno"));
+    Notification retained = chat("10", "tudo bem?");
+    assertTrue(coalescer.offer(retained, "8", count -> count + " novas mensagens de Bruno"));
+
+    // a janela ainda não fechou
+    coalescer.flushExpired();
+    verify(notificationService, never()).sendNotifications(anyList());
+
+    coalescer.flushAll();
+    verify(notificationService).sendNotifications(batchCaptor.capture());
+    List<Notification> written = batchCaptor.getValue().stream()
+      .sorted(Comparator.comparing(Notification::getTitle))
+      .toList();
+
+    assertEquals(2, written.size());
+    assertEquals("4 novas mensagens de Ana", written.getFirst().getTitle());
+    assertEquals("msg 5", written.getFirst().getMessage());
+    assertEquals("10", written.getFirst().getRecipientId());
+    // um só evento retido sai como a notificação original
+    assertSame(retained, written.get(1));
+  }
+
+  @Test
+  @DisplayName("Não deve gravar resumo quando só houve o evento que abriu o grupo")
+  void flush_GroupWithOnlyLeadingEvent_ShouldWriteNothing() {
+    assertFalse(coalescer.offer(chat("10", "oi"), "7", count -> count + " novas mensagens de Ana"));
+
+    coalescer.flushAll();
+
+    verify(notificationService, never()).sendNotifications(anyList());
+  }
+
+  @Test
+  @DisplayName("Não deve agrupar tipos fora da configuração")
+  void offer_TypeNotConfigured_ShouldBeRejected() {
+    Notification alert = Notification.builder()
+      .recipientId("10")
+      .title("Exame Pronto")
+      .type(NotificationType.LAB_RESULT)
+      .build();
+
+    assertFalse(coalescer.offer(alert, null, count -> "x"));
+  }
+
+  private Notification chat(String recipientId, String message) {
+    return Notification.builder()
+      .recipientId(recipientId)
+      .title("Nova Mensagem")
+      .message(message)
+      .type(NotificationType.NEW_MESSAGE)
+      .build();
+  }
+}
@@ -0,0 +1,113 @@
+package com.hms.notification.services;
+
+import com.hms.notification.dto.response.NotificationPageResponse;
+import com.hms.notification.dto.response.NotificationResponse;
+import com.hms.notification.entities.Notification;
+import com.hms.notification.enums.NotificationType;
+import com.hms.notification.repositories.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class NotificationServiceTest {
+
+  @Autowired
+  private NotificationService notificationService;
+
+  @Autowired
+  private NotificationRetentionService retentionService;
+
+  @Autowired
+  private NotificationRepository notificationRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    notificationRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("Deve paginar por cursor sem repetir nem pular notificações")
+  void getUserNotifications_ShouldWalkAllPagesByCursor() {
+    for (int i = 0; i < 7; i++) {
+      notificationService.sendNotification(notification("10", "n" + i));
+    }
+    notificationService.sendNotification(notification("20", "outro usuário"));
+
+    List<String> titles = new ArrayList<>();
+    String cursor = null;
+    NotificationPageResponse page;
+    do {
+      page = notificationService.getUserNotifications("10", cursor, 3);
+      page.content().stream().map(NotificationResponse::title).forEach(titles::add);
+      cursor = page.nextCursor();
+    } while (page.hasMore());
+
+    assertEquals(List.of("n6", "n5", "n4", "n3", "n2", "n1", "n0"), titles);
+    assertNull(page.nextCursor());
+  }
+
+  @Test
+  @DisplayName("Deve marcar todas como lidas em um único UPDATE e remover apenas lidas antigas na retenção")
+  void markAllAsRead_AndRetention_ShouldAffectOnlyExpectedRows() {
+    notificationService.sendNotification(notification("10", "a"));
+    notificationService.sendNotification(notification("10", "b"));
+    notificationService.sendNotification(notification("30", "c"));
+
+    assertEquals(2, notificationService.markAllAsRead("10"));
+    assertEquals(0, notificationService.countUnread("10"));
+    assertEquals(1, notificationService.countUnread("30"));
+
+    // envelhece todas: só as lidas do usuário 10 devem sair
+    jdbcTemplate.update("UPDATE notification SET created_at = ?", LocalDateTime.now().minusDays(365));
+    assertEquals(2, retentionService.purgeOldReadNotifications());
+
+    List<Notification> remaining = notificationRepository.findAll();
+    assertEquals(1, remaining.size());
+    assertFalse(remaining.getFirst().isRead());
+    assertTrue(notificationService.getUserNotifications("10", null, 20).content().isEmpty());
+  }
+
+  @Test
+  @DisplayName("Deve gravar o lote em INSERTs multi-linha devolvendo os IDs gerados na ordem")
+  void sendNotifications_ShouldBatchInsertAndAssignIds() {
+    List<Notification> batch = new ArrayList<>();
+    for (int i = 0; i < 450; i++) {
+      batch.add(notification(String.valueOf(i % 3), "lote " + i));
+    }
+
+    notificationService.sendNotifications(batch);
+
+    assertEquals(450, notificationRepository.count());
+    for (Notification sent : batch) {
+      assertEquals(sent.getTitle(), notificationRepository.findById(sent.getId()).orElseThrow().getTitle());
+    }
+    assertEquals(150, notificationService.countUnread("0"));
+  }
+
+  private Notification notification(String recipientId, String title) {
+    Notification notification = new Notification();
+    notification.setRecipientId(recipientId);
+    notification.setTitle(title);
+    notification.setMessage(title);
+    notification.setType(NotificationType.STATUS_CHANGE);
+    return notification;
+  }
+}
@@ -0,0 +1,89 @@
+package com.hms.notification.services;
+
+import com.hms.notification.entities.Notification;
+import com.hms.notification.repositories.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationStreamServiceTest {
+
+  @Mock
+  private NotificationRepository notificationRepository;
+
+  private SimpleMeterRegistry meterRegistry;
+  private NotificationStreamService streamService;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    streamService = new NotificationStreamService(notificationRepository, meterRegistry, 60000, 50, 2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    streamService.shutdown();
+  }
+
+  @Test
+  @DisplayName("Deve reenviar as notificações posteriores ao Last-Event-ID ao reconectar")
+  void subscribe_WithLastEventId_ShouldReplayMissedNotifications() {
+    Notification missed = new Notification();
+    missed.setId(8L);
+    missed.setRecipientId("1");
+    when(notificationRepository.findByRecipientIdInAndIdGreaterThanOrderByIdAsc(List.of("1", "ADMIN"), 7L, PageRequest.of(0, 50)))
+      .thenReturn(List.of(missed));
+
+    streamService.subscribe(List.of("1", "ADMIN"), 7L);
+
+    verify(notificationRepository).findByRecipientIdInAndIdGreaterThanOrderByIdAsc(List.of("1", "ADMIN"), 7L, PageRequest.of(0, 50));
+    assertEquals(1, meterRegistry.get("notification.stream.connections").gauge().value());
+  }
+
+  @Test
+  @DisplayName("Não deve consultar o histórico em uma conexão nova e deve limitar as conexões por usuário")
+  void subscribe_WithoutLastEventId_ShouldNotReplayAndShouldCapStreams() {
+    streamService.subscribe(List.of("1"), null);
+    streamService.subscribe(List.of("1"), null);
+    streamService.subscribe(List.of("1"), null);
+
+    verify(notificationRepository, never()).findByRecipientIdInAndIdGreaterThanOrderByIdAsc(any(), any(), any());
+    assertEquals(2, meterRegistry.get("notification.stream.connections").gauge().value());
+  }
+
+  @Test
+  @DisplayName("Ao atingir o limite deve encerrar sempre a conexão mais antiga do usuário")
+  void subscribe_OverLimit_ShouldCloseOldestStream() throws Exception {
+    List<SseEmitter> emitters = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      emitters.add(streamService.subscribe(List.of("1"), null));
+    }
+
+    // encerradas não aceitam mais envios; as duas mais recentes continuam abertas
+    for (int i = 0; i < 4; i++) {
+      SseEmitter closed = emitters.get(i);
+      assertThrows(IllegalStateException.class, () -> closed.send("x"));
+    }
+    emitters.get(4).send("x");
+    emitters.get(5).send("x");
+    assertEquals(2, meterRegistry.get("notification.stream.connections").gauge().value());
+  }
+}
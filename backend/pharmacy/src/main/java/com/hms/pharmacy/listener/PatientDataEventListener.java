@@ -2,6 +2,7 @@ package com.hms.pharmacy.listener;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hms.common.dto.event.EventEnvelope;
+import com.hms.common.idempotency.IdempotentListener;
 import com.hms.pharmacy.config.RabbitMQConfig;
 import com.hms.pharmacy.dto.event.PatientEvent;
 import com.hms.pharmacy.dto.event.UserCreatedEvent;
@@ -22,6 +23,7 @@ public class PatientDataEventListener {
   private final ObjectMapper objectMapper;
 
   @RabbitListener(queues = RabbitMQConfig.USER_SYNC_QUEUE)
+  @IdempotentListener
   public void handleUserCreated(@Payload EventEnvelope<?> envelope) {
     UserCreatedEvent event = objectMapper.convertValue(envelope.getPayload(), UserCreatedEvent.class);
 
@@ -42,6 +44,7 @@ public class PatientDataEventListener {
   }
 
   @RabbitListener(queues = RabbitMQConfig.PATIENT_SYNC_QUEUE)
+  @IdempotentListener
   public void handlePatientEvent(@Payload EventEnvelope<?> envelope) {
     PatientEvent event = objectMapper.convertValue(envelope.getPayload(), PatientEvent.class);
 
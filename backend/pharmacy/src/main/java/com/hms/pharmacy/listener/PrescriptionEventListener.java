@@ -2,6 +2,7 @@ package com.hms.pharmacy.listener;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hms.common.dto.event.EventEnvelope;
+import com.hms.common.idempotency.IdempotentListener;
 import com.hms.pharmacy.config.RabbitMQConfig;
 import com.hms.pharmacy.dto.event.PrescriptionIssuedEvent;
 import com.hms.pharmacy.dto.event.StockLowEvent;
@@ -33,6 +34,7 @@ public class PrescriptionEventListener {
   private String exchange;
 
   @RabbitListener(queues = RabbitMQConfig.PRESCRIPTION_QUEUE)
+  @IdempotentListener
   public void handlePrescriptionEvent(EventEnvelope<?> envelope) {
     PrescriptionIssuedEvent event = objectMapper.convertValue(envelope.getPayload(), PrescriptionIssuedEvent.class);
 
@@ -1,6 +1,7 @@
 package com.hms.profile.consumer;
 
 import com.hms.common.dto.event.EventEnvelope;
+import com.hms.common.idempotency.IdempotentListener;
 import com.hms.profile.dto.event.UserCreatedEvent;
 import com.hms.profile.dto.event.UserUpdatedEvent;
 import com.hms.profile.entities.Doctor;
@@ -29,6 +30,7 @@ public class UserEventConsumer {
 
   @RabbitListener(queues = "${application.rabbitmq.user-created-queue}")
   @Transactional
+  @IdempotentListener
   public void consumeUserCreatedEvent(EventEnvelope<UserCreatedEvent> envelope) {
     UserCreatedEvent event = envelope.getPayload();
     log.info("Recebido envelope de criação de usuário [ID: {}, Correlation: {}]", envelope.getEventId(), envelope.getCorrelationId());
@@ -53,6 +55,7 @@ public class UserEventConsumer {
 
   @RabbitListener(queues = "${application.rabbitmq.user-updated-queue}")
   @Transactional
+  @IdempotentListener
   public void consumeUserUpdatedEvent(EventEnvelope<UserUpdatedEvent> envelope) {
     UserUpdatedEvent event = envelope.getPayload();
     log.info("Recebido envelope de atualização de usuário [ID: {}]", envelope.getEventId());
@@ -85,6 +88,7 @@ public class UserEventConsumer {
     Doctor doctor = new Doctor();
     doctor.setUserId(event.userId());
     doctor.setName(event.name());
+    doctor.setEmail(event.email());
     doctor.setCrmNumber(event.crm());
     doctorRepository.save(doctor);
     log.info("Perfil de Médico criado: {}", event.userId());
@@ -124,6 +128,7 @@ public class UserEventConsumer {
   private void updateDoctorProfile(UserUpdatedEvent event) {
     doctorRepository.findByUserId(event.userId()).ifPresent(doctor -> {
       if (event.name() != null) doctor.setName(event.name());
+      if (event.email() != null) doctor.setEmail(event.email());
       if (event.crm() != null) doctor.setCrmNumber(event.crm());
       if (event.specialization() != null) doctor.setSpecialization(event.specialization());
       if (event.department() != null) doctor.setDepartment(event.department());
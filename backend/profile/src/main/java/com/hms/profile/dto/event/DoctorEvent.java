@@ -1,12 +1,14 @@
 package com.hms.profile.dto.event;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 
 public record DoctorEvent(
   Long doctorId,
   Long userId,
   String fullName,
   String specialization,
+  BigDecimal consultationFee, // usado pelo read model do billing
   String eventType
 ) implements Serializable {
 }
\ No newline at end of file
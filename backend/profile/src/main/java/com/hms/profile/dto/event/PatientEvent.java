@@ -7,6 +7,7 @@ public record PatientEvent(
   Long userId,
   String fullName,
   String phoneNumber,
+  String cpf,
   String eventType // "CREATED", "UPDATED"
 ) implements Serializable {
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.hms.profile.dto.event;
 
 public record ReviewNotificationEvent(
   String doctorId,
+  String doctorName,
+  String doctorEmail,
   String patientName,
   Integer rating,
   String comment
@@ -24,6 +24,8 @@ public class Doctor {
 
   private String name;
 
+  private String email;
+
   private LocalDate dateOfBirth;
 
   @Column(unique = true, nullable = false)
@@ -202,7 +202,7 @@ public class DoctorServiceImpl implements DoctorService {
         doctor.getName(),
         doctor.getSpecialization(),
         activeIds.contains(doctor.getUserId()) ? "Em Consulta" : "Disponível",
-        doctor.getProfilePictureUrl()
+        ProfilePictureUrls.thumbnail(doctor.getProfilePictureUrl(), ProfilePictureUrls.AVATAR_SIZE)
       ))
       .collect(Collectors.toList());
   }
@@ -215,6 +215,7 @@ public class DoctorServiceImpl implements DoctorService {
         doctor.getUserId(),
         doctor.getName(),
         doctor.getSpecialization(),
+        doctor.getConsultationFee(),
         eventType
       );
 
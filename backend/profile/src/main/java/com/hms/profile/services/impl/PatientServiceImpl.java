@@ -191,6 +191,7 @@ public class PatientServiceImpl implements PatientService {
         patient.getUserId(),
         patient.getName(),
         patient.getPhoneNumber(),
+        patient.getCpf(),
         eventType
       );
 
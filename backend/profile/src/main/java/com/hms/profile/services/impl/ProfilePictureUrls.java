@@ -0,0 +1,19 @@
+package com.hms.profile.services.impl;
+
+// Fotos de perfil guardadas como URL do media-service ("/media/{id}?v=..."): em listagens vai a miniatura
+// (?size=) em vez da imagem em resolução cheia. URLs de fora do media-service ficam como estão.
+final class ProfilePictureUrls {
+
+  // avatar das listagens (painel de médicos, avaliações)
+  static final int AVATAR_SIZE = 64;
+
+  private ProfilePictureUrls() {
+  }
+
+  static String thumbnail(String url, int size) {
+    if (url == null || !url.startsWith("/media/")) {
+      return url;
+    }
+    return url + (url.contains("?") ? "&" : "?") + "size=" + size;
+  }
+}
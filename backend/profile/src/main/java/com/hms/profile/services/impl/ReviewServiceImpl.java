@@ -63,7 +63,7 @@ public class ReviewServiceImpl implements ReviewService {
     Review review = buildReview(request, doctor, patient);
     Review savedReview = reviewRepository.save(review);
 
-    sendReviewNotification(doctor.getUserId(), patient.getName(), savedReview.getRating(), savedReview.getComment());
+    sendReviewNotification(doctor, patient.getName(), savedReview.getRating(), savedReview.getComment());
     return mapToResponse(savedReview);
   }
 
@@ -79,7 +79,7 @@ public class ReviewServiceImpl implements ReviewService {
     review.setComment(request.comment());
     Review savedReview = reviewRepository.save(review);
 
-    sendReviewNotification(doctor.getUserId(), patient.getName(), savedReview.getRating(), savedReview.getComment());
+    sendReviewNotification(doctor, patient.getName(), savedReview.getRating(), savedReview.getComment());
     return mapToResponse(savedReview);
   }
 
@@ -155,8 +155,9 @@ public class ReviewServiceImpl implements ReviewService {
     }
   }
 
-  private void sendReviewNotification(Long doctorUserId, String patientName, Integer rating, String comment) {
-    ReviewNotificationEvent event = new ReviewNotificationEvent(String.valueOf(doctorUserId), patientName, rating, comment);
+  private void sendReviewNotification(Doctor doctor, String patientName, Integer rating, String comment) {
+    ReviewNotificationEvent event = new ReviewNotificationEvent(
+      String.valueOf(doctor.getUserId()), doctor.getName(), doctor.getEmail(), patientName, rating, comment);
     EventEnvelope<ReviewNotificationEvent> envelope = new EventEnvelope<>(
       UUID.randomUUID().toString(),
       "REVIEW_CREATED_OR_UPDATED",
@@ -189,7 +190,7 @@ public class ReviewServiceImpl implements ReviewService {
       r.getComment(),
       r.getCreatedAt(),
       patient != null ? patient.getName() : "Paciente Verificado",
-      patient != null ? patient.getProfilePictureUrl() : null
+      patient != null ? ProfilePictureUrls.thumbnail(patient.getProfilePictureUrl(), ProfilePictureUrls.AVATAR_SIZE) : null
     );
   }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+-- ============================================================
+-- V4__doctor_email.sql
+-- E-mail do médico, sincronizado pelos eventos de usuário (destino do e-mail de novas avaliações)
+-- ============================================================
+
+ALTER TABLE tb_doctors ADD COLUMN email VARCHAR(255) NULL;
@@ -19,13 +19,16 @@ import { BillingService } from "@/services";
 export function AdminInsurancePage() {
   const [invoices, setInvoices] = useState<Invoice[]>([]);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [processingId, setProcessingId] = useState<string | null>(null);
 
   const fetchInvoices = async () => {
     try {
       setLoading(true);
-      const data = await BillingService.getPendingInsuranceInvoices();
-      setInvoices(data);
+      const page = await BillingService.getPendingInsuranceInvoices();
+      setInvoices(page.content);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       toast.error("Erro ao carregar faturas pendentes.");
     } finally {
@@ -33,6 +36,21 @@ export function AdminInsurancePage() {
     }
   };
 
+  // a API pagina por cursor: cada página continua de onde a anterior parou
+  const fetchMore = async () => {
+    if (!nextCursor) return;
+    try {
+      setLoadingMore(true);
+      const page = await BillingService.getPendingInsuranceInvoices(nextCursor);
+      setInvoices((prev) => [...prev, ...page.content]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      toast.error("Erro ao carregar mais faturas.");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   useEffect(() => {
     fetchInvoices();
   }, []);
@@ -90,66 +108,83 @@ export function AdminInsurancePage() {
               Nenhum repasse pendente no momento.
             </div>
           ) : (
-            <Table>
-              <TableHeader>
-                <TableRow>
-                  <TableHead>Data Emissão</TableHead>
-                  <TableHead>ID Fatura</TableHead>
-                  <TableHead>Paciente (ID)</TableHead>
-                  <TableHead>Valor Coberto</TableHead>
-                  <TableHead>Status Paciente</TableHead>
-                  <TableHead className="text-right">Ação</TableHead>
-                </TableRow>
-              </TableHeader>
-              <TableBody>
-                {invoices.map((inv) => (
-                  <TableRow key={inv.id}>
-                    <TableCell>
-                      {new Date(inv.issuedAt).toLocaleDateString()}
-                    </TableCell>
-                    <TableCell className="font-mono text-xs text-muted-foreground">
-                      {inv.id.substring(0, 8)}...
-                    </TableCell>
-                    <TableCell>{inv.patientId}</TableCell>
-                    <TableCell className="font-bold text-green-600">
-                      {formatCurrency(inv.insuranceCovered)}
-                    </TableCell>
-                    <TableCell>
-                      {inv.patientPaidAt ? (
-                        <Badge
-                          variant="outline"
-                          className="text-green-600 border-green-200 bg-green-50"
-                        >
-                          Pago
-                        </Badge>
-                      ) : (
-                        <Badge
-                          variant="outline"
-                          className="text-orange-600 border-orange-200 bg-orange-50"
-                        >
-                          Pendente
-                        </Badge>
-                      )}
-                    </TableCell>
-                    <TableCell className="text-right">
-                      <Button
-                        size="sm"
-                        onClick={() => handleProcessPayment(inv.id)}
-                        disabled={!!processingId}
-                        className="bg-green-600 hover:bg-green-700 text-white"
-                      >
-                        {processingId === inv.id ? (
-                          <Loader2 className="h-4 w-4 animate-spin mr-2" />
+            <>
+              <Table>
+                <TableHeader>
+                  <TableRow>
+                    <TableHead>Data Emissão</TableHead>
+                    <TableHead>ID Fatura</TableHead>
+                    <TableHead>Paciente (ID)</TableHead>
+                    <TableHead>Valor Coberto</TableHead>
+                    <TableHead>Status Paciente</TableHead>
+                    <TableHead className="text-right">Ação</TableHead>
+                  </TableRow>
+                </TableHeader>
+                <TableBody>
+                  {invoices.map((inv) => (
+                    <TableRow key={inv.id}>
+                      <TableCell>
+                        {new Date(inv.issuedAt).toLocaleDateString()}
+                      </TableCell>
+                      <TableCell className="font-mono text-xs text-muted-foreground">
+                        {inv.id.substring(0, 8)}...
+                      </TableCell>
+                      <TableCell>{inv.patientId}</TableCell>
+                      <TableCell className="font-bold text-green-600">
+                        {formatCurrency(inv.insuranceCovered)}
+                      </TableCell>
+                      <TableCell>
+                        {inv.patientPaidAt ? (
+                          <Badge
+                            variant="outline"
+                            className="text-green-600 border-green-200 bg-green-50"
+                          >
+                            Pago
+                          </Badge>
                         ) : (
-                          <CheckCircle className="h-4 w-4 mr-2" />
+                          <Badge
+                            variant="outline"
+                            className="text-orange-600 border-orange-200 bg-orange-50"
+                          >
+                            Pendente
+                          </Badge>
                         )}
-                        Dar Baixa
-                      </Button>
-                    </TableCell>
-                  </TableRow>
-                ))}
-              </TableBody>
-            </Table>
+                      </TableCell>
+                      <TableCell className="text-right">
+                        <Button
+                          size="sm"
+                          onClick={() => handleProcessPayment(inv.id)}
+                          disabled={!!processingId}
+                          className="bg-green-600 hover:bg-green-700 text-white"
+                        >
+                          {processingId === inv.id ? (
+                            <Loader2 className="h-4 w-4 animate-spin mr-2" />
+                          ) : (
+                            <CheckCircle className="h-4 w-4 mr-2" />
+                          )}
+                          Dar Baixa
+                        </Button>
+                      </TableCell>
+                    </TableRow>
+                  ))}
+                </TableBody>
+              </Table>
+              {nextCursor && (
+                <div className="flex justify-center pt-4">
+                  <Button
+                    variant="outline"
+                    size="sm"
+                    onClick={fetchMore}
+                    disabled={loadingMore}
+                  >
+                    {loadingMore && (
+                      <Loader2 className="h-4 w-4 animate-spin mr-2" />
+                    )}
+                    Carregar mais
+                  </Button>
+                </div>
+              )}
+            </>
           )}
         </CardContent>
       </Card>
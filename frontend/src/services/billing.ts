@@ -3,6 +3,7 @@ import type { ApiResponse } from "@/types/api.types";
 import type {
   InsuranceProvider,
   Invoice,
+  InvoicePage,
   PatientInsurance,
 } from "@/types/billing.types";
 
@@ -50,10 +51,18 @@ export const downloadInvoicePdf = async (invoiceId: string): Promise<void> => {
 export const getDoctorInvoices = async (
   doctorId: string,
 ): Promise<Invoice[]> => {
-  const { data } = await api.get<ApiResponse<Invoice[]>>(
-    `/billing/invoices/doctor/${doctorId}`,
-  );
-  return data.data;
+  // o painel financeiro soma todas as faturas: percorre as páginas pelo cursor
+  const invoices: Invoice[] = [];
+  let cursor: string | undefined;
+  do {
+    const { data } = await api.get<ApiResponse<InvoicePage>>(
+      `/billing/invoices/doctor/${doctorId}`,
+      { params: { cursor, size: 100 } },
+    );
+    invoices.push(...data.data.content);
+    cursor = data.data.nextCursor ?? undefined;
+  } while (cursor);
+  return invoices;
 };
 
 // INSURANCE
@@ -82,9 +91,13 @@ export const getProviders = async (): Promise<InsuranceProvider[]> => {
   ] as InsuranceProvider[];
 };
 
-export const getPendingInsuranceInvoices = async (): Promise<Invoice[]> => {
-  const { data } = await api.get<ApiResponse<Invoice[]>>(
+// primeira página (mais antigas); as demais via cursor
+export const getPendingInsuranceInvoices = async (
+  cursor?: string,
+): Promise<InvoicePage> => {
+  const { data } = await api.get<ApiResponse<InvoicePage>>(
     "/billing/invoices/pending-insurance",
+    { params: { cursor } },
   );
   return data.data;
 };
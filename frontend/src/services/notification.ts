@@ -1,13 +1,15 @@
 import api from "@/config/axios";
 import type { ApiResponse } from "@/types/api.types";
-import type { Notification } from "@/types/notification.types";
+import type { NotificationPage } from "@/types/notification.types";
 
 // NOTIFICATIONS
 export const getUserNotifications = async (
   userId: string | number,
-): Promise<Notification[]> => {
-  const { data } = await api.get<ApiResponse<Notification[]>>(
+  cursor?: string,
+): Promise<NotificationPage> => {
+  const { data } = await api.get<ApiResponse<NotificationPage>>(
     `/notifications/user/${userId}`,
+    { params: { cursor } },
   );
   return data.data;
 };
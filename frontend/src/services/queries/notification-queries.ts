@@ -12,7 +12,9 @@ export const notificationKeys = {
 export const useUserNotifications = (userId: string | number | undefined) => {
   return useQuery({
     queryKey: notificationKeys.user(userId!),
-    queryFn: () => NotificationService.getUserNotifications(userId!),
+    // primeira página (mais recentes); as demais via cursor
+    queryFn: async () =>
+      (await NotificationService.getUserNotifications(userId!)).content,
     enabled: !!userId,
     refetchInterval: 30000,
   });
@@ -37,3 +37,9 @@ export interface Invoice {
   patientPaidAt?: string;
   insurancePaidAt?: string;
 }
+
+export interface InvoicePage {
+  content: Invoice[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
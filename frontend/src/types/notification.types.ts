@@ -65,3 +65,9 @@ export interface Notification {
   read: boolean;
   createdAt: string;
 }
+
+export interface NotificationPage {
+  content: Notification[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}